@@ -1,23 +1,41 @@
 package com.nikoladesnica.mastermind.api;
 
+import com.nikoladesnica.mastermind.api.dto.AccountGamesView;
 import com.nikoladesnica.mastermind.api.dto.CreateAccountRequest;
 import com.nikoladesnica.mastermind.api.dto.CreateAccountResponse;
 import com.nikoladesnica.mastermind.api.dto.LoginRequest;
 import com.nikoladesnica.mastermind.api.dto.LoginResponse;
+import com.nikoladesnica.mastermind.domain.model.AccountGame;
+import com.nikoladesnica.mastermind.domain.model.Player;
 import com.nikoladesnica.mastermind.domain.ports.AccountRepository;
+import com.nikoladesnica.mastermind.domain.ports.GameRepository;
+import com.nikoladesnica.mastermind.domain.ports.RoomRepository;
 import com.nikoladesnica.mastermind.domain.service.AccountService;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.util.UUID;
+
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AccountController {
 
     private final AccountService accounts;
     private final AccountRepository repo;
+    private final GameRepository games;
+    private final RoomRepository rooms;
+    private final RoomService roomService;
 
-    public AccountController(AccountService accounts, AccountRepository repo) {
+    public AccountController(AccountService accounts, AccountRepository repo, GameRepository games,
+                             RoomRepository rooms, RoomService roomService) {
         this.accounts = accounts;
         this.repo = repo;
+        this.games = games;
+        this.rooms = rooms;
+        this.roomService = roomService;
     }
 
     @PostMapping("/accounts")
@@ -31,4 +49,46 @@ public class AccountController {
         var token = accounts.login(req.username(), req.password());
         return ResponseEntity.ok(new LoginResponse(token));
     }
+
+    /**
+     * Games and room seats attributed to the account (started or joined with its {@code X-Session-Token}),
+     * newest first. Each page costs O(limit): the index is walked from the cursor and each entry's status is
+     * one lookup in whichever repository holds the game or room.
+     */
+    @GetMapping("/api/accounts/{id}/games")
+    public ResponseEntity<AccountGamesView> games(@PathVariable UUID id,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(Mappers.view(accounts.history(id, cursor, limit), games, rooms, roomService));
+    }
+
+    public static class Mappers {
+        public static AccountGamesView view(AccountService.HistoryPage page, GameRepository games,
+                                            RoomRepository rooms, RoomService roomService) {
+            var items = page.games().stream().map(g -> item(g, games, rooms, roomService)).toList();
+            return new AccountGamesView(items, page.nextCursor());
+        }
+
+        private static AccountGamesView.Item item(AccountGame g, GameRepository games, RoomRepository rooms,
+                                                  RoomService roomService) {
+            if (g.kind() == AccountGame.Kind.GAME) {
+                return games.findById(g.id())
+                        .map(game -> summary(g, game.status().name(), game.historyCount(), game.finishedAt()))
+                        .orElseGet(() -> summary(g, null, null, null));
+            }
+            return rooms.findById(g.id())
+                    .map(room -> roomService.read(room, r -> {
+                        Player p = r.players().get(g.playerId());
+                        return p == null ? summary(g, null, null, null)
+                                : summary(g, p.status().name(), p.attemptsUsed(), p.finishedAt());
+                    }))
+                    .orElseGet(() -> summary(g, null, null, null));
+        }
+
+        private static AccountGamesView.Item summary(AccountGame g, String status, Integer attemptsUsed,
+                                                     Instant finishedAt) {
+            return new AccountGamesView.Item(g.kind().name(), g.id(), g.playerId(), g.at(), status, attemptsUsed,
+                    finishedAt);
+        }
+    }
 }
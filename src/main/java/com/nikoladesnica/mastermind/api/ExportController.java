@@ -0,0 +1,140 @@
+package com.nikoladesnica.mastermind.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nikoladesnica.mastermind.api.dto.ExportedGame;
+import com.nikoladesnica.mastermind.api.dto.ExportedRoom;
+import com.nikoladesnica.mastermind.api.dto.GameView;
+import com.nikoladesnica.mastermind.api.dto.RoomView;
+import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
+import com.nikoladesnica.mastermind.domain.model.FinishCursor;
+import com.nikoladesnica.mastermind.domain.model.Game;
+import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.service.GameService;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Bulk export of finished games and rooms for analytics, as NDJSON in finish order.
+ * Entities are read one at a time from the repositories' finish-order index and written straight to the
+ * response, so memory use does not depend on how many are exported. A slow client blocks the writer
+ * (the servlet output buffer is the only buffering), which in turn stops reading.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/admin/export")
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int FLUSH_EVERY = 256; // lines; lets the client see progress on big exports
+
+    private final GameService games;
+    private final RoomService rooms;
+    private final ObjectMapper mapper;
+
+    public ExportController(GameService games, RoomService rooms, ObjectMapper mapper) {
+        this.games = games;
+        this.rooms = rooms;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Finished games after {@code cursor} (all if absent), at most {@code limit} (0 = no limit).
+     * Every line carries its own cursor, so an interrupted export resumes from the last line received.
+     */
+    @GetMapping("/games")
+    public ResponseEntity<StreamingResponseBody> games(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "0") long limit,
+                                                       HttpServletRequest request) {
+        FinishCursor after = FinishCursor.parse(cursor);
+        return stream(request, () -> games.finishedAfter(after), Mappers::game, limit);
+    }
+
+    /** Same as {@link #games} for rooms; each line is a consistent snapshot of one room. */
+    @GetMapping("/rooms")
+    public ResponseEntity<StreamingResponseBody> rooms(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "0") long limit,
+                                                       HttpServletRequest request) {
+        FinishCursor after = FinishCursor.parse(cursor);
+        return stream(request, () -> rooms.finishedAfter(after), r -> rooms.read(r, Mappers::room), limit);
+    }
+
+    private <E, T> ResponseEntity<StreamingResponseBody> stream(HttpServletRequest request,
+                                                                Supplier<Stream<E>> source,
+                                                                Function<E, T> toLine,
+                                                                long limit) {
+        if (limit < 0) throw new BadRequestException("limit must be >= 0");
+
+        // An export runs as long as the data takes; the servlet async timeout is sized for long-polls
+        AsyncWebRequest async = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (async != null) async.setTimeout(0L);
+
+        StreamingResponseBody body = out -> {
+            try (Stream<E> entities = source.get()) {
+                Iterator<E> it = (limit > 0 ? entities.limit(limit) : entities).iterator();
+                int written = 0;
+                while (it.hasNext()) {
+                    out.write(mapper.writeValueAsBytes(toLine.apply(it.next())));
+                    out.write('\n');
+                    if (++written % FLUSH_EVERY == 0) out.flush();
+                }
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    public static class Mappers {
+        public static ExportedGame game(Game g) {
+            var history = g.history().stream()
+                    .map(e -> new GameView.HistoryEntry(
+                            e.guess().digits(), e.feedback().correctPositions(), e.feedback().correctNumbers(), e.at()))
+                    .toList();
+            return new ExportedGame(
+                    new FinishCursor(g.finishedAt(), g.id()).toString(),
+                    g.id(),
+                    g.status().name(),
+                    g.secret().digits(),
+                    g.maxAttempts(),
+                    history.size(),
+                    g.startedAt(),
+                    g.finishedAt(),
+                    history
+            );
+        }
+
+        public static ExportedRoom room(Room r) {
+            var players = r.players().values().stream()
+                    .map(p -> new ExportedRoom.Player(
+                            p.id(), p.name(), p.status().name(), p.attemptsUsed(), p.bestCorrectPositions(), p.finishedAt(),
+                            p.history().stream()
+                                    .map(e -> new RoomView.HistoryEntry(
+                                            e.guess().digits(), e.feedback().correctPositions(), e.feedback().correctNumbers(), e.at()))
+                                    .toList()))
+                    .toList();
+            return new ExportedRoom(
+                    new FinishCursor(r.finishedAt(), r.roomId()).toString(),
+                    r.roomId(),
+                    r.createdAt(),
+                    r.startedAt(),
+                    r.finishedAt(),
+                    r.secret() == null ? null : r.secret().digits(),
+                    players
+            );
+        }
+    }
+}
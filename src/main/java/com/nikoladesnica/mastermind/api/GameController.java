@@ -1,80 +1,231 @@
 package com.nikoladesnica.mastermind.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nikoladesnica.mastermind.api.dto.BatchGuessRequest;
+import com.nikoladesnica.mastermind.api.dto.BatchGuessResult;
 import com.nikoladesnica.mastermind.api.dto.GameView;
 import com.nikoladesnica.mastermind.api.dto.GuessRequest;
 import com.nikoladesnica.mastermind.api.dto.NewGameRequest;
 import com.nikoladesnica.mastermind.api.dto.NewGameResponse;
+import com.nikoladesnica.mastermind.api.view.IdempotencyCache;
+import com.nikoladesnica.mastermind.api.wire.BinaryCodec;
+import com.nikoladesnica.mastermind.api.wire.Wire;
+import com.nikoladesnica.mastermind.domain.errors.NotFoundException;
 import com.nikoladesnica.mastermind.domain.model.Game;
 import com.nikoladesnica.mastermind.domain.model.GameStatus;
 import com.nikoladesnica.mastermind.domain.service.GameService;
+import com.nikoladesnica.mastermind.util.RequestTrace;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.UUID;
 
 // Accounts & Leaderboard Extension
 import com.nikoladesnica.mastermind.domain.service.AccountService;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api")
 public class GameController {
 
     private final GameService service;
     private final AccountService accountService;
+    private final ViewResponses responses;
+    private final ObjectMapper mapper;
+    private final IdempotencyCache idempotency;
 
-    public GameController(GameService service, AccountService accountService) {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    public GameController(GameService service, AccountService accountService, ViewResponses responses,
+                          ObjectMapper mapper, IdempotencyCache idempotency) {
         this.service = service;
         this.accountService = accountService;
+        this.responses = responses;
+        this.mapper = mapper;
+        this.idempotency = idempotency;
     }
 
     @PostMapping("/games")
-    public ResponseEntity<NewGameResponse> start(@RequestBody(required = false) NewGameRequest req) {
+    public ResponseEntity<NewGameResponse> start(@RequestHeader(value = "X-Session-Token", required = false) UUID sessionToken,
+                                                 @RequestBody(required = false) NewGameRequest req) {
         // For v1, we ignore overrides; could add dynamic config later.
+        UUID accountId = sessionToken == null ? null : accountService.accountIdFromSession(sessionToken);
         Game game = service.startGame();
+        if (accountId != null) accountService.recordGame(accountId, game.id(), game.startedAt());
         return ResponseEntity.ok(new NewGameResponse(game.id(), game.attemptsLeft(), game.status().name()));
     }
 
+    /**
+     * Responds with the status plus only the new entry by default, so the cost does not grow with the history;
+     * {@code view}/{@code historyFrom}/{@code historyLimit} select another projection, as for {@link #get}.
+     * With an {@code Idempotency-Key}, a retry returns the original response without guessing again.
+     */
     @PostMapping("/games/{id}/guesses")
-    public ResponseEntity<GameView> guess(@PathVariable UUID id,
+    public ResponseEntity<byte[]> guess(@PathVariable UUID id,
                                           @RequestHeader(value = "X-Session-Token", required = false) UUID sessionToken,
+                                          @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey,
+                                          @RequestParam(required = false) String view,
+                                          @RequestParam(required = false) Integer historyFrom,
+                                          @RequestParam(required = false) Integer historyLimit,
                                           @Valid @RequestBody GuessRequest req) {
-        Game game = service.submitGuess(id, req.digits());
+        GameProjection projection = GameProjection.parse(view, historyFrom, historyLimit, GameProjection.LATEST);
+        if (idempotencyKey == null) {
+            return applyGuess(id, sessionToken, req, projection);
+        }
+        String fingerprint = IdempotencyCache.fingerprint(req.digits(), projection, Wire.binaryRequested());
+        return idempotency.execute("game:" + id, idempotencyKey, fingerprint,
+                () -> applyGuess(id, sessionToken, req, projection));
+    }
 
-        if (sessionToken != null && game.status() == GameStatus.WON) {
+    private ResponseEntity<byte[]> applyGuess(UUID id, UUID sessionToken, GuessRequest req, GameProjection projection) {
+        GameService.GuessOutcome outcome = service.guess(id, req.digits());
+
+        if (sessionToken != null && outcome.won()) {
             UUID accountId = accountService.accountIdFromSession(sessionToken);
             accountService.recordWin(accountId);
         }
-        
-        return ResponseEntity.ok(Mappers.view(game));
+
+        return respond(outcome.game(), projection);
+    }
+
+    /**
+     * Many guesses, possibly for many games, in one request. Results stream back as NDJSON, one line per item
+     * in completion order (grouped by game); a rejected item reports its own error and the rest still apply.
+     * With {@code Accept: application/x-mastermind} the results are binary messages back to back instead.
+     */
+    @PostMapping("/games/guesses/batch")
+    public ResponseEntity<StreamingResponseBody> guessBatch(@RequestHeader(value = "X-Session-Token", required = false) UUID sessionToken,
+                                                            @Valid @RequestBody BatchGuessRequest req) {
+        UUID accountId = sessionToken == null ? null : accountService.accountIdFromSession(sessionToken);
+        List<GameService.BatchGuess> items = req.guesses().stream()
+                .map(i -> new GameService.BatchGuess(i.gameId(), i.digits()))
+                .toList();
+
+        boolean binary = Wire.binaryRequested();
+        StreamingResponseBody body = out -> {
+            try {
+                service.submitBatch(items, outcome -> {
+                    if (accountId != null && outcome.won()) {
+                        accountService.recordWin(accountId);
+                    }
+                    write(out, Mappers.result(outcome), binary);
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(binary ? Wire.BINARY : NDJSON).varyBy(HttpHeaders.ACCEPT).body(body);
     }
 
+    /**
+     * Full history by default. {@code view=status} drops the history, {@code view=latest} keeps only the newest
+     * entry, and {@code historyFrom}/{@code historyLimit} page through it.
+     */
     @GetMapping("/games/{id}")
-    public ResponseEntity<GameView> get(@PathVariable UUID id) {
-        return ResponseEntity.ok(Mappers.view(service.getGame(id)));
+    public ResponseEntity<byte[]> get(@PathVariable UUID id,
+                                      @RequestParam(required = false) String view,
+                                      @RequestParam(required = false) Integer historyFrom,
+                                      @RequestParam(required = false) Integer historyLimit) {
+        GameProjection projection = GameProjection.parse(view, historyFrom, historyLimit, GameProjection.FULL);
+        return respond(service.getGame(id), projection);
+    }
+
+    // Binary results are self-delimiting; JSON ones are newline-delimited
+    private void write(OutputStream out, BatchGuessResult result, boolean binary) {
+        try {
+            if (binary) {
+                out.write(BinaryCodec.encode(result));
+                return;
+            }
+            out.write(mapper.writeValueAsBytes(result));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResponseEntity<byte[]> respond(Game game, GameProjection projection) {
+        return responses.game(game, projection, Wire.binaryRequested());
     }
 
     // Tiny mapper as a nested helper (keeps API separate from domain)
-    static class Mappers {
-        static GameView view(Game g) {
-            boolean canGuess = g.status() == GameStatus.IN_PROGRESS;
-            String message = canGuess ? null : "Game finished (" + g.status().name() + "). Start a new game.";
-
-            var history = g.history().stream()
-                    .map(e -> new GameView.HistoryEntry(
-                            e.guess().digits(),
-                            e.feedback().correctPositions(),
-                            e.feedback().correctNumbers(),
-                            e.at()))
-                    .toList();
+    public static class Mappers {
+        public static BatchGuessResult result(GameService.GuessOutcome o) {
+            if (o.error() != null) {
+                int code = o.error() instanceof NotFoundException ? 404 : 400;
+                return new BatchGuessResult(o.index(), o.gameId(), null, null, null, null, code, o.error().getMessage());
+            }
+            Game.Snapshot g = o.game().snapshot();
+            Game.Entry e = o.entry();
+            return new BatchGuessResult(
+                    o.index(),
+                    o.gameId(),
+                    e == null ? null : e.feedback().correctPositions(),
+                    e == null ? null : e.feedback().correctNumbers(),
+                    g.status().name(),
+                    g.attemptsLeft(),
+                    null,
+                    null);
+        }
+
+        // Only the selected entries are copied and mapped
+        public static GameView view(Game g, GameProjection p) {
+            return view(g, g.snapshot(), p);
+        }
+
+        /** View of {@code g} as of {@code s}, whatever guesses landed since (so it matches {@code s.version()}). */
+        public static GameView view(Game g, Game.Snapshot s, GameProjection p) {
+            long t0 = RequestTrace.start();
+            try {
+                return build(g, s, p);
+            } finally {
+                RequestTrace.stop(RequestTrace.Stage.MAPPING, t0);
+            }
+        }
+
+        private static GameView build(Game g, Game.Snapshot s, GameProjection p) {
+            boolean canGuess = s.status() == GameStatus.IN_PROGRESS;
+            String message = canGuess ? null : "Game finished (" + s.status().name() + "). Start a new game.";
+
+            int count = s.historyCount();
+            Integer from = switch (p.mode()) {
+                case FULL, STATUS -> null;
+                case LATEST -> Math.max(0, count - 1);
+                case RANGE -> Math.min(p.from(), count);
+            };
+            List<GameView.HistoryEntry> history = null;
+            if (p.mode() != GameProjection.Mode.STATUS) {
+                int start = from == null ? 0 : from;
+                int end = p.mode() == GameProjection.Mode.RANGE && p.limit() >= 0
+                        ? (int) Math.min(count, (long) start + p.limit())
+                        : count;
+                history = g.historyRange(start, end).stream()
+                        .map(e -> new GameView.HistoryEntry(
+                                e.guess().digits(),
+                                e.feedback().correctPositions(),
+                                e.feedback().correctNumbers(),
+                                e.at()))
+                        .toList();
+            }
 
             return new GameView(
                     g.id(),
-                    g.status().name(),
-                    g.attemptsLeft(),
+                    s.status().name(),
+                    s.attemptsLeft(),
                     canGuess,
                     message,
-                    history.size(),
+                    count,
+                    from,
                     history
             );
         }
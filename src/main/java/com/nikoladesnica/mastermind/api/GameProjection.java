@@ -0,0 +1,64 @@
+package com.nikoladesnica.mastermind.api;
+
+import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
+
+/**
+ * Which part of a game's history a {@link com.nikoladesnica.mastermind.api.dto.GameView} carries.
+ * Building a view costs O(entries included), so clients that only need the status or the newest
+ * feedback never pay for a long history.
+ */
+public record GameProjection(Mode mode, int from, int limit) {
+
+    public enum Mode {
+        FULL,    // whole history
+        STATUS,  // no history, only status and counters
+        LATEST,  // only the newest entry
+        RANGE    // history[from, from + limit)
+    }
+
+    public static final GameProjection FULL = new GameProjection(Mode.FULL, 0, -1);
+    public static final GameProjection STATUS = new GameProjection(Mode.STATUS, 0, -1);
+    public static final GameProjection LATEST = new GameProjection(Mode.LATEST, 0, -1);
+
+    /**
+     * @param view         "full", "status", "latest" or "range"; null picks {@code fallback} unless a range is given
+     * @param historyFrom  first history index to include (0-based); only with view "range" or no view
+     * @param historyLimit maximum number of entries to include; only with view "range" or no view
+     */
+    public static GameProjection parse(String view, Integer historyFrom, Integer historyLimit, GameProjection fallback) {
+        boolean ranged = historyFrom != null || historyLimit != null;
+        if (historyFrom != null && historyFrom < 0) throw new BadRequestException("historyFrom must be >= 0");
+        if (historyLimit != null && historyLimit < 0) throw new BadRequestException("historyLimit must be >= 0");
+        if (view == null) {
+            if (!ranged) return fallback;
+        } else {
+            Mode mode = switch (view) {
+                case "full" -> Mode.FULL;
+                case "status" -> Mode.STATUS;
+                case "latest" -> Mode.LATEST;
+                case "range" -> Mode.RANGE;
+                default -> throw new BadRequestException("view must be one of full, status, latest, range");
+            };
+            // A range next to another view would be silently ignored or would silently change the view
+            if (ranged && mode != Mode.RANGE) {
+                throw new BadRequestException("historyFrom/historyLimit only apply to view=range");
+            }
+            if (mode == Mode.FULL) return FULL;
+            if (mode == Mode.STATUS) return STATUS;
+            if (mode == Mode.LATEST) return LATEST;
+        }
+        return new GameProjection(Mode.RANGE,
+                historyFrom == null ? 0 : historyFrom,
+                historyLimit == null ? -1 : historyLimit);
+    }
+
+    /** ViewCache variant for this projection, or null when it is too specific to be worth caching. */
+    public String cacheVariant() {
+        return switch (mode) {
+            case FULL -> "game";
+            case STATUS -> "game.status";
+            case LATEST -> "game.latest";
+            case RANGE -> null;
+        };
+    }
+}
@@ -3,12 +3,14 @@ package com.nikoladesnica.mastermind.api;
 import com.nikoladesnica.mastermind.api.dto.LeaderboardEntry;
 import com.nikoladesnica.mastermind.domain.ports.AccountRepository;
 import com.nikoladesnica.mastermind.domain.ports.LeaderboardRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class LeaderboardController {
 
     private final LeaderboardRepository leaderboard;
@@ -0,0 +1,101 @@
+package com.nikoladesnica.mastermind.api;
+
+import com.nikoladesnica.mastermind.api.dto.EnqueueRequest;
+import com.nikoladesnica.mastermind.api.dto.EnqueueResponse;
+import com.nikoladesnica.mastermind.api.dto.MatchResponse;
+import com.nikoladesnica.mastermind.api.dto.MatchmakingStatsView;
+import com.nikoladesnica.mastermind.domain.errors.NotFoundException;
+import com.nikoladesnica.mastermind.domain.model.Ticket;
+import com.nikoladesnica.mastermind.domain.service.AccountService;
+import com.nikoladesnica.mastermind.domain.service.MatchmakingService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/matchmaking")
+public class MatchmakingController {
+
+    private static final long MAX_WAIT_MS = 25_000; // stay under the servlet async timeout
+
+    private final MatchmakingService matchmaking;
+    private final AccountService accountService;
+
+    public MatchmakingController(MatchmakingService matchmaking, AccountService accountService) {
+        this.matchmaking = matchmaking;
+        this.accountService = accountService;
+    }
+
+    @PostMapping("/enqueue")
+    public ResponseEntity<EnqueueResponse> enqueue(@RequestHeader(value = "X-Session-Token", required = false) UUID sessionToken,
+                                                   @RequestBody(required = false) EnqueueRequest req) {
+        UUID accountId = sessionToken == null ? null : accountService.accountIdFromSession(sessionToken);
+        int rating = accountId == null ? 0 : accountService.rating(accountId);
+        Ticket t = matchmaking.enqueue(req == null ? null : req.name(), accountId, rating);
+        return ResponseEntity.ok(new EnqueueResponse(t.id(), rating, matchmaking.queueDepth()));
+    }
+
+    /**
+     * Long-poll: answers as soon as the ticket is matched, or with 202 WAITING after {@code waitMs};
+     * a ticket that expired unmatched or was withdrawn answers 410. The request thread is released while waiting.
+     */
+    @GetMapping("/tickets/{ticketId}")
+    public CompletableFuture<ResponseEntity<MatchResponse>> ticket(@PathVariable UUID ticketId,
+                                                                   @RequestParam(defaultValue = "0") long waitMs) {
+        Ticket t = matchmaking.ticket(ticketId).orElseThrow(() -> new NotFoundException("Ticket not found"));
+        ResponseEntity<MatchResponse> waiting = ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new MatchResponse(t.id(), "WAITING", null, null, null));
+        if (waitMs <= 0 && !t.match().isDone()) {
+            return CompletableFuture.completedFuture(waiting);
+        }
+        return t.match()
+                .handle((m, e) -> {
+                    if (e == null) {
+                        return ResponseEntity.ok(new MatchResponse(t.id(), "MATCHED", m.roomId(), m.playerId(), m.playerToken()));
+                    }
+                    if (t.withdrawn()) return ResponseEntity.status(HttpStatus.GONE).body(Mappers.withdrawn(t));
+                    throw e instanceof CompletionException ce ? ce : new CompletionException(e);
+                })
+                .completeOnTimeout(waiting, Math.min(waitMs, MAX_WAIT_MS), TimeUnit.MILLISECONDS);
+    }
+
+    /** Leaves the queue; for a ticket already matched this only forgets it, the seat stays. */
+    @DeleteMapping("/tickets/{ticketId}")
+    public ResponseEntity<Void> cancel(@PathVariable UUID ticketId) {
+        if (!matchmaking.cancel(ticketId)) throw new NotFoundException("Ticket not found");
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<MatchmakingStatsView> stats() {
+        long[] counts = matchmaking.waitHistogram();
+        List<MatchmakingStatsView.Bucket> buckets = new ArrayList<>(counts.length);
+        for (int b = 0; b < counts.length; b++) {
+            Long le = b < MatchmakingService.WAIT_BUCKETS_MS.length ? MatchmakingService.WAIT_BUCKETS_MS[b] : null;
+            buckets.add(new MatchmakingStatsView.Bucket(le, counts[b]));
+        }
+        return ResponseEntity.ok(new MatchmakingStatsView(
+                matchmaking.queueDepth(),
+                matchmaking.enqueuedCount(),
+                matchmaking.matchedCount(),
+                matchmaking.roomsFormedCount(),
+                buckets));
+    }
+
+    // --- Mapper ---
+    public static class Mappers {
+        /** A ticket that left the queue unmatched: expired, or cancelled by its player. */
+        public static MatchResponse withdrawn(Ticket t) {
+            return new MatchResponse(t.id(), t.expired() ? "EXPIRED" : "CANCELLED", null, null, null);
+        }
+    }
+}
@@ -1,33 +1,54 @@
 package com.nikoladesnica.mastermind.api;
 
 import com.nikoladesnica.mastermind.api.dto.*;
+import com.nikoladesnica.mastermind.api.view.IdempotencyCache;
+import com.nikoladesnica.mastermind.api.wire.Wire;
+import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
+import com.nikoladesnica.mastermind.domain.errors.ForbiddenException;
 import com.nikoladesnica.mastermind.domain.model.Game;
 import com.nikoladesnica.mastermind.domain.model.GameStatus;
 import com.nikoladesnica.mastermind.domain.model.Player;
 import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.model.RoomEvent;
+import com.nikoladesnica.mastermind.domain.model.RoomLog;
+import com.nikoladesnica.mastermind.domain.model.RoomState;
 import com.nikoladesnica.mastermind.domain.service.RoomService;
+import com.nikoladesnica.mastermind.util.RequestTrace;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Duration;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 // Accounts & Leaderboard Extension
 import com.nikoladesnica.mastermind.domain.service.AccountService;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api")
 public class RoomController {
 
     private final RoomService service;
     private final AccountService accountService;
+    private final ViewResponses responses;
+    private final SpectatorHub spectators;
+    private final IdempotencyCache idempotency;
 
-    public RoomController(RoomService service, AccountService accountService) {
+    private static final long MAX_WAIT_MS = 25_000; // stay under the servlet async timeout
+
+    public RoomController(RoomService service, AccountService accountService, ViewResponses responses,
+                          SpectatorHub spectators, IdempotencyCache idempotency) {
         this.service = service;
         this.accountService = accountService;
+        this.responses = responses;
+        this.spectators = spectators;
+        this.idempotency = idempotency;
     }
 
     @PostMapping("/rooms")
@@ -38,51 +59,64 @@ public class RoomController {
 
     @PostMapping("/rooms/{roomId}/join")
     public ResponseEntity<JoinRoomResponse> joinRoom(@PathVariable UUID roomId,
+                                                     @RequestHeader(value = "X-Session-Token", required = false) UUID sessionToken,
                                                      @Valid @RequestBody JoinRoomRequest req) {
+        UUID accountId = sessionToken == null ? null : accountService.accountIdFromSession(sessionToken);
         Player p = service.join(roomId, req == null ? null : req.name());
+        if (accountId != null) accountService.recordRoomJoin(accountId, roomId, p.id());
         return ResponseEntity.ok(new JoinRoomResponse(roomId, p.id(), p.token()));
     }
 
     @PostMapping("/rooms/{roomId}/start")
-    public ResponseEntity<RoomView> start(@PathVariable UUID roomId,
+    public ResponseEntity<byte[]> start(@PathVariable UUID roomId,
                                           @RequestHeader("X-Host-Token") String hostToken) {
         Room room = service.start(roomId, hostToken);
-        return ResponseEntity.ok(Mappers.view(room));
+        return respond(room, null, null);
     }
 
+    /** With an {@code Idempotency-Key}, a retry returns the original response without guessing again. */
     @PostMapping("/rooms/{roomId}/guesses")
-    public ResponseEntity<RoomView> guess(@PathVariable UUID roomId,
+    public ResponseEntity<byte[]> guess(@PathVariable UUID roomId,
                                           @RequestHeader("X-Player-Id") UUID playerId,
                                           @RequestHeader("X-Player-Token") String playerToken,
                                           @RequestHeader(value = "X-Session-Token", required = false) UUID sessionToken,
+                                          @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey,
                                           @Valid @RequestBody GuessRequest req) {
+        if (idempotencyKey == null) {
+            return applyGuess(roomId, playerId, playerToken, sessionToken, req);
+        }
+        // Scoped to the player's credentials: keys only need to be unique per player, and a wrong token
+        // never reaches a stored response (which holds the player's own history)
+        return idempotency.execute("room:" + roomId + ":" + playerId + ":" + playerToken, idempotencyKey,
+                IdempotencyCache.fingerprint(req.digits(), null, Wire.binaryRequested()),
+                () -> applyGuess(roomId, playerId, playerToken, sessionToken, req));
+    }
+
+    private ResponseEntity<byte[]> applyGuess(UUID roomId, UUID playerId, String playerToken, UUID sessionToken, GuessRequest req) {
         Room room = service.guess(roomId, playerId, playerToken, req.digits());
-        
-        if (sessionToken != null) {
-            var player = room.players().get(playerId);
-            if (player != null && player.status() == GameStatus.WON) {
-                UUID accountId = accountService.accountIdFromSession(sessionToken);
-                accountService.recordWin(accountId);
-            }
+
+        if (sessionToken != null && service.read(room, r -> Mappers.won(r, playerId))) {
+            UUID accountId = accountService.accountIdFromSession(sessionToken);
+            accountService.recordWin(accountId);
         }
-        
-        return ResponseEntity.ok(Mappers.view(room));
+
+        return respond(room, playerId, playerToken);
     }
 
     @PostMapping("/rooms/{roomId}/leave")
-    public ResponseEntity<RoomView> leave(@PathVariable UUID roomId,
+    public ResponseEntity<byte[]> leave(@PathVariable UUID roomId,
                                           @RequestHeader("X-Player-Id") UUID playerId,
                                           @RequestHeader("X-Player-Token") String playerToken) {
         Room room = service.leave(roomId, playerId, playerToken);
-        return ResponseEntity.ok(Mappers.view(room));
+        return respond(room, playerId, playerToken);
     }
 
     @PostMapping("/rooms/{roomId}/kick/{playerId}")
-    public ResponseEntity<RoomView> kick(@PathVariable UUID roomId,
+    public ResponseEntity<byte[]> kick(@PathVariable UUID roomId,
                                          @PathVariable UUID playerId,
                                          @RequestHeader("X-Host-Token") String hostToken) {
         Room room = service.kick(roomId, hostToken, playerId);
-        return ResponseEntity.ok(Mappers.view(room));
+        return respond(room, null, null);
     }
 
     /** Any waiting player can claim the host role (when original host disappears). */
@@ -103,21 +137,134 @@ public class RoomController {
         return ResponseEntity.ok(new CreateRoomResponse(roomId, newHostToken));
     }
 
+    /**
+     * A player (X-Player-Id + X-Player-Token) gets their own full history and a summary per opponent;
+     * anonymous callers get the leaderboard only.
+     */
     @GetMapping("/rooms/{roomId}")
-    public ResponseEntity<RoomView> get(@PathVariable UUID roomId) {
-        return ResponseEntity.ok(Mappers.view(service.get(roomId)));
+    public ResponseEntity<byte[]> get(@PathVariable UUID roomId,
+                                      @RequestHeader(value = "X-Player-Id", required = false) UUID playerId,
+                                      @RequestHeader(value = "X-Player-Token", required = false) String playerToken) {
+        return respond(service.get(roomId), playerId, playerToken);
+    }
+
+    /**
+     * Spectator long-poll, no player token needed. Returns the next frame after {@code cursor}
+     * (0 = latest snapshot), or 204 if nothing changed within {@code waitMs} or the room is over.
+     */
+    @GetMapping("/rooms/{roomId}/spectate")
+    public CompletableFuture<ResponseEntity<byte[]>> spectate(@PathVariable UUID roomId,
+                                                              @RequestParam(defaultValue = "0") long cursor,
+                                                              @RequestParam(defaultValue = "0") long waitMs) {
+        Room room = service.get(roomId);
+        SpectatorHub.Ring ring = spectators.open(roomId);
+        if (ring.head() == 0) service.read(room, ring::seed); // only the first spectator enters the room
+        return ring.next(cursor, Math.min(waitMs, MAX_WAIT_MS))
+                .thenApply(f -> f == null
+                        ? ResponseEntity.noContent().<byte[]>build()
+                        : ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(f.bytes()));
+    }
+
+    /**
+     * The room's event log from {@code from}, at most {@code limit} events. Read without entering the room's
+     * command executor, so fetching a log never delays its players.
+     */
+    @GetMapping("/rooms/{roomId}/events")
+    public ResponseEntity<RoomLogView> events(@PathVariable UUID roomId,
+                                              @RequestParam(defaultValue = "0") int from,
+                                              @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(Mappers.log(service.get(roomId), from, limit));
+    }
+
+    private ResponseEntity<byte[]> respond(Room room, UUID viewerId, String viewerToken) {
+        return responses.room(room, viewerId, viewerToken, Wire.binaryRequested());
     }
 
     // --- Mapper ---
-    static class Mappers {
-        static RoomView view(Room r) {
-            var players = r.players().values().stream()
-                    .map(Mappers::player)
-                    .toList();
+    public static class Mappers {
+        /** Most events one log request returns. */
+        public static final int MAX_LOG_PAGE = 1000;
+
+        /** No per-player section at all: what anonymous callers and hosts get. */
+        public static RoomView leaderboardView(Room r) {
+            long t0 = RequestTrace.start();
+            try {
+                return view(r, null);
+            } finally {
+                RequestTrace.stop(RequestTrace.Stage.MAPPING, t0);
+            }
+        }
+
+        /**
+         * The viewer's own snapshot carries their full history; opponents are summarized from counters kept on
+         * {@link Player}, so the cost per opponent does not depend on how many guesses they made.
+         * A viewer no longer in the room (left or kicked) falls back to the leaderboard.
+         */
+        public static RoomView playerView(Room r, UUID viewerId, String viewerToken) {
+            Player viewer = r.players().get(viewerId);
+            if (viewer == null) return leaderboardView(r);
+            if (!viewer.token().equals(viewerToken)) throw new ForbiddenException("Invalid player token");
+            long t0 = RequestTrace.start();
+            try {
+                var players = r.players().values().stream()
+                        .map(p -> p == viewer ? player(p, true) : summary(p))
+                        .toList();
+                return view(r, players);
+            } finally {
+                RequestTrace.stop(RequestTrace.Stage.MAPPING, t0);
+            }
+        }
+
+        /** Whether the player won; like the views, read inside the room's command (Player is not thread-safe). */
+        public static boolean won(Room r, UUID playerId) {
+            Player p = r.players().get(playerId);
+            return p != null && p.status() == GameStatus.WON;
+        }
+
+        /**
+         * Events [from, from + limit) of the room's log, safe to call outside the room's executor. The state is read
+         * first, so digits are only shown from a log read after the race was over.
+         */
+        public static RoomLogView log(Room r, int from, Integer limit) {
+            boolean revealDigits = r.state() == RoomState.FINISHED;
+            RoomLog log = r.log();
+            int size = log.size();
+            int n = limit == null ? MAX_LOG_PAGE : limit;
+            if (from < 0 || from > size) throw new BadRequestException("from must be between 0 and " + size);
+            if (n <= 0) throw new BadRequestException("limit must be > 0");
+            int to = Math.min(size, from + Math.min(n, MAX_LOG_PAGE));
+            List<RoomEvent> events = log.range(from, to);
+            var out = new ArrayList<RoomLogView.Event>(events.size());
+            for (int i = 0; i < events.size(); i++) out.add(event(from + i, events.get(i), revealDigits));
+            return new RoomLogView(r.roomId(), r.state().name(), size, out, to < size ? to : null);
+        }
+
+        private static RoomLogView.Event event(int seq, RoomEvent e, boolean revealDigits) {
+            return switch (e) {
+                case RoomEvent.Created c -> new RoomLogView.Event(seq, "CREATED", c.at(), null, null, null, null);
+                case RoomEvent.Joined j -> new RoomLogView.Event(seq, "JOINED", j.at(), j.playerId(), j.name(), j.attempts(), null);
+                case RoomEvent.Kicked k -> new RoomLogView.Event(seq, "KICKED", k.at(), k.playerId(), null, null, null);
+                case RoomEvent.HostChanged h -> new RoomLogView.Event(seq, "HOST_CHANGED", h.at(), h.playerId(), null, null, null);
+                case RoomEvent.Started s -> new RoomLogView.Event(seq, "STARTED", s.at(), null, null, null,
+                        revealDigits ? s.secret().digits() : null);
+                case RoomEvent.Guessed g -> new RoomLogView.Event(seq, "GUESSED", g.at(), g.playerId(), null, null,
+                        revealDigits ? g.guess().digits() : null);
+                case RoomEvent.Left l -> new RoomLogView.Event(seq, "LEFT", l.at(), l.playerId(), null, null, null);
+                case RoomEvent.TimedOut t -> new RoomLogView.Event(seq, "TIMED_OUT", t.at(), t.playerId(), null, null, null);
+            };
+        }
 
-            var leaderboard = r.players().values().stream()
-                    .map(p -> {
-                        int attemptsUsed = p.history().size();
+        /** What spectators see: no tokens or secret, and guess digits stay hidden until the race is over. */
+        public static RoomView spectatorView(Room r) {
+            boolean revealGuesses = r.state() != RoomState.RUNNING;
+            return view(r, r.players().values().stream().map(p -> player(p, revealGuesses)).toList());
+        }
+
+        private static RoomView view(Room r, List<RoomView.PlayerSnapshot> players) {
+            // Standings are maintained in leaderboard order by Room; no sorting here
+            var leaderboard = r.standings().stream()
+                    .map(st -> {
+                        Player p = st.player();
                         Long elapsed = null;
                         if (r.startedAt() != null && p.finishedAt() != null) {
                             elapsed = Duration.between(r.startedAt(), p.finishedAt()).getSeconds();
@@ -126,10 +273,9 @@ public class RoomController {
                             elapsed = Duration.between(r.startedAt(), r.finishedAt()).getSeconds();
                         }
                         return new RoomView.LeaderboardEntry(
-                                p.id(), p.name(), p.status().name(), attemptsUsed, elapsed
+                                p.id(), p.name(), p.status().name(), st.attemptsUsed(), elapsed
                         );
                     })
-                    .sorted(leaderboardComparator())
                     .toList();
 
             return new RoomView(
@@ -138,42 +284,31 @@ public class RoomController {
                     r.createdAt(),
                     r.startedAt(),
                     r.finishedAt(),
+                    r.deadlineAt(),
                     players,
                     leaderboard
             );
         }
 
-        private static RoomView.PlayerSnapshot player(Player p) {
+        private static RoomView.PlayerSnapshot player(Player p, boolean revealGuesses) {
             List<RoomView.HistoryEntry> history = p.history().stream()
-                    .map(Mappers::history)
+                    .map(e -> history(e, revealGuesses))
                     .toList();
             return new RoomView.PlayerSnapshot(
-                    p.id(), p.name(), p.status().name(), p.attemptsLeft(), history
+                    p.id(), p.name(), p.status().name(), p.attemptsLeft(), p.attemptsUsed(), p.bestCorrectPositions(), history
             );
         }
 
-        private static RoomView.HistoryEntry history(Game.Entry e) {
-            return new RoomView.HistoryEntry(
-                    e.guess().digits(), e.feedback().correctPositions(), e.feedback().correctNumbers(), e.at()
+        private static RoomView.PlayerSnapshot summary(Player p) {
+            return new RoomView.PlayerSnapshot(
+                    p.id(), p.name(), p.status().name(), p.attemptsLeft(), p.attemptsUsed(), p.bestCorrectPositions(), null
             );
         }
 
-        // Sort by: WON first, then IN_PROGRESS, then LOST.
-        // Among WON: fewer attemptsUsed wins, then shorter elapsedSeconds.
-        private static Comparator<RoomView.LeaderboardEntry> leaderboardComparator() {
-            return Comparator
-                    .comparing((RoomView.LeaderboardEntry le) -> rank(le.status()))
-                    .thenComparingInt(RoomView.LeaderboardEntry::attemptsUsed)
-                    .thenComparing((RoomView.LeaderboardEntry le) -> le.elapsedSeconds() == null ? Long.MAX_VALUE : le.elapsedSeconds());
-        }
-
-        private static int rank(String status) {
-            return switch (status) {
-                case "WON" -> 0;
-                case "IN_PROGRESS" -> 1;
-                case "LOST" -> 2;
-                default -> 3;
-            };
+        private static RoomView.HistoryEntry history(Game.Entry e, boolean revealGuess) {
+            return new RoomView.HistoryEntry(
+                    revealGuess ? e.guess().digits() : null, e.feedback().correctPositions(), e.feedback().correctNumbers(), e.at()
+            );
         }
     }
 }
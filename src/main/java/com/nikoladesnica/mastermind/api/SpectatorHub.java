@@ -0,0 +1,205 @@
+package com.nikoladesnica.mastermind.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nikoladesnica.mastermind.api.dto.RoomView;
+import com.nikoladesnica.mastermind.api.dto.SpectatorFrame;
+import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.model.RoomState;
+import com.nikoladesnica.mastermind.domain.ports.RoomObserver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Spectator broadcast. Each watched room owns one ring of frames, written once per mutation (inside the room
+ * command) and read by any number of spectators, each with its own cursor. The command only takes an immutable
+ * spectator view; the first reader of a frame serializes it and later readers reuse the bytes.
+ * The writer never looks at readers, so its cost does not depend on how many are watching;
+ * a reader that fell a full ring behind simply skips to the latest frame (frames are full snapshots).
+ * Rooms nobody has watched are never snapshotted. A room's ring is dropped once the room finishes
+ * (spectators already holding it still read the closing frame), or once nobody has read it for
+ * {@code idleTtl}, so rooms abandoned before finishing do not keep theirs.
+ */
+@Component
+public class SpectatorHub implements RoomObserver {
+
+    static final int RING_SIZE = 64; // power of two
+    static final Duration IDLE_TTL = Duration.ofMinutes(5); // well above the long-poll cap
+
+    private final ObjectMapper mapper;
+    private final Executor wakeups; // wakes long-poll waiters off the room command
+    private final long idleTtlNanos;
+    private final Map<UUID, Ring> rings = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    @Autowired
+    public SpectatorHub(ObjectMapper mapper) {
+        this(mapper, Executors.newVirtualThreadPerTaskExecutor(), IDLE_TTL);
+    }
+
+    SpectatorHub(ObjectMapper mapper, Executor wakeups) {
+        this(mapper, wakeups, IDLE_TTL);
+    }
+
+    SpectatorHub(ObjectMapper mapper, Executor wakeups, Duration idleTtl) {
+        this.mapper = mapper;
+        this.wakeups = wakeups;
+        this.idleTtlNanos = idleTtl.toNanos();
+    }
+
+    @Override
+    public void changed(Room room) {
+        Ring ring = rings.get(room.roomId());
+        if (ring != null) ring.publish(room);
+    }
+
+    /** Starts (or joins) the broadcast for a room; the caller seeds the first frame via {@link Ring#seed}. */
+    public Ring open(UUID roomId) {
+        sweepIdle();
+        Ring ring = rings.computeIfAbsent(roomId, Ring::new);
+        ring.lastRead = System.nanoTime();
+        return ring;
+    }
+
+    public int watchedRooms() {
+        return rings.size();
+    }
+
+    /*
+     * Drops rings nobody has read for idleTtl and nobody is waiting on. Runs from open(), at most once per half
+     * TTL: an abandoned room never publishes again, so its ring can only be noticed by someone else's request.
+     * A spectator still holding a dropped ring sees no new frames; its next poll opens a fresh ring.
+     */
+    private void sweepIdle() {
+        long now = System.nanoTime();
+        long last = lastSweep.get();
+        if (now - last < idleTtlNanos / 2 || !lastSweep.compareAndSet(last, now)) return;
+        rings.values().removeIf(r -> now - r.lastRead >= idleTtlNanos && r.signal.getNumberOfDependents() == 0);
+    }
+
+    private byte[] encode(Object frame) {
+        try {
+            return mapper.writeValueAsBytes(frame);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize spectator frame", e);
+        }
+    }
+
+    /** One published snapshot; serialized on first read, outside the room command. */
+    public final class Frame {
+        private final long seq;
+        private final long version; // Room.version() it was taken at
+        private final RoomView view;
+        private volatile byte[] bytes;
+
+        private Frame(long seq, long version, RoomView view) {
+            this.seq = seq;
+            this.version = version;
+            this.view = view;
+        }
+
+        public long seq() { return seq; }
+
+        public byte[] bytes() {
+            byte[] b = bytes;
+            if (b == null) bytes = b = encode(new SpectatorFrame(seq, view)); // racing readers encode the same bytes
+            return b;
+        }
+    }
+
+    public final class Ring {
+        private final UUID roomId;
+        private final AtomicReferenceArray<Frame> slots = new AtomicReferenceArray<>(RING_SIZE);
+        private volatile long head;      // seq of the latest frame, 0 = none yet
+        private volatile boolean closed; // room finished: no frame will follow
+        private volatile CompletableFuture<Void> signal = new CompletableFuture<>();
+        private volatile long lastRead = System.nanoTime();
+
+        private Ring(UUID roomId) {
+            this.roomId = roomId;
+        }
+
+        // Single writer per room: only called from inside that room's command
+        void publish(Room room) {
+            long seq = head + 1;
+            // Nothing changed since the last frame (same version): reuse its snapshot
+            Frame last = head == 0 ? null : slots.get(index(head));
+            RoomView view = last != null && last.version == room.version()
+                    ? last.view
+                    : RoomController.Mappers.spectatorView(room);
+            slots.set(index(seq), new Frame(seq, room.version(), view));
+            head = seq;
+            closed = room.state() == RoomState.FINISHED;
+
+            CompletableFuture<Void> waiting = signal;
+            signal = new CompletableFuture<>();
+            // Always complete: a reader may have read this signal and not attached to it yet. Without
+            // dependents completion is a plain CAS; with them, their continuations run on the wakeup executor.
+            if (waiting.getNumberOfDependents() > 0) wakeups.execute(() -> waiting.complete(null));
+            else waiting.complete(null);
+            if (closed) rings.remove(roomId, this);
+        }
+
+        /** Publishes the current snapshot if nothing was published yet; run inside the room command. */
+        public Void seed(Room room) {
+            if (head == 0) publish(room);
+            return null;
+        }
+
+        /**
+         * First frame after {@code cursor}, or the latest one when the cursor is 0, unknown or lapped.
+         * Completes with null if nothing newer arrives within {@code waitMs}.
+         */
+        public CompletableFuture<Frame> next(long cursor, long waitMs) {
+            lastRead = System.nanoTime();
+            if (waitMs <= 0) return CompletableFuture.completedFuture(after(cursor));
+            CompletableFuture<Frame> result = new CompletableFuture<>();
+            await(cursor, result);
+            return result.completeOnTimeout(null, waitMs, TimeUnit.MILLISECONDS);
+        }
+
+        /*
+         * The signal is read before checking, so a publish in between completes it. The signal may also be one
+         * a publish already counted in the cursor is about to complete; that wakeup finds nothing newer and
+         * waits again on the current signal. Stops once the caller's future is done (frame or timeout).
+         */
+        private void await(long cursor, CompletableFuture<Frame> result) {
+            CompletableFuture<Void> published = signal;
+            Frame f = after(cursor);
+            if (f != null || closed) {
+                result.complete(f);
+                return;
+            }
+            published.thenRun(() -> {
+                if (!result.isDone()) await(cursor, result);
+            });
+        }
+
+        /** Seq of the latest frame, 0 until the first one is published. */
+        public long head() { return head; }
+
+        /** True once the room finished; no frame follows the one that closed it. */
+        public boolean closed() { return closed; }
+
+        private Frame after(long cursor) {
+            long h = head;
+            if (h == 0 || cursor == h) return null;
+            if (cursor <= 0 || cursor > h || h - cursor >= RING_SIZE) return slots.get(index(h));
+            long want = cursor + 1;
+            Frame f = slots.get(index(want));
+            // Overwritten since we read head: that reader is lagging, give it the newest frame
+            return f.seq() == want ? f : slots.get(index(head));
+        }
+
+        private int index(long seq) {
+            return (int) (seq & (RING_SIZE - 1));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.nikoladesnica.mastermind.api;
+
+import com.nikoladesnica.mastermind.infra.config.TracingProperties;
+import com.nikoladesnica.mastermind.util.Meters;
+import com.nikoladesnica.mastermind.util.RequestTrace;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a {@link RequestTrace} around each request and folds its stage timings into the
+ * {@value Meters#REQUEST_STAGE} timers (one per stage, tag {@code stage}). With {@code server-timing} on, the
+ * same numbers go back to the client as a {@code Server-Timing} header, added just before the body is written
+ * (controllers encode their bodies themselves, so every stage but the socket write is known by then).
+ * Async responses (long-polls, streamed batches) finish on another thread and get no header.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StageTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private final TracingProperties props;
+    private final Timer[] stages = new Timer[RequestTrace.Stage.values().length];
+
+    public StageTimingFilter(TracingProperties props, MeterRegistry meters) {
+        this.props = props;
+        for (RequestTrace.Stage stage : RequestTrace.Stage.values()) {
+            stages[stage.ordinal()] = Timer.builder(Meters.REQUEST_STAGE)
+                    .description(stage.description())
+                    .tag("stage", stage.metricName())
+                    .register(meters);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !props.enabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTrace trace = RequestTrace.open();
+        HttpServletResponse target = props.serverTiming() ? new TimingHeaderResponse(response, trace) : response;
+        try {
+            chain.doFilter(request, target);
+            // Bodiless responses commit after we return: the header can still go on
+            if (target instanceof TimingHeaderResponse timed && !request.isAsyncStarted()) timed.addTimingHeader();
+        } finally {
+            trace.close();
+            for (RequestTrace.Stage stage : RequestTrace.Stage.values()) {
+                if (trace.recorded(stage)) stages[stage.ordinal()].record(trace.nanos(stage), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /** Adds the header the first time anything could commit the response. */
+    private static final class TimingHeaderResponse extends HttpServletResponseWrapper {
+        private final RequestTrace trace;
+        private boolean added;
+
+        TimingHeaderResponse(HttpServletResponse response, RequestTrace trace) {
+            super(response);
+            this.trace = trace;
+        }
+
+        void addTimingHeader() {
+            if (added || isCommitted() || RequestTrace.current() != trace) return; // async completion on another thread
+            added = true;
+            setHeader(HEADER, trace.serverTiming());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addTimingHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addTimingHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addTimingHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addTimingHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addTimingHeader();
+            super.sendError(sc);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.nikoladesnica.mastermind.api;
+
+import com.nikoladesnica.mastermind.api.dto.StatsView;
+import com.nikoladesnica.mastermind.infra.stats.GameAggregates;
+import com.nikoladesnica.mastermind.infra.stats.GameAnalytics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Gameplay analytics, read from the last published aggregate snapshot (never from stored games). */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StatsController {
+
+    private final GameAnalytics analytics;
+
+    public StatsController(GameAnalytics analytics) {
+        this.analytics = analytics;
+    }
+
+    @GetMapping("/api/stats")
+    public ResponseEntity<StatsView> stats() {
+        return ResponseEntity.ok(Mappers.view(analytics));
+    }
+
+    public static class Mappers {
+        public static StatsView view(GameAnalytics analytics) {
+            GameAggregates.Snapshot s = analytics.snapshot();
+            List<StatsView.AttemptsBucket> attempts = new ArrayList<>();
+            for (int n = 1; n < s.attemptsToWin().length; n++) {
+                attempts.add(new StatsView.AttemptsBucket(n, s.attemptsToWin()[n]));
+            }
+            GameAggregates.RoomSolve rooms = s.rooms();
+            return new StatsView(
+                    s.gamesFinished(),
+                    s.gamesWon(),
+                    ratio(s.gamesWon(), s.gamesFinished()),
+                    attempts,
+                    s.byConfig().stream()
+                            .map(c -> new StatsView.ConfigWinRate(c.mode(), c.config(), c.played(), c.won(), ratio(c.won(), c.played())))
+                            .toList(),
+                    s.topOpenings().stream()
+                            .map(o -> new StatsView.OpeningCount(o.digits(), o.count(), o.error()))
+                            .toList(),
+                    new StatsView.RoomSolveTime(rooms.finished(), rooms.solved(),
+                            rooms.solved() == 0 ? 0 : Math.round(10.0 * rooms.totalSolveMillis() / rooms.solved()) / 10.0,
+                            rooms.maxSolveMillis()),
+                    analytics.pending(),
+                    analytics.dropped());
+        }
+
+        private static double ratio(long part, long whole) {
+            return whole == 0 ? 0 : Math.round(10_000.0 * part / whole) / 10_000.0;
+        }
+    }
+}
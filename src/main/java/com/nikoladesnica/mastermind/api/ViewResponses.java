@@ -0,0 +1,116 @@
+package com.nikoladesnica.mastermind.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nikoladesnica.mastermind.api.dto.GameView;
+import com.nikoladesnica.mastermind.api.dto.RoomView;
+import com.nikoladesnica.mastermind.api.view.ViewCache;
+import com.nikoladesnica.mastermind.api.wire.BinaryCodec;
+import com.nikoladesnica.mastermind.api.wire.Wire;
+import com.nikoladesnica.mastermind.domain.model.Game;
+import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import com.nikoladesnica.mastermind.util.RequestTrace;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Game and room responses, JSON or binary, shared by the MVC controllers and the reactive handlers so both
+ * deployments use the same ViewCache variants and record the same ENCODE stage. Each stack makes the Accept
+ * decision its own way and passes it in.
+ */
+@Component
+public class ViewResponses {
+
+    private final ViewCache views;
+    private final ObjectMapper mapper;
+    private final RoomService rooms;
+
+    public ViewResponses(ViewCache views, ObjectMapper mapper, RoomService rooms) {
+        this.views = views;
+        this.mapper = mapper;
+        this.rooms = rooms;
+    }
+
+    /**
+     * Serialized GameView, reused until the game changes; ranges are built per request. The view is built from
+     * one snapshot, so what is cached under a version is exactly that version even while guesses land.
+     */
+    public ResponseEntity<byte[]> game(Game game, GameProjection projection, boolean binary) {
+        Game.Snapshot snapshot = game.snapshot();
+        long version = snapshot.version();
+        String variant = projection.cacheVariant();
+        byte[] body;
+        if (binary) {
+            body = variant == null
+                    ? encode(GameController.Mappers.view(game, snapshot, projection))
+                    : views.bytes(game.id(), variant + ".bin", version,
+                            () -> encode(GameController.Mappers.view(game, snapshot, projection)));
+        } else {
+            body = variant == null
+                    ? json(GameController.Mappers.view(game, snapshot, projection))
+                    : views.json(game.id(), variant, version,
+                            () -> GameController.Mappers.view(game, snapshot, projection));
+        }
+        return ResponseEntity.ok()
+                .contentType(binary ? Wire.BINARY : MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    /**
+     * Serialized RoomView, built from a consistent snapshot. The anonymous leaderboard is shared and reused until
+     * the room changes; a player's view is specific to them and built per request.
+     */
+    public ResponseEntity<byte[]> room(Room room, UUID viewerId, String viewerToken, boolean binary) {
+        byte[] body;
+        if (viewerId == null) {
+            long version = room.version();
+            body = binary
+                    ? views.bytes(room.roomId(), "room.board.bin", version,
+                            () -> encode(rooms.<RoomView>read(room, RoomController.Mappers::leaderboardView)))
+                    : views.json(room.roomId(), "room.board", version,
+                            () -> rooms.read(room, RoomController.Mappers::leaderboardView));
+        } else {
+            RoomView view = rooms.read(room, r -> RoomController.Mappers.playerView(r, viewerId, viewerToken));
+            body = binary ? encode(view) : json(view);
+        }
+        return ResponseEntity.ok()
+                .contentType(binary ? Wire.BINARY : MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT, "X-Player-Id")
+                .body(body);
+    }
+
+    public byte[] json(Object value) {
+        long t0 = RequestTrace.start();
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize response", e);
+        } finally {
+            RequestTrace.stop(RequestTrace.Stage.ENCODE, t0);
+        }
+    }
+
+    private static byte[] encode(GameView view) {
+        long t0 = RequestTrace.start();
+        try {
+            return BinaryCodec.encode(view);
+        } finally {
+            RequestTrace.stop(RequestTrace.Stage.ENCODE, t0);
+        }
+    }
+
+    private static byte[] encode(RoomView view) {
+        long t0 = RequestTrace.start();
+        try {
+            return BinaryCodec.encode(view);
+        } finally {
+            RequestTrace.stop(RequestTrace.Stage.ENCODE, t0);
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package com.nikoladesnica.mastermind.api;
 
+import com.nikoladesnica.mastermind.api.wire.BinaryWireConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WebConfig implements WebMvcConfigurer {
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -15,4 +21,9 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedMethods("GET","POST","OPTIONS")
                 .allowedHeaders("*");
     }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new BinaryWireConverter()); // only claims application/x-mastermind
+    }
 }
@@ -0,0 +1,16 @@
+package com.nikoladesnica.mastermind.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/** One page of an account's games, newest first; pass {@code nextCursor} back as ?cursor= for older ones. */
+public record AccountGamesView(List<Item> games, String nextCursor) {
+
+    /**
+     * {@code kind} is GAME or ROOM ({@code id} is then the room, {@code playerId} the account's seat).
+     * {@code status} is null once the game or room is gone, or the account's player left the room.
+     */
+    public record Item(String kind, UUID id, UUID playerId, Instant at, String status, Integer attemptsUsed,
+                       Instant finishedAt) {}
+}
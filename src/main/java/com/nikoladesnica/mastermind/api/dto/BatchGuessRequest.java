@@ -0,0 +1,15 @@
+package com.nikoladesnica.mastermind.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchGuessRequest(
+        @NotEmpty @Size(max = 1000) List<@NotNull Item> guesses
+) {
+    // digits are validated per item so a bad one fails alone instead of the whole batch
+    public record Item(UUID gameId, List<Integer> digits) {}
+}
@@ -0,0 +1,18 @@
+package com.nikoladesnica.mastermind.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/** One NDJSON line of a batch response; {@code index} points back into the request. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchGuessResult(
+        int index,
+        UUID gameId,
+        Integer correctPositions,  // null if the item was rejected or the game was already over
+        Integer correctNumbers,
+        String status,             // game status after this item
+        Integer attemptsLeft,
+        Integer errorStatus,       // HTTP status the same guess would have failed with on its own
+        String error
+) {}
@@ -0,0 +1,3 @@
+package com.nikoladesnica.mastermind.api.dto;
+
+public record EnqueueRequest(String name) {}
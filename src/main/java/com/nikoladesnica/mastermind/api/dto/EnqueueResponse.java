@@ -0,0 +1,5 @@
+package com.nikoladesnica.mastermind.api.dto;
+
+import java.util.UUID;
+
+public record EnqueueResponse(UUID ticketId, int rating, int queueDepth) {}
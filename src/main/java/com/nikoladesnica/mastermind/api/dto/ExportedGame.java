@@ -0,0 +1,18 @@
+package com.nikoladesnica.mastermind.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/** One NDJSON line of the games export. */
+public record ExportedGame(
+        String cursor,          // pass back as ?cursor= to resume after this game
+        UUID gameId,
+        String status,
+        List<Integer> secret,
+        int maxAttempts,
+        int attemptsUsed,
+        Instant startedAt,
+        Instant finishedAt,
+        List<GameView.HistoryEntry> history
+) {}
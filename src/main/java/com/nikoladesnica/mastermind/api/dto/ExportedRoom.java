@@ -0,0 +1,26 @@
+package com.nikoladesnica.mastermind.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/** One NDJSON line of the rooms export. */
+public record ExportedRoom(
+        String cursor,          // pass back as ?cursor= to resume after this room
+        UUID roomId,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt,
+        List<Integer> secret,
+        List<Player> players
+) {
+    public record Player(
+            UUID playerId,
+            String name,
+            String status,
+            int attemptsUsed,
+            int bestCorrectPositions,
+            Instant finishedAt,
+            List<RoomView.HistoryEntry> history
+    ) {}
+}
@@ -13,8 +13,9 @@ public record GameView(
         int attemptsLeft,
         boolean canGuess,
         String message,              // null while IN_PROGRESS; present after WIN/LOSS
-        int historyCount,
-        List<HistoryEntry> history
+        int historyCount,            // total guesses so far, whatever part of the history is included
+        Integer historyFrom,         // index of history[0] when only part of it is included
+        List<HistoryEntry> history   // omitted for view=status
 ) {
     public record HistoryEntry(List<Integer> guess, int correctPositions, int correctNumbers, Instant at) {}
 }
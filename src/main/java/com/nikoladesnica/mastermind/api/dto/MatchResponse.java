@@ -0,0 +1,14 @@
+package com.nikoladesnica.mastermind.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MatchResponse(
+        UUID ticketId,
+        String status,       // WAITING | MATCHED | EXPIRED | CANCELLED
+        UUID roomId,         // set once MATCHED
+        UUID playerId,
+        String playerToken
+) {}
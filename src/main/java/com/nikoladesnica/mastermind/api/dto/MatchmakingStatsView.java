@@ -0,0 +1,13 @@
+package com.nikoladesnica.mastermind.api.dto;
+
+import java.util.List;
+
+public record MatchmakingStatsView(
+        int queueDepth,
+        long enqueued,
+        long matched,
+        long roomsFormed,
+        List<Bucket> waitHistogram
+) {
+    public record Bucket(Long leMs, long count) {} // leMs null = overflow bucket
+}
@@ -0,0 +1,27 @@
+package com.nikoladesnica.mastermind.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record RoomLogView(
+        UUID roomId,
+        String state,
+        int size,             // events logged so far
+        List<Event> events,
+        Integer next          // pass back as ?from= for the following events; null when caught up
+) {
+    /** Fields a type does not use are omitted. {@code digits} (secret or guess) stay hidden while the race runs. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Event(
+            int seq,
+            String type,      // CREATED, JOINED, KICKED, HOST_CHANGED, STARTED, GUESSED, LEFT, TIMED_OUT
+            Instant at,
+            UUID playerId,
+            String name,
+            Integer attempts,
+            List<Integer> digits
+    ) {}
+}
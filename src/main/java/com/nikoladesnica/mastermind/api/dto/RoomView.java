@@ -1,5 +1,7 @@
 package com.nikoladesnica.mastermind.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
@@ -10,7 +12,9 @@ public record RoomView(
         Instant createdAt,
         Instant startedAt,
         Instant finishedAt,
-        List<PlayerSnapshot> players,
+        Instant deadlineAt,   // null if the race has no time limit
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        List<PlayerSnapshot> players, // omitted for anonymous callers
         List<LeaderboardEntry> leaderboard
 ) {
     public record PlayerSnapshot(
@@ -18,7 +22,10 @@ public record RoomView(
             String name,
             String status,
             int attemptsLeft,
-            List<HistoryEntry> history
+            int attemptsUsed,
+            int bestCorrectPositions,
+            @JsonInclude(JsonInclude.Include.NON_NULL)
+            List<HistoryEntry> history // only the caller's own; opponents get the summary fields
     ) {}
 
     public record HistoryEntry(
@@ -0,0 +1,6 @@
+package com.nikoladesnica.mastermind.api.dto;
+
+public record SpectatorFrame(
+        long seq,        // pass back as ?cursor= to get the next frame
+        RoomView room    // spectator projection: guess digits are null while the race is running
+) {}
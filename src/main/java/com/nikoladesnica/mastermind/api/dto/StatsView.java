@@ -0,0 +1,24 @@
+package com.nikoladesnica.mastermind.api.dto;
+
+import java.util.List;
+
+/** Gameplay analytics since startup; {@code pendingResults} are finished games not aggregated yet. */
+public record StatsView(
+        long gamesFinished,
+        long gamesWon,
+        double winRate,
+        List<AttemptsBucket> attemptsToWin,
+        List<ConfigWinRate> winRateByConfig,
+        List<OpeningCount> topOpenings,
+        RoomSolveTime roomSolveTime,
+        int pendingResults,
+        long droppedResults
+) {
+    public record AttemptsBucket(int attempts, long wins) {} // the last bucket also holds anything slower
+
+    public record ConfigWinRate(String mode, String config, long played, long won, double winRate) {}
+
+    public record OpeningCount(List<Integer> digits, long count, long maxOvercount) {}
+
+    public record RoomSolveTime(long roomsFinished, long roomsSolved, double averageMillis, long maxMillis) {}
+}
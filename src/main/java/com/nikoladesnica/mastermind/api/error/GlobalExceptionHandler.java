@@ -3,8 +3,10 @@ package com.nikoladesnica.mastermind.api.error;
 import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
 import com.nikoladesnica.mastermind.domain.errors.ForbiddenException;
 import com.nikoladesnica.mastermind.domain.errors.NotFoundException;
+import com.nikoladesnica.mastermind.domain.errors.UnavailableException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -18,6 +20,7 @@ import java.time.Instant;
 import java.util.NoSuchElementException;
 
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler {
 
     // Domain exceptions
@@ -36,6 +39,11 @@ public class GlobalExceptionHandler {
         return error(HttpStatus.NOT_FOUND, ex.getMessage(), req);
     }
 
+    @ExceptionHandler(UnavailableException.class)
+    public ResponseEntity<ApiError> unavailable(UnavailableException ex, HttpServletRequest req) {
+        return error(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), req);
+    }
+
     // Validation / format is 400
     @ExceptionHandler({
             MethodArgumentNotValidException.class,
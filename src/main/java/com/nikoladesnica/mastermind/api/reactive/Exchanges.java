@@ -0,0 +1,125 @@
+package com.nikoladesnica.mastermind.api.reactive;
+
+import com.nikoladesnica.mastermind.api.dto.GuessRequest;
+import com.nikoladesnica.mastermind.api.wire.BinaryCodec;
+import com.nikoladesnica.mastermind.api.wire.Wire;
+import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/** Request parsing and response helpers shared by the reactive handlers. */
+final class Exchanges {
+
+    private static final int MAX_BINARY_GUESS = 1024; // a guess is a handful of bytes
+
+    private Exchanges() {}
+
+    /**
+     * Runs work that may wait (room commands, PBKDF2, idempotent replays) on the bounded elastic pool,
+     * never on an event-loop thread.
+     */
+    static <T> Mono<T> offload(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /** Sends a response built the same way as the MVC controllers build theirs. */
+    static Mono<ServerResponse> send(ResponseEntity<byte[]> entity) {
+        ServerResponse.BodyBuilder builder = ServerResponse.status(entity.getStatusCode())
+                .headers(h -> h.addAll(entity.getHeaders()));
+        return entity.getBody() == null ? builder.build() : builder.bodyValue(entity.getBody());
+    }
+
+    static boolean binaryRequested(ServerRequest request) {
+        return Wire.binaryRequested(request.headers().firstHeader(HttpHeaders.ACCEPT));
+    }
+
+    static UUID pathId(ServerRequest request, String name) {
+        return uuid(request.pathVariable(name), name);
+    }
+
+    static UUID uuidHeader(ServerRequest request, String name, boolean required) {
+        String value = header(request, name, required);
+        return value == null ? null : uuid(value, name);
+    }
+
+    static String header(ServerRequest request, String name, boolean required) {
+        String value = request.headers().firstHeader(name);
+        if (value == null && required) throw new BadRequestException("Missing header " + name);
+        return value;
+    }
+
+    static Integer intParam(ServerRequest request, String name) {
+        String value = request.queryParam(name).orElse(null);
+        if (value == null) return null;
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(name + " must be an integer");
+        }
+    }
+
+    static long longParam(ServerRequest request, String name, long fallback) {
+        String value = request.queryParam(name).orElse(null);
+        if (value == null) return fallback;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(name + " must be an integer");
+        }
+    }
+
+    /** JSON body, validated like {@code @Valid}; an absent body is an empty Mono. */
+    static <T> Mono<T> body(ServerRequest request, Class<T> type, Validator validator) {
+        return request.bodyToMono(type)
+                .onErrorMap(e -> e instanceof DecodingException || e instanceof ServerWebInputException,
+                        e -> new BadRequestException("Malformed JSON"))
+                .map(b -> validate(b, validator));
+    }
+
+    /** A guess body, JSON or binary per Content-Type (as {@code BinaryWireConverter} does for MVC). */
+    static Mono<GuessRequest> guessBody(ServerRequest request, Validator validator) {
+        boolean binary = request.headers().contentType().map(Wire.BINARY::equalsTypeAndSubtype).orElse(false);
+        if (!binary) {
+            return body(request, GuessRequest.class, validator)
+                    .switchIfEmpty(Mono.error(() -> new BadRequestException("Malformed JSON")));
+        }
+        return request.bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .map(bytes -> {
+                    if (bytes.length > MAX_BINARY_GUESS) throw new BadRequestException("Binary guess too large");
+                    try {
+                        return validate(BinaryCodec.decodeGuessRequest(bytes), validator);
+                    } catch (BinaryCodec.MalformedMessageException e) {
+                        throw new BadRequestException("Malformed binary guess: " + e.getMessage());
+                    }
+                });
+    }
+
+    private static <T> T validate(T body, Validator validator) {
+        var violations = validator.validate(body);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<T> v = violations.iterator().next();
+            throw new BadRequestException(v.getPropertyPath() + " " + v.getMessage());
+        }
+        return body;
+    }
+
+    private static UUID uuid(String value, String name) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(name + " must be a UUID");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.nikoladesnica.mastermind.api.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nikoladesnica.mastermind.api.ExportController;
+import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
+import com.nikoladesnica.mastermind.domain.model.FinishCursor;
+import com.nikoladesnica.mastermind.domain.service.GameService;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Reactive counterpart of {@link ExportController}. Lines are pulled from the finish-order index only as fast as
+ * the client's demand allows (Reactor backpressure instead of a blocked writer), so memory stays flat here too.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ExportHandler {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final GameService games;
+    private final RoomService rooms;
+    private final ObjectMapper mapper;
+
+    public ExportHandler(GameService games, RoomService rooms, ObjectMapper mapper) {
+        this.games = games;
+        this.rooms = rooms;
+        this.mapper = mapper;
+    }
+
+    public Mono<ServerResponse> games(ServerRequest request) {
+        FinishCursor after = FinishCursor.parse(request.queryParam("cursor").orElse(null));
+        return stream(request, () -> games.finishedAfter(after), ExportController.Mappers::game);
+    }
+
+    public Mono<ServerResponse> rooms(ServerRequest request) {
+        FinishCursor after = FinishCursor.parse(request.queryParam("cursor").orElse(null));
+        return stream(request, () -> rooms.finishedAfter(after), r -> rooms.read(r, ExportController.Mappers::room));
+    }
+
+    private <E, T> Mono<ServerResponse> stream(ServerRequest request, Supplier<Stream<E>> source, Function<E, T> toLine) {
+        long limit = Exchanges.longParam(request, "limit", 0);
+        if (limit < 0) throw new BadRequestException("limit must be >= 0");
+
+        DataBufferFactory buffers = request.exchange().getResponse().bufferFactory();
+        Flux<E> entities = Flux.fromStream(source::get); // closed on completion, error and cancel
+        Flux<DataBuffer> lines = (limit > 0 ? entities.take(limit) : entities)
+                .map(e -> buffers.wrap(line(toLine.apply(e))))
+                .subscribeOn(Schedulers.boundedElastic()); // room snapshots go through the room executor
+        return ServerResponse.ok().contentType(NDJSON).body(BodyInserters.fromDataBuffers(lines));
+    }
+
+    private byte[] line(Object value) {
+        try {
+            byte[] json = mapper.writeValueAsBytes(value);
+            byte[] line = Arrays.copyOf(json, json.length + 1);
+            line[json.length] = '\n';
+            return line;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize export line", e);
+        }
+    }
+}
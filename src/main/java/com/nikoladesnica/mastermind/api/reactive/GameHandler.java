@@ -0,0 +1,148 @@
+package com.nikoladesnica.mastermind.api.reactive;
+
+import com.nikoladesnica.mastermind.api.GameController;
+import com.nikoladesnica.mastermind.api.GameProjection;
+import com.nikoladesnica.mastermind.api.ViewResponses;
+import com.nikoladesnica.mastermind.api.dto.BatchGuessRequest;
+import com.nikoladesnica.mastermind.api.dto.BatchGuessResult;
+import com.nikoladesnica.mastermind.api.dto.GuessRequest;
+import com.nikoladesnica.mastermind.api.dto.NewGameResponse;
+import com.nikoladesnica.mastermind.api.view.IdempotencyCache;
+import com.nikoladesnica.mastermind.api.wire.BinaryCodec;
+import com.nikoladesnica.mastermind.api.wire.Wire;
+import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
+import com.nikoladesnica.mastermind.domain.service.AccountService;
+import com.nikoladesnica.mastermind.domain.service.GameService;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/** Reactive counterpart of {@link GameController}: same routes, bodies and caching. */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class GameHandler {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final GameService service;
+    private final AccountService accountService;
+    private final ViewResponses responses;
+    private final IdempotencyCache idempotency;
+    private final Validator validator;
+
+    public GameHandler(GameService service, AccountService accountService, ViewResponses responses,
+                       IdempotencyCache idempotency, Validator validator) {
+        this.service = service;
+        this.accountService = accountService;
+        this.responses = responses;
+        this.idempotency = idempotency;
+        this.validator = validator;
+    }
+
+    /** The secret is fetched with a non-blocking HTTP call; no thread waits for random.org. */
+    public Mono<ServerResponse> start(ServerRequest request) {
+        UUID sessionToken = Exchanges.uuidHeader(request, "X-Session-Token", false);
+        UUID accountId = sessionToken == null ? null : accountService.accountIdFromSession(sessionToken);
+        return request.bodyToMono(byte[].class) // optional NewGameRequest; overrides are ignored, as in MVC
+                .then(Mono.fromFuture(service::startGameAsync))
+                .doOnNext(game -> {
+                    if (accountId != null) accountService.recordGame(accountId, game.id(), game.startedAt());
+                })
+                .flatMap(game -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new NewGameResponse(game.id(), game.attemptsLeft(), game.status().name())));
+    }
+
+    /**
+     * Guessing takes the game's lock (and may record a win), and with an {@code Idempotency-Key} a retry may wait for
+     * the original attempt, so both paths run off the event loop.
+     */
+    public Mono<ServerResponse> guess(ServerRequest request) {
+        UUID id = Exchanges.pathId(request, "id");
+        UUID sessionToken = Exchanges.uuidHeader(request, "X-Session-Token", false);
+        String idempotencyKey = Exchanges.header(request, IdempotencyCache.HEADER, false);
+        GameProjection projection = GameProjection.parse(request.queryParam("view").orElse(null),
+                Exchanges.intParam(request, "historyFrom"), Exchanges.intParam(request, "historyLimit"), GameProjection.LATEST);
+        boolean binary = Exchanges.binaryRequested(request);
+
+        return Exchanges.guessBody(request, validator).flatMap(req -> {
+            if (idempotencyKey == null) {
+                return Exchanges.offload(() -> applyGuess(id, sessionToken, req, projection, binary))
+                        .flatMap(Exchanges::send);
+            }
+            String fingerprint = IdempotencyCache.fingerprint(req.digits(), projection, binary);
+            return Exchanges.offload(() -> idempotency.execute("game:" + id, idempotencyKey, fingerprint,
+                    () -> applyGuess(id, sessionToken, req, projection, binary))).flatMap(Exchanges::send);
+        });
+    }
+
+    private ResponseEntity<byte[]> applyGuess(UUID id, UUID sessionToken, GuessRequest req, GameProjection projection,
+                                              boolean binary) {
+        GameService.GuessOutcome outcome = service.guess(id, req.digits());
+        if (sessionToken != null && outcome.won()) {
+            accountService.recordWin(accountService.accountIdFromSession(sessionToken));
+        }
+        return responses.game(outcome.game(), projection, binary);
+    }
+
+    /**
+     * Results are written as each item is applied, in the same NDJSON/binary framing as the MVC endpoint. Items are
+     * applied off the event loop and only as fast as the client takes the results.
+     */
+    public Mono<ServerResponse> guessBatch(ServerRequest request) {
+        UUID sessionToken = Exchanges.uuidHeader(request, "X-Session-Token", false);
+        boolean binary = Exchanges.binaryRequested(request);
+
+        return Exchanges.body(request, BatchGuessRequest.class, validator)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("Malformed JSON")))
+                .flatMap(req -> {
+                    UUID accountId = sessionToken == null ? null : accountService.accountIdFromSession(sessionToken);
+                    List<GameService.BatchGuess> items = req.guesses().stream()
+                            .map(i -> new GameService.BatchGuess(i.gameId(), i.digits()))
+                            .toList();
+                    DataBufferFactory buffers = request.exchange().getResponse().bufferFactory();
+                    Flux<DataBuffer> lines = Flux.fromIterable(() -> service.batch(items))
+                            .map(outcome -> {
+                                if (accountId != null && outcome.won()) {
+                                    accountService.recordWin(accountId);
+                                }
+                                return buffers.wrap(encode(GameController.Mappers.result(outcome), binary));
+                            })
+                            .subscribeOn(Schedulers.boundedElastic()); // requests, and so items, run there too
+                    return ServerResponse.ok()
+                            .contentType(binary ? Wire.BINARY : NDJSON)
+                            .varyBy(HttpHeaders.ACCEPT)
+                            .body(BodyInserters.fromDataBuffers(lines));
+                });
+    }
+
+    public Mono<ServerResponse> get(ServerRequest request) {
+        UUID id = Exchanges.pathId(request, "id");
+        GameProjection projection = GameProjection.parse(request.queryParam("view").orElse(null),
+                Exchanges.intParam(request, "historyFrom"), Exchanges.intParam(request, "historyLimit"), GameProjection.FULL);
+        return Exchanges.send(responses.game(service.getGame(id), projection, Exchanges.binaryRequested(request)));
+    }
+
+    // Binary results are self-delimiting; JSON ones are newline-delimited
+    private byte[] encode(BatchGuessResult result, boolean binary) {
+        if (binary) return BinaryCodec.encode(result);
+        byte[] json = responses.json(result);
+        byte[] line = Arrays.copyOf(json, json.length + 1);
+        line[json.length] = '\n';
+        return line;
+    }
+}
@@ -0,0 +1,166 @@
+package com.nikoladesnica.mastermind.api.reactive;
+
+import com.nikoladesnica.mastermind.api.AccountController;
+import com.nikoladesnica.mastermind.api.MatchmakingController;
+import com.nikoladesnica.mastermind.api.StatsController;
+import com.nikoladesnica.mastermind.api.dto.CreateAccountRequest;
+import com.nikoladesnica.mastermind.api.dto.CreateAccountResponse;
+import com.nikoladesnica.mastermind.api.dto.EnqueueRequest;
+import com.nikoladesnica.mastermind.api.dto.EnqueueResponse;
+import com.nikoladesnica.mastermind.api.dto.LeaderboardEntry;
+import com.nikoladesnica.mastermind.api.dto.LoginRequest;
+import com.nikoladesnica.mastermind.api.dto.LoginResponse;
+import com.nikoladesnica.mastermind.api.dto.MatchResponse;
+import com.nikoladesnica.mastermind.api.dto.MatchmakingStatsView;
+import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
+import com.nikoladesnica.mastermind.domain.errors.NotFoundException;
+import com.nikoladesnica.mastermind.domain.model.Ticket;
+import com.nikoladesnica.mastermind.domain.ports.AccountRepository;
+import com.nikoladesnica.mastermind.domain.ports.GameRepository;
+import com.nikoladesnica.mastermind.domain.ports.LeaderboardRepository;
+import com.nikoladesnica.mastermind.domain.ports.RoomRepository;
+import com.nikoladesnica.mastermind.domain.service.AccountService;
+import com.nikoladesnica.mastermind.domain.service.MatchmakingService;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import com.nikoladesnica.mastermind.infra.stats.GameAnalytics;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Reactive counterparts of the account, leaderboard, matchmaking and stats controllers. Password hashing is
+ * deliberately slow, so account creation and login are offloaded; a ticket long-poll holds no thread.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class LobbyHandler {
+
+    private static final long MAX_WAIT_MS = 25_000; // same cap as the MVC long-poll
+
+    private final AccountService accounts;
+    private final AccountRepository accountRepo;
+    private final LeaderboardRepository leaderboard;
+    private final MatchmakingService matchmaking;
+    private final GameAnalytics analytics;
+    private final GameRepository games;
+    private final RoomRepository rooms;
+    private final RoomService roomService;
+    private final Validator validator;
+
+    public LobbyHandler(AccountService accounts, AccountRepository accountRepo, LeaderboardRepository leaderboard,
+                        MatchmakingService matchmaking, GameAnalytics analytics, GameRepository games,
+                        RoomRepository rooms, RoomService roomService, Validator validator) {
+        this.accounts = accounts;
+        this.accountRepo = accountRepo;
+        this.leaderboard = leaderboard;
+        this.matchmaking = matchmaking;
+        this.analytics = analytics;
+        this.games = games;
+        this.rooms = rooms;
+        this.roomService = roomService;
+        this.validator = validator;
+    }
+
+    public Mono<ServerResponse> createAccount(ServerRequest request) {
+        return Exchanges.body(request, CreateAccountRequest.class, validator)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("Malformed JSON")))
+                .flatMap(req -> Exchanges.offload(() -> new CreateAccountResponse(
+                        accounts.createAccount(req.username(), req.password()), req.username())))
+                .flatMap(res -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(res));
+    }
+
+    public Mono<ServerResponse> login(ServerRequest request) {
+        return Exchanges.body(request, LoginRequest.class, validator)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("Malformed JSON")))
+                .flatMap(req -> Exchanges.offload(() -> new LoginResponse(accounts.login(req.username(), req.password()))))
+                .flatMap(res -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(res));
+    }
+
+    /** Room entries are read under their room's executor, so the page is built off the event loop. */
+    public Mono<ServerResponse> accountGames(ServerRequest request) {
+        UUID id = Exchanges.pathId(request, "id");
+        String cursor = request.queryParam("cursor").orElse(null);
+        Integer limit = Exchanges.intParam(request, "limit");
+        return Exchanges.offload(() -> AccountController.Mappers.view(accounts.history(id, cursor, limit), games, rooms, roomService))
+                .flatMap(view -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(view));
+    }
+
+    public Mono<ServerResponse> leaderboard(ServerRequest request) {
+        Integer top = Exchanges.intParam(request, "top");
+        int k = (top == null || top <= 0) ? 10 : top;
+        List<LeaderboardEntry> out = leaderboard.topK(k).stream().map(s -> {
+            var acc = accountRepo.findById(s.accountId()).orElse(null);
+            var username = acc != null ? acc.username() : "unknown";
+            return new LeaderboardEntry(s.accountId(), username, s.score());
+        }).toList();
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(out);
+    }
+
+    public Mono<ServerResponse> enqueue(ServerRequest request) {
+        UUID sessionToken = Exchanges.uuidHeader(request, "X-Session-Token", false);
+        return Exchanges.body(request, EnqueueRequest.class, validator)
+                .map(EnqueueRequest::name)
+                .defaultIfEmpty("")
+                .flatMap(name -> {
+                    UUID accountId = sessionToken == null ? null : accounts.accountIdFromSession(sessionToken);
+                    int rating = accountId == null ? 0 : accounts.rating(accountId);
+                    Ticket t = matchmaking.enqueue(name.isEmpty() ? null : name, accountId, rating);
+                    return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(new EnqueueResponse(t.id(), rating, matchmaking.queueDepth()));
+                });
+    }
+
+    /** Answers as soon as the ticket is matched, with 202 WAITING after {@code waitMs}, or 410 once withdrawn. */
+    public Mono<ServerResponse> ticket(ServerRequest request) {
+        UUID ticketId = Exchanges.pathId(request, "ticketId");
+        long waitMs = Exchanges.longParam(request, "waitMs", 0);
+        Ticket t = matchmaking.ticket(ticketId).orElseThrow(() -> new NotFoundException("Ticket not found"));
+        Mono<ServerResponse> waiting = ServerResponse.status(HttpStatus.ACCEPTED).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new MatchResponse(t.id(), "WAITING", null, null, null));
+        if (waitMs <= 0 && !t.match().isDone()) {
+            return waiting;
+        }
+        return Mono.fromFuture(t.match(), true) // several polls may share the ticket's future; never cancel it
+                .timeout(Duration.ofMillis(Math.min(waitMs, MAX_WAIT_MS)), Mono.empty())
+                .flatMap(m -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new MatchResponse(t.id(), "MATCHED", m.roomId(), m.playerId(), m.playerToken())))
+                .onErrorResume(CancellationException.class, e -> ServerResponse.status(HttpStatus.GONE)
+                        .contentType(MediaType.APPLICATION_JSON).bodyValue(MatchmakingController.Mappers.withdrawn(t)))
+                .switchIfEmpty(waiting);
+    }
+
+    public Mono<ServerResponse> cancelTicket(ServerRequest request) {
+        if (!matchmaking.cancel(Exchanges.pathId(request, "ticketId"))) throw new NotFoundException("Ticket not found");
+        return ServerResponse.noContent().build();
+    }
+
+    public Mono<ServerResponse> stats(ServerRequest request) {
+        long[] counts = matchmaking.waitHistogram();
+        List<MatchmakingStatsView.Bucket> buckets = new ArrayList<>(counts.length);
+        for (int b = 0; b < counts.length; b++) {
+            Long le = b < MatchmakingService.WAIT_BUCKETS_MS.length ? MatchmakingService.WAIT_BUCKETS_MS[b] : null;
+            buckets.add(new MatchmakingStatsView.Bucket(le, counts[b]));
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(new MatchmakingStatsView(
+                matchmaking.queueDepth(),
+                matchmaking.enqueuedCount(),
+                matchmaking.matchedCount(),
+                matchmaking.roomsFormedCount(),
+                buckets));
+    }
+
+    public Mono<ServerResponse> gameStats(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(StatsController.Mappers.view(analytics));
+    }
+}
@@ -0,0 +1,69 @@
+package com.nikoladesnica.mastermind.api.reactive;
+
+import com.nikoladesnica.mastermind.api.error.ApiError;
+import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
+import com.nikoladesnica.mastermind.domain.errors.ForbiddenException;
+import com.nikoladesnica.mastermind.domain.errors.NotFoundException;
+import com.nikoladesnica.mastermind.domain.errors.UnavailableException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionException;
+
+/** Same status mapping and {@link ApiError} body as {@code GlobalExceptionHandler}, for the functional routes. */
+final class ReactiveErrors {
+
+    private ReactiveErrors() {}
+
+    /** Catches errors thrown while a handler builds its pipeline as well as those signalled by it. */
+    static HandlerFilterFunction<ServerResponse, ServerResponse> filter() {
+        return (request, next) -> Mono.defer(() -> next.handle(request))
+                .onErrorResume(e -> respond(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e, request));
+    }
+
+    private static Mono<ServerResponse> respond(Throwable ex, ServerRequest request) {
+        HttpStatus status;
+        String message = ex.getMessage();
+        if (ex instanceof BadRequestException) {
+            status = HttpStatus.BAD_REQUEST;
+        } else if (ex instanceof ForbiddenException) {
+            status = HttpStatus.FORBIDDEN;
+        } else if (ex instanceof NotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+        } else if (ex instanceof UnavailableException) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+        } else if (ex instanceof ServerWebInputException) {
+            status = HttpStatus.BAD_REQUEST;
+            message = "Bad request";
+        } else if (ex instanceof ResponseStatusException rse) {
+            HttpStatus resolved = HttpStatus.resolve(rse.getStatusCode().value());
+            status = resolved != null ? resolved : HttpStatus.INTERNAL_SERVER_ERROR;
+            message = rse.getReason() != null ? rse.getReason() : status.getReasonPhrase();
+        } else if (ex instanceof NoSuchElementException) {
+            status = HttpStatus.NOT_FOUND;
+            if (message == null) message = "Not found";
+        } else if (ex instanceof IllegalArgumentException) {
+            status = HttpStatus.BAD_REQUEST;
+            if (message == null) message = "Bad request";
+        } else {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            message = "Unexpected error";
+        }
+        ApiError body = new ApiError(
+                Instant.now().toString(),
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                request.path()
+        );
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+    }
+}
@@ -0,0 +1,76 @@
+package com.nikoladesnica.mastermind.api.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * The reactive deployment ({@code --spring.profiles.active=reactive}): the same routes as the MVC controllers,
+ * served by Netty on a few event-loop threads over the same domain services and beans.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRoutes implements WebFluxConfigurer {
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/api/**")
+                .allowedOrigins(
+                        "https://mastermind.nikoladesnica.com"
+                )
+                .allowedMethods("GET","POST","OPTIONS")
+                .allowedHeaders("*");
+    }
+
+    // Tomcat is on the classpath too (for the MVC deployment) and Boot would prefer it; this mode wants Netty's event loops
+    @Bean
+    public NettyReactiveWebServerFactory nettyServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> mastermindRoutes(GameHandler games, RoomHandler rooms, LobbyHandler lobby,
+                                                           ExportHandler export) {
+        return route()
+                .POST("/api/games", games::start)
+                .POST("/api/games/guesses/batch", games::guessBatch)
+                .POST("/api/games/{id}/guesses", games::guess)
+                .GET("/api/games/{id}", games::get)
+
+                .POST("/api/rooms", rooms::create)
+                .POST("/api/rooms/{roomId}/join", rooms::join)
+                .POST("/api/rooms/{roomId}/start", rooms::start)
+                .POST("/api/rooms/{roomId}/guesses", rooms::guess)
+                .POST("/api/rooms/{roomId}/leave", rooms::leave)
+                .POST("/api/rooms/{roomId}/kick/{playerId}", rooms::kick)
+                .POST("/api/rooms/{roomId}/promote-host", rooms::promoteHost)
+                .POST("/api/rooms/{roomId}/assign-host/{targetPlayerId}", rooms::assignHost)
+                .GET("/api/rooms/{roomId}", rooms::get)
+                .GET("/api/rooms/{roomId}/events", rooms::events)
+                .GET("/api/rooms/{roomId}/spectate", rooms::spectate)
+                .GET("/api/rooms/{roomId}/spectate/stream", rooms::spectateStream)
+
+                .POST("/api/matchmaking/enqueue", lobby::enqueue)
+                .GET("/api/matchmaking/tickets/{ticketId}", lobby::ticket)
+                .DELETE("/api/matchmaking/tickets/{ticketId}", lobby::cancelTicket)
+                .GET("/api/matchmaking/stats", lobby::stats)
+                .POST("/accounts", lobby::createAccount)
+                .POST("/login", lobby::login)
+                .GET("/api/accounts/{id}/games", lobby::accountGames)
+                .GET("/leaderboard", lobby::leaderboard)
+                .GET("/api/stats", lobby::gameStats)
+
+                .GET("/api/admin/export/games", export::games)
+                .GET("/api/admin/export/rooms", export::rooms)
+
+                .filter(ReactiveErrors.filter())
+                .build();
+    }
+}
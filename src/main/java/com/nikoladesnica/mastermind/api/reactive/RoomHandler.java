@@ -0,0 +1,222 @@
+package com.nikoladesnica.mastermind.api.reactive;
+
+import com.nikoladesnica.mastermind.api.RoomController;
+import com.nikoladesnica.mastermind.api.SpectatorHub;
+import com.nikoladesnica.mastermind.api.ViewResponses;
+import com.nikoladesnica.mastermind.api.dto.CreateRoomResponse;
+import com.nikoladesnica.mastermind.api.dto.GuessRequest;
+import com.nikoladesnica.mastermind.api.dto.JoinRoomRequest;
+import com.nikoladesnica.mastermind.api.dto.JoinRoomResponse;
+import com.nikoladesnica.mastermind.api.view.IdempotencyCache;
+import com.nikoladesnica.mastermind.domain.model.Player;
+import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.service.AccountService;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Reactive counterpart of {@link RoomController}. Room commands may wait for the room's lock or mailbox,
+ * so they are offloaded; spectator waits hold no thread at all.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class RoomHandler {
+
+    private static final long MAX_WAIT_MS = 25_000; // same cap as the MVC long-poll
+
+    private final RoomService service;
+    private final AccountService accountService;
+    private final ViewResponses responses;
+    private final SpectatorHub spectators;
+    private final IdempotencyCache idempotency;
+    private final Validator validator;
+
+    public RoomHandler(RoomService service, AccountService accountService, ViewResponses responses,
+                       SpectatorHub spectators, IdempotencyCache idempotency, Validator validator) {
+        this.service = service;
+        this.accountService = accountService;
+        this.responses = responses;
+        this.spectators = spectators;
+        this.idempotency = idempotency;
+        this.validator = validator;
+    }
+
+    public Mono<ServerResponse> create(ServerRequest request) {
+        Room room = service.createRoom();
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateRoomResponse(room.roomId(), room.hostToken()));
+    }
+
+    public Mono<ServerResponse> join(ServerRequest request) {
+        UUID roomId = Exchanges.pathId(request, "roomId");
+        UUID sessionToken = Exchanges.uuidHeader(request, "X-Session-Token", false);
+        UUID accountId = sessionToken == null ? null : accountService.accountIdFromSession(sessionToken);
+        return Exchanges.body(request, JoinRoomRequest.class, validator)
+                .map(JoinRoomRequest::name)
+                .defaultIfEmpty("")
+                .flatMap(name -> Exchanges.offload(() -> {
+                    Player p = service.join(roomId, name.isEmpty() ? null : name);
+                    if (accountId != null) accountService.recordRoomJoin(accountId, roomId, p.id());
+                    return p;
+                }))
+                .flatMap(p -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new JoinRoomResponse(roomId, p.id(), p.token())));
+    }
+
+    /** No thread waits for the secret; the room command and the response snapshot run off the event loop. */
+    public Mono<ServerResponse> start(ServerRequest request) {
+        UUID roomId = Exchanges.pathId(request, "roomId");
+        String hostToken = Exchanges.header(request, "X-Host-Token", true);
+        boolean binary = Exchanges.binaryRequested(request);
+        return Mono.fromFuture(() -> service.startAsync(roomId, hostToken))
+                .subscribeOn(Schedulers.boundedElastic())
+                .publishOn(Schedulers.boundedElastic())
+                .flatMap(room -> Exchanges.send(responses.room(room, null, null, binary)));
+    }
+
+    public Mono<ServerResponse> guess(ServerRequest request) {
+        UUID roomId = Exchanges.pathId(request, "roomId");
+        UUID playerId = Exchanges.uuidHeader(request, "X-Player-Id", true);
+        String playerToken = Exchanges.header(request, "X-Player-Token", true);
+        UUID sessionToken = Exchanges.uuidHeader(request, "X-Session-Token", false);
+        String idempotencyKey = Exchanges.header(request, IdempotencyCache.HEADER, false);
+        boolean binary = Exchanges.binaryRequested(request);
+
+        return Exchanges.guessBody(request, validator)
+                .flatMap(req -> Exchanges.offload(() -> idempotencyKey == null
+                        ? applyGuess(roomId, playerId, playerToken, sessionToken, req, binary)
+                        : idempotency.execute("room:" + roomId + ":" + playerId + ":" + playerToken, idempotencyKey,
+                                IdempotencyCache.fingerprint(req.digits(), null, binary),
+                                () -> applyGuess(roomId, playerId, playerToken, sessionToken, req, binary))))
+                .flatMap(Exchanges::send);
+    }
+
+    private ResponseEntity<byte[]> applyGuess(UUID roomId, UUID playerId, String playerToken, UUID sessionToken,
+                                              GuessRequest req, boolean binary) {
+        Room room = service.guess(roomId, playerId, playerToken, req.digits());
+        if (sessionToken != null && service.read(room, r -> RoomController.Mappers.won(r, playerId))) {
+            accountService.recordWin(accountService.accountIdFromSession(sessionToken));
+        }
+        return responses.room(room, playerId, playerToken, binary);
+    }
+
+    public Mono<ServerResponse> leave(ServerRequest request) {
+        UUID roomId = Exchanges.pathId(request, "roomId");
+        UUID playerId = Exchanges.uuidHeader(request, "X-Player-Id", true);
+        String playerToken = Exchanges.header(request, "X-Player-Token", true);
+        boolean binary = Exchanges.binaryRequested(request);
+        return Exchanges.offload(() -> responses.room(service.leave(roomId, playerId, playerToken), playerId, playerToken, binary))
+                .flatMap(Exchanges::send);
+    }
+
+    public Mono<ServerResponse> kick(ServerRequest request) {
+        UUID roomId = Exchanges.pathId(request, "roomId");
+        UUID playerId = Exchanges.pathId(request, "playerId");
+        String hostToken = Exchanges.header(request, "X-Host-Token", true);
+        boolean binary = Exchanges.binaryRequested(request);
+        return Exchanges.offload(() -> responses.room(service.kick(roomId, hostToken, playerId), null, null, binary))
+                .flatMap(Exchanges::send);
+    }
+
+    public Mono<ServerResponse> promoteHost(ServerRequest request) {
+        UUID roomId = Exchanges.pathId(request, "roomId");
+        UUID playerId = Exchanges.uuidHeader(request, "X-Player-Id", true);
+        String playerToken = Exchanges.header(request, "X-Player-Token", true);
+        return Exchanges.offload(() -> service.promoteHost(roomId, playerId, playerToken))
+                .flatMap(token -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new CreateRoomResponse(roomId, token)));
+    }
+
+    public Mono<ServerResponse> assignHost(ServerRequest request) {
+        UUID roomId = Exchanges.pathId(request, "roomId");
+        UUID targetPlayerId = Exchanges.pathId(request, "targetPlayerId");
+        String hostToken = Exchanges.header(request, "X-Host-Token", true);
+        return Exchanges.offload(() -> service.assignHost(roomId, hostToken, targetPlayerId))
+                .flatMap(token -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new CreateRoomResponse(roomId, token)));
+    }
+
+    public Mono<ServerResponse> get(ServerRequest request) {
+        UUID roomId = Exchanges.pathId(request, "roomId");
+        UUID playerId = Exchanges.uuidHeader(request, "X-Player-Id", false);
+        String playerToken = Exchanges.header(request, "X-Player-Token", false);
+        boolean binary = Exchanges.binaryRequested(request);
+        return Exchanges.offload(() -> responses.room(service.get(roomId), playerId, playerToken, binary))
+                .flatMap(Exchanges::send);
+    }
+
+    /** The log is read without the room's executor, so this stays on the event loop. */
+    public Mono<ServerResponse> events(ServerRequest request) {
+        UUID roomId = Exchanges.pathId(request, "roomId");
+        Integer from = Exchanges.intParam(request, "from");
+        Integer limit = Exchanges.intParam(request, "limit");
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(RoomController.Mappers.log(service.get(roomId), from == null ? 0 : from, limit));
+    }
+
+    /** Long-poll, as in MVC: the wait is a pending future on the spectator ring, not a parked thread. */
+    public Mono<ServerResponse> spectate(ServerRequest request) {
+        UUID roomId = Exchanges.pathId(request, "roomId");
+        long cursor = Exchanges.longParam(request, "cursor", 0);
+        long waitMs = Exchanges.longParam(request, "waitMs", 0);
+        return openRing(roomId)
+                .flatMap(ring -> Mono.fromFuture(ring.next(cursor, Math.min(waitMs, MAX_WAIT_MS))))
+                .flatMap(f -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(f.bytes()))
+                .switchIfEmpty(ServerResponse.noContent().build());
+    }
+
+    /**
+     * Server-sent events (reactive deployment only): every frame after {@code cursor} as it is published, until the
+     * room finishes or the client goes away. A lagging client skips to the newest frame, as the long-poll does,
+     * and a comment is sent whenever nothing happened for {@code MAX_WAIT_MS} so idle streams survive proxies.
+     */
+    public Mono<ServerResponse> spectateStream(ServerRequest request) {
+        UUID roomId = Exchanges.pathId(request, "roomId");
+        long cursor = Exchanges.longParam(request, "cursor", 0);
+        Flux<ServerSentEvent<String>> events = openRing(roomId)
+                .flatMapMany(ring -> next(ring, cursor).expand(step -> next(ring, step.cursor())))
+                .map(step -> step.frame() == null
+                        ? ServerSentEvent.<String>builder().comment("keep-alive").build()
+                        : ServerSentEvent.builder(new String(step.frame().bytes(), StandardCharsets.UTF_8))
+                                .id(Long.toString(step.frame().seq()))
+                                .build());
+        return ServerResponse.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(events, ServerSentEvent.class);
+    }
+
+    // frame == null: nothing new within MAX_WAIT_MS
+    private record Step(long cursor, SpectatorHub.Frame frame) {}
+
+    // Empty once the room is over and its last frame was delivered
+    private Mono<Step> next(SpectatorHub.Ring ring, long cursor) {
+        return Mono.fromFuture(() -> ring.next(cursor, MAX_WAIT_MS))
+                .map(f -> new Step(f.seq(), f))
+                .switchIfEmpty(Mono.defer(() -> {
+                    if (!ring.closed()) return Mono.just(new Step(cursor, null));
+                    // The closing frame may have been published between the wait ending and the closed check
+                    SpectatorHub.Frame last = ring.next(cursor, 0).getNow(null);
+                    return last == null ? Mono.empty() : Mono.just(new Step(last.seq(), last));
+                }));
+    }
+
+    private Mono<SpectatorHub.Ring> openRing(UUID roomId) {
+        return Exchanges.offload(() -> {
+            Room room = service.get(roomId);
+            SpectatorHub.Ring ring = spectators.open(roomId);
+            if (ring.head() == 0) service.read(room, ring::seed); // only the first spectator enters the room
+            return ring;
+        });
+    }
+}
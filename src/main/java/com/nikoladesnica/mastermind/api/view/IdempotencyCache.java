@@ -0,0 +1,200 @@
+package com.nikoladesnica.mastermind.api.view;
+
+import com.nikoladesnica.mastermind.api.wire.Wire;
+import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
+import com.nikoladesnica.mastermind.domain.errors.UnavailableException;
+import com.nikoladesnica.mastermind.infra.config.IdempotencyProperties;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Responses of non-idempotent requests, keyed by the client's {@code Idempotency-Key}, so a retried request
+ * gets the original response back instead of running again.
+ *
+ * The first request with a key reserves it before running; a concurrent retry waits for that result rather
+ * than racing it, for at most {@code awaitMs}. A failed request releases its key so it can be retried. Entries
+ * live for a fixed TTL and
+ * each stripe holds a bounded number, evicting the oldest completed one first (a stripe full of requests still
+ * running turns new keys away with a 503); stripes are locked independently.
+ */
+@Component
+public class IdempotencyCache {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // fingerprint tells a genuine retry from a different request reusing the key
+    private record Slot(String fingerprint, long expiresAtNanos, CompletableFuture<ResponseEntity<byte[]>> response) {}
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, Slot> slots = new LinkedHashMap<>(); // insertion order = expiry order
+    }
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final int perStripe;
+    private final long ttlNanos;
+    private final long awaitMs;
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+
+    public IdempotencyCache(IdempotencyProperties props) {
+        IdempotencyProperties d = IdempotencyProperties.defaults();
+        int maxEntries = props.maxEntries() > 0 ? props.maxEntries() : d.maxEntries();
+        long ttlMs = props.ttlMs() > 0 ? props.ttlMs() : d.ttlMs();
+        int n = 1;
+        while (n < (props.stripes() > 0 ? props.stripes() : d.stripes())) n <<= 1;
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) stripes[i] = new Stripe();
+        this.mask = n - 1;
+        this.perStripe = Math.max(1, maxEntries / n);
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.awaitMs = props.awaitMs() > 0 ? props.awaitMs() : d.awaitMs();
+    }
+
+    /**
+     * What a retry has to repeat: the request body and the representation it asked for, since the stored response
+     * is replayed byte for byte. {@code projection} is null where the response has only one shape.
+     */
+    public static String fingerprint(Object body, Object projection, boolean binary) {
+        return body + "\n" + projection + "\n" + (binary ? Wire.BINARY_VALUE : MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    /**
+     * Runs {@code action} once per (scope, key); later calls with the same key replay its response.
+     *
+     * @param scope       what the key applies to (e.g. the game), so equal keys on different resources never collide
+     * @param fingerprint the request content ({@link #fingerprint}); a key reused with a different one is rejected
+     */
+    public ResponseEntity<byte[]> execute(String scope, String key, String fingerprint, Supplier<ResponseEntity<byte[]>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + '\n' + key;
+        Stripe stripe = stripeFor(id);
+        long now = System.nanoTime();
+
+        Slot slot;
+        boolean owner = false;
+        stripe.lock.lock();
+        try {
+            slot = stripe.slots.get(id);
+            if (slot != null && now - slot.expiresAtNanos() >= 0) {
+                stripe.slots.remove(id);
+                slot = null;
+            }
+            if (slot == null) {
+                evict(stripe, now);
+                slot = new Slot(fingerprint, now + ttlNanos, new CompletableFuture<>());
+                stripe.slots.put(id, slot);
+                owner = true;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (!owner) {
+            if (!slot.fingerprint().equals(fingerprint)) {
+                throw new BadRequestException(HEADER + " was already used for a different request");
+            }
+            replays.increment();
+            return replayed(await(slot.response()));
+        }
+
+        executions.increment();
+        try {
+            ResponseEntity<byte[]> response = action.get();
+            slot.response().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            release(stripe, id, slot);
+            slot.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public long replays() { return replays.sum(); }
+    public long executions() { return executions.sum(); }
+
+    public int size() {
+        int n = 0;
+        for (Stripe s : stripes) {
+            s.lock.lock();
+            try {
+                n += s.slots.size();
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        return n;
+    }
+
+    private Stripe stripeFor(String id) {
+        int h = id.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    /*
+     * Under the stripe lock: drop expired entries from the old end, then make room for one more. A slot still in
+     * flight is never dropped for room, since its retries would run the request again; a stripe holding nothing
+     * else is full.
+     */
+    private void evict(Stripe stripe, long now) {
+        Iterator<Slot> it = stripe.slots.values().iterator();
+        while (it.hasNext()) {
+            Slot s = it.next();
+            boolean expired = now - s.expiresAtNanos() >= 0;
+            if (!expired && stripe.slots.size() < perStripe) break;
+            if (expired || s.response().isDone()) it.remove();
+        }
+        if (stripe.slots.size() >= perStripe) {
+            throw new UnavailableException("Too many requests with an " + HEADER + " in progress, retry later");
+        }
+    }
+
+    private void release(Stripe stripe, String id, Slot slot) {
+        stripe.lock.lock();
+        try {
+            stripe.slots.remove(id, slot);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private ResponseEntity<byte[]> await(CompletableFuture<ResponseEntity<byte[]>> response) {
+        try {
+            return response.get(awaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new UnavailableException("A request with this " + HEADER + " is still in progress, retry later");
+        } catch (ExecutionException e) {
+            // The original attempt failed: the retry fails the same way (and may try again with the same key)
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnavailableException("Interrupted while waiting for the original request");
+        }
+    }
+
+    private static ResponseEntity<byte[]> replayed(ResponseEntity<byte[]> original) {
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+}
@@ -0,0 +1,84 @@
+package com.nikoladesnica.mastermind.api.view;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nikoladesnica.mastermind.util.RequestTrace;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Serialized response bodies keyed by (entity id, variant), tagged with the entity version they were built from.
+ * A read of an unchanged entity returns the stored bytes: no DTO mapping and no JSON encoding.
+ * Mutations bump the entity version, so stale entries are simply rebuilt on the next read.
+ */
+@Component
+public class ViewCache {
+
+    private static final int MAX_ENTRIES = 50_000;
+
+    private record Key(UUID id, String variant) {}
+    private record Entry(long version, byte[] bytes) {}
+
+    private final ObjectMapper mapper;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ViewCache(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param version entity version read BEFORE building the view; a newer build stored under an older
+     *                version is only a wasted rebuild later, never a stale hit.
+     */
+    public byte[] json(UUID id, String variant, long version, Supplier<?> view) {
+        return bytes(id, variant, version, () -> encode(view.get()));
+    }
+
+    /** Same as {@link #json} for bodies that are already encoded (e.g. the binary wire format). */
+    public byte[] bytes(UUID id, String variant, long version, Supplier<byte[]> encoded) {
+        Key key = new Key(id, variant);
+        Entry cached = entries.get(key);
+        if (cached != null && cached.version() == version) {
+            hits.increment();
+            return cached.bytes();
+        }
+        misses.increment();
+        byte[] bytes = encoded.get();
+        if (entries.size() >= MAX_ENTRIES) evictSome();
+        entries.put(key, new Entry(version, bytes));
+        return bytes;
+    }
+
+    public long hits() { return hits.sum(); }
+    public long misses() { return misses.sum(); }
+    public int size() { return entries.size(); }
+
+    private byte[] encode(Object view) {
+        long t0 = RequestTrace.start();
+        try {
+            return mapper.writeValueAsBytes(view);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize view", e);
+        } finally {
+            RequestTrace.stop(RequestTrace.Stage.ENCODE, t0);
+        }
+    }
+
+    // Cheap bounded-size policy: drop an arbitrary eighth; hot entities are rebuilt on next read
+    private void evictSome() {
+        int toDrop = MAX_ENTRIES / 8;
+        Iterator<Key> it = entries.keySet().iterator();
+        while (toDrop-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.nikoladesnica.mastermind.api.wire;
+
+import com.nikoladesnica.mastermind.api.dto.BatchGuessResult;
+import com.nikoladesnica.mastermind.api.dto.GameView;
+import com.nikoladesnica.mastermind.api.dto.GuessRequest;
+import com.nikoladesnica.mastermind.api.dto.RoomView;
+import com.nikoladesnica.mastermind.domain.model.GameStatus;
+import com.nikoladesnica.mastermind.domain.model.RoomState;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hand-written encoder/decoder for {@value Wire#BINARY_VALUE}.
+ *
+ * Every message starts with a type tag byte and a format version byte. Then:
+ * <ul>
+ *   <li>UUIDs are 16 raw bytes (big-endian msb, lsb)</li>
+ *   <li>integers are unsigned LEB128 varints; nullable ones are stored as value + 1 with 0 = null</li>
+ *   <li>instants are varint epoch millis + 1 (0 = null)</li>
+ *   <li>strings are a nullable varint byte length followed by UTF-8</li>
+ *   <li>enums are one byte (ordinal)</li>
+ *   <li>digit lists have a varint header ((count &lt;&lt; 1 | wide) + 1, 0 = null), then two digits per byte
+ *       (high nibble first), or one byte per digit when some digit is above 15</li>
+ *   <li>lists have a nullable varint count</li>
+ * </ul>
+ * Batch results are self-delimiting, so a batch response is just the messages back to back.
+ */
+public final class BinaryCodec {
+
+    public static final byte GAME_VIEW = 0x01;
+    public static final byte ROOM_VIEW = 0x02;
+    public static final byte BATCH_RESULT = 0x03;
+    public static final byte GUESS_REQUEST = 0x10;
+    public static final byte VERSION = 1;
+
+    private static final GameStatus[] GAME_STATUSES = GameStatus.values();
+    private static final RoomState[] ROOM_STATES = RoomState.values();
+
+    private BinaryCodec() {}
+
+    // --- encode ---
+
+    public static byte[] encode(GameView v) {
+        Writer w = new Writer(64 + 16 * size(v.history()));
+        w.header(GAME_VIEW);
+        w.uuid(v.gameId());
+        w.u8(GameStatus.valueOf(v.status()).ordinal());
+        w.varint(v.attemptsLeft());
+        w.u8(v.canGuess() ? 1 : 0);
+        w.string(v.message());
+        w.varint(v.historyCount());
+        w.nullableVarint(v.historyFrom() == null ? null : v.historyFrom().longValue());
+        gameHistory(w, v.history());
+        return w.toByteArray();
+    }
+
+    public static byte[] encode(RoomView v) {
+        Writer w = new Writer(128 + 48 * size(v.players()) + 32 * size(v.leaderboard()));
+        w.header(ROOM_VIEW);
+        w.uuid(v.roomId());
+        w.u8(RoomState.valueOf(v.state()).ordinal());
+        w.instant(v.createdAt());
+        w.instant(v.startedAt());
+        w.instant(v.finishedAt());
+        w.instant(v.deadlineAt());
+        w.count(v.players());
+        if (v.players() != null) {
+            for (RoomView.PlayerSnapshot p : v.players()) {
+                w.uuid(p.playerId());
+                w.string(p.name());
+                w.u8(GameStatus.valueOf(p.status()).ordinal());
+                w.varint(p.attemptsLeft());
+                w.varint(p.attemptsUsed());
+                w.varint(p.bestCorrectPositions());
+                w.count(p.history());
+                if (p.history() != null) {
+                    for (RoomView.HistoryEntry e : p.history()) {
+                        w.digits(e.guess());
+                        w.varint(e.correctPositions());
+                        w.varint(e.correctNumbers());
+                        w.instant(e.at());
+                    }
+                }
+            }
+        }
+        w.count(v.leaderboard());
+        if (v.leaderboard() != null) {
+            for (RoomView.LeaderboardEntry l : v.leaderboard()) {
+                w.uuid(l.playerId());
+                w.string(l.name());
+                w.u8(GameStatus.valueOf(l.status()).ordinal());
+                w.varint(l.attemptsUsed());
+                w.nullableVarint(l.elapsedSeconds());
+            }
+        }
+        return w.toByteArray();
+    }
+
+    public static byte[] encode(BatchGuessResult r) {
+        Writer w = new Writer(40);
+        w.header(BATCH_RESULT);
+        w.varint(r.index());
+        w.u8(r.gameId() == null ? 0 : 1);
+        if (r.gameId() != null) w.uuid(r.gameId());
+        if (r.error() != null || r.errorStatus() != null) {
+            w.u8(2);
+            w.nullableVarint(r.errorStatus() == null ? null : r.errorStatus().longValue());
+            w.string(r.error());
+        } else if (r.correctPositions() != null) {
+            w.u8(0);
+            w.varint(r.correctPositions());
+            w.varint(r.correctNumbers());
+            w.u8(GameStatus.valueOf(r.status()).ordinal());
+            w.varint(r.attemptsLeft());
+        } else {
+            w.u8(1); // game already over: no feedback
+            w.u8(GameStatus.valueOf(r.status()).ordinal());
+            w.varint(r.attemptsLeft());
+        }
+        return w.toByteArray();
+    }
+
+    public static byte[] encode(GuessRequest r) {
+        Writer w = new Writer(8);
+        w.header(GUESS_REQUEST);
+        w.digits(r.digits());
+        return w.toByteArray();
+    }
+
+    private static void gameHistory(Writer w, List<GameView.HistoryEntry> history) {
+        w.count(history);
+        if (history == null) return;
+        for (GameView.HistoryEntry e : history) {
+            w.digits(e.guess());
+            w.varint(e.correctPositions());
+            w.varint(e.correctNumbers());
+            w.instant(e.at());
+        }
+    }
+
+    // --- decode ---
+
+    public static GameView decodeGameView(byte[] bytes) {
+        Reader r = new Reader(bytes);
+        r.header(GAME_VIEW);
+        UUID id = r.uuid();
+        String status = GAME_STATUSES[r.u8()].name();
+        int attemptsLeft = r.int32();
+        boolean canGuess = r.u8() != 0;
+        String message = r.string();
+        int historyCount = r.int32();
+        Long historyFrom = r.nullableVarint();
+        int n = r.count();
+        List<GameView.HistoryEntry> history = null;
+        if (n >= 0) {
+            history = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                history.add(new GameView.HistoryEntry(r.digits(), r.int32(), r.int32(), r.instant()));
+            }
+        }
+        return new GameView(id, status, attemptsLeft, canGuess, message, historyCount,
+                historyFrom == null ? null : historyFrom.intValue(), history);
+    }
+
+    public static RoomView decodeRoomView(byte[] bytes) {
+        Reader r = new Reader(bytes);
+        r.header(ROOM_VIEW);
+        UUID id = r.uuid();
+        String state = ROOM_STATES[r.u8()].name();
+        Instant created = r.instant(), started = r.instant(), finished = r.instant(), deadline = r.instant();
+
+        int np = r.count();
+        List<RoomView.PlayerSnapshot> players = null;
+        if (np >= 0) {
+            players = new ArrayList<>(np);
+            for (int i = 0; i < np; i++) {
+                UUID pid = r.uuid();
+                String name = r.string();
+                String status = GAME_STATUSES[r.u8()].name();
+                int attemptsLeft = r.int32();
+                int attemptsUsed = r.int32();
+                int best = r.int32();
+                int nh = r.count();
+                List<RoomView.HistoryEntry> history = null;
+                if (nh >= 0) {
+                    history = new ArrayList<>(nh);
+                    for (int k = 0; k < nh; k++) {
+                        history.add(new RoomView.HistoryEntry(r.digits(), r.int32(), r.int32(), r.instant()));
+                    }
+                }
+                players.add(new RoomView.PlayerSnapshot(pid, name, status, attemptsLeft, attemptsUsed, best, history));
+            }
+        }
+
+        int nl = r.count();
+        List<RoomView.LeaderboardEntry> leaderboard = null;
+        if (nl >= 0) {
+            leaderboard = new ArrayList<>(nl);
+            for (int i = 0; i < nl; i++) {
+                leaderboard.add(new RoomView.LeaderboardEntry(
+                        r.uuid(), r.string(), GAME_STATUSES[r.u8()].name(), r.int32(), r.nullableVarint()));
+            }
+        }
+        return new RoomView(id, state, created, started, finished, deadline, players, leaderboard);
+    }
+
+    /** Decodes back-to-back batch results (a whole batch response). */
+    public static List<BatchGuessResult> decodeBatchResults(byte[] bytes) {
+        Reader r = new Reader(bytes);
+        List<BatchGuessResult> out = new ArrayList<>();
+        while (r.hasRemaining()) {
+            r.header(BATCH_RESULT);
+            int index = r.int32();
+            UUID gameId = r.u8() == 0 ? null : r.uuid();
+            switch (r.u8()) {
+                case 0 -> out.add(new BatchGuessResult(index, gameId, r.int32(), r.int32(),
+                        GAME_STATUSES[r.u8()].name(), r.int32(), null, null));
+                case 1 -> out.add(new BatchGuessResult(index, gameId, null, null,
+                        GAME_STATUSES[r.u8()].name(), r.int32(), null, null));
+                case 2 -> {
+                    Long code = r.nullableVarint();
+                    out.add(new BatchGuessResult(index, gameId, null, null, null, null,
+                            code == null ? null : code.intValue(), r.string()));
+                }
+                default -> throw new MalformedMessageException("Unknown batch result kind");
+            }
+        }
+        return out;
+    }
+
+    public static GuessRequest decodeGuessRequest(byte[] bytes) {
+        Reader r = new Reader(bytes);
+        r.header(GUESS_REQUEST);
+        return new GuessRequest(r.digits());
+    }
+
+    private static int size(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+
+    /** Thrown for truncated or otherwise invalid input. */
+    public static final class MalformedMessageException extends RuntimeException {
+        public MalformedMessageException(String message) { super(message); }
+    }
+
+    // --- primitives ---
+
+    static final class Writer {
+        private byte[] buf;
+        private int pos;
+
+        Writer(int initialCapacity) {
+            buf = new byte[Math.max(16, initialCapacity)];
+        }
+
+        void header(byte type) {
+            u8(type);
+            u8(VERSION);
+        }
+
+        void u8(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void varint(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void nullableVarint(Long v) {
+            varint(v == null ? 0 : v + 1);
+        }
+
+        void uuid(UUID id) {
+            ensure(16);
+            long msb = id.getMostSignificantBits(), lsb = id.getLeastSignificantBits();
+            for (int s = 56; s >= 0; s -= 8) buf[pos++] = (byte) (msb >>> s);
+            for (int s = 56; s >= 0; s -= 8) buf[pos++] = (byte) (lsb >>> s);
+        }
+
+        void instant(Instant t) {
+            varint(t == null ? 0 : t.toEpochMilli() + 1);
+        }
+
+        void string(String s) {
+            if (s == null) {
+                varint(0);
+                return;
+            }
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length + 1L);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, buf, pos, utf8.length);
+            pos += utf8.length;
+        }
+
+        void count(List<?> list) {
+            varint(list == null ? 0 : list.size() + 1L);
+        }
+
+        void digits(List<Integer> digits) {
+            if (digits == null) {
+                varint(0);
+                return;
+            }
+            int n = digits.size();
+            boolean wide = false;
+            for (Integer d : digits) {
+                if (d == null || d < 0 || d > 255) throw new IllegalArgumentException("Digit out of range: " + d);
+                if (d > 15) wide = true;
+            }
+            varint((((long) n << 1) | (wide ? 1 : 0)) + 1);
+            if (wide) {
+                for (Integer d : digits) u8(d);
+            } else {
+                for (int i = 0; i < n; i += 2) {
+                    int hi = digits.get(i);
+                    int lo = i + 1 < n ? digits.get(i + 1) : 0;
+                    u8((hi << 4) | lo);
+                }
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+        }
+    }
+
+    static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        boolean hasRemaining() {
+            return pos < buf.length;
+        }
+
+        void header(byte expectedType) {
+            int type = u8();
+            if (type != expectedType) throw new MalformedMessageException("Unexpected message type " + type);
+            int version = u8();
+            if (version != VERSION) throw new MalformedMessageException("Unsupported version " + version);
+        }
+
+        int u8() {
+            if (pos >= buf.length) throw new MalformedMessageException("Truncated message");
+            return buf[pos++] & 0xFF;
+        }
+
+        long varint() {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = u8();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new MalformedMessageException("Varint too long");
+        }
+
+        int int32() {
+            long v = varint();
+            if (v > Integer.MAX_VALUE) throw new MalformedMessageException("Value out of range");
+            return (int) v;
+        }
+
+        Long nullableVarint() {
+            long v = varint();
+            return v == 0 ? null : v - 1;
+        }
+
+        UUID uuid() {
+            if (pos + 16 > buf.length) throw new MalformedMessageException("Truncated message");
+            long msb = 0, lsb = 0;
+            for (int i = 0; i < 8; i++) msb = (msb << 8) | (buf[pos++] & 0xFF);
+            for (int i = 0; i < 8; i++) lsb = (lsb << 8) | (buf[pos++] & 0xFF);
+            return new UUID(msb, lsb);
+        }
+
+        Instant instant() {
+            long v = varint();
+            return v == 0 ? null : Instant.ofEpochMilli(v - 1);
+        }
+
+        String string() {
+            long len = varint();
+            if (len == 0) return null;
+            int n = (int) (len - 1);
+            if (n < 0 || pos + n > buf.length) throw new MalformedMessageException("Truncated message");
+            String s = new String(buf, pos, n, StandardCharsets.UTF_8);
+            pos += n;
+            return s;
+        }
+
+        /** -1 for a null list */
+        int count() {
+            long v = varint();
+            if (v < 0 || v - 1 > buf.length - pos) throw new MalformedMessageException("List longer than message");
+            return (int) (v - 1);
+        }
+
+        List<Integer> digits() {
+            long header = varint();
+            if (header == 0) return null;
+            long h = header - 1;
+            long count = h >>> 1; // compared before narrowing: a large header must not wrap to a negative size
+            boolean wide = (h & 1) != 0;
+            if (count > 2L * (buf.length - pos) + 1) throw new MalformedMessageException("Truncated message");
+            int n = (int) count;
+            Integer[] out = new Integer[n];
+            if (wide) {
+                for (int i = 0; i < n; i++) out[i] = u8();
+            } else {
+                for (int i = 0; i < n; i += 2) {
+                    int b = u8();
+                    out[i] = b >>> 4;
+                    if (i + 1 < n) out[i + 1] = b & 0x0F;
+                }
+            }
+            return Arrays.asList(out);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.nikoladesnica.mastermind.api.wire;
+
+import com.nikoladesnica.mastermind.api.dto.GuessRequest;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+
+/**
+ * Reads {@link GuessRequest} bodies sent as {@value Wire#BINARY_VALUE}. Responses are encoded by the
+ * controllers themselves (they return cached bytes), so this converter never writes.
+ */
+public class BinaryWireConverter extends AbstractHttpMessageConverter<GuessRequest> {
+
+    private static final int MAX_BODY = 1024; // a guess is a handful of bytes
+
+    public BinaryWireConverter() {
+        super(Wire.BINARY);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return GuessRequest.class == clazz;
+    }
+
+    @Override
+    protected boolean canWrite(org.springframework.http.MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected GuessRequest readInternal(Class<? extends GuessRequest> clazz, HttpInputMessage input) throws IOException {
+        byte[] body = input.getBody().readNBytes(MAX_BODY + 1);
+        if (body.length > MAX_BODY) throw new HttpMessageNotReadableException("Binary guess too large", input);
+        try {
+            return BinaryCodec.decodeGuessRequest(body);
+        } catch (BinaryCodec.MalformedMessageException e) {
+            throw new HttpMessageNotReadableException("Malformed binary guess: " + e.getMessage(), e, input);
+        }
+    }
+
+    @Override
+    protected void writeInternal(GuessRequest request, HttpOutputMessage output) throws HttpMessageNotWritableException {
+        throw new HttpMessageNotWritableException("Binary responses are encoded by the controllers");
+    }
+}
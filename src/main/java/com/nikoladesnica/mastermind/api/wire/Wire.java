@@ -0,0 +1,40 @@
+package com.nikoladesnica.mastermind.api.wire;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/** Content negotiation between JSON (default) and the compact binary format. */
+public final class Wire {
+
+    public static final String BINARY_VALUE = "application/x-mastermind";
+    public static final MediaType BINARY = MediaType.parseMediaType(BINARY_VALUE);
+
+    private Wire() {}
+
+    /**
+     * True when the current request's Accept header names the binary type with at least JSON's quality.
+     * Wildcards never select binary, so browsers and existing clients keep getting JSON.
+     */
+    public static boolean binaryRequested() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs)) return false;
+        return binaryRequested(attrs.getRequest().getHeader(HttpHeaders.ACCEPT));
+    }
+
+    /** Same decision from a raw Accept header value (null = absent), for callers without a servlet request. */
+    public static boolean binaryRequested(String accept) {
+        if (accept == null || !accept.contains(BINARY_VALUE)) return false;
+        try {
+            double binaryQ = 0, jsonQ = 0;
+            for (MediaType t : MediaType.parseMediaTypes(accept)) {
+                if (t.equalsTypeAndSubtype(BINARY)) binaryQ = Math.max(binaryQ, t.getQualityValue());
+                else if (t.equalsTypeAndSubtype(MediaType.APPLICATION_JSON)) jsonQ = Math.max(jsonQ, t.getQualityValue());
+            }
+            return binaryQ > 0 && binaryQ >= jsonQ;
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.nikoladesnica.mastermind.domain.errors;
+
+public class UnavailableException extends RuntimeException {
+    public UnavailableException(String message) { super(message); }
+}
@@ -2,6 +2,7 @@ package com.nikoladesnica.mastermind.domain.model;
 
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Account {
     private final UUID id = UUID.randomUUID();
@@ -9,10 +10,11 @@ public class Account {
     private final byte[] passwordHash;
     private final byte[] salt;
     private final int iterations;
-    private int wins;
-    private int losses;
+    // Bumped from concurrent requests (wins in different games/rooms of the same account)
+    private final AtomicInteger wins = new AtomicInteger();
+    private final AtomicInteger losses = new AtomicInteger();
     private final Instant createdAt = Instant.now();
-    private Instant lastLoginAt;
+    private volatile Instant lastLoginAt;
 
     public Account(String username, byte[] passwordHash, byte[] salt, int iterations) {
         this.username = username;
@@ -26,12 +28,12 @@ public class Account {
     public byte[] passwordHash() { return passwordHash; }
     public byte[] salt() { return salt; }
     public int iterations() { return iterations; }
-    public int wins() { return wins; }
-    public int losses() { return losses; }
+    public int wins() { return wins.get(); }
+    public int losses() { return losses.get(); }
     public Instant createdAt() { return createdAt; }
     public Instant lastLoginAt() { return lastLoginAt; }
 
-    public void incrementWins() { wins++; }
-    public void incrementLosses() { losses++; }
+    public void incrementWins() { wins.incrementAndGet(); }
+    public void incrementLosses() { losses.incrementAndGet(); }
     public void setLastLoginAt(Instant t) { lastLoginAt = t; }
 }
@@ -0,0 +1,14 @@
+package com.nikoladesnica.mastermind.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One entry of an account's game history: which game (or room seat) and when it was attributed. Nothing here
+ * changes after the fact; status and progress are read from the game or room itself. {@code playerId} is the
+ * account's seat in a room, null for single-player games.
+ */
+public record AccountGame(Kind kind, UUID id, UUID playerId, Instant at) {
+
+    public enum Kind { GAME, ROOM }
+}
@@ -0,0 +1,44 @@
+package com.nikoladesnica.mastermind.domain.model;
+
+import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Position in finish-time order. The id breaks ties, so entities finishing in the same instant
+ * still have a total order and an export can resume exactly after the last one it delivered.
+ * Text form: {@code <ISO instant>_<uuid>}.
+ */
+public record FinishCursor(Instant finishedAt, UUID id) implements Comparable<FinishCursor> {
+
+    /** Before everything. */
+    public static final FinishCursor START = new FinishCursor(Instant.MIN, new UUID(Long.MIN_VALUE, Long.MIN_VALUE));
+
+    private static final Comparator<FinishCursor> ORDER =
+            Comparator.comparing(FinishCursor::finishedAt).thenComparing(FinishCursor::id);
+
+    /** Blank means {@link #START}. */
+    public static FinishCursor parse(String text) {
+        if (text == null || text.isBlank()) return START;
+        int sep = text.lastIndexOf('_');
+        try {
+            if (sep < 0) throw new IllegalArgumentException();
+            return new FinishCursor(Instant.parse(text.substring(0, sep)), UUID.fromString(text.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor: " + text);
+        }
+    }
+
+    @Override
+    public int compareTo(FinishCursor o) {
+        return ORDER.compare(this, o);
+    }
+
+    @Override
+    public String toString() {
+        return finishedAt + "_" + id;
+    }
+}
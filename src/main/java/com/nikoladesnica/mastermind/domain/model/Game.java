@@ -1,39 +1,64 @@
 package com.nikoladesnica.mastermind.domain.model;
 
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 public class Game {
     public record Entry(Guess guess, Feedback feedback, Instant at) {}
 
+    /** Everything a guess changes, as of one version; entries [0, historyCount) are readable with it. */
+    public record Snapshot(long version, int historyCount, int attemptsLeft, GameStatus status, Instant finishedAt) {}
+
     private final UUID id = UUID.randomUUID();
     private final Code secret;
     private final int maxAttempts;
-    private int attemptsLeft;
-    private GameStatus status = GameStatus.IN_PROGRESS;
-    private final List<Entry> history = new ArrayList<>();
+    // Written only under the game's lock (GameService); read without one. A guess stores its entry, then
+    // publishes the new state with a single volatile write, so a reader holding one snapshot never mixes
+    // counts, status and version from different guesses
+    private final Entry[] history; // one slot per attempt: a game never has more entries
+    private volatile Snapshot state;
     private final Instant startedAt = Instant.now();
 
     public Game(Code secret, int attempts) {
         this.secret = secret;
         this.maxAttempts = attempts;
-        this.attemptsLeft = attempts;
+        this.history = new Entry[Math.max(1, attempts)];
+        this.state = new Snapshot(0, 0, attempts, GameStatus.IN_PROGRESS, null);
     }
 
     public UUID id() { return id; }
     public Code secret() { return secret; }
-    public int attemptsLeft() { return attemptsLeft; }
-    public GameStatus status() { return status; }
-    public List<Entry> history() { return List.copyOf(history); }
+    /** The current state as one consistent value; read this once when several fields must agree (views). */
+    public Snapshot snapshot() { return state; }
+    public int attemptsLeft() { return state.attemptsLeft(); }
+    public GameStatus status() { return state.status(); }
+    public List<Entry> history() { return historyRange(0, state.historyCount()); }
+    public Entry lastEntry() { int n = state.historyCount(); return n == 0 ? null : history[n - 1]; }
+    public int historyCount() { return state.historyCount(); }
+    /** Copy of entries [from, to); costs O(to - from), unlike {@link #history()}. */
+    public List<Entry> historyRange(int from, int to) {
+        Objects.checkFromToIndex(from, to, state.historyCount());
+        return List.of(Arrays.copyOfRange(history, from, to));
+    }
     public Instant startedAt() { return startedAt; }
+    public Instant finishedAt() { return state.finishedAt(); }
+    public int maxAttempts() { return maxAttempts; }
+    /** Bumped on every mutation so cached views can tell they are stale. */
+    public long version() { return state.version(); }
 
     public void addEntry(Guess guess, Feedback feedback, boolean isWin) {
-        if (status != GameStatus.IN_PROGRESS) return;
-        history.add(new Entry(guess, feedback, Instant.now()));
-        attemptsLeft--;
-        if (isWin) status = GameStatus.WON;
-        else if (attemptsLeft <= 0) status = GameStatus.LOST;
-    };
+        Snapshot s = state;
+        if (s.status() != GameStatus.IN_PROGRESS) return;
+        Entry entry = new Entry(guess, feedback, Instant.now());
+        int n = s.historyCount();
+        history[n] = entry;
+        int left = s.attemptsLeft() - 1;
+        boolean over = isWin || left <= 0;
+        state = new Snapshot(s.version() + 1, n + 1, left,
+                over ? (isWin ? GameStatus.WON : GameStatus.LOST) : GameStatus.IN_PROGRESS,
+                over ? entry.at() : null);
+    }
 }
@@ -0,0 +1,15 @@
+package com.nikoladesnica.mastermind.domain.model;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * How one game ended: a single-player game, or one player's game in a room race.
+ *
+ * @param config   the rules it was played under (see {@code GameProperties#label})
+ * @param attempts guesses made, the winning one included
+ * @param opening  digits of the first guess, or null if the player never guessed (e.g. left a room)
+ * @param duration from the start of the game (or race) to the last guess or forfeit
+ */
+public record GameResult(boolean inRoom, String config, boolean won, int attempts, List<Integer> opening,
+                         Duration duration) {}
@@ -6,16 +6,24 @@ import java.util.List;
 import java.util.UUID;
 
 public class Player {
-    private final UUID id = UUID.randomUUID();
+    private final UUID id;
     private final String name;
     private final String token;
 
+    // Guarded by the room: written and read only inside its command executor (views map via RoomService.read)
     private int attemptsLeft;
     private GameStatus status = GameStatus.IN_PROGRESS;
     private Instant finishedAt; // when player WON or LOST
     private final List<Game.Entry> history = new ArrayList<>();
+    private int bestCorrectPositions; // kept per guess so opponent summaries never walk the history
 
     public Player(String name, String token, int attempts) {
+        this(UUID.randomUUID(), name, token, attempts);
+    }
+
+    /** A player with a known id, e.g. one rebuilt from the room's log (without a token). */
+    public Player(UUID id, String name, String token, int attempts) {
+        this.id = id;
         this.name = (name == null || name.isBlank()) ? ("Player-" + id.toString().substring(0, 8)) : name.trim();
         this.token = token;
         this.attemptsLeft = attempts;
@@ -26,7 +34,6 @@ public class Player {
     public String token() { return token; }
 
     public int attemptsLeft() { return attemptsLeft; }
-    public void decrementAttempt() { this.attemptsLeft--; }
 
     public GameStatus status() { return status; }
     public void setStatus(GameStatus status) { this.status = status; }
@@ -35,4 +42,18 @@ public class Player {
     public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
 
     public List<Game.Entry> history() { return history; }
+    public int attemptsUsed() { return history.size(); }
+    public int bestCorrectPositions() { return bestCorrectPositions; }
+
+    /** Appends a guess and updates the running summary. */
+    public void record(Game.Entry entry) {
+        history.add(entry);
+        attemptsLeft--;
+        bestCorrectPositions = Math.max(bestCorrectPositions, entry.feedback().correctPositions());
+    }
+
+    public void resetProgress() {
+        history.clear();
+        bestCorrectPositions = 0;
+    }
 }
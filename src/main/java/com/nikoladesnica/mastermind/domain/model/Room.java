@@ -1,16 +1,22 @@
 package com.nikoladesnica.mastermind.domain.model;
 
+import com.nikoladesnica.mastermind.domain.ports.DeadlineScheduler;
+
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 public class Room {
-    private final UUID roomId = UUID.randomUUID();
-    private String hostToken; // ← was final; now mutable
-    private final Instant createdAt = Instant.now();
+    private final UUID roomId;
+    private volatile String hostToken; // ← was final; now mutable
+    private final Instant createdAt;
 
-    private RoomState state = RoomState.WAITING;
+    private volatile RoomState state = RoomState.WAITING;
     private Instant startedAt;
     private Instant finishedAt;
+    private Instant deadlineAt;               // race time limit, null if unlimited
+    private DeadlineScheduler.Timer deadline; // cancelled when the room finishes early
 
     // Secret code for the race (set on start)
     private Code secret;
@@ -18,30 +24,136 @@ public class Room {
     // Keep insertion order for a stable leaderboard display
     private final Map<UUID, Player> players = new LinkedHashMap<>();
 
+    // Maintained on every player change so finish checks are O(1) and the leaderboard is never re-sorted
+    private final NavigableSet<Standing> standings = new ConcurrentSkipListSet<>(Standing.ORDER);
+    private final Map<UUID, Standing> standingByPlayer = new HashMap<>();
+    private long joinSeq;
+    private volatile int inProgress;
+    private volatile int won;
+    private volatile int lost;
+
+    // Bumped on every mutation so cached views can tell they are stale
+    private volatile long version;
+
+    private final RoomLog log = new RoomLog();
+
     public Room(String hostToken) {
+        this(UUID.randomUUID(), hostToken, Instant.now());
+    }
+
+    /** A room with a known identity, e.g. one rebuilt from its log. */
+    public Room(UUID roomId, String hostToken, Instant createdAt) {
+        this.roomId = roomId;
         this.hostToken = hostToken;
+        this.createdAt = createdAt;
     }
 
     public UUID roomId() { return roomId; }
     public String hostToken() { return hostToken; }
-    public void setHostToken(String hostToken) { this.hostToken = hostToken; } // ← added
+    public void setHostToken(String hostToken) { this.hostToken = hostToken; changed(); } // ← added
 
     public RoomState state() { return state; }
-    public void setState(RoomState state) { this.state = state; }
+    public void setState(RoomState state) { this.state = state; changed(); }
 
     public Instant createdAt() { return createdAt; }
     public Instant startedAt() { return startedAt; }
-    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; changed(); }
 
     public Instant finishedAt() { return finishedAt; }
-    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; changed(); }
+
+    public Instant deadlineAt() { return deadlineAt; }
+    public DeadlineScheduler.Timer deadline() { return deadline; }
+    public void setDeadline(Instant at, DeadlineScheduler.Timer timer) { this.deadlineAt = at; this.deadline = timer; changed(); }
 
     public Code secret() { return secret; }
-    public void setSecret(Code secret) { this.secret = secret; }
+    public void setSecret(Code secret) { this.secret = secret; changed(); }
+
+    /** Read-only; use {@link #addPlayer}/{@link #removePlayer} so counters and standings stay in sync. */
+    public Map<UUID, Player> players() { return Collections.unmodifiableMap(players); }
 
-    public Map<UUID, Player> players() { return players; }
+    /** Leaderboard order, kept up to date incrementally. */
+    public Collection<Standing> standings() { return Collections.unmodifiableSet(standings); }
+
+    public long version() { return version; }
+
+    /** Every command that changed the room, in order; readable without the room's executor. */
+    public RoomLog log() { return log; }
+
+    public int inProgressCount() { return inProgress; }
+    public int wonCount() { return won; }
+    public int lostCount() { return lost; }
 
     public boolean allFinished() {
-        return players.values().stream().allMatch(p -> p.status() != GameStatus.IN_PROGRESS);
+        return inProgress == 0;
+    }
+
+    public void addPlayer(Player p) {
+        players.put(p.id(), p);
+        count(p.status(), +1);
+        place(p, new Standing(Standing.rankOf(p.status()), p.history().size(), Long.MAX_VALUE, joinSeq++, p));
+    }
+
+    public Player removePlayer(UUID playerId) {
+        Player p = players.remove(playerId);
+        if (p != null) {
+            count(p.status(), -1);
+            standings.remove(standingByPlayer.remove(playerId));
+            changed();
+        }
+        return p;
+    }
+
+    /** Clears any lobby state so every player starts the race fresh. */
+    public void resetPlayers() {
+        players.values().forEach(p -> {
+            p.resetProgress();
+            setStatus(p, GameStatus.IN_PROGRESS, null);
+        });
+    }
+
+    public void recordGuess(Player p, Game.Entry entry) {
+        p.record(entry);
+        reposition(p);
+    }
+
+    /** Moves a player to WON/LOST, stamping when it happened. */
+    public void finishPlayer(Player p, GameStatus status, Instant at) {
+        setStatus(p, status, at);
+    }
+
+    private void setStatus(Player p, GameStatus status, Instant at) {
+        count(p.status(), -1);
+        p.setStatus(status);
+        p.setFinishedAt(at);
+        count(status, +1);
+        reposition(p);
+    }
+
+    private void reposition(Player p) {
+        Standing old = standingByPlayer.get(p.id());
+        long elapsed = (startedAt != null && p.finishedAt() != null)
+                ? Duration.between(startedAt, p.finishedAt()).getSeconds()
+                : Long.MAX_VALUE;
+        place(p, new Standing(Standing.rankOf(p.status()), p.history().size(), elapsed, old.joinSeq(), p));
+    }
+
+    private void place(Player p, Standing next) {
+        Standing old = standingByPlayer.put(p.id(), next);
+        if (old != null) standings.remove(old);
+        standings.add(next);
+        changed();
+    }
+
+    private void count(GameStatus status, int delta) {
+        switch (status) {
+            case IN_PROGRESS -> inProgress += delta;
+            case WON -> won += delta;
+            case LOST -> lost += delta;
+        }
+    }
+
+    private void changed() {
+        version++; // single writer: callers run inside the room's command executor
     }
 }
@@ -0,0 +1,36 @@
+package com.nikoladesnica.mastermind.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One change to a room, in the order the room's commands ran. Only what the command decided is kept (who, when,
+ * which digits); everything derived (feedback, statuses, standings, finishing) is recomputed on replay, so
+ * {@link com.nikoladesnica.mastermind.domain.service.RoomReplayer} rebuilds the same state from the same events.
+ * Tokens are never recorded.
+ */
+public sealed interface RoomEvent {
+
+    Instant at();
+
+    record Created(Instant at) implements RoomEvent {}
+
+    /** {@code name} as stored (after defaulting), {@code attempts} the player's allowance at join time. */
+    record Joined(Instant at, UUID playerId, String name, int attempts) implements RoomEvent {}
+
+    record Kicked(Instant at, UUID playerId) implements RoomEvent {}
+
+    /** Host role moved to the player (claimed or assigned). */
+    record HostChanged(Instant at, UUID playerId) implements RoomEvent {}
+
+    record Started(Instant at, Code secret) implements RoomEvent {}
+
+    /** Only guesses that were applied: rejected or ignored ones change nothing and are not recorded. */
+    record Guessed(Instant at, UUID playerId, Guess guess) implements RoomEvent {}
+
+    /** Removes the player while waiting, counts as a loss while running. */
+    record Left(Instant at, UUID playerId) implements RoomEvent {}
+
+    /** Idle timeout of one player, or the race deadline for everyone still playing ({@code playerId} null). */
+    record TimedOut(Instant at, UUID playerId) implements RoomEvent {}
+}
@@ -0,0 +1,38 @@
+package com.nikoladesnica.mastermind.domain.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A room's events, append-only. Appended inside the room's command executor (one writer at a time), read
+ * without it: an append stores the event (in a grown copy when full), publishes the array, then the count
+ * that covers it. Appending is an array store, so recording costs the command next to nothing.
+ */
+public class RoomLog {
+
+    private volatile RoomEvent[] events = new RoomEvent[16];
+    private volatile int count;
+
+    // Inside the room's command executor only
+    public void append(RoomEvent event) {
+        int n = count;
+        RoomEvent[] a = events;
+        if (n == a.length) a = Arrays.copyOf(a, n * 2);
+        a[n] = event;
+        events = a;
+        count = n + 1;
+    }
+
+    public int size() { return count; }
+
+    /** Copy of events [from, to); costs O(to - from). */
+    public List<RoomEvent> range(int from, int to) {
+        Objects.checkFromToIndex(from, to, count);
+        return List.of(Arrays.copyOfRange(events, from, to));
+    }
+
+    public List<RoomEvent> all() {
+        return range(0, count);
+    }
+}
@@ -0,0 +1,6 @@
+package com.nikoladesnica.mastermind.domain.model;
+
+import java.time.Duration;
+
+/** How a room race ended: {@code winners} is 0 when everyone lost, left or ran out of time. */
+public record RoomResult(int players, int winners, Duration duration) {}
@@ -0,0 +1,25 @@
+package com.nikoladesnica.mastermind.domain.model;
+
+import java.util.Comparator;
+
+/**
+ * A player's position key in the room leaderboard.
+ * Ordered by: WON, IN_PROGRESS, LOST; then fewer attempts used; then shorter elapsed time
+ * (unknown sorts last); then join order so the ordering is total and stable.
+ */
+public record Standing(int rank, int attemptsUsed, long elapsedSeconds, long joinSeq, Player player) {
+
+    public static final Comparator<Standing> ORDER = Comparator
+            .comparingInt(Standing::rank)
+            .thenComparingInt(Standing::attemptsUsed)
+            .thenComparingLong(Standing::elapsedSeconds)
+            .thenComparingLong(Standing::joinSeq);
+
+    public static int rankOf(GameStatus status) {
+        return switch (status) {
+            case WON -> 0;
+            case IN_PROGRESS -> 1;
+            case LOST -> 2;
+        };
+    }
+}
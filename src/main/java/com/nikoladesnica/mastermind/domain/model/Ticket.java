@@ -0,0 +1,76 @@
+package com.nikoladesnica.mastermind.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A player waiting in the matchmaking queue; completes once a room was formed for them. A ticket is settled
+ * exactly once: either formation claims it, or it is withdrawn (cancelled by the player or expired unmatched),
+ * in which case its future is cancelled.
+ */
+public class Ticket {
+    public record Match(UUID roomId, UUID playerId, String playerToken) {}
+
+    private final UUID id = UUID.randomUUID();
+    private final String name;
+    private final UUID accountId; // null for anonymous players
+    private final int rating;
+    private final Instant enqueuedAt = Instant.now();
+    private final long enqueuedNanos = System.nanoTime();
+    private final CompletableFuture<Match> match = new CompletableFuture<>();
+    private final AtomicBoolean settled = new AtomicBoolean();
+    private volatile boolean expired;
+    private volatile long matchedNanos; // when the ticket was matched, failed or withdrawn
+
+    public Ticket(String name, UUID accountId, int rating) {
+        this.name = name;
+        this.accountId = accountId;
+        this.rating = rating;
+    }
+
+    public UUID id() { return id; }
+    public String name() { return name; }
+    public UUID accountId() { return accountId; }
+    public int rating() { return rating; }
+    public Instant enqueuedAt() { return enqueuedAt; }
+    public long enqueuedNanos() { return enqueuedNanos; }
+    public CompletableFuture<Match> match() { return match; }
+    public long matchedNanos() { return matchedNanos; }
+    public boolean withdrawn() { return match.isCancelled(); }
+    public boolean expired() { return expired; }
+
+    /** Taken by formation before the player is seated; false if the ticket was withdrawn first. */
+    public boolean claim() {
+        return settled.compareAndSet(false, true);
+    }
+
+    /** Withdraws a ticket formation has not claimed; false if it was already claimed or withdrawn. */
+    public boolean cancel() {
+        return withdraw(false);
+    }
+
+    /** As {@link #cancel}, for a ticket that waited too long to be matched. */
+    public boolean expire() {
+        return withdraw(true);
+    }
+
+    private boolean withdraw(boolean expiring) {
+        if (!settled.compareAndSet(false, true)) return false;
+        expired = expiring;
+        matchedNanos = System.nanoTime();
+        match.cancel(false);
+        return true;
+    }
+
+    public void complete(Match m) {
+        matchedNanos = System.nanoTime();
+        match.complete(m);
+    }
+
+    public void fail(Throwable cause) {
+        matchedNanos = System.nanoTime();
+        match.completeExceptionally(cause);
+    }
+}
@@ -0,0 +1,17 @@
+package com.nikoladesnica.mastermind.domain.ports;
+
+import com.nikoladesnica.mastermind.domain.model.AccountGame;
+
+import java.util.List;
+import java.util.UUID;
+
+/** Per-account index of games played, append-only: positions never move, so a position is a stable cursor. */
+public interface AccountHistoryRepository {
+    void append(UUID accountId, AccountGame game);
+
+    /** Entries appended for the account so far (0 if none). */
+    int size(UUID accountId);
+
+    /** Entries at positions [from, to) in append order; costs O(to - from) whatever the account's size. */
+    List<AccountGame> range(UUID accountId, int from, int to);
+}
@@ -0,0 +1,70 @@
+package com.nikoladesnica.mastermind.domain.ports;
+
+import com.nikoladesnica.mastermind.domain.model.GameResult;
+import com.nikoladesnica.mastermind.domain.model.RoomResult;
+
+/**
+ * Told about game, room and account activity as it happens, on the request thread (and for rooms, inside the
+ * room's command). {@link #guessed} and the other timings run on every guess, so implementations must be quick,
+ * thread-safe and must not allocate there; anything heavier belongs on a thread of the implementation's own.
+ * Metrics are kept behind this port too (Micrometer in infra), so the services measure with {@code nanoTime}
+ * only.
+ */
+public interface ActivityListener {
+
+    ActivityListener NONE = new ActivityListener() { };
+
+    /** A single-player or room guess, {@code nanos} being its service time (waiting for the game or room included). */
+    default void guessed(long nanos) { }
+
+    /** A single-player game started. */
+    default void gameStarted() { }
+
+    /** A single-player game, or one player's game in a room, was won or lost. */
+    default void gameFinished(GameResult result) { }
+
+    default void roomStarted() { }
+
+    default void roomFinished(RoomResult result) { }
+
+    default void signedUp() { }
+
+    default void loggedIn() { }
+
+    default void loginFailed() { }
+
+    /** A single-player guess, lookup to saved; such guesses are reported through {@link #guessed} as well. */
+    default void gameGuessed(long nanos) { }
+
+    /** A guess found its game's lock held and waited {@code nanos} for it. */
+    default void gameLockWaited(long nanos) { }
+
+    /** A room command ("join", "start" or "guess"), waiting for the room included. */
+    default void roomCommand(String command, long nanos) { }
+
+    /** Feedback computed for one guess. */
+    default void evaluated(long nanos) { }
+
+    /** One password derivation, at signup or login. */
+    default void passwordHashed(long nanos) { }
+
+    /** Forwards every call to each listener in turn. */
+    static ActivityListener of(ActivityListener... listeners) {
+        ActivityListener[] all = listeners.clone();
+        return new ActivityListener() {
+            @Override public void guessed(long nanos) { for (ActivityListener l : all) l.guessed(nanos); }
+            @Override public void gameStarted() { for (ActivityListener l : all) l.gameStarted(); }
+            @Override public void gameFinished(GameResult result) { for (ActivityListener l : all) l.gameFinished(result); }
+            @Override public void roomStarted() { for (ActivityListener l : all) l.roomStarted(); }
+            @Override public void roomFinished(RoomResult result) { for (ActivityListener l : all) l.roomFinished(result); }
+            @Override public void signedUp() { for (ActivityListener l : all) l.signedUp(); }
+            @Override public void loggedIn() { for (ActivityListener l : all) l.loggedIn(); }
+            @Override public void loginFailed() { for (ActivityListener l : all) l.loginFailed(); }
+            @Override public void gameGuessed(long nanos) { for (ActivityListener l : all) l.gameGuessed(nanos); }
+            @Override public void gameLockWaited(long nanos) { for (ActivityListener l : all) l.gameLockWaited(nanos); }
+            @Override public void roomCommand(String command, long nanos) { for (ActivityListener l : all) l.roomCommand(command, nanos); }
+            @Override public void evaluated(long nanos) { for (ActivityListener l : all) l.evaluated(nanos); }
+            @Override public void passwordHashed(long nanos) { for (ActivityListener l : all) l.passwordHashed(nanos); }
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package com.nikoladesnica.mastermind.domain.ports;
+
+/** Runs a task once after a delay. Tasks run off the caller's thread and may fire slightly late, never early. */
+public interface DeadlineScheduler {
+
+    interface Timer {
+        /** @return false if the task already ran or was cancelled */
+        boolean cancel();
+    }
+
+    DeadlineScheduler NONE = (task, delayMs) -> () -> false;
+
+    Timer schedule(Runnable task, long delayMs);
+}
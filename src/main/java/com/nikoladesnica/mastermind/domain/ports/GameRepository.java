@@ -1,11 +1,19 @@
 package com.nikoladesnica.mastermind.domain.ports;
 
+import com.nikoladesnica.mastermind.domain.model.FinishCursor;
 import com.nikoladesnica.mastermind.domain.model.Game;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface GameRepository {
     void save(Game game);
     Optional<Game> findById(UUID id);
+
+    /** Finished games strictly after {@code after}, in finish order. Lazy: nothing is materialized up front. */
+    Stream<Game> findFinishedAfter(FinishCursor after);
+
+    /** Games saved and not finished yet (for gauges; cheap to call). */
+    long liveCount();
 }
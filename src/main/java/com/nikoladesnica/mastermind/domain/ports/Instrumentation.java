@@ -0,0 +1,51 @@
+package com.nikoladesnica.mastermind.domain.ports;
+
+import com.nikoladesnica.mastermind.domain.model.Feedback;
+
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+/**
+ * Profiling events for the services (JFR recordings in infra). A timed operation is bracketed: its {@code begin*}
+ * call runs before the work and returns a {@link Span}, which the matching call after the work gets back so the
+ * event covers exactly that work. The implementation decides whether anything is recorded, so the domain passes
+ * raw values and never formats them itself.
+ */
+public interface Instrumentation {
+
+    Instrumentation NONE = new Instrumentation() { };
+
+    /** One timed operation in progress; opaque to the domain. */
+    interface Span { }
+
+    Span NO_SPAN = new Span() { };
+
+    /** Before a single-player game's secret is generated. */
+    default Span beginGameStart() { return NO_SPAN; }
+
+    default void gameStarted(Span span, UUID gameId, int attempts) { }
+
+    /** Before a guess is scored and applied, in a single-player game or a room. */
+    default Span beginGuess() { return NO_SPAN; }
+
+    /** {@code gameId} for a single-player guess, {@code roomId} and {@code playerId} for a room guess (else null). */
+    default void guessEvaluated(Span span, UUID gameId, UUID roomId, UUID playerId, int attempt, Feedback feedback,
+                                boolean won) { }
+
+    /** Before the start command is submitted, so waiting for the room is covered. */
+    default Span beginRoomStart() { return NO_SPAN; }
+
+    default void roomStarted(Span span, UUID roomId, int players) { }
+
+    default void roomFinished(UUID roomId, int players, int winners, long raceMillis) { }
+
+    default Span beginPasswordHash() { return NO_SPAN; }
+
+    /** {@code operation} is "signup" or "login". */
+    default void passwordHashed(Span span, String operation, int iterations) { }
+
+    default Span beginWinRecord() { return NO_SPAN; }
+
+    /** {@code score} is only read if the event is recorded. */
+    default void winRecorded(Span span, UUID accountId, IntSupplier score) { }
+}
@@ -9,4 +9,7 @@ public interface LeaderboardRepository {
     void increment(UUID accountId);
     int getScore(UUID accountId);
     List<Score> topK(int k);
+
+    /** Accounts with a score. */
+    int size();
 }
@@ -0,0 +1,18 @@
+package com.nikoladesnica.mastermind.domain.ports;
+
+import com.nikoladesnica.mastermind.domain.model.Room;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs room commands one at a time per room.
+ * Implementations decide HOW commands are serialized (monitor, mailbox, ...);
+ * RoomService only relies on "no two commands for the same room run concurrently".
+ */
+public interface RoomCommandExecutor {
+
+    <T> T execute(Room room, Supplier<T> command);
+
+    /** Commands submitted but not yet finished, across all rooms (0 if not tracked). */
+    default int pendingCommands() { return 0; }
+}
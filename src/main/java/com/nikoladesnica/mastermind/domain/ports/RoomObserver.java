@@ -0,0 +1,14 @@
+package com.nikoladesnica.mastermind.domain.ports;
+
+import com.nikoladesnica.mastermind.domain.model.Room;
+
+/**
+ * Notified after every room mutation, from inside the room's command (so calls for one room never overlap
+ * and see a consistent room). Implementations must be quick and must not call back into RoomService.
+ */
+public interface RoomObserver {
+
+    RoomObserver NONE = room -> { };
+
+    void changed(Room room);
+}
@@ -1,11 +1,19 @@
 package com.nikoladesnica.mastermind.domain.ports;
 
+import com.nikoladesnica.mastermind.domain.model.FinishCursor;
 import com.nikoladesnica.mastermind.domain.model.Room;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface RoomRepository {
     void save(Room room);
     Optional<Room> findById(UUID roomId);
+
+    /** Finished rooms strictly after {@code after}, in finish order. Lazy: nothing is materialized up front. */
+    Stream<Room> findFinishedAfter(FinishCursor after);
+
+    /** Rooms saved and not finished yet (for gauges; cheap to call). */
+    long liveCount();
 }
@@ -2,6 +2,13 @@ package com.nikoladesnica.mastermind.domain.ports;
 
 import com.nikoladesnica.mastermind.domain.model.Code;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface SecretCodeGenerator {
     Code generate();
+
+    /** Non-blocking variant for callers that must not wait on I/O; local generators just complete immediately. */
+    default CompletableFuture<Code> generateAsync() {
+        return CompletableFuture.completedFuture(generate());
+    }
 }
@@ -9,4 +9,5 @@ public interface SessionRepository {
     void put(Session session);
     Optional<Session> get(UUID token);
     void remove(UUID token);
+    long count();
 }
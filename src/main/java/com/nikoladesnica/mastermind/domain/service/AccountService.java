@@ -3,33 +3,62 @@ package com.nikoladesnica.mastermind.domain.service;
 import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
 import com.nikoladesnica.mastermind.domain.errors.NotFoundException;
 import com.nikoladesnica.mastermind.domain.model.Account;
+import com.nikoladesnica.mastermind.domain.model.AccountGame;
 import com.nikoladesnica.mastermind.domain.model.Session;
+import com.nikoladesnica.mastermind.domain.ports.AccountHistoryRepository;
 import com.nikoladesnica.mastermind.domain.ports.AccountRepository;
+import com.nikoladesnica.mastermind.domain.ports.ActivityListener;
+import com.nikoladesnica.mastermind.domain.ports.Instrumentation;
 import com.nikoladesnica.mastermind.domain.ports.LeaderboardRepository;
 import com.nikoladesnica.mastermind.domain.ports.SessionRepository;
+import com.nikoladesnica.mastermind.util.RequestTrace;
 
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public class AccountService {
 
+    /** Page size when the caller gives none, and the most one page returns. */
+    public static final int DEFAULT_HISTORY_LIMIT = 20;
+    public static final int MAX_HISTORY_LIMIT = 100;
+
+    /**
+     * Newest first. {@code nextCursor} is passed back to fetch the older entries; null when there are none.
+     */
+    public record HistoryPage(List<AccountGame> games, String nextCursor) {}
+
     private final AccountRepository accounts;
     private final SessionRepository sessions;
     private final LeaderboardRepository leaderboard;
+    private final AccountHistoryRepository history;
 
     private static final int SALT_LEN = 16;
     private static final int HASH_LEN = 32; // bytes
     private static final int ITER = 120_000;
 
-    public AccountService(AccountRepository accounts, SessionRepository sessions, LeaderboardRepository leaderboard) {
+    private final ActivityListener activity;
+    private final Instrumentation instrumentation;
+
+    public AccountService(AccountRepository accounts, SessionRepository sessions, LeaderboardRepository leaderboard,
+                          AccountHistoryRepository history) {
+        this(accounts, sessions, leaderboard, ActivityListener.NONE, Instrumentation.NONE, history);
+    }
+
+    public AccountService(AccountRepository accounts, SessionRepository sessions, LeaderboardRepository leaderboard,
+                          ActivityListener activity, Instrumentation instrumentation,
+                          AccountHistoryRepository history) {
         this.accounts = accounts;
         this.sessions = sessions;
         this.leaderboard = leaderboard;
+        this.history = history;
+        this.activity = activity;
+        this.instrumentation = instrumentation;
     }
 
     public UUID createAccount(String username, String password) {
@@ -44,19 +73,22 @@ public class AccountService {
         }
         byte[] salt = new byte[SALT_LEN];
         new SecureRandom().nextBytes(salt);
-        byte[] hash = hash(password.toCharArray(), salt, ITER, HASH_LEN);
+        byte[] hash = hash("signup", password.toCharArray(), salt, ITER, HASH_LEN);
         Account a = new Account(username, hash, salt, ITER);
         accounts.save(a);
+        activity.signedUp();
         return a.id();
     }
 
     public UUID login(String username, String password) {
         Account a = accounts.findByUsername(username)
                 .orElseThrow(() -> new NotFoundException("Account not found"));
-        byte[] calc = hash(password.toCharArray(), a.salt(), a.iterations(), HASH_LEN);
+        byte[] calc = hash("login", password.toCharArray(), a.salt(), a.iterations(), HASH_LEN);
         if (!constantTimeEquals(calc, a.passwordHash())) {
+            activity.loginFailed();
             throw new BadRequestException("Invalid credentials");
         }
+        activity.loggedIn();
         a.setLastLoginAt(Instant.now());
         Session s = new Session(a.id());
         sessions.put(s);
@@ -71,20 +103,69 @@ public class AccountService {
     }
 
     public void recordWin(UUID accountId) {
+        long t0 = RequestTrace.start();
+        Instrumentation.Span span = instrumentation.beginWinRecord();
         accounts.incrementWins(accountId);
         leaderboard.increment(accountId);
+        instrumentation.winRecorded(span, accountId, () -> leaderboard.getScore(accountId));
+        RequestTrace.stop(RequestTrace.Stage.RECORD_WIN, t0);
     }
 
     public void recordLoss(UUID accountId) {
         accounts.incrementLosses(accountId);
     }
 
-    private static byte[] hash(char[] pwd, byte[] salt, int iter, int outLen) {
+    /** Attributes a single-player game to the account that started it. */
+    public void recordGame(UUID accountId, UUID gameId, Instant startedAt) {
+        history.append(accountId, new AccountGame(AccountGame.Kind.GAME, gameId, null, startedAt));
+    }
+
+    /** Attributes a room seat to the account that took it. */
+    public void recordRoomJoin(UUID accountId, UUID roomId, UUID playerId) {
+        history.append(accountId, new AccountGame(AccountGame.Kind.ROOM, roomId, playerId, Instant.now()));
+    }
+
+    /**
+     * The account's games, newest first, starting below {@code cursor} (from the newest if blank). The cursor
+     * is a position in the append-only index, so a page costs O(limit) however long the history is.
+     */
+    public HistoryPage history(UUID accountId, String cursor, Integer limit) {
+        if (accounts.findById(accountId).isEmpty()) throw new NotFoundException("Account not found");
+        int n = limit == null ? DEFAULT_HISTORY_LIMIT : limit;
+        if (n <= 0) throw new BadRequestException("limit must be > 0");
+        n = Math.min(n, MAX_HISTORY_LIMIT);
+
+        int size = history.size(accountId);
+        int to = size;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                to = Integer.parseInt(cursor);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor: " + cursor);
+            }
+            if (to < 0 || to > size) throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+        int from = Math.max(0, to - n);
+        List<AccountGame> page = history.range(accountId, from, to).reversed();
+        return new HistoryPage(page, from > 0 ? Integer.toString(from) : null);
+    }
+
+    /** Skill used for matchmaking: total wins so far. */
+    public int rating(UUID accountId) {
+        return accounts.findById(accountId).map(Account::wins).orElse(0);
+    }
+
+    private byte[] hash(String operation, char[] pwd, byte[] salt, int iter, int outLen) {
+        long t0 = System.nanoTime();
+        Instrumentation.Span span = instrumentation.beginPasswordHash();
         try {
             PBEKeySpec spec = new PBEKeySpec(pwd, salt, iter, outLen * 8);
             return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
         } catch (Exception e) {
             throw new IllegalStateException("Unable to hash password", e);
+        } finally {
+            activity.passwordHashed(System.nanoTime() - t0);
+            instrumentation.passwordHashed(span, operation, iter);
         }
     }
 
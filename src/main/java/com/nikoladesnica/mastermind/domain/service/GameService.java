@@ -4,53 +4,254 @@ import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
 import com.nikoladesnica.mastermind.domain.errors.NotFoundException;
 import com.nikoladesnica.mastermind.domain.model.Code;
 import com.nikoladesnica.mastermind.domain.model.Feedback;
+import com.nikoladesnica.mastermind.domain.model.FinishCursor;
 import com.nikoladesnica.mastermind.domain.model.Game;
+import com.nikoladesnica.mastermind.domain.model.GameResult;
 import com.nikoladesnica.mastermind.domain.model.GameStatus;
 import com.nikoladesnica.mastermind.domain.model.Guess;
+import com.nikoladesnica.mastermind.domain.ports.ActivityListener;
 import com.nikoladesnica.mastermind.domain.ports.GameRepository;
+import com.nikoladesnica.mastermind.domain.ports.Instrumentation;
 import com.nikoladesnica.mastermind.domain.ports.SecretCodeGenerator;
 import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.util.RequestTrace;
+import com.nikoladesnica.mastermind.util.StripedLocks;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class GameService {
+    // Guesses on one game are serialized by its stripe; different games almost never share one
+    private static final int LOCK_STRIPES = 1024;
+
     private final GameRepository repo;
     private final SecretCodeGenerator generator;
     private final GuessEvaluator evaluator;
     private final GameProperties props;
 
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
+    private final ActivityListener activity;
+    private final Instrumentation instrumentation;
+    private final String config;
+
+    /** Collaborators beyond the game itself, all optional: {@link #defaults} and the {@code with*} methods. */
+    public record Dependencies(ActivityListener activity, Instrumentation instrumentation) {
+
+        /** No activity listener (so no metrics) and no profiling events. */
+        public static Dependencies defaults() {
+            return new Dependencies(ActivityListener.NONE, Instrumentation.NONE);
+        }
+
+        public Dependencies withActivity(ActivityListener activity) {
+            return new Dependencies(activity, instrumentation);
+        }
+
+        public Dependencies withInstrumentation(Instrumentation instrumentation) {
+            return new Dependencies(activity, instrumentation);
+        }
+    }
+
     public GameService(GameRepository repo, SecretCodeGenerator generator, GuessEvaluator evaluator, GameProperties props) {
+        this(repo, generator, evaluator, props, Dependencies.defaults());
+    }
+
+    public GameService(GameRepository repo, SecretCodeGenerator generator, GuessEvaluator evaluator, GameProperties props,
+                       Dependencies deps) {
         this.repo = repo;
         this.generator = generator;
         this.evaluator = evaluator;
         this.props = props;
+        this.activity = deps.activity();
+        this.instrumentation = deps.instrumentation();
+        this.config = props.label();
     }
 
     public Game startGame() {
-        Code code = generator.generate();
+        Instrumentation.Span span = instrumentation.beginGameStart();
+        return newGame(generator.generate(), span);
+    }
+
+    /** Same as {@link #startGame} without blocking on the secret generator (for event-loop callers). */
+    public CompletableFuture<Game> startGameAsync() {
+        Instrumentation.Span span = instrumentation.beginGameStart();
+        return generator.generateAsync().thenApply(code -> newGame(code, span));
+    }
+
+    private Game newGame(Code code, Instrumentation.Span span) {
         Game game = new Game(code, props.attempts());
         repo.save(game);
+        activity.gameStarted();
+        instrumentation.gameStarted(span, game.id(), game.attemptsLeft());
         return game;
     }
 
+    /** One guess of a batch. */
+    public record BatchGuess(UUID gameId, List<Integer> digits) {}
+
+    /**
+     * Result of one batch item: {@code entry} is the guess it added (null if the game was already over),
+     * or {@code error} is the domain exception that rejected it.
+     */
+    public record GuessOutcome(int index, UUID gameId, Game game, Game.Entry entry, RuntimeException error) {
+        /**
+         * True only for the guess that won its game, judged from this item's own feedback rather than the game's
+         * current status, which a later or concurrent guess may have changed.
+         */
+        public boolean won() {
+            return entry != null && entry.feedback().correctPositions() == entry.guess().digits().size();
+        }
+    }
+
     public Game submitGuess(UUID id, List<Integer> digits) {
-        Game game = repo.findById(id).orElseThrow(() -> new NotFoundException("Game not found"));
-        if (game.status() != GameStatus.IN_PROGRESS) return game;
+        return guess(id, digits).game();
+    }
+
+    /** As {@link #submitGuess}, also telling whether this guess was applied and whether it won. */
+    public GuessOutcome guess(UUID id, List<Integer> digits) {
+        long t0 = System.nanoTime();
+        try {
+            Game game = find(id);
+            return new GuessOutcome(0, id, game, applyLocked(game, digits), null);
+        } finally {
+            long nanos = System.nanoTime() - t0;
+            activity.gameGuessed(nanos);
+            activity.guessed(nanos);
+        }
+    }
+
+    /**
+     * Applies many guesses in one call. Items are grouped by game (one lookup per game) and applied in
+     * request order within each game; a rejected item never affects the others. {@code sink} receives each
+     * outcome as soon as it is known, so callers can stream results while the batch is still running.
+     */
+    public void submitBatch(List<BatchGuess> items, Consumer<GuessOutcome> sink) {
+        batch(items).forEachRemaining(sink);
+    }
+
+    /**
+     * The same batch, applied lazily: each {@code next()} applies one item, so a caller that writes results
+     * as the client reads them only runs as far ahead as the client.
+     */
+    public Iterator<GuessOutcome> batch(List<BatchGuess> items) {
+        Map<UUID, List<Integer>> byGame = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            byGame.computeIfAbsent(items.get(i).gameId(), id -> new ArrayList<>()).add(i);
+        }
+        List<Integer> order = new ArrayList<>(items.size());
+        byGame.values().forEach(order::addAll);
+
+        return new Iterator<>() {
+            private int next;
+            private boolean looked; // items of one game are adjacent in order: one lookup per game
+            private UUID gameId;
+            private Game game;
+
+            @Override
+            public boolean hasNext() {
+                return next < order.size();
+            }
+
+            @Override
+            public GuessOutcome next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                int i = order.get(next++);
+                BatchGuess item = items.get(i);
+                if (!looked || !Objects.equals(gameId, item.gameId())) {
+                    gameId = item.gameId();
+                    game = gameId == null ? null : repo.findById(gameId).orElse(null);
+                    looked = true;
+                }
+                if (game == null) return new GuessOutcome(i, gameId, null, null, new NotFoundException("Game not found"));
+                GuessOutcome outcome;
+                long t0 = System.nanoTime();
+                try {
+                    outcome = new GuessOutcome(i, gameId, game, applyLocked(game, item.digits()), null);
+                } catch (BadRequestException e) {
+                    outcome = new GuessOutcome(i, gameId, game, null, e);
+                }
+                activity.guessed(System.nanoTime() - t0);
+                return outcome;
+            }
+        };
+    }
+
+    public Game getGame(UUID id) {
+        return find(id);
+    }
+
+    /** Finished games after {@code cursor} in finish order, read lazily; close the stream when done. */
+    public Stream<Game> finishedAfter(FinishCursor cursor) {
+        return repo.findFinishedAfter(cursor);
+    }
+
+    // Concurrent guesses on one game (retries, double submits) apply one at a time; readers take no lock.
+    // The uncontended path is a single tryLock, so only contention is counted and timed.
+    private Game.Entry applyLocked(Game game, List<Integer> digits) {
+        ReentrantLock lock = locks.lockFor(game.id());
+        if (!lock.tryLock()) {
+            long t0 = System.nanoTime();
+            lock.lock();
+            long waited = System.nanoTime() - t0;
+            activity.gameLockWaited(waited);
+            RequestTrace.record(RequestTrace.Stage.LOCK, waited);
+        }
+        try {
+            return apply(game, digits);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Returns the entry added, or null if the game was already over
+    private Game.Entry apply(Game game, List<Integer> digits) {
+        if (game.status() != GameStatus.IN_PROGRESS) return null;
 
         validateDigits(digits);
 
+        Instrumentation.Span span = instrumentation.beginGuess();
         Code secret = game.secret();
         Guess guess = new Guess(digits);
-        Feedback fb = evaluator.evaluate(secret, guess);
+        Feedback fb = evaluate(secret, guess);
         boolean win = fb.correctPositions() == props.codeLength();
         game.addEntry(guess, fb, win);
+        instrumentation.guessEvaluated(span, game.id(), null, null, game.historyCount(), fb, win);
+        long t0 = RequestTrace.start();
         repo.save(game);
-        return game;
+        RequestTrace.stop(RequestTrace.Stage.REPO, t0);
+        if (game.status() != GameStatus.IN_PROGRESS) {
+            activity.gameFinished(new GameResult(false, config, game.status() == GameStatus.WON, game.historyCount(),
+                    game.historyRange(0, 1).get(0).guess().digits(), Duration.between(game.startedAt(), game.finishedAt())));
+        }
+        return game.lastEntry();
     }
 
-    public Game getGame(UUID id) {
-        return repo.findById(id).orElseThrow(() -> new NotFoundException("Game not found"));
+    private Feedback evaluate(Code secret, Guess guess) {
+        long t0 = System.nanoTime();
+        Feedback fb = evaluator.evaluate(secret, guess);
+        long elapsed = System.nanoTime() - t0;
+        activity.evaluated(elapsed);
+        RequestTrace.record(RequestTrace.Stage.EVALUATE, elapsed);
+        return fb;
+    }
+
+    private Game find(UUID id) {
+        long t0 = RequestTrace.start();
+        try {
+            return repo.findById(id).orElseThrow(() -> new NotFoundException("Game not found"));
+        } finally {
+            RequestTrace.stop(RequestTrace.Stage.REPO, t0);
+        }
     }
 
     private void validateDigits(List<Integer> digits) {
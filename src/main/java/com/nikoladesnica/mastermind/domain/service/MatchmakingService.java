@@ -0,0 +1,223 @@
+package com.nikoladesnica.mastermind.domain.service;
+
+import com.nikoladesnica.mastermind.domain.errors.UnavailableException;
+import com.nikoladesnica.mastermind.domain.model.Player;
+import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.model.Ticket;
+import com.nikoladesnica.mastermind.infra.config.MatchmakingProperties;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Quick-play queue. Enqueue is a lock-free offer; a single matcher thread ({@link #formRooms()})
+ * drains it, groups tickets by rating into rooms of {@code roomSize} (a ticket that waited
+ * {@code maxWaitMs} is placed first, with its nearest ratings, in a smaller room if need be), and
+ * hands each group to {@code formation}, which creates, fills and starts the room through
+ * {@link RoomService} and completes the tickets. A ticket still unmatched after {@code ticketTtlMs} expires,
+ * a player may withdraw theirs, and at most {@code maxTickets} are held at once.
+ */
+public class MatchmakingService {
+
+    /** Upper bounds of the wait-time histogram buckets; one extra overflow bucket follows. */
+    public static final long[] WAIT_BUCKETS_MS = {50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000};
+
+    private final RoomService rooms;
+    private final AccountService accounts; // null: seats are not attributed to accounts
+    private final MatchmakingProperties props;
+    private final Executor formation;
+
+    private final Queue<Ticket> incoming = new ConcurrentLinkedQueue<>();
+    private final Map<UUID, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Queue<Ticket> matchedOrder = new ConcurrentLinkedQueue<>(); // settled tickets, for TTL expiry
+    private final AtomicInteger depth = new AtomicInteger(); // enqueued, neither claimed nor withdrawn
+
+    // Owned by the matcher thread
+    private List<Ticket> pending = new ArrayList<>();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder matched = new LongAdder();
+    private final LongAdder roomsFormed = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final AtomicLongArray waitHistogram = new AtomicLongArray(WAIT_BUCKETS_MS.length + 1);
+
+    public MatchmakingService(RoomService rooms, MatchmakingProperties props, Executor formation) {
+        this(rooms, null, props, formation);
+    }
+
+    public MatchmakingService(RoomService rooms, AccountService accounts, MatchmakingProperties props, Executor formation) {
+        this.rooms = rooms;
+        this.accounts = accounts;
+        this.props = props;
+        this.formation = formation;
+    }
+
+    public Ticket enqueue(String name, UUID accountId, int rating) {
+        if (tickets.size() >= props.maxTickets()) {
+            throw new UnavailableException("Matchmaking queue is full, retry later");
+        }
+        Ticket t = new Ticket(name, accountId, rating);
+        tickets.put(t.id(), t);
+        incoming.offer(t);
+        depth.incrementAndGet();
+        enqueued.increment();
+        return t;
+    }
+
+    public Optional<Ticket> ticket(UUID ticketId) {
+        return Optional.ofNullable(tickets.get(ticketId));
+    }
+
+    /**
+     * Forgets a ticket. One still waiting is withdrawn (its pollers see it cancelled and the matcher drops it);
+     * a matched one only stops being fetchable, the seat stays. False if there is no such ticket.
+     */
+    public boolean cancel(UUID ticketId) {
+        Ticket t = tickets.remove(ticketId);
+        if (t == null) return false;
+        if (t.cancel()) depth.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * One matcher pass. Must only be called from a single thread (the scheduler).
+     * Returns the number of rooms handed off for formation.
+     */
+    public int formRooms() {
+        expireMatched();
+        for (Ticket t; (t = incoming.poll()) != null; ) pending.add(t);
+        expireWaiting();
+        if (pending.isEmpty()) return 0;
+
+        // Stable sort: equal ratings keep arrival order
+        pending.sort(Comparator.comparingInt(Ticket::rating));
+
+        int size = Math.max(1, props.roomSize());
+        int formed = 0;
+        // Overdue tickets go first, grouped with their rating neighbours: otherwise a ticket at the edge of the
+        // rating order can be left over by every pass while full groups keep forming next to it
+        while (pending.size() >= Math.max(1, props.minPlayers())) {
+            int oldest = oldestIndex(pending);
+            if (waitedMs(pending.get(oldest)) < props.maxWaitMs()) break;
+            int n = Math.min(size, pending.size());
+            int from = closestWindow(pending, oldest, n);
+            List<Ticket> group = pending.subList(from, from + n);
+            form(List.copyOf(group));
+            formed++;
+            group.clear();
+        }
+        int i = 0;
+        for (; pending.size() - i >= size; i += size) {
+            form(List.copyOf(pending.subList(i, i + size)));
+            formed++;
+        }
+        pending = new ArrayList<>(pending.subList(i, pending.size())); // none overdue: they wait for the next pass
+        return formed;
+    }
+
+    public int queueDepth() { return depth.get(); }
+    public long enqueuedCount() { return enqueued.sum(); }
+    public long matchedCount() { return matched.sum(); }
+    public long roomsFormedCount() { return roomsFormed.sum(); }
+    public long expiredCount() { return expired.sum(); }
+
+    /** Counts per {@link #WAIT_BUCKETS_MS} bucket, overflow last. */
+    public long[] waitHistogram() {
+        long[] out = new long[waitHistogram.length()];
+        for (int b = 0; b < out.length; b++) out[b] = waitHistogram.get(b);
+        return out;
+    }
+
+    private void form(List<Ticket> grouped) {
+        formation.execute(() -> {
+            // A ticket withdrawn since the pass grouped it is left out; the rest still get their room
+            List<Ticket> group = grouped.stream().filter(Ticket::claim).toList();
+            depth.addAndGet(-group.size());
+            if (group.isEmpty()) return;
+            try {
+                Room room = rooms.createRoom();
+                List<Ticket.Match> matches = new ArrayList<>(group.size());
+                for (Ticket t : group) {
+                    Player p = rooms.join(room.roomId(), t.name());
+                    if (accounts != null && t.accountId() != null) accounts.recordRoomJoin(t.accountId(), room.roomId(), p.id());
+                    matches.add(new Ticket.Match(room.roomId(), p.id(), p.token()));
+                }
+                rooms.start(room.roomId(), room.hostToken());
+                roomsFormed.increment();
+                for (int k = 0; k < group.size(); k++) {
+                    Ticket t = group.get(k);
+                    t.complete(matches.get(k));
+                    recordWait(t);
+                    matchedOrder.offer(t);
+                }
+            } catch (RuntimeException e) {
+                for (Ticket t : group) {
+                    t.fail(e);
+                    matchedOrder.offer(t);
+                }
+            }
+        });
+    }
+
+    private void recordWait(Ticket t) {
+        matched.increment();
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(t.matchedNanos() - t.enqueuedNanos());
+        int b = 0;
+        while (b < WAIT_BUCKETS_MS.length && waitedMs > WAIT_BUCKETS_MS[b]) b++;
+        waitHistogram.incrementAndGet(b);
+    }
+
+    // Matcher thread: drops withdrawn tickets and expires those that waited ticketTtlMs unmatched
+    private void expireWaiting() {
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(props.ticketTtlMs());
+        long now = System.nanoTime();
+        pending.removeIf(t -> {
+            if (t.withdrawn()) return true;
+            if (now - t.enqueuedNanos() < ttlNanos || !t.expire()) return false;
+            depth.decrementAndGet();
+            expired.increment();
+            matchedOrder.offer(t); // stays fetchable as EXPIRED for another TTL
+            return true;
+        });
+    }
+
+    private void expireMatched() {
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(props.ticketTtlMs());
+        long now = System.nanoTime();
+        for (Ticket t; (t = matchedOrder.peek()) != null && now - t.matchedNanos() >= ttlNanos; ) {
+            matchedOrder.poll();
+            tickets.remove(t.id());
+        }
+    }
+
+    private static long waitedMs(Ticket t) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t.enqueuedNanos());
+    }
+
+    private static int oldestIndex(List<Ticket> group) {
+        int oldest = 0;
+        for (int k = 1; k < group.size(); k++) {
+            if (group.get(k).enqueuedNanos() - group.get(oldest).enqueuedNanos() < 0) oldest = k;
+        }
+        return oldest;
+    }
+
+    /** Start of the {@code n} consecutive tickets (by rating) containing {@code at} with the narrowest rating spread. */
+    private static int closestWindow(List<Ticket> sorted, int at, int n) {
+        int best = Math.max(0, at - n + 1);
+        for (int from = best + 1; from <= Math.min(at, sorted.size() - n); from++) {
+            if (spread(sorted, from, n) < spread(sorted, best, n)) best = from;
+        }
+        return best;
+    }
+
+    private static int spread(List<Ticket> sorted, int from, int n) {
+        return sorted.get(from + n - 1).rating() - sorted.get(from).rating();
+    }
+}
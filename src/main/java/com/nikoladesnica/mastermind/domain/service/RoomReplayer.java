@@ -0,0 +1,103 @@
+package com.nikoladesnica.mastermind.domain.service;
+
+import com.nikoladesnica.mastermind.domain.model.Feedback;
+import com.nikoladesnica.mastermind.domain.model.Game;
+import com.nikoladesnica.mastermind.domain.model.GameStatus;
+import com.nikoladesnica.mastermind.domain.model.Player;
+import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.model.RoomEvent;
+import com.nikoladesnica.mastermind.domain.model.RoomState;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rebuilds a room from its log ({@link Room#log()}) for audits and disputes: the same events give the same
+ * players, histories, feedback, statuses, standings and finish times as the live room, applying the rules of
+ * {@link RoomService} with the instants recorded in the events. No executor, timers, metrics or listeners are
+ * involved, so replay is a single pass over the events, and a prefix of the log gives the room as it was then.
+ */
+public class RoomReplayer {
+
+    /** {@code host} is the player holding the host role, or null while the room's creator still does. */
+    public record Replay(Room room, UUID host) {}
+
+    private final GuessEvaluator evaluator;
+
+    public RoomReplayer() {
+        this(new GuessEvaluator());
+    }
+
+    public RoomReplayer(GuessEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /** @throws IllegalArgumentException if the events could not have come from a room */
+    public Replay replay(UUID roomId, List<RoomEvent> events) {
+        if (events.isEmpty() || !(events.get(0) instanceof RoomEvent.Created created)) {
+            throw new IllegalArgumentException("A room log starts with Created");
+        }
+        Room room = new Room(roomId, null, created.at()); // tokens are never logged
+        UUID host = null;
+        for (int i = 1; i < events.size(); i++) {
+            switch (events.get(i)) {
+                case RoomEvent.Created e -> throw new IllegalArgumentException("Event " + i + ": room created twice");
+                case RoomEvent.Joined e -> room.addPlayer(new Player(e.playerId(), e.name(), null, e.attempts()));
+                case RoomEvent.Kicked e -> room.removePlayer(player(room, e.playerId(), i).id());
+                case RoomEvent.HostChanged e -> host = player(room, e.playerId(), i).id();
+                case RoomEvent.Started e -> {
+                    room.setSecret(e.secret());
+                    room.setStartedAt(e.at());
+                    room.setState(RoomState.RUNNING);
+                    room.resetPlayers();
+                }
+                case RoomEvent.Guessed e -> guessed(room, player(room, e.playerId(), i), e, i);
+                case RoomEvent.Left e -> {
+                    Player p = player(room, e.playerId(), i);
+                    if (room.state() == RoomState.WAITING) room.removePlayer(p.id());
+                    else forfeit(room, p, e.at());
+                }
+                case RoomEvent.TimedOut e -> {
+                    if (e.playerId() != null) {
+                        forfeit(room, player(room, e.playerId(), i), e.at());
+                    } else {
+                        for (Player p : room.players().values()) forfeit(room, p, e.at());
+                    }
+                }
+            }
+        }
+        return new Replay(room, host);
+    }
+
+    private void guessed(Room room, Player p, RoomEvent.Guessed e, int index) {
+        if (room.state() != RoomState.RUNNING || p.status() != GameStatus.IN_PROGRESS) {
+            throw new IllegalArgumentException("Event " + index + ": guess outside the player's race");
+        }
+        Feedback fb = evaluator.evaluate(room.secret(), e.guess());
+        room.recordGuess(p, new Game.Entry(e.guess(), fb, e.at()));
+        if (fb.correctPositions() == room.secret().digits().size()) {
+            room.finishPlayer(p, GameStatus.WON, e.at());
+            if (room.state() != RoomState.FINISHED) finishRoom(room, e.at());
+        } else if (p.attemptsLeft() <= 0) {
+            forfeit(room, p, e.at());
+        }
+    }
+
+    // Same transitions as RoomService.forfeit/finishRoom, without their side effects
+    private static void forfeit(Room room, Player p, Instant at) {
+        if (p.status() == GameStatus.IN_PROGRESS) room.finishPlayer(p, GameStatus.LOST, at);
+        if (room.allFinished()) finishRoom(room, at);
+    }
+
+    private static void finishRoom(Room room, Instant at) {
+        room.setFinishedAt(at);
+        room.setState(RoomState.FINISHED);
+    }
+
+    private static Player player(Room room, UUID playerId, int index) {
+        Player p = room.players().get(playerId);
+        if (p == null) throw new IllegalArgumentException("Event " + index + ": unknown player " + playerId);
+        return p;
+    }
+}
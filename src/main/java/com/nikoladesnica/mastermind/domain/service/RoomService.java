@@ -3,14 +3,27 @@ package com.nikoladesnica.mastermind.domain.service;
 import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
 import com.nikoladesnica.mastermind.domain.errors.ForbiddenException;
 import com.nikoladesnica.mastermind.domain.errors.NotFoundException;
+import com.nikoladesnica.mastermind.domain.errors.UnavailableException;
 import com.nikoladesnica.mastermind.domain.model.*;
+import com.nikoladesnica.mastermind.domain.ports.ActivityListener;
+import com.nikoladesnica.mastermind.domain.ports.DeadlineScheduler;
+import com.nikoladesnica.mastermind.domain.ports.Instrumentation;
+import com.nikoladesnica.mastermind.domain.ports.RoomCommandExecutor;
+import com.nikoladesnica.mastermind.domain.ports.RoomObserver;
 import com.nikoladesnica.mastermind.domain.ports.RoomRepository;
 import com.nikoladesnica.mastermind.domain.ports.SecretCodeGenerator;
 import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.infra.config.RoomProperties;
+import com.nikoladesnica.mastermind.util.RequestTrace;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class RoomService {
 
@@ -18,107 +31,206 @@ public class RoomService {
     private final SecretCodeGenerator generator;
     private final GuessEvaluator evaluator;
     private final GameProperties props;
+    private final RoomProperties roomProps;
+    private final RoomCommandExecutor executor;
+    private final RoomObserver observer;
+    private final DeadlineScheduler timers;
+    private final ActivityListener activity;
+    private final Instrumentation instrumentation;
+    private final String config;
+
+    /**
+     * Collaborators beyond the game itself. Only the executor has no sensible default (how commands are serialized
+     * is a deployment choice), so {@link #of} takes it and the {@code with*} methods replace the rest.
+     */
+    public record Dependencies(RoomProperties roomProps,
+                               RoomCommandExecutor executor,
+                               RoomObserver observer,
+                               DeadlineScheduler timers,
+                               ActivityListener activity,
+                               Instrumentation instrumentation) {
+
+        /** Default room properties, no observer, no timers, no activity listener (so no metrics) and no profiling events. */
+        public static Dependencies of(RoomCommandExecutor executor) {
+            return new Dependencies(RoomProperties.defaults(), executor, RoomObserver.NONE, DeadlineScheduler.NONE,
+                    ActivityListener.NONE, Instrumentation.NONE);
+        }
+
+        public Dependencies withRoomProps(RoomProperties roomProps) {
+            return new Dependencies(roomProps, executor, observer, timers, activity, instrumentation);
+        }
+
+        public Dependencies withObserver(RoomObserver observer) {
+            return new Dependencies(roomProps, executor, observer, timers, activity, instrumentation);
+        }
+
+        public Dependencies withTimers(DeadlineScheduler timers) {
+            return new Dependencies(roomProps, executor, observer, timers, activity, instrumentation);
+        }
+
+        public Dependencies withActivity(ActivityListener activity) {
+            return new Dependencies(roomProps, executor, observer, timers, activity, instrumentation);
+        }
+
+        public Dependencies withInstrumentation(Instrumentation instrumentation) {
+            return new Dependencies(roomProps, executor, observer, timers, activity, instrumentation);
+        }
+    }
 
     public RoomService(RoomRepository rooms,
                        SecretCodeGenerator generator,
                        GuessEvaluator evaluator,
-                       GameProperties props) {
+                       GameProperties props,
+                       Dependencies deps) {
         this.rooms = rooms;
         this.generator = generator;
         this.evaluator = evaluator;
         this.props = props;
+        this.roomProps = deps.roomProps();
+        this.executor = deps.executor();
+        this.observer = deps.observer();
+        this.timers = deps.timers();
+        this.activity = deps.activity();
+        this.instrumentation = deps.instrumentation();
+        this.config = props.label();
     }
 
     public Room createRoom() {
         String hostToken = UUID.randomUUID().toString();
         Room room = new Room(hostToken);
+        room.log().append(new RoomEvent.Created(room.createdAt()));
         rooms.save(room);
         return room;
     }
 
     public Player join(UUID roomId, String name) {
-        Room room = rooms.findById(roomId).orElseThrow(() -> new NotFoundException("Room not found"));
-        synchronized (room) {
-            if (room.state() != RoomState.WAITING) {
-                throw new BadRequestException("Room is not joinable");
-            }
-            String playerToken = UUID.randomUUID().toString();
-            Player p = new Player(name, playerToken, props.attempts());
-            room.players().put(p.id(), p);
-            rooms.save(room);
-            return p;
+        long t0 = System.nanoTime();
+        try {
+            Room room = load(roomId);
+            return executor.execute(room, () -> {
+                if (room.state() != RoomState.WAITING) {
+                    throw new BadRequestException("Room is not joinable");
+                }
+                if (roomProps.maxPlayers() > 0 && room.players().size() >= roomProps.maxPlayers()) {
+                    throw new BadRequestException("Room is full");
+                }
+                String playerToken = UUID.randomUUID().toString();
+                Player p = new Player(name, playerToken, props.attempts());
+                room.addPlayer(p);
+                room.log().append(new RoomEvent.Joined(Instant.now(), p.id(), p.name(), props.attempts()));
+                saved(room);
+                return p;
+            });
+        } finally {
+            activity.roomCommand("join", System.nanoTime() - t0);
         }
     }
 
     public Room start(UUID roomId, String hostToken) {
-        Room room = rooms.findById(roomId).orElseThrow(() -> new NotFoundException("Room not found"));
-        synchronized (room) {
-            if (!room.hostToken().equals(hostToken)) {
-                throw new ForbiddenException("Invalid host token");
-            }
-            if (room.state() != RoomState.WAITING) {
-                return room; // idempotent
-            }
-            if (room.players().isEmpty()) {
-                throw new BadRequestException("At least one player must join to start");
-            }
-            room.setSecret(generator.generate());
-            room.setStartedAt(Instant.now());
-            room.setState(RoomState.RUNNING);
-
-            room.players().values().forEach(p -> {
-                p.history().clear();
-                p.setStatus(GameStatus.IN_PROGRESS);
-                // attempts were set on construction from props
-            });
+        Room room = load(roomId);
 
-            rooms.save(room);
-            return room;
+        // The generator may call random.org (up to its timeout), so never run it inside the room command.
+        // Pre-check cheaply to avoid generating for bad tokens; the command re-checks authoritatively.
+        Code secret = null;
+        if (room.hostToken().equals(hostToken) && room.state() == RoomState.WAITING) {
+            secret = generator.generate();
         }
+        return start(room, hostToken, secret);
     }
 
-    public Room guess(UUID roomId, UUID playerId, String playerToken, List<Integer> digits) {
-        Room room = rooms.findById(roomId).orElseThrow(() -> new NotFoundException("Room not found"));
+    /**
+     * Same as {@link #start(UUID, String)} without blocking on the secret generator. The room command runs
+     * when the secret arrives, on the generator's completion thread.
+     */
+    public CompletableFuture<Room> startAsync(UUID roomId, String hostToken) {
+        Room room = load(roomId);
+        CompletableFuture<Code> secret = room.hostToken().equals(hostToken) && room.state() == RoomState.WAITING
+                ? generator.generateAsync()
+                : CompletableFuture.completedFuture(null);
+        return secret.thenApply(pregenerated -> start(room, hostToken, pregenerated));
+    }
 
-        synchronized (room) {
-            if (room.state() != RoomState.RUNNING) {
-                return room; // frozen until start or already finished
-            }
-            Player p = room.players().get(playerId);
-            if (p == null) throw new NotFoundException("Player not found");
-            if (!p.token().equals(playerToken)) throw new ForbiddenException("Invalid player token");
-            if (p.status() != GameStatus.IN_PROGRESS) {
-                return room; // player already finished; no-op
-            }
+    private Room start(Room room, String hostToken, Code pregenerated) {
+        long t0 = System.nanoTime();
+        Instrumentation.Span span = instrumentation.beginRoomStart();
+        try {
+            return executor.execute(room, () -> {
+                if (!room.hostToken().equals(hostToken)) {
+                    throw new ForbiddenException("Invalid host token");
+                }
+                if (room.state() != RoomState.WAITING) {
+                    return room; // idempotent
+                }
+                if (room.players().isEmpty()) {
+                    throw new BadRequestException("At least one player must join to start");
+                }
+                Code secret = pregenerated != null ? pregenerated : generator.generate();
+                Instant now = Instant.now();
+                room.setSecret(secret);
+                room.setStartedAt(now);
+                room.setState(RoomState.RUNNING);
 
-            validateDigits(digits);
+                room.resetPlayers(); // attempts were set on construction from props
+                room.log().append(new RoomEvent.Started(now, secret));
+                scheduleTimers(room);
+                activity.roomStarted();
 
-            Code secret = room.secret();
-            Guess guess = new Guess(digits);
-            Feedback fb = evaluator.evaluate(secret, guess);
+                saved(room);
+                instrumentation.roomStarted(span, room.roomId(), room.players().size());
+                return room;
+            });
+        } finally {
+            activity.roomCommand("start", System.nanoTime() - t0);
+        }
+    }
 
-            p.history().add(new Game.Entry(guess, fb, Instant.now()));
+    public Room guess(UUID roomId, UUID playerId, String playerToken, List<Integer> digits) {
+        long t0 = System.nanoTime();
+        try {
+            Room room = load(roomId);
 
-            p.decrementAttempt();
-            boolean win = fb.correctPositions() == props.codeLength();
-            if (win) {
-                p.setStatus(GameStatus.WON);
-                p.setFinishedAt(Instant.now());
-                if (room.state() != RoomState.FINISHED) {
-                    room.setFinishedAt(Instant.now());
-                    room.setState(RoomState.FINISHED);
+            return executor.execute(room, () -> {
+                if (room.state() != RoomState.RUNNING) {
+                    return room; // frozen until start or already finished
                 }
-            } else if (p.attemptsLeft() <= 0) {
-                p.setStatus(GameStatus.LOST);
-                p.setFinishedAt(Instant.now());
-                if (room.allFinished()) {
-                    room.setFinishedAt(Instant.now());
-                    room.setState(RoomState.FINISHED);
+                Player p = room.players().get(playerId);
+                if (p == null) throw new NotFoundException("Player not found");
+                if (!p.token().equals(playerToken)) throw new ForbiddenException("Invalid player token");
+                if (p.status() != GameStatus.IN_PROGRESS) {
+                    return room; // player already finished; no-op
                 }
-            }
 
-            rooms.save(room);
-            return room;
+                validateDigits(digits);
+
+                Instrumentation.Span span = instrumentation.beginGuess();
+                Code secret = room.secret();
+                Guess guess = new Guess(digits);
+                Feedback fb = evaluate(secret, guess);
+
+                // One instant for the guess and whatever it finishes, as replaying the log will use
+                Instant now = Instant.now();
+                room.recordGuess(p, new Game.Entry(guess, fb, now));
+                room.log().append(new RoomEvent.Guessed(now, playerId, guess));
+
+                boolean win = fb.correctPositions() == props.codeLength();
+                instrumentation.guessEvaluated(span, null, roomId, playerId, p.attemptsUsed(), fb, win);
+                if (win) {
+                    room.finishPlayer(p, GameStatus.WON, now);
+                    finished(room, p);
+                    if (room.state() != RoomState.FINISHED) {
+                        finishRoom(room, now);
+                    }
+                } else if (p.attemptsLeft() <= 0) {
+                    forfeit(room, p, now);
+                }
+
+                saved(room);
+                return room;
+            });
+        } finally {
+            long nanos = System.nanoTime() - t0;
+            activity.roomCommand("guess", nanos);
+            activity.guessed(nanos);
         }
     }
 
@@ -129,54 +241,51 @@ public class RoomService {
      * - FINISHED: no-op.
      */
     public Room leave(UUID roomId, UUID playerId, String playerToken) {
-        Room room = rooms.findById(roomId).orElseThrow(() -> new NotFoundException("Room not found"));
-        synchronized (room) {
+        Room room = load(roomId);
+        return executor.execute(room, () -> {
             Player p = room.players().get(playerId);
             if (p == null) throw new NotFoundException("Player not found");
             if (!p.token().equals(playerToken)) throw new ForbiddenException("Invalid player token");
 
+            Instant now = Instant.now();
             switch (room.state()) {
                 case WAITING -> {
                     // Remove from lobby entirely so they no longer appear
-                    room.players().remove(playerId);
+                    room.removePlayer(playerId);
+                    room.log().append(new RoomEvent.Left(now, playerId));
                 }
                 case RUNNING -> {
                     // Mark as LOST only if still playing; keep them visible with final state
-                    if (p.status() == GameStatus.IN_PROGRESS) {
-                        p.setStatus(GameStatus.LOST);
-                        p.setFinishedAt(Instant.now());
-                    }
-                    if (room.allFinished()) {
-                        room.setFinishedAt(Instant.now());
-                        room.setState(RoomState.FINISHED);
-                    }
+                    forfeit(room, p, now);
+                    room.log().append(new RoomEvent.Left(now, playerId));
                 }
                 case FINISHED -> {
                     // no-op, allow client to fetch final snapshot
                 }
             }
 
-            rooms.save(room);
+            saved(room);
             return room;
-        }
+        });
     }
 
     public Room kick(UUID roomId, String hostToken, UUID targetPlayerId) {
-        Room room = rooms.findById(roomId).orElseThrow(() -> new NotFoundException("Room not found"));
-        synchronized (room) {
+        Room room = load(roomId);
+        return executor.execute(room, () -> {
             if (room.state() != RoomState.WAITING) {
                 throw new BadRequestException("Kick is allowed only in the lobby");
             }
             if (!room.hostToken().equals(hostToken)) {
                 throw new ForbiddenException("Invalid host token");
             }
-            Player removed = room.players().remove(targetPlayerId);
+            Player removed = room.removePlayer(targetPlayerId);
             if (removed == null) {
                 throw new NotFoundException("Player not found");
             }
-            rooms.save(room);
+            room.log().append(new RoomEvent.Kicked(Instant.now(), targetPlayerId));
+            saved(room);
             return room;
-        }
+        });
     }
 
     /**
@@ -185,8 +294,8 @@ public class RoomService {
      * Returns the NEW host token.
      */
     public String promoteHost(UUID roomId, UUID playerId, String playerToken) {
-        Room room = rooms.findById(roomId).orElseThrow(() -> new NotFoundException("Room not found"));
-        synchronized (room) {
+        Room room = load(roomId);
+        return executor.execute(room, () -> {
             if (room.state() != RoomState.WAITING) {
                 throw new BadRequestException("Can only change host while waiting");
             }
@@ -196,9 +305,10 @@ public class RoomService {
 
             String newToken = UUID.randomUUID().toString();
             room.setHostToken(newToken);
-            rooms.save(room);
+            room.log().append(new RoomEvent.HostChanged(Instant.now(), playerId));
+            saved(room);
             return newToken;
-        }
+        });
     }
 
     /**
@@ -206,8 +316,8 @@ public class RoomService {
      * Returns the NEW host token (old token becomes invalid immediately).
      */
     public String assignHost(UUID roomId, String currentHostToken, UUID targetPlayerId) {
-        Room room = rooms.findById(roomId).orElseThrow(() -> new NotFoundException("Room not found"));
-        synchronized (room) {
+        Room room = load(roomId);
+        return executor.execute(room, () -> {
             if (room.state() != RoomState.WAITING) {
                 throw new BadRequestException("Can only change host while waiting");
             }
@@ -219,13 +329,139 @@ public class RoomService {
 
             String newToken = UUID.randomUUID().toString();
             room.setHostToken(newToken);
-            rooms.save(room);
+            room.log().append(new RoomEvent.HostChanged(Instant.now(), targetPlayerId));
+            saved(room);
             return newToken;
-        }
+        });
     }
 
     public Room get(UUID roomId) {
-        return rooms.findById(roomId).orElseThrow(() -> new NotFoundException("Room not found"));
+        return load(roomId);
+    }
+
+    /** Finished rooms after {@code cursor} in finish order, read lazily; close the stream when done. */
+    public Stream<Room> finishedAfter(FinishCursor cursor) {
+        return rooms.findFinishedAfter(cursor);
+    }
+
+    /** Runs a read-only function against a consistent snapshot of the room (serialized with commands). */
+    public <T> T read(Room room, Function<Room, T> reader) {
+        return executor.execute(room, () -> reader.apply(room));
+    }
+
+    /** Race deadline reached: everyone still playing loses, exactly as if they had left. */
+    private void expireRace(UUID roomId) {
+        onTimer(roomId, () -> expireRace(roomId), room -> {
+            if (room.state() != RoomState.RUNNING) return;
+            Instant now = Instant.now();
+            for (Player p : room.players().values()) {
+                forfeit(room, p, now);
+            }
+            room.log().append(new RoomEvent.TimedOut(now, null));
+            saved(room);
+        });
+    }
+
+    /** Idle timer fired: the player loses unless they guessed since it was armed, in which case re-arm for the rest. */
+    private void expireIdle(UUID roomId, UUID playerId) {
+        onTimer(roomId, () -> expireIdle(roomId, playerId), room -> {
+            Player p = room.players().get(playerId);
+            if (room.state() != RoomState.RUNNING || p == null || p.status() != GameStatus.IN_PROGRESS) return;
+            Instant lastActive = p.history().isEmpty() ? room.startedAt() : p.history().get(p.history().size() - 1).at();
+            long remainingMs = roomProps.idleTimeoutMs() - Duration.between(lastActive, Instant.now()).toMillis();
+            if (remainingMs > 0) {
+                timers.schedule(() -> expireIdle(roomId, playerId), remainingMs);
+                return;
+            }
+            Instant now = Instant.now();
+            forfeit(room, p, now);
+            room.log().append(new RoomEvent.TimedOut(now, playerId));
+            saved(room);
+        });
+    }
+
+    // Timer callbacks run on the scheduler's threads; a busy room just retries a tick later
+    private void onTimer(UUID roomId, Runnable retry, Consumer<Room> command) {
+        Room room = rooms.findById(roomId).orElse(null);
+        if (room == null) return;
+        try {
+            executor.execute(room, () -> {
+                command.accept(room);
+                return null;
+            });
+        } catch (UnavailableException busy) {
+            timers.schedule(retry, Math.max(1, roomProps.timerTickMs()));
+        }
+    }
+
+    // Inside a room command only
+    private void scheduleTimers(Room room) {
+        UUID roomId = room.roomId();
+        if (roomProps.raceTimeoutMs() > 0) {
+            DeadlineScheduler.Timer t = timers.schedule(() -> expireRace(roomId), roomProps.raceTimeoutMs());
+            room.setDeadline(room.startedAt().plusMillis(roomProps.raceTimeoutMs()), t);
+        }
+        if (roomProps.idleTimeoutMs() > 0) {
+            // One timer per player for the whole race: guesses do not reschedule, the timer re-arms itself on fire
+            for (UUID playerId : room.players().keySet()) {
+                timers.schedule(() -> expireIdle(roomId, playerId), roomProps.idleTimeoutMs());
+            }
+        }
+    }
+
+    // Shared by leave, idle timeout, race deadline and running out of attempts
+    private void forfeit(Room room, Player p, Instant at) {
+        if (p.status() == GameStatus.IN_PROGRESS) {
+            room.finishPlayer(p, GameStatus.LOST, at);
+            finished(room, p);
+        }
+        if (room.allFinished()) {
+            finishRoom(room, at);
+        }
+    }
+
+    private void finishRoom(Room room, Instant at) {
+        boolean first = room.state() == RoomState.RUNNING; // expireRace's loop may get here again
+        room.setFinishedAt(at);
+        room.setState(RoomState.FINISHED);
+        if (room.deadline() != null) room.deadline().cancel();
+        if (!first) return;
+        activity.roomFinished(new RoomResult(room.players().size(), room.wonCount(), Duration.between(room.startedAt(), at)));
+        instrumentation.roomFinished(room.roomId(), room.players().size(), room.wonCount(),
+                room.startedAt() == null ? 0 : Duration.between(room.startedAt(), at).toMillis());
+    }
+
+    // Inside a room command only, right after the player's status changed
+    private void finished(Room room, Player p) {
+        List<Game.Entry> history = p.history();
+        activity.gameFinished(new GameResult(true, config, p.status() == GameStatus.WON, p.attemptsUsed(),
+                history.isEmpty() ? null : history.get(0).guess().digits(), Duration.between(room.startedAt(), p.finishedAt())));
+    }
+
+    private Room load(UUID roomId) {
+        long t0 = RequestTrace.start();
+        try {
+            return rooms.findById(roomId).orElseThrow(() -> new NotFoundException("Room not found"));
+        } finally {
+            RequestTrace.stop(RequestTrace.Stage.REPO, t0);
+        }
+    }
+
+    // Inside a room command only
+    private void saved(Room room) {
+        long t0 = RequestTrace.start();
+        rooms.save(room);
+        RequestTrace.stop(RequestTrace.Stage.REPO, t0);
+        observer.changed(room);
+    }
+
+    private Feedback evaluate(Code secret, Guess guess) {
+        long t0 = System.nanoTime();
+        Feedback fb = evaluator.evaluate(secret, guess);
+        long elapsed = System.nanoTime() - t0;
+        activity.evaluated(elapsed);
+        RequestTrace.record(RequestTrace.Stage.EVALUATE, elapsed);
+        return fb;
     }
 
     private void validateDigits(List<Integer> digits) {
@@ -0,0 +1,12 @@
+package com.nikoladesnica.mastermind.infra.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "mastermind.analytics")
+public record AnalyticsProperties(
+        int queueCapacity  // finished games/rooms waiting to be aggregated; beyond this they are dropped
+) {
+    public static AnalyticsProperties defaults() {
+        return new AnalyticsProperties(65_536);
+    }
+}
@@ -1,31 +1,55 @@
 package com.nikoladesnica.mastermind.infra.config;
 
 import com.nikoladesnica.mastermind.domain.ports.GameRepository;
+import com.nikoladesnica.mastermind.domain.ports.Instrumentation;
 import com.nikoladesnica.mastermind.domain.ports.RoomRepository;
 import com.nikoladesnica.mastermind.domain.ports.SecretCodeGenerator;
 
 // Accounts & Leaderboard Extension
+import com.nikoladesnica.mastermind.domain.ports.AccountHistoryRepository;
 import com.nikoladesnica.mastermind.domain.ports.AccountRepository;
 import com.nikoladesnica.mastermind.domain.ports.SessionRepository;
 import com.nikoladesnica.mastermind.domain.ports.LeaderboardRepository;
 import com.nikoladesnica.mastermind.domain.service.AccountService;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryAccountHistory;
 import com.nikoladesnica.mastermind.infra.repo.InMemoryAccountRepository;
 import com.nikoladesnica.mastermind.infra.repo.InMemorySessionRepository;
 import com.nikoladesnica.mastermind.infra.repo.InMemoryLeaderboard;
 
 import com.nikoladesnica.mastermind.domain.service.GameService;
 import com.nikoladesnica.mastermind.domain.service.GuessEvaluator;
+import com.nikoladesnica.mastermind.domain.service.MatchmakingService;
 import com.nikoladesnica.mastermind.domain.service.RoomService;
+import com.nikoladesnica.mastermind.domain.ports.ActivityListener;
+import com.nikoladesnica.mastermind.domain.ports.DeadlineScheduler;
+import com.nikoladesnica.mastermind.domain.ports.RoomCommandExecutor;
+import com.nikoladesnica.mastermind.domain.ports.RoomObserver;
+import com.nikoladesnica.mastermind.infra.exec.MailboxRoomExecutor;
+import com.nikoladesnica.mastermind.infra.exec.LockingRoomExecutor;
+import com.nikoladesnica.mastermind.infra.exec.MatchmakingScheduler;
+import com.nikoladesnica.mastermind.infra.exec.TimingWheel;
 import com.nikoladesnica.mastermind.infra.generator.LocalCodeGenerator;
 import com.nikoladesnica.mastermind.infra.generator.RandomOrgCodeGenerator;
+import com.nikoladesnica.mastermind.infra.jfr.JfrInstrumentation;
 import com.nikoladesnica.mastermind.infra.repo.InMemoryGameRepository;
 import com.nikoladesnica.mastermind.infra.repo.InMemoryRoomRepository;
+import com.nikoladesnica.mastermind.infra.stats.GameAnalytics;
+import com.nikoladesnica.mastermind.infra.stats.LiveStats;
+import com.nikoladesnica.mastermind.infra.stats.MeteredActivity;
+import com.nikoladesnica.mastermind.infra.stats.ThroughputEndpoint;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
 @Configuration
-@EnableConfigurationProperties({GameProperties.class, LeaderboardProperties.class})
+@EnableConfigurationProperties({GameProperties.class, LeaderboardProperties.class, RoomProperties.class,
+        MatchmakingProperties.class, IdempotencyProperties.class, TracingProperties.class, AnalyticsProperties.class})
 public class BeanConfig {
 
     @Bean
@@ -39,13 +63,32 @@ public class BeanConfig {
     }
 
     @Bean
-    public SecretCodeGenerator secretCodeGenerator(GameProperties props) {
+    public SecretCodeGenerator secretCodeGenerator(GameProperties props, MeterRegistry meters) {
         if (props.useRandomOrg()) {
-            return new RandomOrgCodeGenerator(props);
+            return new RandomOrgCodeGenerator(props, meters);
         }
         return new LocalCodeGenerator(props);
     }
 
+    @Bean
+    public RoomCommandExecutor roomCommandExecutor(RoomProperties props, MeterRegistry meters) {
+        long timeoutMs = props.commandTimeoutMs() > 0 ? props.commandTimeoutMs() : 2000;
+        if (props.execution() == RoomProperties.Execution.MAILBOX) {
+            int threads = props.mailboxThreads() > 0 ? props.mailboxThreads() : Runtime.getRuntime().availableProcessors();
+            int capacity = props.mailboxCapacity() > 0 ? props.mailboxCapacity() : 1024;
+            return new MailboxRoomExecutor(threads, capacity, timeoutMs, meters);
+        }
+        int stripes = props.lockStripes() > 0 ? props.lockStripes() : 1024;
+        return new LockingRoomExecutor(stripes, timeoutMs, meters);
+    }
+
+    @Bean(destroyMethod = "close")
+    public TimingWheel deadlineScheduler(RoomProperties props) {
+        long tickMs = props.timerTickMs() > 0 ? props.timerTickMs() : 100;
+        // Expired timers run room commands, which may wait for the room; keep that off the wheel thread
+        return new TimingWheel(Duration.ofMillis(tickMs), Executors.newVirtualThreadPerTaskExecutor());
+    }
+
     @Bean
     public GuessEvaluator guessEvaluator() {
         return new GuessEvaluator();
@@ -61,32 +104,122 @@ public class BeanConfig {
         return new InMemorySessionRepository();
     }
 
+    @Bean
+    public AccountHistoryRepository accountHistoryRepository() {
+        return new InMemoryAccountHistory();
+    }
+
     @Bean
     public LeaderboardRepository leaderboardRepository(LeaderboardProperties props) {
         int k = props.topK() > 0 ? props.topK() : 10;
         return new InMemoryLeaderboard(k);
     }
 
+    /** Rolling 1/5/15 minute throughput, fed by the services below. */
+    @Bean
+    public LiveStats liveStats() {
+        return new LiveStats();
+    }
+
+    @Bean
+    public ThroughputEndpoint throughputEndpoint(LiveStats stats) {
+        return new ThroughputEndpoint(stats);
+    }
+
+    /** Gameplay aggregates for GET /api/stats, built on their own thread from finished games and rooms. */
+    @Bean(destroyMethod = "close")
+    public GameAnalytics gameAnalytics(AnalyticsProperties props) {
+        int capacity = props.queueCapacity() > 0 ? props.queueCapacity() : AnalyticsProperties.defaults().queueCapacity();
+        return new GameAnalytics(capacity);
+    }
+
+    /** The services' Micrometer meters (guess, room command, evaluation, password hash and login timings). */
+    @Bean
+    public MeteredActivity meteredActivity(MeterRegistry meters) {
+        return new MeteredActivity(meters);
+    }
+
+    /** Gameplay JFR events; written only while a recording enables them (see jfr/mastermind.jfc). */
+    @Bean
+    public Instrumentation instrumentation() {
+        return new JfrInstrumentation();
+    }
+
     @Bean
     public GameService gameService(GameRepository repo,
                                    SecretCodeGenerator gen,
                                    GuessEvaluator eval,
-                                   GameProperties props) {
-        return new GameService(repo, gen, eval, props);
+                                   GameProperties props,
+                                   MeteredActivity metered,
+                                   LiveStats stats,
+                                   GameAnalytics analytics,
+                                   Instrumentation instrumentation) {
+        return new GameService(repo, gen, eval, props, GameService.Dependencies.defaults()
+                .withActivity(ActivityListener.of(stats, analytics, metered))
+                .withInstrumentation(instrumentation));
     }
 
     @Bean
     public RoomService roomService(RoomRepository rooms,
                                    SecretCodeGenerator gen,
                                    GuessEvaluator eval,
-                                   GameProperties props) {
-        return new RoomService(rooms, gen, eval, props);
+                                   GameProperties props,
+                                   RoomProperties roomProps,
+                                   RoomCommandExecutor executor,
+                                   RoomObserver observer,
+                                   DeadlineScheduler timers,
+                                   MeteredActivity metered,
+                                   LiveStats stats,
+                                   GameAnalytics analytics,
+                                   Instrumentation instrumentation) {
+        return new RoomService(rooms, gen, eval, props, RoomService.Dependencies.of(executor)
+                .withRoomProps(roomProps)
+                .withObserver(observer)
+                .withTimers(timers)
+                .withActivity(ActivityListener.of(stats, analytics, metered))
+                .withInstrumentation(instrumentation));
+    }
+
+    @Bean
+    public MatchmakingService matchmakingService(RoomService rooms, AccountService accounts, MatchmakingProperties props) {
+        MatchmakingProperties d = MatchmakingProperties.defaults();
+        MatchmakingProperties effective = new MatchmakingProperties(
+                props.roomSize() > 0 ? props.roomSize() : d.roomSize(),
+                props.minPlayers() > 0 ? props.minPlayers() : d.minPlayers(),
+                props.maxWaitMs() > 0 ? props.maxWaitMs() : d.maxWaitMs(),
+                props.tickMs() > 0 ? props.tickMs() : d.tickMs(),
+                props.ticketTtlMs() > 0 ? props.ticketTtlMs() : d.ticketTtlMs(),
+                props.maxTickets() > 0 ? props.maxTickets() : d.maxTickets());
+        // Room formation may call random.org on start; keep it off the matcher thread
+        return new MatchmakingService(rooms, accounts, effective, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(destroyMethod = "close")
+    public MatchmakingScheduler matchmakingScheduler(MatchmakingService matchmaking, MatchmakingProperties props) {
+        return new MatchmakingScheduler(matchmaking::formRooms, props.tickMs() > 0 ? props.tickMs() : 100);
     }
 
     @Bean
     public AccountService accountService(AccountRepository accounts,
                                          SessionRepository sessions,
-                                         LeaderboardRepository leaderboard) {
-        return new AccountService(accounts, sessions, leaderboard);
+                                         LeaderboardRepository leaderboard,
+                                         MeteredActivity metered,
+                                         LiveStats stats,
+                                         Instrumentation instrumentation,
+                                         AccountHistoryRepository history) {
+        return new AccountService(accounts, sessions, leaderboard, ActivityListener.of(stats, metered), instrumentation,
+                history);
+    }
+
+    /** Sizes read at scrape time; every repository answers in O(1). */
+    @Bean
+    public MeterBinder mastermindGauges(GameRepository games, RoomRepository rooms, SessionRepository sessions,
+                                        LeaderboardRepository leaderboard) {
+        return registry -> {
+            Gauge.builder("mastermind.games.live", games, GameRepository::liveCount).register(registry);
+            Gauge.builder("mastermind.rooms.live", rooms, RoomRepository::liveCount).register(registry);
+            Gauge.builder("mastermind.sessions", sessions, SessionRepository::count).register(registry);
+            Gauge.builder("mastermind.leaderboard.size", leaderboard, LeaderboardRepository::size).register(registry);
+        };
     }
 }
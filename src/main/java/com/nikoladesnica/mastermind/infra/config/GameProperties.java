@@ -13,4 +13,10 @@ public record GameProperties(
         RandomOrg randomOrg
 ) {
     public record RandomOrg(String baseUrl, int timeoutMs) {}
+
+    /** The rules a game is played under, e.g. "4 digits 0-7, repeats, 10 attempts" (analytics group by it). */
+    public String label() {
+        return codeLength + " digits " + minDigit + "-" + maxDigit + (allowDuplicates ? ", repeats, " : ", no repeats, ")
+                + attempts + " attempts";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.nikoladesnica.mastermind.infra.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "mastermind.idempotency")
+public record IdempotencyProperties(
+        int maxEntries,   // stored responses across all stripes; oldest go first
+        long ttlMs,       // how long a key can be replayed
+        int stripes,      // independently locked segments
+        long awaitMs      // how long a retry waits for the original attempt before a 503
+) {
+    public static IdempotencyProperties defaults() {
+        return new IdempotencyProperties(100_000, 300_000, 64, 10_000);
+    }
+}
@@ -0,0 +1,17 @@
+package com.nikoladesnica.mastermind.infra.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "mastermind.matchmaking")
+public record MatchmakingProperties(
+        int roomSize,      // players per room when the queue is busy
+        int minPlayers,    // smallest room formed once someone waited max-wait-ms
+        long maxWaitMs,    // how long a ticket waits for a full room
+        long tickMs,       // how often the matcher runs
+        long ticketTtlMs,  // how long a ticket waits unmatched, and how long a settled one stays fetchable
+        int maxTickets     // tickets held at once (waiting or still fetchable); enqueue is refused beyond
+) {
+    public static MatchmakingProperties defaults() {
+        return new MatchmakingProperties(4, 2, 10_000, 100, 300_000, 100_000);
+    }
+}
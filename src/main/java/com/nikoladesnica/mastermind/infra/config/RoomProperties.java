@@ -0,0 +1,22 @@
+package com.nikoladesnica.mastermind.infra.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "mastermind.rooms")
+public record RoomProperties(
+        Execution execution,     // how room commands are serialized
+        int lockStripes,         // LOCK: number of striped locks shared by all rooms
+        int mailboxThreads,      // MAILBOX: shared worker pool size (<= 0 -> #cpus)
+        int mailboxCapacity,     // MAILBOX: max queued commands per room before 503
+        long commandTimeoutMs,   // max time a request waits for its room before 503
+        int maxPlayers,          // join limit per room (<= 0 -> unlimited)
+        long raceTimeoutMs,      // a running room finishes after this long (<= 0 -> no limit)
+        long idleTimeoutMs,      // a player with no guess for this long loses (<= 0 -> no limit)
+        long timerTickMs         // timing wheel resolution
+) {
+    public enum Execution { LOCK, MAILBOX }
+
+    public static RoomProperties defaults() {
+        return new RoomProperties(Execution.LOCK, 1024, 0, 1024, 2000, 0, 0, 0, 100);
+    }
+}
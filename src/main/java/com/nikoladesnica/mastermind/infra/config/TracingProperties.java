@@ -0,0 +1,13 @@
+package com.nikoladesnica.mastermind.infra.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "mastermind.tracing")
+public record TracingProperties(
+        boolean enabled,      // record per-stage timings of each request into mastermind.request.stage
+        boolean serverTiming  // also report them to the client in a Server-Timing header
+) {
+    public static TracingProperties defaults() {
+        return new TracingProperties(true, false);
+    }
+}
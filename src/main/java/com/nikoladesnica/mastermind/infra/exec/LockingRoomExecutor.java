@@ -0,0 +1,74 @@
+package com.nikoladesnica.mastermind.infra.exec;
+
+import com.nikoladesnica.mastermind.domain.errors.UnavailableException;
+import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.ports.RoomCommandExecutor;
+import com.nikoladesnica.mastermind.util.Meters;
+import com.nikoladesnica.mastermind.util.RequestTrace;
+import com.nikoladesnica.mastermind.util.StripedLocks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Default mode: the request thread runs the command while holding the room's (striped) lock.
+ * Replaces synchronized(room) so waiting virtual threads unmount instead of pinning a carrier.
+ */
+public class LockingRoomExecutor implements RoomCommandExecutor {
+
+    private static final int DEFAULT_STRIPES = 1024;
+
+    private final StripedLocks locks;
+    private final long timeoutMs; // <= 0: wait as long as needed
+    private final Timer lockWait;
+
+    public LockingRoomExecutor() {
+        this(DEFAULT_STRIPES, 0);
+    }
+
+    public LockingRoomExecutor(int stripes, long timeoutMs) {
+        this(stripes, timeoutMs, Meters.none());
+    }
+
+    public LockingRoomExecutor(int stripes, long timeoutMs, MeterRegistry meters) {
+        this.locks = new StripedLocks(stripes);
+        this.timeoutMs = timeoutMs;
+        this.lockWait = Timer.builder(Meters.ROOM_LOCK_WAIT).description("Time spent acquiring a room's lock").register(meters);
+    }
+
+    @Override
+    public <T> T execute(Room room, Supplier<T> command) {
+        ReentrantLock lock = locks.lockFor(room.roomId());
+        long t0 = System.nanoTime();
+        try {
+            acquire(lock);
+        } finally {
+            long waited = System.nanoTime() - t0;
+            lockWait.record(waited, TimeUnit.NANOSECONDS); // timeouts count too
+            RequestTrace.record(RequestTrace.Stage.LOCK, waited);
+        }
+        try {
+            return command.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire(ReentrantLock lock) {
+        if (timeoutMs <= 0) {
+            lock.lock();
+            return;
+        }
+        try {
+            if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new UnavailableException("Room is busy, try again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnavailableException("Interrupted while waiting for room");
+        }
+    }
+}
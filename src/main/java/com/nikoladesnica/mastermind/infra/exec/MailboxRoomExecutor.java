@@ -0,0 +1,207 @@
+package com.nikoladesnica.mastermind.infra.exec;
+
+import com.nikoladesnica.mastermind.domain.errors.UnavailableException;
+import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.ports.RoomCommandExecutor;
+import com.nikoladesnica.mastermind.util.Meters;
+import com.nikoladesnica.mastermind.util.RequestTrace;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Actor-style mode: every room owns a single-writer mailbox drained by a shared worker pool.
+ * Request threads only enqueue and wait (bounded) on the result, so a hot room turns into
+ * a queue instead of a pile of threads blocked on one monitor. A mailbox is dropped once it
+ * drains, so only rooms with commands in flight hold one.
+ */
+public class MailboxRoomExecutor implements RoomCommandExecutor, AutoCloseable {
+
+    // Commands a worker runs for one room before yielding to other rooms
+    private static final int BATCH = 64;
+
+    private static final int PENDING = 0, RUNNING = 1, CANCELLED = 2;
+
+    private static final int ACCEPTED = 0, FULL = 1, RETIRED = 2;
+    private static final int RETIRED_SIZE = -1; // a drained mailbox that left the map: producers move on
+
+    private final ExecutorService workers;
+    private final int capacity;
+    private final long timeoutMs;
+    private final Map<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ThreadLocal<UUID> draining = new ThreadLocal<>();
+    private final Timer queueWait;
+
+    public MailboxRoomExecutor(int threads, int capacity, long timeoutMs) {
+        this(threads, capacity, timeoutMs, Meters.none());
+    }
+
+    public MailboxRoomExecutor(int threads, int capacity, long timeoutMs, MeterRegistry meters) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be > 0");
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        AtomicInteger seq = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "room-mailbox-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.capacity = capacity;
+        this.timeoutMs = timeoutMs;
+        this.queueWait = Timer.builder(Meters.ROOM_MAILBOX_WAIT).description("Time a command waits in its room's mailbox").register(meters);
+    }
+
+    @Override
+    public <T> T execute(Room room, Supplier<T> command) {
+        UUID roomId = room.roomId();
+        if (roomId.equals(draining.get())) {
+            return command.get(); // already inside this room's mailbox
+        }
+
+        Task<T> task = new Task<>(command);
+        pending.incrementAndGet(); // before the offer: a worker may run (and count down) the task right away
+        for (;;) {
+            Mailbox box = mailboxes.computeIfAbsent(roomId, Mailbox::new);
+            int offered = box.offer(task);
+            if (offered == ACCEPTED) break;
+            if (offered == FULL) {
+                pending.decrementAndGet();
+                throw new UnavailableException("Room is busy, try again");
+            }
+            mailboxes.remove(roomId, box); // retired by its worker, which may not have removed it yet
+        }
+
+        try {
+            return task.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (task.state.compareAndSet(PENDING, CANCELLED)) {
+                throw new UnavailableException("Room is busy, try again");
+            }
+            // Already running: it will finish shortly, and the caller must see its outcome
+            return await(task.result);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.state.compareAndSet(PENDING, CANCELLED);
+            throw new UnavailableException("Interrupted while waiting for room");
+        }
+    }
+
+    @Override
+    public int pendingCommands() {
+        return pending.get();
+    }
+
+    /** Queued + running commands for a single room. */
+    public int depth(UUID roomId) {
+        Mailbox box = mailboxes.get(roomId);
+        return box == null ? 0 : Math.max(0, box.size.get());
+    }
+
+    /** Rooms that currently hold a mailbox. */
+    public int mailboxCount() {
+        return mailboxes.size();
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+
+    private static <T> T await(CompletableFuture<T> f) {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnavailableException("Interrupted while waiting for room");
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException re) return re;
+        if (cause instanceof Error err) throw err;
+        return new IllegalStateException(cause);
+    }
+
+    private final class Task<T> implements Runnable {
+        final Supplier<T> command;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicInteger state = new AtomicInteger(PENDING);
+        final long enqueuedAt = System.nanoTime();
+        final RequestTrace trace = RequestTrace.current(); // the waiting caller's, if it is traced
+
+        Task(Supplier<T> command) { this.command = command; }
+
+        @Override
+        public void run() {
+            pending.decrementAndGet();
+            long waited = System.nanoTime() - enqueuedAt;
+            queueWait.record(waited, TimeUnit.NANOSECONDS);
+            if (!state.compareAndSet(PENDING, RUNNING)) return; // caller gave up
+            // The caller is blocked on the result until we complete it, so its trace is ours meanwhile
+            RequestTrace previous = RequestTrace.attach(trace);
+            try {
+                if (trace != null) trace.add(RequestTrace.Stage.LOCK, waited);
+                result.complete(command.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                RequestTrace.attach(previous);
+            }
+        }
+    }
+
+    private final class Mailbox implements Runnable {
+        final UUID roomId;
+        final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger size = new AtomicInteger();
+
+        Mailbox(UUID roomId) { this.roomId = roomId; }
+
+        int offer(Runnable task) {
+            for (;;) {
+                int n = size.get();
+                if (n == RETIRED_SIZE) return RETIRED;
+                if (n >= capacity) return FULL;
+                if (size.compareAndSet(n, n + 1)) {
+                    queue.add(task);
+                    if (n == 0) workers.execute(this); // we own scheduling of an idle mailbox
+                    return ACCEPTED;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            draining.set(roomId);
+            try {
+                for (int i = 0; i < BATCH; i++) {
+                    Runnable task;
+                    while ((task = queue.poll()) == null) {
+                        Thread.onSpinWait(); // producer bumped size but has not enqueued yet
+                    }
+                    task.run();
+                    if (size.decrementAndGet() == 0) {
+                        // Racing a producer for the empty box: either it sees RETIRED and opens a new one,
+                        // or it got in first and already rescheduled this one
+                        if (size.compareAndSet(0, RETIRED_SIZE)) mailboxes.remove(roomId, this);
+                        return;
+                    }
+                }
+            } finally {
+                draining.remove();
+            }
+            workers.execute(this); // still busy: yield the worker to other rooms
+        }
+    }
+}
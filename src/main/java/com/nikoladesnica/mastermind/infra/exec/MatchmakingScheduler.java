@@ -0,0 +1,36 @@
+package com.nikoladesnica.mastermind.infra.exec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/** Runs the matchmaking pass on one daemon thread every {@code tickMs}. */
+public class MatchmakingScheduler implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchmakingScheduler.class);
+
+    private final ScheduledExecutorService timer;
+
+    public MatchmakingScheduler(Runnable tick, long tickMs) {
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "matchmaker");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleWithFixedDelay(() -> {
+            try {
+                tick.run();
+            } catch (RuntimeException e) {
+                log.warn("Matchmaking pass failed", e); // keep ticking
+            }
+        }, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
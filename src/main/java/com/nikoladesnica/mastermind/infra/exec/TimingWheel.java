@@ -0,0 +1,190 @@
+package com.nikoladesnica.mastermind.infra.exec;
+
+import com.nikoladesnica.mastermind.domain.ports.DeadlineScheduler;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hierarchical timing wheel: {@value #LEVELS} levels of {@value #SLOTS} slots driven by one ticking thread.
+ * Callers only enqueue (schedule) or flip a flag (cancel), both O(1) and lock-free; the ticking thread
+ * owns the slots, so a timer is touched at most once per level on its way down. Millions of pending
+ * deadlines therefore cost one thread and one small object each, instead of a ScheduledFuture apiece.
+ * Due tasks are handed to {@code dispatcher} so a slow task never delays the wheel.
+ */
+public class TimingWheel implements DeadlineScheduler, AutoCloseable {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (BITS * LEVELS); // ticks reachable without re-parking at the top
+
+    private static final int PENDING = 0, CANCELLED = 1, EXPIRED = 2;
+
+    private final long tickNanos;
+    private final Executor dispatcher;
+    private final Slot[][] wheels = new Slot[LEVELS][SLOTS];
+    private final Queue<Entry> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Entry> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+    private final Thread ticker;
+    private volatile boolean running = true;
+
+    private long tick; // ticking thread only: last processed tick
+
+    public TimingWheel(Duration tick, Executor dispatcher) {
+        if (tick.isNegative() || tick.isZero()) throw new IllegalArgumentException("tick must be > 0");
+        this.tickNanos = tick.toNanos();
+        this.dispatcher = dispatcher;
+        for (Slot[] level : wheels) {
+            for (int i = 0; i < SLOTS; i++) level[i] = new Slot();
+        }
+        this.ticker = Thread.ofPlatform().name("timing-wheel").daemon().start(this::run);
+    }
+
+    @Override
+    public Timer schedule(Runnable task, long delayMs) {
+        long dueNanos = System.nanoTime() - startNanos + Math.max(0, delayMs) * 1_000_000L;
+        Entry e = new Entry(task, (dueNanos + tickNanos - 1) / tickNanos); // round up: never early
+        pending.incrementAndGet();
+        added.offer(e);
+        return e;
+    }
+
+    /** Timers scheduled and neither fired nor cancelled. */
+    public int pending() {
+        return pending.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    private void run() {
+        while (running) {
+            long now = (System.nanoTime() - startNanos) / tickNanos;
+            while (tick < now) {
+                tick++;
+                transfer();
+                advance(tick);
+            }
+            long wait = startNanos + (tick + 1) * tickNanos - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(this, wait);
+        }
+    }
+
+    private void transfer() {
+        for (Entry e; (e = cancelled.poll()) != null; ) {
+            if (e.slot != null) e.slot.remove(e);
+        }
+        for (Entry e; (e = added.poll()) != null; ) {
+            if (e.state.get() == PENDING) place(e, tick);
+        }
+    }
+
+    private void advance(long t) {
+        // Cascade from the highest level whose lower digits just rolled over, top-down,
+        // so entries moving down never land in a slot that was already drained this tick
+        int top = 0;
+        while (top < LEVELS - 1 && (t & ((1L << (BITS * (top + 1))) - 1)) == 0) top++;
+        for (int level = top; level >= 1; level--) {
+            Entry e = wheels[level][(int) ((t >>> (BITS * level)) & MASK)].drain();
+            while (e != null) {
+                Entry next = e.next;
+                e.next = null;
+                place(e, t);
+                e = next;
+            }
+        }
+
+        Entry e = wheels[0][(int) (t & MASK)].drain();
+        while (e != null) {
+            Entry next = e.next;
+            e.next = null;
+            if (e.deadline <= t) expire(e);
+            else place(e, t);
+            e = next;
+        }
+    }
+
+    private void place(Entry e, long now) {
+        long delta = Math.max(0, e.deadline - now);
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (BITS * (level + 1)))) level++;
+        long at = delta >= SPAN ? now + SPAN - 1 : e.deadline; // too far out: park at the top and re-place later
+        wheels[level][(int) ((Math.max(at, now) >>> (BITS * level)) & MASK)].add(e);
+    }
+
+    private void expire(Entry e) {
+        if (!e.state.compareAndSet(PENDING, EXPIRED)) return;
+        pending.decrementAndGet();
+        try {
+            dispatcher.execute(e.task);
+        } catch (RejectedExecutionException ignored) {
+            // shutting down
+        }
+    }
+
+    private final class Entry implements Timer {
+        final Runnable task;
+        final long deadline; // absolute tick
+        final AtomicInteger state = new AtomicInteger(PENDING);
+
+        // Ticking thread only
+        Slot slot;
+        Entry prev, next;
+
+        Entry(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) return false;
+            pending.decrementAndGet();
+            cancelled.offer(this); // unlinked by the ticking thread
+            return true;
+        }
+    }
+
+    /** Intrusive doubly-linked list; O(1) add/remove. Ticking thread only. */
+    private static final class Slot {
+        Entry head, tail;
+
+        void add(Entry e) {
+            e.slot = this;
+            e.prev = tail;
+            e.next = null;
+            if (tail == null) head = e; else tail.next = e;
+            tail = e;
+        }
+
+        void remove(Entry e) {
+            if (e.prev == null) head = e.next; else e.prev.next = e.next;
+            if (e.next == null) tail = e.prev; else e.next.prev = e.prev;
+            e.prev = e.next = null;
+            e.slot = null;
+        }
+
+        /** Detaches and returns the whole list (linked through {@code next}). */
+        Entry drain() {
+            Entry e = head;
+            head = tail = null;
+            for (Entry x = e; x != null; x = x.next) {
+                x.slot = null;
+                x.prev = null;
+            }
+            return e;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.nikoladesnica.mastermind.infra.generator;
 import com.nikoladesnica.mastermind.domain.model.Code;
 import com.nikoladesnica.mastermind.domain.ports.SecretCodeGenerator;
 import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.infra.jfr.SecretGeneratedEvent;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +18,19 @@ public class LocalCodeGenerator implements SecretCodeGenerator {
 
     @Override
     public Code generate() {
+        SecretGeneratedEvent event = new SecretGeneratedEvent();
+        event.begin();
+        Code code = randomCode(props);
+        if (event.shouldCommit()) {
+            event.source = "local";
+            event.codeLength = code.digits().size();
+            event.commit();
+        }
+        return code;
+    }
+
+    /** The local draw without reporting it, for generators that fall back to it and report on their own. */
+    static Code randomCode(GameProperties props) {
         List<Integer> digits = new ArrayList<>(props.codeLength());
         while (digits.size() < props.codeLength()) {
             int d = ThreadLocalRandom.current().nextInt(props.minDigit(), props.maxDigit() + 1);
@@ -3,6 +3,11 @@ package com.nikoladesnica.mastermind.infra.generator;
 import com.nikoladesnica.mastermind.domain.model.Code;
 import com.nikoladesnica.mastermind.domain.ports.SecretCodeGenerator;
 import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.infra.jfr.SecretGeneratedEvent;
+import com.nikoladesnica.mastermind.util.Meters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -11,47 +16,106 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class RandomOrgCodeGenerator implements SecretCodeGenerator {
     private final GameProperties props;
     private final HttpClient client;
 
+    private final Timer latency;
+    private final Counter successes;
+    private final Counter fallbacks;
+
     public RandomOrgCodeGenerator(GameProperties props) {
+        this(props, Meters.none());
+    }
+
+    public RandomOrgCodeGenerator(GameProperties props, MeterRegistry meters) {
         this.props = props;
         this.client = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofMillis(props.randomOrg().timeoutMs()))
                 .build();
+        // Remote latency is what users feel on start, so its histogram is always published
+        this.latency = Timer.builder(Meters.RANDOM_ORG)
+                .description("random.org calls, including failed ones")
+                .publishPercentileHistogram()
+                .register(meters);
+        this.successes = Counter.builder(Meters.RANDOM_ORG_RESULT).tag("result", "success").register(meters);
+        this.fallbacks = Counter.builder(Meters.RANDOM_ORG_RESULT).tag("result", "fallback").register(meters);
     }
 
     @Override
     public Code generate() {
+        long t0 = System.nanoTime();
+        SecretGeneratedEvent event = new SecretGeneratedEvent();
+        event.begin();
         try {
-            String url = props.randomOrg().baseUrl()
-                    + "?num=" + props.codeLength()
-                    + "&min=" + props.minDigit()
-                    + "&max=" + props.maxDigit()
-                    + "&col=1&base=10&format=plain&rnd=new";
-
-            HttpRequest req = HttpRequest.newBuilder(URI.create(url))
-                    .timeout(Duration.ofMillis(props.randomOrg().timeoutMs()))
-                    .GET()
-                    .build();
-
-            HttpResponse<String> res = client.send(req, HttpResponse.BodyHandlers.ofString());
-            if (res.statusCode() != 200) throw new IllegalStateException("Random.org bad status: " + res.statusCode());
-            String body = res.body().trim();
-            List<Integer> digits = new ArrayList<>();
-            for (String line : body.split("\\R")) {
-                if (!line.isBlank()) digits.add(Integer.parseInt(line.trim()));
-            }
-            // if duplicates not allowed, adjust on top (rarely needed; spec allows duplicates by default)
-            if (!props.allowDuplicates() && digits.stream().distinct().count() != digits.size()) {
-                return new LocalCodeGenerator(props).generate();
-            }
-            return new Code(digits, props.codeLength(), props.minDigit(), props.maxDigit(), props.allowDuplicates());
+            Code code = parse(client.send(request(), HttpResponse.BodyHandlers.ofString()));
+            successes.increment();
+            return generated(event, code, false);
         } catch (Exception e) {
             // availability first: fallback locally
-            return new LocalCodeGenerator(props).generate();
+            fallbacks.increment();
+            return generated(event, LocalCodeGenerator.randomCode(props), true);
+        } finally {
+            latency.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Same as {@link #generate} without blocking the caller: the reply is handled on the client's executor. */
+    @Override
+    public CompletableFuture<Code> generateAsync() {
+        long t0 = System.nanoTime();
+        SecretGeneratedEvent event = new SecretGeneratedEvent();
+        event.begin();
+        return client.sendAsync(request(), HttpResponse.BodyHandlers.ofString())
+                .thenApply(this::parse)
+                .handle((code, e) -> {
+                    latency.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+                    if (e == null) {
+                        successes.increment();
+                        return generated(event, code, false);
+                    }
+                    fallbacks.increment();
+                    return generated(event, LocalCodeGenerator.randomCode(props), true);
+                });
+    }
+
+    private static Code generated(SecretGeneratedEvent event, Code code, boolean fallback) {
+        if (event.shouldCommit()) {
+            event.source = "random.org";
+            event.fallback = fallback;
+            event.codeLength = code.digits().size();
+            event.commit();
+        }
+        return code;
+    }
+
+    private HttpRequest request() {
+        String url = props.randomOrg().baseUrl()
+                + "?num=" + props.codeLength()
+                + "&min=" + props.minDigit()
+                + "&max=" + props.maxDigit()
+                + "&col=1&base=10&format=plain&rnd=new";
+
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(props.randomOrg().timeoutMs()))
+                .GET()
+                .build();
+    }
+
+    private Code parse(HttpResponse<String> res) {
+        if (res.statusCode() != 200) throw new IllegalStateException("Random.org bad status: " + res.statusCode());
+        String body = res.body().trim();
+        List<Integer> digits = new ArrayList<>();
+        for (String line : body.split("\\R")) {
+            if (!line.isBlank()) digits.add(Integer.parseInt(line.trim()));
+        }
+        // if duplicates not allowed, adjust on top (rarely needed; spec allows duplicates by default)
+        if (!props.allowDuplicates() && digits.stream().distinct().count() != digits.size()) {
+            return LocalCodeGenerator.randomCode(props);
         }
+        return new Code(digits, props.codeLength(), props.minDigit(), props.maxDigit(), props.allowDuplicates());
     }
 }
@@ -0,0 +1,22 @@
+package com.nikoladesnica.mastermind.infra.jfr;
+
+import com.nikoladesnica.mastermind.domain.ports.Instrumentation;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("mastermind.GameStarted")
+@Label("Game Started")
+@Description("Single-player game created; the duration includes generating its secret")
+@Category({"Mastermind", "Game"})
+@StackTrace(false)
+public class GameStartedEvent extends Event implements Instrumentation.Span {
+    @Label("Game Id")
+    public String gameId;
+
+    @Label("Attempts")
+    public int attempts;
+}
@@ -0,0 +1,39 @@
+package com.nikoladesnica.mastermind.infra.jfr;
+
+import com.nikoladesnica.mastermind.domain.ports.Instrumentation;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("mastermind.GuessEvaluated")
+@Label("Guess Evaluated")
+@Description("One guess scored and applied (single-player game or room player)")
+@Category({"Mastermind", "Game"})
+@StackTrace(false)
+public class GuessEvaluatedEvent extends Event implements Instrumentation.Span {
+    @Label("Game Id")
+    @Description("Single-player game, or null for a room guess")
+    public String gameId;
+
+    @Label("Room Id")
+    public String roomId;
+
+    @Label("Player Id")
+    public String playerId;
+
+    @Label("Attempt")
+    @Description("1-based number of this guess within its game")
+    public int attempt;
+
+    @Label("Correct Positions")
+    public int correctPositions;
+
+    @Label("Correct Numbers")
+    public int correctNumbers;
+
+    @Label("Won")
+    public boolean won;
+}
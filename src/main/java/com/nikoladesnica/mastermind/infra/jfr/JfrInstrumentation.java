@@ -0,0 +1,118 @@
+package com.nikoladesnica.mastermind.infra.jfr;
+
+import com.nikoladesnica.mastermind.domain.model.Feedback;
+import com.nikoladesnica.mastermind.domain.ports.Instrumentation;
+import jdk.jfr.EventType;
+
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+/**
+ * Records the services' {@link Instrumentation} calls as the gameplay JFR events. Each span is the event itself,
+ * begun before the work; while no recording enables an event type nothing is allocated for it, and fields are
+ * only filled once the event passed its threshold.
+ */
+public class JfrInstrumentation implements Instrumentation {
+
+    private static final EventType GUESS = EventType.getEventType(GuessEvaluatedEvent.class);
+
+    @Override
+    public Span beginGameStart() {
+        GameStartedEvent event = new GameStartedEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void gameStarted(Span span, UUID gameId, int attempts) {
+        if (span instanceof GameStartedEvent event && event.shouldCommit()) {
+            event.gameId = gameId.toString();
+            event.attempts = attempts;
+            event.commit();
+        }
+    }
+
+    // Once per guess: skip even the allocation while no recording wants it
+    @Override
+    public Span beginGuess() {
+        if (!GUESS.isEnabled()) return NO_SPAN;
+        GuessEvaluatedEvent event = new GuessEvaluatedEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void guessEvaluated(Span span, UUID gameId, UUID roomId, UUID playerId, int attempt, Feedback feedback,
+                               boolean won) {
+        if (span instanceof GuessEvaluatedEvent event && event.shouldCommit()) {
+            event.gameId = gameId == null ? null : gameId.toString();
+            event.roomId = roomId == null ? null : roomId.toString();
+            event.playerId = playerId == null ? null : playerId.toString();
+            event.attempt = attempt;
+            event.correctPositions = feedback.correctPositions();
+            event.correctNumbers = feedback.correctNumbers();
+            event.won = won;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Span beginRoomStart() {
+        RoomStartedEvent event = new RoomStartedEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void roomStarted(Span span, UUID roomId, int players) {
+        if (span instanceof RoomStartedEvent event && event.shouldCommit()) {
+            event.roomId = roomId.toString();
+            event.players = players;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void roomFinished(UUID roomId, int players, int winners, long raceMillis) {
+        RoomFinishedEvent event = new RoomFinishedEvent();
+        if (event.shouldCommit()) {
+            event.roomId = roomId.toString();
+            event.players = players;
+            event.winners = winners;
+            event.raceMillis = raceMillis;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Span beginPasswordHash() {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void passwordHashed(Span span, String operation, int iterations) {
+        if (span instanceof PasswordHashEvent event && event.shouldCommit()) {
+            event.operation = operation;
+            event.iterations = iterations;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Span beginWinRecord() {
+        LeaderboardUpdateEvent event = new LeaderboardUpdateEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void winRecorded(Span span, UUID accountId, IntSupplier score) {
+        if (span instanceof LeaderboardUpdateEvent event && event.shouldCommit()) {
+            event.accountId = accountId.toString();
+            event.score = score.getAsInt();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.nikoladesnica.mastermind.infra.jfr;
+
+import com.nikoladesnica.mastermind.domain.ports.Instrumentation;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("mastermind.LeaderboardUpdate")
+@Label("Leaderboard Update")
+@Description("A win was published to the account and the global leaderboard")
+@Category({"Mastermind", "Accounts"})
+@StackTrace(false)
+public class LeaderboardUpdateEvent extends Event implements Instrumentation.Span {
+    @Label("Account Id")
+    public String accountId;
+
+    @Label("Score")
+    @Description("Account's leaderboard score after this win")
+    public int score;
+}
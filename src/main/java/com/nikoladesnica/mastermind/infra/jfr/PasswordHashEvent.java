@@ -0,0 +1,23 @@
+package com.nikoladesnica.mastermind.infra.jfr;
+
+import com.nikoladesnica.mastermind.domain.ports.Instrumentation;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("mastermind.PasswordHash")
+@Label("Password Hash")
+@Description("One PBKDF2 derivation at signup or login")
+@Category({"Mastermind", "Accounts"})
+@StackTrace(false)
+public class PasswordHashEvent extends Event implements Instrumentation.Span {
+    @Label("Operation")
+    @Description("signup or login")
+    public String operation;
+
+    @Label("Iterations")
+    public int iterations;
+}
@@ -0,0 +1,29 @@
+package com.nikoladesnica.mastermind.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("mastermind.RoomFinished")
+@Label("Room Finished")
+@Description("Every player in a running room is done (won, lost, left or timed out)")
+@Category({"Mastermind", "Room"})
+@StackTrace(false)
+public class RoomFinishedEvent extends Event {
+    @Label("Room Id")
+    public String roomId;
+
+    @Label("Players")
+    public int players;
+
+    @Label("Winners")
+    public int winners;
+
+    @Label("Race Duration")
+    @Timespan(Timespan.MILLISECONDS)
+    public long raceMillis;
+}
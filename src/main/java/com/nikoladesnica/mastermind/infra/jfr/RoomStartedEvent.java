@@ -0,0 +1,22 @@
+package com.nikoladesnica.mastermind.infra.jfr;
+
+import com.nikoladesnica.mastermind.domain.ports.Instrumentation;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("mastermind.RoomStarted")
+@Label("Room Started")
+@Description("Host started a room; the duration covers the start command, including waiting for the room")
+@Category({"Mastermind", "Room"})
+@StackTrace(false)
+public class RoomStartedEvent extends Event implements Instrumentation.Span {
+    @Label("Room Id")
+    public String roomId;
+
+    @Label("Players")
+    public int players;
+}
@@ -0,0 +1,26 @@
+package com.nikoladesnica.mastermind.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("mastermind.SecretGenerated")
+@Label("Secret Generated")
+@Description("A secret code was produced; the duration is the generator's latency (the remote call for random.org)")
+@Category({"Mastermind", "Generator"})
+@StackTrace(false)
+public class SecretGeneratedEvent extends Event {
+    @Label("Source")
+    @Description("random.org or local")
+    public String source;
+
+    @Label("Fell Back")
+    @Description("random.org failed or timed out and the local generator was used")
+    public boolean fallback;
+
+    @Label("Code Length")
+    public int codeLength;
+}
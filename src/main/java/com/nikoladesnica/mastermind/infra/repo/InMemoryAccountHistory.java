@@ -0,0 +1,66 @@
+package com.nikoladesnica.mastermind.infra.repo;
+
+import com.nikoladesnica.mastermind.domain.model.AccountGame;
+import com.nikoladesnica.mastermind.domain.ports.AccountHistoryRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class InMemoryAccountHistory implements AccountHistoryRepository {
+
+    /**
+     * One account's entries. Appends take the log's lock; reads take none: an append fills its slot (in a
+     * grown copy if need be), publishes the array, then the count that covers it.
+     */
+    private static final class Log {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile AccountGame[] entries = new AccountGame[8];
+        private volatile int count;
+
+        void append(AccountGame game) {
+            lock.lock();
+            try {
+                int n = count;
+                AccountGame[] a = entries;
+                if (n == a.length) a = Arrays.copyOf(a, n * 2);
+                a[n] = game;
+                entries = a;
+                count = n + 1;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<AccountGame> range(int from, int to) {
+            Objects.checkFromToIndex(from, to, count);
+            return List.of(Arrays.copyOfRange(entries, from, to));
+        }
+    }
+
+    private final ConcurrentHashMap<UUID, Log> logs = new ConcurrentHashMap<>();
+
+    @Override
+    public void append(UUID accountId, AccountGame game) {
+        logs.computeIfAbsent(accountId, id -> new Log()).append(game);
+    }
+
+    @Override
+    public int size(UUID accountId) {
+        Log log = logs.get(accountId);
+        return log == null ? 0 : log.count;
+    }
+
+    @Override
+    public List<AccountGame> range(UUID accountId, int from, int to) {
+        Log log = logs.get(accountId);
+        if (log == null) {
+            Objects.checkFromToIndex(from, to, 0);
+            return List.of();
+        }
+        return log.range(from, to);
+    }
+}
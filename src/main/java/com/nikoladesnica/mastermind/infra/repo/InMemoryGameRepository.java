@@ -1,16 +1,41 @@
 package com.nikoladesnica.mastermind.infra.repo;
 
+import com.nikoladesnica.mastermind.domain.model.FinishCursor;
 import com.nikoladesnica.mastermind.domain.model.Game;
 import com.nikoladesnica.mastermind.domain.ports.GameRepository;
 
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
 public class InMemoryGameRepository implements GameRepository {
     private final Map<UUID, Game> store = new ConcurrentHashMap<>();
+    // Finish-order index for exports; iterating a tail of it is weakly consistent and needs no copy
+    private final NavigableMap<FinishCursor, Game> finished = new ConcurrentSkipListMap<>();
+    private final LongAdder finishedCount = new LongAdder(); // skip list size() is O(n)
+
+    @Override
+    public void save(Game game) {
+        store.put(game.id(), game);
+        if (game.finishedAt() != null && finished.putIfAbsent(new FinishCursor(game.finishedAt(), game.id()), game) == null) {
+            finishedCount.increment();
+        }
+    }
 
-    @Override public void save(Game game) { store.put(game.id(), game); }
     @Override public Optional<Game> findById(UUID id) { return Optional.ofNullable(store.get(id)); }
+
+    @Override
+    public Stream<Game> findFinishedAfter(FinishCursor after) {
+        return finished.tailMap(after, false).values().stream();
+    }
+
+    @Override
+    public long liveCount() {
+        return Math.max(0, store.size() - finishedCount.sum());
+    }
 }
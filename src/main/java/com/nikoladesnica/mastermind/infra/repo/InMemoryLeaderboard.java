@@ -5,6 +5,7 @@ import com.nikoladesnica.mastermind.domain.ports.LeaderboardRepository;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.UUID;
 
 public class InMemoryLeaderboard implements LeaderboardRepository {
@@ -20,7 +21,10 @@ public class InMemoryLeaderboard implements LeaderboardRepository {
             Comparator.<Node>comparingInt(n -> n.score)
                     .thenComparing(n -> n.accountId)
     );
+    private final Map<UUID, Node> inHeap = new HashMap<>(); // guarded by lock
     private final int k;
+    // Not synchronized: a ReentrantLock does not pin virtual-thread carriers
+    private final ReentrantLock lock = new ReentrantLock();
 
     public InMemoryLeaderboard(int k) {
         if (k <= 0) throw new IllegalArgumentException("k must be > 0");
@@ -28,44 +32,62 @@ public class InMemoryLeaderboard implements LeaderboardRepository {
     }
 
     @Override
-    public synchronized void increment(UUID accountId) {
-        int newScore = scores.merge(accountId, 1, Integer::sum);
-        if (heap.size() < k) {
-            heap.offer(new Node(accountId, newScore));
-            return;
-        }
-        Node smallest = heap.peek();
-        if (smallest != null && newScore > smallest.score) {
-            heap.offer(new Node(accountId, newScore));
-            while (heap.size() > k) heap.poll();
+    public void increment(UUID accountId) {
+        lock.lock();
+        try {
+            int newScore = scores.merge(accountId, 1, Integer::sum);
+            Node current = inHeap.get(accountId);
+            if (current != null) {
+                heap.remove(current); // one node per account, or stale copies would crowd others out of the top k
+            } else if (heap.size() >= k) {
+                Node smallest = heap.peek();
+                if (newScore <= smallest.score) return;
+                heap.poll();
+                inHeap.remove(smallest.accountId);
+            }
+            Node next = new Node(accountId, newScore);
+            heap.offer(next);
+            inHeap.put(accountId, next);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
-    public synchronized int getScore(UUID accountId) {
+    public int getScore(UUID accountId) {
         return scores.getOrDefault(accountId, 0);
     }
 
     @Override
-    public synchronized List<Score> topK(int requested) {
-        PriorityQueue<Node> max = new PriorityQueue<>(
-                Comparator.<Node>comparingInt(n -> n.score).reversed()
-                        .thenComparing(n -> n.accountId)
-        );
-        max.addAll(heap);
+    public List<Score> topK(int requested) {
+        lock.lock();
+        try {
+            PriorityQueue<Node> max = new PriorityQueue<>(
+                    Comparator.<Node>comparingInt(n -> n.score).reversed()
+                            .thenComparing(n -> n.accountId)
+            );
+            max.addAll(heap);
 
-        List<Score> out = new ArrayList<>(Math.min(k, requested));
-        Set<UUID> seen = new HashSet<>();
+            List<Score> out = new ArrayList<>(Math.min(k, requested));
+            Set<UUID> seen = new HashSet<>();
 
-        while (!max.isEmpty() && out.size() < requested) {
-            Node n = max.poll();
-            Integer cur = scores.get(n.accountId);
-            if (cur == null) continue;
-            if (seen.contains(n.accountId)) continue;
-            if (cur != n.score) continue; // prune stale
-            out.add(new Score(n.accountId, cur));
-            seen.add(n.accountId);
+            while (!max.isEmpty() && out.size() < requested) {
+                Node n = max.poll();
+                Integer cur = scores.get(n.accountId);
+                if (cur == null) continue;
+                if (seen.contains(n.accountId)) continue;
+                if (cur != n.score) continue; // prune stale
+                out.add(new Score(n.accountId, cur));
+                seen.add(n.accountId);
+            }
+            return out;
+        } finally {
+            lock.unlock();
         }
-        return out;
+    }
+
+    @Override
+    public int size() {
+        return scores.size();
     }
 }
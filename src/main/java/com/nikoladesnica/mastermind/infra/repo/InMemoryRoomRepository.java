@@ -1,23 +1,44 @@
 package com.nikoladesnica.mastermind.infra.repo;
 
+import com.nikoladesnica.mastermind.domain.model.FinishCursor;
 import com.nikoladesnica.mastermind.domain.model.Room;
 import com.nikoladesnica.mastermind.domain.ports.RoomRepository;
 
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
 public class InMemoryRoomRepository implements RoomRepository {
     private final Map<UUID, Room> store = new ConcurrentHashMap<>();
+    // Finish-order index for exports; iterating a tail of it is weakly consistent and needs no copy
+    private final NavigableMap<FinishCursor, Room> finished = new ConcurrentSkipListMap<>();
+    private final LongAdder finishedCount = new LongAdder(); // skip list size() is O(n)
 
     @Override
     public void save(Room room) {
         store.put(room.roomId(), room);
+        if (room.finishedAt() != null && finished.putIfAbsent(new FinishCursor(room.finishedAt(), room.roomId()), room) == null) {
+            finishedCount.increment();
+        }
     }
 
     @Override
     public Optional<Room> findById(UUID roomId) {
         return Optional.ofNullable(store.get(roomId));
     }
+
+    @Override
+    public Stream<Room> findFinishedAfter(FinishCursor after) {
+        return finished.tailMap(after, false).values().stream();
+    }
+
+    @Override
+    public long liveCount() {
+        return Math.max(0, store.size() - finishedCount.sum());
+    }
 }
@@ -25,4 +25,9 @@ public class InMemorySessionRepository implements SessionRepository {
     public void remove(UUID token) {
         sessions.remove(token);
     }
+
+    @Override
+    public long count() {
+        return sessions.size();
+    }
 }
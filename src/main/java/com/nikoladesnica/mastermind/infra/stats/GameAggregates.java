@@ -0,0 +1,108 @@
+package com.nikoladesnica.mastermind.infra.stats;
+
+import com.nikoladesnica.mastermind.domain.model.GameResult;
+import com.nikoladesnica.mastermind.domain.model.RoomResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gameplay aggregates built one finished game or room at a time, never from stored history: attempts-to-win
+ * histogram, played/won per mode and configuration, heavy-hitter opening guesses and room solve times. Memory is
+ * fixed by the constants below whatever the traffic. Everything here merges by addition (the openings sketch by
+ * its own merge), so shards or nodes can be combined. Not thread-safe: owned by the {@link GameAnalytics} thread.
+ */
+public final class GameAggregates {
+
+    static final int MAX_ATTEMPTS = 64;        // wins taking longer share the last bucket
+    static final int MAX_CONFIGS = 32;         // further configurations are counted under "other"
+    static final int OPENINGS_TRACKED = 256;
+    static final int TOP_OPENINGS = 10;
+    static final String OTHER = "other";
+
+    /** {@code attemptsToWin[n]} = games won on guess n (index 0 unused), trimmed after the last non-empty one. */
+    public record Snapshot(long gamesFinished, long gamesWon, long[] attemptsToWin, List<ConfigStats> byConfig,
+                           List<Opening> topOpenings, RoomSolve rooms) {}
+
+    public record ConfigStats(String mode, String config, long played, long won) {}
+
+    /** {@code count} may overestimate by up to {@code error}. */
+    public record Opening(List<Integer> digits, long count, long error) {}
+
+    /** Solve time is from start to the winning guess, over rooms that had a winner. */
+    public record RoomSolve(long finished, long solved, long totalSolveMillis, long maxSolveMillis) {}
+
+    private record ConfigKey(String mode, String config) {}
+
+    private long gamesFinished;
+    private long gamesWon;
+    private final long[] attemptsToWin = new long[MAX_ATTEMPTS + 1];
+    private final Map<ConfigKey, long[]> byConfig = new HashMap<>(); // {played, won}
+    private final SpaceSaving<List<Integer>> openings = new SpaceSaving<>(OPENINGS_TRACKED);
+    private long roomsFinished;
+    private long roomsSolved;
+    private long solveMillis;
+    private long maxSolveMillis;
+
+    public void add(GameResult r) {
+        gamesFinished++;
+        if (r.won()) {
+            gamesWon++;
+            attemptsToWin[Math.min(Math.max(r.attempts(), 1), MAX_ATTEMPTS)]++;
+        }
+        long[] counts = config(new ConfigKey(r.inRoom() ? "room" : "single", r.config()));
+        counts[0]++;
+        if (r.won()) counts[1]++;
+        if (r.opening() != null) openings.add(r.opening());
+    }
+
+    public void add(RoomResult r) {
+        roomsFinished++;
+        if (r.winners() > 0) {
+            long millis = r.duration().toMillis();
+            roomsSolved++;
+            solveMillis += millis;
+            maxSolveMillis = Math.max(maxSolveMillis, millis);
+        }
+    }
+
+    public void merge(GameAggregates other) {
+        gamesFinished += other.gamesFinished;
+        gamesWon += other.gamesWon;
+        for (int i = 0; i < attemptsToWin.length; i++) attemptsToWin[i] += other.attemptsToWin[i];
+        other.byConfig.forEach((key, counts) -> {
+            long[] mine = config(key);
+            mine[0] += counts[0];
+            mine[1] += counts[1];
+        });
+        openings.merge(other.openings);
+        roomsFinished += other.roomsFinished;
+        roomsSolved += other.roomsSolved;
+        solveMillis += other.solveMillis;
+        maxSolveMillis = Math.max(maxSolveMillis, other.maxSolveMillis);
+    }
+
+    public Snapshot snapshot() {
+        int last = attemptsToWin.length - 1;
+        while (last > 0 && attemptsToWin[last] == 0) last--;
+        List<ConfigStats> configs = new ArrayList<>(byConfig.size());
+        byConfig.forEach((k, c) -> configs.add(new ConfigStats(k.mode(), k.config(), c[0], c[1])));
+        configs.sort(Comparator.comparingLong(ConfigStats::played).reversed());
+        List<Opening> top = openings.top(TOP_OPENINGS).stream()
+                .map(i -> new Opening(i.value(), i.count(), i.error()))
+                .toList();
+        return new Snapshot(gamesFinished, gamesWon, Arrays.copyOf(attemptsToWin, last + 1), List.copyOf(configs), top,
+                new RoomSolve(roomsFinished, roomsSolved, solveMillis, maxSolveMillis));
+    }
+
+    private long[] config(ConfigKey key) {
+        long[] counts = byConfig.get(key);
+        if (counts != null) return counts;
+        if (byConfig.size() >= MAX_CONFIGS) key = new ConfigKey(key.mode(), OTHER);
+        return byConfig.computeIfAbsent(key, k -> new long[2]);
+    }
+}
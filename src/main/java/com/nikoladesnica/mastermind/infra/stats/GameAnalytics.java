@@ -0,0 +1,92 @@
+package com.nikoladesnica.mastermind.infra.stats;
+
+import com.nikoladesnica.mastermind.domain.model.GameResult;
+import com.nikoladesnica.mastermind.domain.model.RoomResult;
+import com.nikoladesnica.mastermind.domain.ports.ActivityListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Feeds finished games and rooms to {@link GameAggregates} on a thread of its own. The request thread only
+ * offers the result to a bounded queue; when analytics fall that far behind, results are dropped and counted
+ * rather than slowing gameplay. After each drained batch the thread publishes an immutable snapshot, so reads
+ * never wait for it either.
+ */
+public class GameAnalytics implements ActivityListener, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(GameAnalytics.class);
+    private static final int BATCH = 1024;
+
+    private final BlockingQueue<Object> results;
+    private final LongAdder dropped = new LongAdder();
+    private final GameAggregates aggregates = new GameAggregates(); // analytics thread only
+    private volatile GameAggregates.Snapshot snapshot = aggregates.snapshot();
+    private final Thread worker;
+
+    public GameAnalytics(int capacity) {
+        this.results = new ArrayBlockingQueue<>(capacity);
+        this.worker = Thread.ofPlatform().name("game-analytics").daemon().start(this::run);
+    }
+
+    @Override
+    public void gameFinished(GameResult result) {
+        offer(result);
+    }
+
+    @Override
+    public void roomFinished(RoomResult result) {
+        offer(result);
+    }
+
+    /** Aggregates as of the last processed batch. */
+    public GameAggregates.Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /** Results queued and not yet aggregated. */
+    public int pending() {
+        return results.size();
+    }
+
+    /** Results lost because the queue was full. */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        worker.interrupt();
+    }
+
+    private void offer(Object result) {
+        if (!results.offer(result)) dropped.increment();
+    }
+
+    private void run() {
+        List<Object> batch = new ArrayList<>(BATCH);
+        try {
+            while (true) {
+                batch.add(results.take());
+                results.drainTo(batch, BATCH - 1);
+                for (Object result : batch) {
+                    try {
+                        if (result instanceof GameResult g) aggregates.add(g);
+                        else if (result instanceof RoomResult r) aggregates.add(r);
+                    } catch (RuntimeException e) {
+                        log.warn("Skipping result {}", result, e); // keep aggregating the rest
+                    }
+                }
+                batch.clear();
+                snapshot = aggregates.snapshot();
+            }
+        } catch (InterruptedException e) {
+            // closed
+        }
+    }
+}
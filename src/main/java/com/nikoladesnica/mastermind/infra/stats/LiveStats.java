@@ -0,0 +1,143 @@
+package com.nikoladesnica.mastermind.infra.stats;
+
+import com.nikoladesnica.mastermind.domain.model.GameResult;
+import com.nikoladesnica.mastermind.domain.model.RoomResult;
+import com.nikoladesnica.mastermind.domain.ports.ActivityListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Rolling throughput and guess latency over the last 1, 5 and 15 minutes, kept in process so operators get
+ * live numbers without a metrics backend. Recording is a clock read plus one CAS (two for a guess); reading
+ * walks the rings and is only done by {@link #snapshot}.
+ *
+ * Rates cover completed seconds only (the current one is still filling), divided by the uptime while it is
+ * shorter than the window. Latency slots are {@value #LATENCY_SLOT_SECONDS} s wide and include the current
+ * one, so a window's latency is exact to within one slot.
+ */
+public class LiveStats implements ActivityListener {
+
+    static final int[] WINDOW_MINUTES = {1, 5, 15};
+    static final int LATENCY_SLOT_SECONDS = 10;
+    private static final int HISTORY_SECONDS = 15 * 60;
+
+    public record Latency(long count, double p50Micros, double p99Micros) {}
+
+    public record Window(
+            int seconds,
+            double guessesPerSecond,
+            double gamesStartedPerSecond,
+            double winsPerSecond,
+            double roomsStartedPerSecond,
+            double roomsFinishedPerSecond,
+            double signupsPerSecond,
+            double loginsPerSecond,
+            Latency guessLatency
+    ) {}
+
+    public record Snapshot(long uptimeSeconds, long roomsRunning, Map<String, Window> windows) {}
+
+    private final LongSupplier nanoClock;
+    private final long origin;
+
+    private final RollingCounter guesses;
+    private final RollingCounter gamesStarted;
+    private final RollingCounter wins;
+    private final RollingCounter roomsStarted = new RollingCounter(HISTORY_SECONDS, 1);
+    private final RollingCounter roomsFinished = new RollingCounter(HISTORY_SECONDS, 1);
+    private final RollingCounter signups = new RollingCounter(HISTORY_SECONDS, 1);
+    private final RollingCounter logins = new RollingCounter(HISTORY_SECONDS, 1);
+    private final RollingLatency guessLatency = new RollingLatency(HISTORY_SECONDS, LATENCY_SLOT_SECONDS);
+    private final LongAdder roomsRunning = new LongAdder();
+
+    public LiveStats() {
+        this(System::nanoTime);
+    }
+
+    /** {@code nanoClock} is a monotonic nanosecond clock (tests pass a fake one). */
+    public LiveStats(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+        // Per-guess counters see every request thread; spread them like a LongAdder would
+        int stripes = Math.min(8, Runtime.getRuntime().availableProcessors());
+        this.guesses = new RollingCounter(HISTORY_SECONDS, stripes);
+        this.gamesStarted = new RollingCounter(HISTORY_SECONDS, stripes);
+        this.wins = new RollingCounter(HISTORY_SECONDS, stripes);
+    }
+
+    @Override
+    public void guessed(long nanos) {
+        long second = second();
+        guesses.increment(second);
+        guessLatency.record(second, nanos);
+    }
+
+    @Override
+    public void gameStarted() {
+        gamesStarted.increment(second());
+    }
+
+    @Override
+    public void gameFinished(GameResult result) {
+        if (result.won()) wins.increment(second());
+    }
+
+    @Override
+    public void roomStarted() {
+        roomsStarted.increment(second());
+        roomsRunning.increment();
+    }
+
+    @Override
+    public void roomFinished(RoomResult result) {
+        roomsFinished.increment(second());
+        roomsRunning.decrement();
+    }
+
+    @Override
+    public void signedUp() {
+        signups.increment(second());
+    }
+
+    @Override
+    public void loggedIn() {
+        logins.increment(second());
+    }
+
+    public Snapshot snapshot() {
+        long now = second();
+        Map<String, Window> windows = new LinkedHashMap<>();
+        for (int minutes : WINDOW_MINUTES) {
+            int seconds = minutes * 60;
+            long from = now - seconds, to = now - 1;
+            double span = Math.max(1, Math.min(seconds, now)); // seconds actually covered
+            RollingLatency.Distribution latency = guessLatency.read(from, now);
+            windows.put(minutes + "m", new Window(
+                    seconds,
+                    rate(guesses, from, to, span),
+                    rate(gamesStarted, from, to, span),
+                    rate(wins, from, to, span),
+                    rate(roomsStarted, from, to, span),
+                    rate(roomsFinished, from, to, span),
+                    rate(signups, from, to, span),
+                    rate(logins, from, to, span),
+                    new Latency(latency.count(), micros(latency.quantile(0.5)), micros(latency.quantile(0.99)))));
+        }
+        return new Snapshot(now, roomsRunning.sum(), windows);
+    }
+
+    private long second() {
+        return (nanoClock.getAsLong() - origin) / 1_000_000_000L;
+    }
+
+    private static double rate(RollingCounter counter, long from, long to, double span) {
+        return Math.round(counter.sum(from, to) / span * 100.0) / 100.0;
+    }
+
+    private static double micros(double nanos) {
+        return Math.round(nanos / 100.0) / 10.0;
+    }
+}
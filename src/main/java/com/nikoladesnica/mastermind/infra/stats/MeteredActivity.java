@@ -0,0 +1,104 @@
+package com.nikoladesnica.mastermind.infra.stats;
+
+import com.nikoladesnica.mastermind.domain.model.GameResult;
+import com.nikoladesnica.mastermind.domain.ports.ActivityListener;
+import com.nikoladesnica.mastermind.util.Meters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the services' activity as Micrometer meters. Every meter is registered up front, so recording is a
+ * field read plus the meter's own update: no tag lookups or allocation on the guess path.
+ */
+public class MeteredActivity implements ActivityListener {
+
+    private final Timer gameGuess;
+    private final Counter gamesStarted;
+    private final Counter gamesWon;
+    private final Counter gamesLost;
+    private final Counter lockContended;
+    private final Timer lockWait;
+    private final Timer roomJoin;
+    private final Timer roomStart;
+    private final Timer roomGuess;
+    private final Timer evaluate;
+    private final Timer passwordHash;
+    private final Counter loginsOk;
+    private final Counter loginsFailed;
+
+    public MeteredActivity(MeterRegistry meters) {
+        this.gameGuess = Timer.builder(Meters.GAME_GUESS).description("Single-player guesses, lookup to saved").register(meters);
+        this.gamesStarted = Counter.builder(Meters.GAMES_STARTED).register(meters);
+        this.gamesWon = Counter.builder(Meters.GAMES_FINISHED).tag("outcome", "won").register(meters);
+        this.gamesLost = Counter.builder(Meters.GAMES_FINISHED).tag("outcome", "lost").register(meters);
+        this.lockContended = Counter.builder(Meters.GAME_LOCK_CONTENDED)
+                .description("Guesses that found their game's lock held (same game or a shared stripe)").register(meters);
+        this.lockWait = Timer.builder(Meters.GAME_LOCK_WAIT).description("Time contended guesses waited for the lock").register(meters);
+        // Each includes waiting for the room (lock or mailbox); secret generation is timed by the generator
+        this.roomJoin = Timer.builder(Meters.ROOM_COMMAND).tag("command", "join").register(meters);
+        this.roomStart = Timer.builder(Meters.ROOM_COMMAND).tag("command", "start").register(meters);
+        this.roomGuess = Timer.builder(Meters.ROOM_COMMAND).tag("command", "guess").register(meters);
+        this.evaluate = Timer.builder(Meters.EVALUATE).description("Feedback computation per guess").register(meters);
+        this.passwordHash = Timer.builder(Meters.PASSWORD_HASH).description("PBKDF2 derivations (signup and login)").register(meters);
+        this.loginsOk = Counter.builder(Meters.LOGINS).tag("outcome", "success").register(meters);
+        this.loginsFailed = Counter.builder(Meters.LOGINS).tag("outcome", "failure").register(meters);
+    }
+
+    @Override
+    public void gameGuessed(long nanos) {
+        gameGuess.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void gameLockWaited(long nanos) {
+        lockContended.increment();
+        lockWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void gameStarted() {
+        gamesStarted.increment();
+    }
+
+    // Single-player games only; rooms have their own outcome
+    @Override
+    public void gameFinished(GameResult result) {
+        if (result.inRoom()) return;
+        if (result.won()) gamesWon.increment();
+        else gamesLost.increment();
+    }
+
+    @Override
+    public void roomCommand(String command, long nanos) {
+        Timer timer = switch (command) {
+            case "join" -> roomJoin;
+            case "start" -> roomStart;
+            case "guess" -> roomGuess;
+            default -> null;
+        };
+        if (timer != null) timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void evaluated(long nanos) {
+        evaluate.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void passwordHashed(long nanos) {
+        passwordHash.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void loggedIn() {
+        loginsOk.increment();
+    }
+
+    @Override
+    public void loginFailed() {
+        loginsFailed.increment();
+    }
+}
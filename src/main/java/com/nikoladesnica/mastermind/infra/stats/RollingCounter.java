@@ -0,0 +1,52 @@
+package com.nikoladesnica.mastermind.infra.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Events per second for the last {@code seconds} seconds, in a ring of one cell per second. A cell packs the
+ * second it belongs to (high 32 bits) with its count (low 32 bits), so a writer landing on a cell left over
+ * from an older lap resets it with the same CAS that counts, and readers skip cells from other seconds: no
+ * locks, no clearing thread, nothing allocated. Hot counters spread writers over several rings (by thread),
+ * which readers add up.
+ */
+final class RollingCounter {
+
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    private final int slots;
+    private final int stripeMask;
+    private final AtomicLongArray cells;
+
+    /** {@code stripes} is rounded up to a power of two. */
+    RollingCounter(int seconds, int stripes) {
+        this.slots = seconds + 2; // the second being written and one of slack never alias a second still read
+        int s = Integer.highestOneBit(Math.max(1, stripes) * 2 - 1);
+        this.stripeMask = s - 1;
+        this.cells = new AtomicLongArray(s * slots);
+    }
+
+    void increment(long second) {
+        int i = (int) ((Thread.currentThread().threadId() & stripeMask) * slots + second % slots);
+        for (;;) {
+            long cell = cells.get(i);
+            long cellSecond = cell >>> 32;
+            long next;
+            if (cellSecond == second) next = cell + 1;
+            else if (cellSecond < second) next = second << 32 | 1;
+            else return; // this thread stalled for a whole lap; its second is no longer reported
+            if (cells.compareAndSet(i, cell, next)) return;
+        }
+    }
+
+    /** Events counted in seconds {@code from..to}, both inclusive. */
+    long sum(long from, long to) {
+        long sum = 0;
+        for (int base = 0; base < cells.length(); base += slots) {
+            for (long second = Math.max(0, from); second <= to; second++) {
+                long cell = cells.get(base + (int) (second % slots));
+                if (cell >>> 32 == second) sum += cell & COUNT_MASK;
+            }
+        }
+        return sum;
+    }
+}
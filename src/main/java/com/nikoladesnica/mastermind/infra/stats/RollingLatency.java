@@ -0,0 +1,91 @@
+package com.nikoladesnica.mastermind.infra.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency distribution for the last {@code seconds} seconds: a ring of fixed-width time slots, each a
+ * log-linear histogram (8 buckets per power of two of nanoseconds, so a bucket is at most 12.5% wide).
+ * Histograms merge by adding bucket counts, which is how a window spanning many slots is read.
+ *
+ * Like {@link RollingCounter}, every bucket cell packs the slot it belongs to with its count, so recording is
+ * one CAS on one cell, stale cells reset themselves, and nothing is allocated.
+ */
+final class RollingLatency {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 37; // 2^37 ns ~ 137 s; anything slower lands in the last bucket
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB;
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    /** Merged counts of a window. */
+    record Distribution(long count, long[] buckets) {
+
+        /** Midpoint of the bucket holding the {@code q} quantile, in nanoseconds (0 when empty). */
+        double quantile(double q) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                seen += buckets[b];
+                if (seen >= rank) return (lowerBound(b) + lowerBound(b + 1)) / 2.0;
+            }
+            return lowerBound(buckets.length);
+        }
+    }
+
+    private final int slotSeconds;
+    private final int slots;
+    private final AtomicLongArray cells;
+
+    RollingLatency(int seconds, int slotSeconds) {
+        this.slotSeconds = slotSeconds;
+        this.slots = (seconds + slotSeconds - 1) / slotSeconds + 2;
+        this.cells = new AtomicLongArray(slots * BUCKETS);
+    }
+
+    void record(long second, long nanos) {
+        long slot = second / slotSeconds;
+        int i = (int) (slot % slots) * BUCKETS + bucket(nanos);
+        for (;;) {
+            long cell = cells.get(i);
+            long cellSlot = cell >>> 32;
+            long next;
+            if (cellSlot == slot) next = cell + 1;
+            else if (cellSlot < slot) next = slot << 32 | 1;
+            else return;
+            if (cells.compareAndSet(i, cell, next)) return;
+        }
+    }
+
+    /** Everything recorded in the slots covering seconds {@code from..to}. */
+    Distribution read(long from, long to) {
+        long[] buckets = new long[BUCKETS];
+        long count = 0;
+        for (long slot = Math.max(0, from) / slotSeconds, last = to / slotSeconds; slot <= last; slot++) {
+            int base = (int) (slot % slots) * BUCKETS;
+            for (int b = 0; b < BUCKETS; b++) {
+                long cell = cells.get(base + b);
+                if (cell >>> 32 == slot) {
+                    buckets[b] += cell & COUNT_MASK;
+                    count += cell & COUNT_MASK;
+                }
+            }
+        }
+        return new Distribution(count, buckets);
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < SUB) return (int) Math.max(0, nanos);
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB - 1);
+        return (exponent - SUB_BITS + 1) * SUB + sub;
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < SUB) return bucket;
+        int exponent = bucket / SUB + SUB_BITS - 1;
+        return (long) (SUB + bucket % SUB) << (exponent - SUB_BITS);
+    }
+}
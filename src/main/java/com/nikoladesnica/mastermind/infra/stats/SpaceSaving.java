@@ -0,0 +1,95 @@
+package com.nikoladesnica.mastermind.infra.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Heavy hitters in a stream, in memory bounded by {@code capacity} (Metwally et al.'s Space-Saving). Any item
+ * occurring more than {@code n / capacity} times out of {@code n} is guaranteed to be tracked; a tracked item's
+ * count overestimates its true count by at most its {@code error}. Summaries merge (Agarwal et al.), so
+ * shards can be combined. Not thread-safe: owned by one thread.
+ */
+final class SpaceSaving<T> {
+
+    record Item<T>(T value, long count, long error) {}
+
+    private static final class Counter {
+        long count;
+        long error;
+
+        Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private final int capacity;
+    private final Map<T, Counter> counters;
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    void add(T value) {
+        Counter c = counters.get(value);
+        if (c != null) {
+            c.count++;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(value, new Counter(1, 0));
+            return;
+        }
+        // Full: the newcomer takes over the smallest counter and inherits its count as possible overcount
+        Map.Entry<T, Counter> min = null;
+        for (Map.Entry<T, Counter> e : counters.entrySet()) {
+            if (min == null || e.getValue().count < min.getValue().count) min = e;
+        }
+        Counter taken = counters.remove(min.getKey());
+        counters.put(value, new Counter(taken.count + 1, taken.count));
+    }
+
+    /**
+     * Folds {@code other} into this summary. An item missing from a full summary may still have occurred up to
+     * that summary's smallest count, so that much is added to its count and error; the largest {@code capacity}
+     * counters are kept.
+     */
+    void merge(SpaceSaving<T> other) {
+        long mine = floor(), theirs = other.floor();
+        Map<T, Counter> merged = new HashMap<>(counters.size() + other.counters.size());
+        counters.forEach((v, c) -> {
+            Counter o = other.counters.get(v);
+            merged.put(v, o != null
+                    ? new Counter(c.count + o.count, c.error + o.error)
+                    : new Counter(c.count + theirs, c.error + theirs));
+        });
+        other.counters.forEach((v, o) -> {
+            if (!counters.containsKey(v)) merged.put(v, new Counter(o.count + mine, o.error + mine));
+        });
+        counters.clear();
+        merged.entrySet().stream()
+                .sorted(Map.Entry.<T, Counter>comparingByValue(Comparator.comparingLong(c -> c.count)).reversed())
+                .limit(capacity)
+                .forEach(e -> counters.put(e.getKey(), e.getValue()));
+    }
+
+    /** The {@code k} largest counters, largest first. */
+    List<Item<T>> top(int k) {
+        List<Item<T>> items = new ArrayList<>(counters.size());
+        counters.forEach((v, c) -> items.add(new Item<>(v, c.count, c.error)));
+        items.sort(Comparator.comparingLong((Item<T> i) -> i.count()).reversed());
+        return List.copyOf(items.subList(0, Math.min(k, items.size())));
+    }
+
+    // What an untracked item may have reached: 0 until the summary has had to evict
+    private long floor() {
+        if (counters.size() < capacity) return 0;
+        long min = Long.MAX_VALUE;
+        for (Counter c : counters.values()) min = Math.min(min, c.count);
+        return min;
+    }
+}
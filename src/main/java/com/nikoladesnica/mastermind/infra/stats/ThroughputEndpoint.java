@@ -0,0 +1,20 @@
+package com.nikoladesnica.mastermind.infra.stats;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/** {@code GET /actuator/throughput}: the {@link LiveStats} windows as JSON. */
+@Endpoint(id = "throughput")
+public class ThroughputEndpoint {
+
+    private final LiveStats stats;
+
+    public ThroughputEndpoint(LiveStats stats) {
+        this.stats = stats;
+    }
+
+    @ReadOperation
+    public LiveStats.Snapshot throughput() {
+        return stats.snapshot();
+    }
+}
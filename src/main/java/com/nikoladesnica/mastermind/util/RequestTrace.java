@@ -0,0 +1,134 @@
+package com.nikoladesnica.mastermind.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Per-request stage timings: where a request's time went (lookup, waiting for the room, evaluation, ...).
+ * A trace is opened by the web layer on the request thread and the instrumented code adds to it through the
+ * static methods; code running outside an open trace pays one thread-local read and records nothing.
+ * Each thread reuses a single trace object, so a traced request allocates nothing until the summary is rendered.
+ */
+public final class RequestTrace {
+
+    public enum Stage {
+        REPO("repo", "Repository lookups and saves"),
+        LOCK("lock", "Waiting for the room (lock or mailbox) or a contended game lock"),
+        EVALUATE("eval", "Feedback computation"),
+        RECORD_WIN("win", "Account and leaderboard update"),
+        MAPPING("map", "Domain to DTO mapping"),
+        ENCODE("encode", "Response body encoding (JSON or binary)");
+
+        private final String metricName;
+        private final String description;
+
+        Stage(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+
+        /** Short name used as the Server-Timing metric and the {@code stage} tag. */
+        public String metricName() { return metricName; }
+        public String description() { return description; }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final ThreadLocal<RequestTrace> LOCAL = new ThreadLocal<>();
+
+    private final long[] nanos = new long[STAGES.length];
+    private int touched; // bit per stage that recorded at least once
+    private long openedAt;
+    private boolean active;
+
+    private RequestTrace() {}
+
+    /** Starts a fresh trace on this thread, reusing the thread's previous one if any. */
+    public static RequestTrace open() {
+        RequestTrace trace = LOCAL.get();
+        if (trace == null) {
+            trace = new RequestTrace();
+            LOCAL.set(trace);
+        }
+        Arrays.fill(trace.nanos, 0L);
+        trace.touched = 0;
+        trace.openedAt = System.nanoTime();
+        trace.active = true;
+        return trace;
+    }
+
+    /** Stops recording; the timings stay readable until this thread opens its next trace. */
+    public void close() {
+        active = false;
+    }
+
+    /** The trace open on this thread, or null. */
+    public static RequestTrace current() {
+        RequestTrace trace = LOCAL.get();
+        return trace != null && trace.active ? trace : null;
+    }
+
+    /**
+     * Makes {@code trace} this thread's current trace (null detaches) and returns what was there before, so work
+     * handed to another thread on behalf of a waiting request can record into that request's trace.
+     */
+    public static RequestTrace attach(RequestTrace trace) {
+        RequestTrace previous = LOCAL.get();
+        LOCAL.set(trace);
+        return previous;
+    }
+
+    /** Start of a timed stage: the current time if a trace is open on this thread, else 0. */
+    public static long start() {
+        return current() == null ? 0L : System.nanoTime();
+    }
+
+    /** Ends a stage begun with {@link #start()}; a no-op when nothing was being traced. */
+    public static void stop(Stage stage, long startedAt) {
+        if (startedAt == 0L) return;
+        RequestTrace trace = current();
+        if (trace != null) trace.add(stage, System.nanoTime() - startedAt);
+    }
+
+    /** Adds an already measured duration, for code that times itself anyway (e.g. for a Timer). */
+    public static void record(Stage stage, long durationNanos) {
+        RequestTrace trace = current();
+        if (trace != null) trace.add(stage, durationNanos);
+    }
+
+    public void add(Stage stage, long durationNanos) {
+        nanos[stage.ordinal()] += durationNanos;
+        touched |= 1 << stage.ordinal();
+    }
+
+    public boolean recorded(Stage stage) {
+        return (touched & (1 << stage.ordinal())) != 0;
+    }
+
+    /** Total time spent in {@code stage} so far; a stage entered more than once is summed. */
+    public long nanos(Stage stage) {
+        return nanos[stage.ordinal()];
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - openedAt;
+    }
+
+    /**
+     * The recorded stages plus the elapsed total ({@code app}) as a Server-Timing header value, in milliseconds:
+     * {@code repo;dur=0.004, eval;dur=0.002, app;dur=0.120}.
+     */
+    public String serverTiming() {
+        StringBuilder sb = new StringBuilder(96);
+        for (Stage stage : STAGES) {
+            if (!recorded(stage)) continue;
+            appendMetric(sb, stage.metricName(), nanos(stage));
+            sb.append(", ");
+        }
+        appendMetric(sb, "app", elapsedNanos());
+        return sb.toString();
+    }
+
+    private static void appendMetric(StringBuilder sb, String name, long nanos) {
+        sb.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1e6));
+    }
+}
@@ -0,0 +1,30 @@
+package com.nikoladesnica.mastermind.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of ReentrantLocks selected by key hash.
+ * Bounded memory regardless of how many keys exist, and unlike monitors the locks
+ * do not pin virtual-thread carriers while a holder blocks.
+ */
+public final class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripes) {
+        if (stripes <= 0) throw new IllegalArgumentException("stripes must be > 0");
+        int n = 1;
+        while (n < stripes) n <<= 1; // power of two so a mask can pick the stripe
+        this.locks = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) locks[i] = new ReentrantLock();
+        this.mask = n - 1;
+    }
+
+    public ReentrantLock lockFor(Object key) {
+        int h = key.hashCode();
+        return locks[(h ^ (h >>> 16)) & mask];
+    }
+
+    public int stripes() { return locks.length; }
+}
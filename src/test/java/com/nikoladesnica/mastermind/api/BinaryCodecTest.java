@@ -0,0 +1,87 @@
+package com.nikoladesnica.mastermind.api;
+
+import com.nikoladesnica.mastermind.api.dto.BatchGuessResult;
+import com.nikoladesnica.mastermind.api.dto.GameView;
+import com.nikoladesnica.mastermind.api.dto.GuessRequest;
+import com.nikoladesnica.mastermind.api.dto.RoomView;
+import com.nikoladesnica.mastermind.api.wire.BinaryCodec;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCodecTest {
+
+    private static final Instant T = Instant.parse("2025-01-02T03:04:05.678Z");
+
+    @Test
+    void gameView_roundTrips() {
+        GameView v = new GameView(UUID.randomUUID(), "LOST", 0, false, "Game finished (LOST). Start a new game.", 2, null,
+                List.of(new GameView.HistoryEntry(List.of(0, 1, 2, 3), 1, 2, T),
+                        new GameView.HistoryEntry(List.of(7, 7, 0, 5, 1), 0, 1, T.plusMillis(1))));
+        assertEquals(v, BinaryCodec.decodeGameView(BinaryCodec.encode(v)));
+    }
+
+    @Test
+    void roomView_roundTrips_withNullsAndHiddenGuesses() {
+        UUID p = UUID.randomUUID();
+        RoomView v = new RoomView(UUID.randomUUID(), "RUNNING", T, T.plusSeconds(1), null, null,
+                List.of(new RoomView.PlayerSnapshot(p, "Ana ✓", "IN_PROGRESS", 9, 1, 1,
+                                List.of(new RoomView.HistoryEntry(null, 1, 0, T))),
+                        new RoomView.PlayerSnapshot(UUID.randomUUID(), "Bo", "IN_PROGRESS", 8, 2, 3, null)),
+                List.of(new RoomView.LeaderboardEntry(p, "Ana ✓", "IN_PROGRESS", 1, null)));
+        assertEquals(v, BinaryCodec.decodeRoomView(BinaryCodec.encode(v)));
+    }
+
+    @Test
+    void batchResults_areSelfDelimiting() throws Exception {
+        List<BatchGuessResult> results = List.of(
+                new BatchGuessResult(0, UUID.randomUUID(), 1, 2, "IN_PROGRESS", 9, null, null),
+                new BatchGuessResult(1, UUID.randomUUID(), null, null, "WON", 7, null, null),
+                new BatchGuessResult(2, null, null, null, null, null, 404, "Game not found"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (BatchGuessResult r : results) out.write(BinaryCodec.encode(r));
+        assertEquals(results, BinaryCodec.decodeBatchResults(out.toByteArray()));
+    }
+
+    @Test
+    void digits_packTwoPerByte_andWideDigitsStillRoundTrip() {
+        byte[] packed = BinaryCodec.encode(new GuessRequest(List.of(0, 1, 3, 2)));
+        assertEquals(2 + 1 + 2, packed.length, "header, length, two nibble bytes");
+        assertEquals(List.of(0, 1, 3, 2), BinaryCodec.decodeGuessRequest(packed).digits());
+
+        GuessRequest wide = new GuessRequest(List.of(16, 200, 3));
+        assertEquals(wide.digits(), BinaryCodec.decodeGuessRequest(BinaryCodec.encode(wide)).digits());
+    }
+
+    @Test
+    void truncatedInput_isRejected() {
+        byte[] full = BinaryCodec.encode(new GameView(UUID.randomUUID(), "WON", 3, false, null, 0, null, List.of()));
+        byte[] cut = Arrays.copyOf(full, full.length - 3);
+        assertThrows(BinaryCodec.MalformedMessageException.class, () -> BinaryCodec.decodeGameView(cut));
+    }
+
+    @Test
+    void oversizedDigitCount_isRejected_notAllocated() {
+        for (long header : new long[]{(1L << 32) + 1, (1L << 33) + 3, -1L}) { // counts 2^31, 2^32 and 2^63-1
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(BinaryCodec.GUESS_REQUEST);
+            out.write(BinaryCodec.VERSION);
+            for (long v = header; ; v >>>= 7) {
+                if ((v & ~0x7FL) == 0) {
+                    out.write((int) v);
+                    break;
+                }
+                out.write((int) (v & 0x7F) | 0x80);
+            }
+            out.write(0x12);
+            byte[] bytes = out.toByteArray();
+            assertThrows(BinaryCodec.MalformedMessageException.class, () -> BinaryCodec.decodeGuessRequest(bytes));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.nikoladesnica.mastermind.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nikoladesnica.mastermind.domain.model.Code;
+import com.nikoladesnica.mastermind.domain.ports.SecretCodeGenerator;
+import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "mastermind.use-random-org=false"
+})
+@AutoConfigureMockMvc
+class ExportControllerTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper mapper;
+
+    @Test
+    void finished_games_stream_in_finish_order_and_resume_from_a_cursor() throws Exception {
+        String unfinished = startGame();
+        String first = startGame();
+        guess(first, "[0,1,3,2]");
+        String second = startGame();
+        guess(second, "[0,0,0,0]");
+        guess(second, "[0,1,3,2]");
+
+        List<JsonNode> all = export(get("/api/admin/export/games"));
+        JsonNode firstLine = find(all, "gameId", first);
+        assertNotNull(firstLine);
+        assertEquals("WON", firstLine.get("status").asText());
+        assertEquals(1, firstLine.get("attemptsUsed").asInt());
+        assertEquals(List.of(0, 1, 3, 2), mapper.convertValue(firstLine.get("secret"), List.class));
+        assertNull(find(all, "gameId", unfinished), "games still in progress are not exported");
+
+        // Resume right after the first game: the second is next, the first is not repeated
+        List<JsonNode> rest = export(get("/api/admin/export/games")
+                .param("cursor", firstLine.get("cursor").asText())
+                .param("limit", "1"));
+        assertEquals(1, rest.size());
+        assertEquals(second, rest.get(0).get("gameId").asText());
+        assertEquals(2, rest.get(0).get("history").size());
+
+        mvc.perform(get("/api/admin/export/games").param("cursor", "yesterday"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void finished_rooms_are_exported_with_players_and_history() throws Exception {
+        JsonNode create = mapper.readTree(mvc.perform(post("/api/rooms")).andReturn().getResponse().getContentAsString());
+        String roomId = create.get("roomId").asText();
+        JsonNode join = mapper.readTree(mvc.perform(post("/api/rooms/{id}/join", roomId)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Solo\"}"))
+                .andReturn().getResponse().getContentAsString());
+        mvc.perform(post("/api/rooms/{id}/start", roomId).header("X-Host-Token", create.get("hostToken").asText()));
+        mvc.perform(post("/api/rooms/{id}/guesses", roomId)
+                .header("X-Player-Id", join.get("playerId").asText())
+                .header("X-Player-Token", join.get("playerToken").asText())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"digits\":[0,1,3,2]}"));
+
+        JsonNode room = find(export(get("/api/admin/export/rooms")), "roomId", roomId);
+        assertNotNull(room);
+        assertEquals("Solo", room.get("players").get(0).get("name").asText());
+        assertEquals("WON", room.get("players").get(0).get("status").asText());
+        assertEquals(4, room.get("players").get(0).get("bestCorrectPositions").asInt());
+        assertEquals(1, room.get("players").get(0).get("history").size());
+    }
+
+    private List<JsonNode> export(MockHttpServletRequestBuilder request) throws Exception {
+        var async = mvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+        async.getAsyncResult(5_000); // exports have no async timeout, so wait explicitly
+        String body = mvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) lines.add(mapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static JsonNode find(List<JsonNode> lines, String field, String id) {
+        return lines.stream().filter(n -> n.get(field).asText().equals(id)).findFirst().orElse(null);
+    }
+
+    private String startGame() throws Exception {
+        return mapper.readTree(mvc.perform(post("/api/games").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andReturn().getResponse().getContentAsString()).get("gameId").asText();
+    }
+
+    private void guess(String gameId, String digits) throws Exception {
+        mvc.perform(post("/api/games/{id}/guesses", gameId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"digits\":" + digits + "}"))
+                .andExpect(status().isOk());
+    }
+
+    @TestConfiguration
+    static class FixedSecretConfig {
+        @Bean @Primary
+        SecretCodeGenerator testSecretGenerator(GameProperties props) {
+            return () -> new Code(
+                    List.of(0, 1, 3, 2),
+                    props.codeLength(),
+                    props.minDigit(),
+                    props.maxDigit(),
+                    props.allowDuplicates()
+            );
+        }
+    }
+}
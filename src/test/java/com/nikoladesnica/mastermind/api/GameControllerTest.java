@@ -2,9 +2,15 @@ package com.nikoladesnica.mastermind.api;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nikoladesnica.mastermind.api.dto.GameView;
+import com.nikoladesnica.mastermind.api.dto.GuessRequest;
+import com.nikoladesnica.mastermind.api.view.ViewCache;
+import com.nikoladesnica.mastermind.api.wire.BinaryCodec;
+import com.nikoladesnica.mastermind.api.wire.Wire;
 import com.nikoladesnica.mastermind.domain.model.Code;
 import com.nikoladesnica.mastermind.domain.ports.SecretCodeGenerator;
 import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -15,9 +21,13 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,13 +41,16 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         "mastermind.allow-duplicates=true",
         "mastermind.use-random-org=false",
         "mastermind.random-org.timeout-ms=500",
-        "mastermind.random-org.base-url=https://www.random.org/integers/"
+        "mastermind.random-org.base-url=https://www.random.org/integers/",
+        "mastermind.tracing.server-timing=true"
 })
 @AutoConfigureMockMvc
 class GameControllerTest {
 
     @Autowired MockMvc mvc;
     @Autowired ObjectMapper mapper;
+    @Autowired ViewCache views;
+    @Autowired MeterRegistry meters;
 
     @Test
     void startGame_thenGuess_thenGet_snapshotIsConsistent() throws Exception {
@@ -153,6 +166,275 @@ class GameControllerTest {
                 .andExpect(jsonPath("$.path", is("/api/games/" + fakeId)));
     }
 
+    @Test
+    void unchangedGame_isServedFromViewCache_untilNextGuess() throws Exception {
+        String startJson = mvc.perform(post("/api/games")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andReturn().getResponse().getContentAsString();
+        String gameId = mapper.readTree(startJson).get("gameId").asText();
+
+        byte[] first = mvc.perform(get("/api/games/{id}", gameId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+        long hitsBefore = views.hits();
+        byte[] second = mvc.perform(get("/api/games/{id}", gameId))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(hitsBefore + 1, views.hits());
+        assertTrue(Arrays.equals(first, second));
+
+        // A guess changes the game, so the next read is rebuilt
+        mvc.perform(post("/api/games/{id}/guesses", gameId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"digits\":[0,1,2,3]}"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/games/{id}", gameId))
+                .andExpect(jsonPath("$.historyCount", is(1)));
+    }
+
+    @Test
+    void projections_selectStatusLatestOrHistoryRange() throws Exception {
+        String gameId = mapper.readTree(mvc.perform(post("/api/games").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andReturn().getResponse().getContentAsString()).get("gameId").asText();
+        for (int d = 0; d < 3; d++) {
+            mvc.perform(post("/api/games/{id}/guesses", gameId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"digits\":[" + d + ",0,0,0]}"))
+                    // Default guess response: only the new entry
+                    .andExpect(jsonPath("$.historyCount", is(d + 1)))
+                    .andExpect(jsonPath("$.historyFrom", is(d)))
+                    .andExpect(jsonPath("$.history", hasSize(1)))
+                    .andExpect(jsonPath("$.history[0].guess[0]", is(d)));
+        }
+
+        mvc.perform(get("/api/games/{id}", gameId).param("view", "status"))
+                .andExpect(jsonPath("$.historyCount", is(3)))
+                .andExpect(jsonPath("$.history").doesNotExist());
+        mvc.perform(get("/api/games/{id}", gameId).param("historyFrom", "1").param("historyLimit", "1"))
+                .andExpect(jsonPath("$.historyFrom", is(1)))
+                .andExpect(jsonPath("$.history", hasSize(1)))
+                .andExpect(jsonPath("$.history[0].guess[0]", is(1)));
+        mvc.perform(get("/api/games/{id}", gameId).param("historyFrom", "7"))
+                .andExpect(jsonPath("$.historyFrom", is(3)))
+                .andExpect(jsonPath("$.history", hasSize(0)));
+        mvc.perform(get("/api/games/{id}", gameId))
+                .andExpect(jsonPath("$.historyFrom").doesNotExist())
+                .andExpect(jsonPath("$.history", hasSize(3)));
+
+        mvc.perform(post("/api/games/{id}/guesses", gameId).param("view", "full")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"digits\":[0,0,0,0]}"))
+                .andExpect(jsonPath("$.history", hasSize(4)));
+
+        // Bad projections are rejected before the guess is applied
+        mvc.perform(post("/api/games/{id}/guesses", gameId).param("view", "everything")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"digits\":[0,0,0,0]}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/games/{id}", gameId).param("historyLimit", "-1"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/games/{id}", gameId).param("view", "latest").param("historyFrom", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("historyFrom/historyLimit only apply to view=range")));
+        mvc.perform(post("/api/games/{id}/guesses", gameId).param("view", "status").param("historyLimit", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"digits\":[0,0,0,0]}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/games/{id}", gameId).param("view", "range").param("historyFrom", "2"))
+                .andExpect(jsonPath("$.historyFrom", is(2)))
+                .andExpect(jsonPath("$.history", hasSize(2)));
+        mvc.perform(get("/api/games/{id}", gameId).param("view", "status"))
+                .andExpect(jsonPath("$.historyCount", is(4)));
+    }
+
+    @Test
+    void retriedGuess_withIdempotencyKey_returnsOriginalResponse_withoutSpendingAnAttempt() throws Exception {
+        String gameId = mapper.readTree(mvc.perform(post("/api/games").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andReturn().getResponse().getContentAsString()).get("gameId").asText();
+
+        byte[] first = mvc.perform(post("/api/games/{id}/guesses", gameId)
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"digits\":[0,0,0,0]}"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] retry = mvc.perform(post("/api/games/{id}/guesses", gameId)
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"digits\":[0,0,0,0]}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertTrue(Arrays.equals(first, retry));
+
+        mvc.perform(post("/api/games/{id}/guesses", gameId)
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"digits\":[1,1,1,1]}"))
+                .andExpect(status().isBadRequest());
+        // Same digits asking for another shape of the response: replaying the stored bytes would be wrong
+        mvc.perform(post("/api/games/{id}/guesses", gameId)
+                        .param("view", "full")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"digits\":[0,0,0,0]}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/api/games/{id}/guesses", gameId)
+                        .header("Idempotency-Key", "retry-1")
+                        .header("Accept", "application/x-mastermind, application/json;q=0.5") // JSON for the error
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"digits\":[0,0,0,0]}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/games/{id}", gameId))
+                .andExpect(jsonPath("$.historyCount", is(1)))
+                .andExpect(jsonPath("$.attemptsLeft", is(9)));
+    }
+
+    @Test
+    void batchGuesses_streamPerItemResults_withPartialFailures() throws Exception {
+        String g1 = mapper.readTree(mvc.perform(post("/api/games").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andReturn().getResponse().getContentAsString()).get("gameId").asText();
+        String g2 = mapper.readTree(mvc.perform(post("/api/games").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andReturn().getResponse().getContentAsString()).get("gameId").asText();
+        String missing = "aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa";
+
+        String body = """
+                {"guesses":[
+                  {"gameId":"%s","digits":[0,0,0,0]},
+                  {"gameId":"%s","digits":[0,1,3,2]},
+                  {"gameId":"%s","digits":[9,9,9,9]},
+                  {"gameId":"%s","digits":[0,1,3,2]},
+                  {"gameId":"%s","digits":[0,1,3,2]},
+                  {"gameId":"%s","digits":[1,1,1,1]}
+                ]}""".formatted(g1, g2, g1, g1, missing, g1);
+
+        var async = mvc.perform(post("/api/games/guesses/batch")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(request().asyncStarted()).andReturn();
+        String ndjson = mvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode[] byIndex = new JsonNode[6];
+        for (String line : ndjson.split("\n")) {
+            JsonNode n = mapper.readTree(line);
+            byIndex[n.get("index").asInt()] = n;
+        }
+        assertEquals(1, byIndex[0].get("correctPositions").asInt());
+        assertEquals("WON", byIndex[1].get("status").asText());
+        assertEquals(400, byIndex[2].get("errorStatus").asInt(), "bad digits fail alone");
+        assertEquals("WON", byIndex[3].get("status").asText());
+        assertEquals(8, byIndex[3].get("attemptsLeft").asInt(), "the rejected item used no attempt");
+        assertEquals(404, byIndex[4].get("errorStatus").asInt());
+        assertTrue(byIndex[5].path("correctPositions").isMissingNode(), "game already won: no-op, like a single guess");
+
+        mvc.perform(get("/api/games/{id}", g1)).andExpect(jsonPath("$.historyCount", is(2)));
+    }
+
+    @Test
+    void binaryWireFormat_isNegotiatedViaAccept_forGuessRequestAndResponse() throws Exception {
+        String gameId = mapper.readTree(mvc.perform(post("/api/games").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andReturn().getResponse().getContentAsString()).get("gameId").asText();
+
+        byte[] res = mvc.perform(post("/api/games/{id}/guesses", gameId)
+                        .contentType(Wire.BINARY)
+                        .accept(Wire.BINARY)
+                        .content(BinaryCodec.encode(new GuessRequest(List.of(0, 1, 3, 2)))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(Wire.BINARY))
+                .andReturn().getResponse().getContentAsByteArray();
+        GameView view = BinaryCodec.decodeGameView(res);
+        assertEquals("WON", view.status());
+        assertEquals(List.of(0, 1, 3, 2), view.history().get(0).guess());
+
+        // Same game, default Accept: JSON
+        mvc.perform(get("/api/games/{id}", gameId))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status", is("WON")));
+
+        // Garbage binary body is a 400 like malformed JSON
+        mvc.perform(post("/api/games/{id}/guesses", gameId)
+                        .contentType(Wire.BINARY)
+                        .content(new byte[]{0x10, 0x01, 0x7F}))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void guess_reportsStageTimings_inServerTimingHeader_andStageTimers() throws Exception {
+        String gameId = mapper.readTree(mvc.perform(post("/api/games"))
+                .andReturn().getResponse().getContentAsString()).get("gameId").asText();
+        long evaluatedBefore = meters.get("mastermind.request.stage").tag("stage", "eval").timer().count();
+
+        mvc.perform(post("/api/games/{id}/guesses", gameId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"digits\":[0,1,2,3]}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", allOf(
+                        containsString("repo;dur="),
+                        containsString("eval;dur="),
+                        containsString("map;dur="),
+                        containsString("encode;dur="),
+                        containsString("app;dur="))))
+                .andExpect(header().string("Server-Timing", not(containsString("lock;"))));
+
+        assertEquals(evaluatedBefore + 1, meters.get("mastermind.request.stage").tag("stage", "eval").timer().count());
+
+        // Errors carry the header too: the lookup ran before the 404
+        mvc.perform(get("/api/games/{id}", "00000000-0000-0000-0000-000000000000"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string("Server-Timing", containsString("repo;dur=")));
+    }
+
+    @Test
+    void throughputEndpoint_reportsRollingWindows_includingGuessesJustMade() throws Exception {
+        long before = mapper.readTree(mvc.perform(get("/actuator/throughput")).andReturn().getResponse().getContentAsString())
+                .at("/windows/1m/guessLatency/count").asLong();
+        String gameId = mapper.readTree(mvc.perform(post("/api/games"))
+                .andReturn().getResponse().getContentAsString()).get("gameId").asText();
+        mvc.perform(post("/api/games/{id}/guesses", gameId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"digits\":[0,1,3,2]}"))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/throughput"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.uptimeSeconds", greaterThanOrEqualTo(0)))
+                .andExpect(jsonPath("$.roomsRunning", greaterThanOrEqualTo(0)))
+                .andExpect(jsonPath("$.windows.*.seconds", contains(60, 300, 900)))
+                .andExpect(jsonPath("$.windows.1m.guessLatency.count", greaterThanOrEqualTo((int) before + 1)))
+                .andExpect(jsonPath("$.windows.15m.guessLatency.p99Micros", greaterThan(0.0)))
+                .andExpect(jsonPath("$.windows.15m.winsPerSecond").isNumber());
+    }
+
+    @Test
+    void stats_reflectFinishedGames_onceAnalyticsCatchUp() throws Exception {
+        long before = mapper.readTree(mvc.perform(get("/api/stats")).andReturn().getResponse().getContentAsString())
+                .get("gamesWon").asLong();
+        String gameId = mapper.readTree(mvc.perform(post("/api/games"))
+                .andReturn().getResponse().getContentAsString()).get("gameId").asText();
+        mvc.perform(post("/api/games/{id}/guesses", gameId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"digits\":[0,1,2,3]}")).andExpect(status().isOk());
+        mvc.perform(post("/api/games/{id}/guesses", gameId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"digits\":[0,1,3,2]}")).andExpect(jsonPath("$.status", is("WON")));
+
+        JsonNode stats = null;
+        for (int i = 0; i < 200; i++) { // aggregated on the analytics thread, shortly after the response
+            stats = mapper.readTree(mvc.perform(get("/api/stats")).andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (stats.get("gamesWon").asLong() > before) break;
+            Thread.sleep(10);
+        }
+        assertEquals(before + 1, stats.get("gamesWon").asLong());
+        assertTrue(stats.get("attemptsToWin").get(1).get("wins").asLong() >= 1, "won on the second guess");
+        assertEquals("single", stats.get("winRateByConfig").get(0).get("mode").asText());
+        assertEquals("4 digits 0-7, repeats, 10 attempts", stats.get("winRateByConfig").get(0).get("config").asText());
+        assertTrue(stats.get("topOpenings").size() >= 1);
+        assertEquals(0, stats.get("droppedResults").asLong());
+    }
+
     @TestConfiguration
     static class FixedSecretConfig {
         // Override the generator with a deterministic secret for tests
@@ -0,0 +1,155 @@
+package com.nikoladesnica.mastermind.api;
+
+import com.nikoladesnica.mastermind.api.view.IdempotencyCache;
+import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
+import com.nikoladesnica.mastermind.domain.errors.NotFoundException;
+import com.nikoladesnica.mastermind.domain.errors.UnavailableException;
+import com.nikoladesnica.mastermind.infra.config.IdempotencyProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    @Test
+    void concurrent_retries_run_the_action_once_and_share_its_response() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(new IdempotencyProperties(1000, 60_000, 4, 5_000));
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            List<Future<ResponseEntity<byte[]>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.execute("game:1", "k", "[0,1,3,2]", () -> {
+                    runs.incrementAndGet();
+                    inside.countDown();
+                    try { release.await(); } catch (InterruptedException ignored) { }
+                    return ResponseEntity.ok(new byte[]{42});
+                })));
+            }
+            assertTrue(inside.await(1, TimeUnit.SECONDS));
+            release.countDown();
+            int replayed = 0;
+            for (Future<ResponseEntity<byte[]>> f : results) {
+                ResponseEntity<byte[]> r = f.get(5, TimeUnit.SECONDS);
+                assertArrayEquals(new byte[]{42}, r.getBody());
+                if (r.getHeaders().containsKey(IdempotencyCache.REPLAYED_HEADER)) replayed++;
+            }
+            assertEquals(7, replayed);
+        }
+        assertEquals(1, runs.get());
+        assertEquals(7, cache.replays());
+    }
+
+    @Test
+    void failures_release_the_key_and_reuse_with_other_content_is_rejected() {
+        IdempotencyCache cache = new IdempotencyCache(new IdempotencyProperties(1000, 60_000, 4, 5_000));
+        assertThrows(NotFoundException.class, () -> cache.execute("game:1", "k", "a", () -> {
+            throw new NotFoundException("Game not found");
+        }));
+        assertEquals(0, cache.size());
+
+        cache.execute("game:1", "k", "a", () -> ResponseEntity.ok(new byte[0]));
+        assertThrows(BadRequestException.class, () -> cache.execute("game:1", "k", "b", () -> ResponseEntity.ok(new byte[0])));
+        // Same key on another resource is unrelated
+        cache.execute("game:2", "k", "b", () -> ResponseEntity.ok(new byte[0]));
+        assertEquals(3, cache.executions()); // the failed first attempt counts too
+    }
+
+    @Test
+    void entries_are_bounded_and_expire() throws Exception {
+        IdempotencyCache bounded = new IdempotencyCache(new IdempotencyProperties(8, 60_000, 1, 5_000));
+        for (int i = 0; i < 100; i++) {
+            bounded.execute("s", "k" + i, "", () -> ResponseEntity.ok(new byte[0]));
+        }
+        assertEquals(8, bounded.size());
+
+        IdempotencyCache shortLived = new IdempotencyCache(new IdempotencyProperties(8, 1, 1, 5_000));
+        AtomicInteger runs = new AtomicInteger();
+        shortLived.execute("s", "k", "", () -> { runs.incrementAndGet(); return ResponseEntity.ok(new byte[0]); });
+        Thread.sleep(5);
+        shortLived.execute("s", "k", "", () -> { runs.incrementAndGet(); return ResponseEntity.ok(new byte[0]); });
+        assertEquals(2, runs.get(), "an expired key runs again");
+    }
+
+    @Test
+    void requests_in_flight_are_never_evicted_for_room() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(new IdempotencyProperties(2, 60_000, 1, 5_000));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        try (ExecutorService pool = Executors.newSingleThreadExecutor()) {
+            Future<ResponseEntity<byte[]>> original = pool.submit(() -> cache.execute("s", "slow", "", () -> {
+                runs.incrementAndGet();
+                inside.countDown();
+                try { release.await(); } catch (InterruptedException ignored) { }
+                return ResponseEntity.ok(new byte[]{1});
+            }));
+            assertTrue(inside.await(1, TimeUnit.SECONDS));
+            // Each new key needs room: the completed one goes, the one in flight stays
+            cache.execute("s", "a", "", () -> ResponseEntity.ok(new byte[0]));
+            cache.execute("s", "b", "", () -> ResponseEntity.ok(new byte[0]));
+            assertEquals(2, cache.size());
+
+            release.countDown();
+            original.get(5, TimeUnit.SECONDS);
+        }
+        cache.execute("s", "slow", "", () -> { runs.incrementAndGet(); return ResponseEntity.ok(new byte[0]); });
+        assertEquals(1, runs.get(), "the retry replays instead of running again");
+    }
+
+    @Test
+    void a_stripe_full_of_requests_in_flight_turns_new_keys_away() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(new IdempotencyProperties(1, 60_000, 1, 5_000));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newSingleThreadExecutor()) {
+            Future<ResponseEntity<byte[]>> original = pool.submit(() -> cache.execute("s", "slow", "", () -> {
+                inside.countDown();
+                try { release.await(); } catch (InterruptedException ignored) { }
+                return ResponseEntity.ok(new byte[]{1});
+            }));
+            assertTrue(inside.await(1, TimeUnit.SECONDS));
+            assertThrows(UnavailableException.class, () -> cache.execute("s", "other", "", () -> ResponseEntity.ok(new byte[0])));
+
+            release.countDown();
+            original.get(5, TimeUnit.SECONDS);
+        }
+        cache.execute("s", "other", "", () -> ResponseEntity.ok(new byte[0]));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void retry_waits_a_bounded_time_for_a_stuck_original() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(new IdempotencyProperties(1000, 60_000, 4, 50));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        String fingerprint = IdempotencyCache.fingerprint(List.of(0, 1, 3, 2), null, false);
+
+        try (ExecutorService pool = Executors.newSingleThreadExecutor()) {
+            Future<ResponseEntity<byte[]>> original = pool.submit(() -> cache.execute("game:1", "k", fingerprint, () -> {
+                inside.countDown();
+                try { release.await(); } catch (InterruptedException ignored) { }
+                return ResponseEntity.ok(new byte[]{1});
+            }));
+            assertTrue(inside.await(1, TimeUnit.SECONDS));
+            assertThrows(UnavailableException.class,
+                    () -> cache.execute("game:1", "k", fingerprint, () -> ResponseEntity.ok(new byte[0])));
+
+            release.countDown();
+            assertArrayEquals(new byte[]{1}, original.get(5, TimeUnit.SECONDS).getBody());
+        }
+        // Once the original is done the key replays it as usual
+        assertArrayEquals(new byte[]{1}, cache.execute("game:1", "k", fingerprint, () -> ResponseEntity.ok(new byte[0])).getBody());
+        assertNotEquals(fingerprint, IdempotencyCache.fingerprint(List.of(0, 1, 3, 2), null, true));
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -222,7 +223,7 @@ class RoomControllerTest {
                         .header("X-Player-Token", p1Token))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.state", is("WAITING")))
-                .andExpect(jsonPath("$.players[*].playerId", not(hasItem(p1Id))));
+                .andExpect(jsonPath("$.leaderboard[*].playerId", not(hasItem(p1Id))));
     }
 
     @Test
@@ -430,10 +431,223 @@ class RoomControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.state", is("WAITING")))
-                .andExpect(jsonPath("$.players[*].playerId", not(hasItem(bId))));
+                .andExpect(jsonPath("$.leaderboard[*].playerId", not(hasItem(bId))));
     }
 
 
+    @Test
+    void spectator_sees_frames_without_guess_digits_until_race_ends() throws Exception {
+        JsonNode create = mapper.readTree(mvc.perform(post("/api/rooms"))
+                .andReturn().getResponse().getContentAsString());
+        String roomId = create.get("roomId").asText();
+        String hostToken = create.get("hostToken").asText();
+        JsonNode join = mapper.readTree(mvc.perform(post("/api/rooms/{id}/join", roomId)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Alice\"}"))
+                .andReturn().getResponse().getContentAsString());
+        mvc.perform(post("/api/rooms/{id}/start", roomId).header("X-Host-Token", hostToken))
+                .andExpect(status().isOk());
+
+        // First poll gets the latest snapshot
+        var first = mvc.perform(get("/api/rooms/{id}/spectate", roomId))
+                .andExpect(request().asyncStarted()).andReturn();
+        String firstJson = mvc.perform(asyncDispatch(first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.room.state", is("RUNNING")))
+                .andReturn().getResponse().getContentAsString();
+        long cursor = mapper.readTree(firstJson).get("seq").asLong();
+
+        // Nothing new yet
+        var idle = mvc.perform(get("/api/rooms/{id}/spectate", roomId).param("cursor", String.valueOf(cursor)))
+                .andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(asyncDispatch(idle)).andExpect(status().isNoContent());
+
+        mvc.perform(post("/api/rooms/{id}/guesses", roomId)
+                        .header("X-Player-Id", join.get("playerId").asText())
+                        .header("X-Player-Token", join.get("playerToken").asText())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"digits\":[0,0,0,0]}"))
+                .andExpect(status().isOk());
+
+        var next = mvc.perform(get("/api/rooms/{id}/spectate", roomId)
+                        .param("cursor", String.valueOf(cursor)).param("waitMs", "1000"))
+                .andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(asyncDispatch(next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seq", is((int) cursor + 1)))
+                .andExpect(jsonPath("$.room.players[0].history[0].correctPositions", is(1)))
+                .andExpect(jsonPath("$.room.players[0].history[0].guess").doesNotExist())
+                .andExpect(content().string(not(containsString("Token"))));
+    }
+
+    @Test
+    void room_view_depends_on_caller_own_history_opponent_summaries_or_leaderboard() throws Exception {
+        JsonNode create = mapper.readTree(mvc.perform(post("/api/rooms"))
+                .andReturn().getResponse().getContentAsString());
+        String roomId = create.get("roomId").asText();
+        JsonNode a = mapper.readTree(mvc.perform(post("/api/rooms/{id}/join", roomId)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"A\"}"))
+                .andReturn().getResponse().getContentAsString());
+        JsonNode b = mapper.readTree(mvc.perform(post("/api/rooms/{id}/join", roomId)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"B\"}"))
+                .andReturn().getResponse().getContentAsString());
+        mvc.perform(post("/api/rooms/{id}/start", roomId).header("X-Host-Token", create.get("hostToken").asText()))
+                .andExpect(status().isOk());
+        for (String digits : List.of("[0,1,0,0]", "[0,1,3,0]")) {
+            mvc.perform(post("/api/rooms/{id}/guesses", roomId)
+                            .header("X-Player-Id", b.get("playerId").asText())
+                            .header("X-Player-Token", b.get("playerToken").asText())
+                            .contentType(MediaType.APPLICATION_JSON).content("{\"digits\":" + digits + "}"))
+                    .andExpect(status().isOk());
+        }
+
+        // A sees B's progress but not B's guesses
+        mvc.perform(get("/api/rooms/{id}", roomId)
+                        .header("X-Player-Id", a.get("playerId").asText())
+                        .header("X-Player-Token", a.get("playerToken").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.players[0].name", is("A")))
+                .andExpect(jsonPath("$.players[0].history", hasSize(0)))
+                .andExpect(jsonPath("$.players[1].name", is("B")))
+                .andExpect(jsonPath("$.players[1].attemptsUsed", is(2)))
+                .andExpect(jsonPath("$.players[1].bestCorrectPositions", is(3)))
+                .andExpect(jsonPath("$.players[1].history").doesNotExist());
+
+        // B sees their own guesses
+        mvc.perform(get("/api/rooms/{id}", roomId)
+                        .header("X-Player-Id", b.get("playerId").asText())
+                        .header("X-Player-Token", b.get("playerToken").asText()))
+                .andExpect(jsonPath("$.players[1].history", hasSize(2)))
+                .andExpect(jsonPath("$.players[1].history[1].guess", contains(0, 1, 3, 0)));
+
+        // Anonymous: leaderboard only; a forged player id is rejected
+        mvc.perform(get("/api/rooms/{id}", roomId))
+                .andExpect(jsonPath("$.players").doesNotExist())
+                .andExpect(jsonPath("$.leaderboard", hasSize(2)));
+        mvc.perform(get("/api/rooms/{id}", roomId)
+                        .header("X-Player-Id", b.get("playerId").asText())
+                        .header("X-Player-Token", "WRONG"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void retried_room_guess_with_idempotency_key_is_applied_once() throws Exception {
+        JsonNode create = mapper.readTree(mvc.perform(post("/api/rooms"))
+                .andReturn().getResponse().getContentAsString());
+        String roomId = create.get("roomId").asText();
+        JsonNode p = mapper.readTree(mvc.perform(post("/api/rooms/{id}/join", roomId)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"P\"}"))
+                .andReturn().getResponse().getContentAsString());
+        String pid = p.get("playerId").asText();
+        String token = p.get("playerToken").asText();
+        mvc.perform(post("/api/rooms/{id}/start", roomId).header("X-Host-Token", create.get("hostToken").asText()));
+
+        for (int i = 0; i < 3; i++) {
+            mvc.perform(post("/api/rooms/{id}/guesses", roomId)
+                            .header("X-Player-Id", pid)
+                            .header("X-Player-Token", token)
+                            .header("Idempotency-Key", "g1")
+                            .contentType(MediaType.APPLICATION_JSON).content("{\"digits\":[0,0,0,0]}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.players[0].attemptsUsed", is(1)));
+        }
+        // The key is bound to the player's credentials
+        mvc.perform(post("/api/rooms/{id}/guesses", roomId)
+                        .header("X-Player-Id", pid)
+                        .header("X-Player-Token", "WRONG")
+                        .header("Idempotency-Key", "g1")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"digits\":[0,0,0,0]}"))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/api/rooms/{id}", roomId))
+                .andExpect(jsonPath("$.leaderboard[0].attemptsUsed", is(1)));
+    }
+
+    @Test
+    void games_and_room_seats_started_with_a_session_are_listed_newest_first_by_cursor() throws Exception {
+        String username = "hist-" + UUID.randomUUID();
+        String accountId = mapper.readTree(mvc.perform(post("/accounts").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"secret1\"}"))
+                .andReturn().getResponse().getContentAsString()).get("accountId").asText();
+        String session = mapper.readTree(mvc.perform(post("/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"secret1\"}"))
+                .andReturn().getResponse().getContentAsString()).get("sessionToken").asText();
+
+        String gameId = mapper.readTree(mvc.perform(post("/api/games").header("X-Session-Token", session))
+                .andReturn().getResponse().getContentAsString()).get("gameId").asText();
+        mvc.perform(post("/api/games/{id}/guesses", gameId).header("X-Session-Token", session)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"digits\":[0,1,3,2]}"))
+                .andExpect(jsonPath("$.status", is("WON")));
+        mvc.perform(post("/api/games")).andExpect(status().isOk()); // anonymous: not attributed
+
+        JsonNode create = mapper.readTree(mvc.perform(post("/api/rooms"))
+                .andReturn().getResponse().getContentAsString());
+        String roomId = create.get("roomId").asText();
+        String playerId = mapper.readTree(mvc.perform(post("/api/rooms/{id}/join", roomId).header("X-Session-Token", session)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"H\"}"))
+                .andReturn().getResponse().getContentAsString()).get("playerId").asText();
+
+        String next = mvc.perform(get("/api/accounts/{id}/games", accountId).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games", hasSize(1)))
+                .andExpect(jsonPath("$.games[0].kind", is("ROOM")))
+                .andExpect(jsonPath("$.games[0].id", is(roomId)))
+                .andExpect(jsonPath("$.games[0].playerId", is(playerId)))
+                .andExpect(jsonPath("$.games[0].status", is("IN_PROGRESS")))
+                .andExpect(jsonPath("$.nextCursor", notNullValue()))
+                .andReturn().getResponse().getContentAsString();
+        mvc.perform(get("/api/accounts/{id}/games", accountId).param("limit", "1")
+                        .param("cursor", mapper.readTree(next).get("nextCursor").asText()))
+                .andExpect(jsonPath("$.games", hasSize(1)))
+                .andExpect(jsonPath("$.games[0].kind", is("GAME")))
+                .andExpect(jsonPath("$.games[0].id", is(gameId)))
+                .andExpect(jsonPath("$.games[0].status", is("WON")))
+                .andExpect(jsonPath("$.games[0].attemptsUsed", is(1)))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+
+        mvc.perform(get("/api/accounts/{id}/games", accountId).param("cursor", "nope"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/accounts/{id}/games", "aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void event_log_is_paged_and_hides_secret_and_guesses_until_the_race_ends() throws Exception {
+        JsonNode create = mapper.readTree(mvc.perform(post("/api/rooms"))
+                .andReturn().getResponse().getContentAsString());
+        String roomId = create.get("roomId").asText();
+        JsonNode p = mapper.readTree(mvc.perform(post("/api/rooms/{id}/join", roomId)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Ann\"}"))
+                .andReturn().getResponse().getContentAsString());
+        String pid = p.get("playerId").asText();
+        mvc.perform(post("/api/rooms/{id}/start", roomId).header("X-Host-Token", create.get("hostToken").asText()));
+        mvc.perform(post("/api/rooms/{id}/guesses", roomId)
+                .header("X-Player-Id", pid).header("X-Player-Token", p.get("playerToken").asText())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"digits\":[0,0,0,0]}"));
+
+        mvc.perform(get("/api/rooms/{id}/events", roomId).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size", is(4)))
+                .andExpect(jsonPath("$.events[*].type", contains("CREATED", "JOINED")))
+                .andExpect(jsonPath("$.events[1].playerId", is(pid)))
+                .andExpect(jsonPath("$.events[1].name", is("Ann")))
+                .andExpect(jsonPath("$.next", is(2)));
+        mvc.perform(get("/api/rooms/{id}/events", roomId).param("from", "2"))
+                .andExpect(jsonPath("$.state", is("RUNNING")))
+                .andExpect(jsonPath("$.events[*].type", contains("STARTED", "GUESSED")))
+                .andExpect(jsonPath("$.events[*].seq", contains(2, 3)))
+                .andExpect(jsonPath("$.events[0].digits").doesNotExist())
+                .andExpect(jsonPath("$.events[1].digits").doesNotExist())
+                .andExpect(jsonPath("$.next", nullValue()));
+
+        mvc.perform(post("/api/rooms/{id}/leave", roomId)
+                .header("X-Player-Id", pid).header("X-Player-Token", p.get("playerToken").asText()));
+        mvc.perform(get("/api/rooms/{id}/events", roomId).param("from", "2"))
+                .andExpect(jsonPath("$.state", is("FINISHED")))
+                .andExpect(jsonPath("$.events[*].type", contains("STARTED", "GUESSED", "LEFT")))
+                .andExpect(jsonPath("$.events[0].digits", contains(0, 1, 3, 2)))
+                .andExpect(jsonPath("$.events[1].digits", contains(0, 0, 0, 0)));
+        mvc.perform(get("/api/rooms/{id}/events", roomId).param("from", "99"))
+                .andExpect(status().isBadRequest());
+    }
+
     private int historyCountFor(JsonNode roomView, String playerId) {
         for (JsonNode p : roomView.get("players")) {
             if (p.get("playerId").asText().equals(playerId)) {
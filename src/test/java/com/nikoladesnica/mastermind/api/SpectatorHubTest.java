@@ -0,0 +1,119 @@
+package com.nikoladesnica.mastermind.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nikoladesnica.mastermind.domain.model.Player;
+import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.model.RoomState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpectatorHubTest {
+
+    private final SpectatorHub hub = new SpectatorHub(new ObjectMapper().registerModule(new JavaTimeModule()), Runnable::run);
+
+    @Test
+    void readers_keep_independent_cursors() {
+        Room room = new Room("host");
+        SpectatorHub.Ring ring = hub.open(room.roomId());
+        ring.seed(room);
+        room.addPlayer(new Player("A", "t", 10));
+        hub.changed(room);
+
+        assertEquals(2, ring.next(0, 0).join().seq(), "new readers start at the latest frame");
+        assertEquals(2, ring.next(1, 0).join().seq());
+        assertNull(ring.next(2, 0).join());
+    }
+
+    @Test
+    void lagging_reader_skips_to_latest_and_writer_ignores_readers() {
+        Room room = new Room("host");
+        SpectatorHub.Ring ring = hub.open(room.roomId());
+        ring.seed(room);
+        for (int i = 0; i < SpectatorHub.RING_SIZE * 3; i++) hub.changed(room);
+
+        long head = ring.head();
+        assertEquals(SpectatorHub.RING_SIZE * 3 + 1, head);
+        assertEquals(head, ring.next(1, 0).join().seq(), "lapped cursor jumps to the newest frame");
+        assertEquals(head - 5, ring.next(head - 6, 0).join().seq(), "recent cursor gets the very next frame");
+    }
+
+    @Test
+    void waiting_reader_is_woken_by_the_next_publish() {
+        Room room = new Room("host");
+        SpectatorHub.Ring ring = hub.open(room.roomId());
+        ring.seed(room);
+
+        CompletableFuture<SpectatorHub.Frame> waiting = ring.next(1, 5_000);
+        assertFalse(waiting.isDone());
+        hub.changed(room);
+        assertEquals(2, waiting.join().seq());
+    }
+
+    @Test
+    void poll_racing_a_publish_is_never_left_waiting() throws Exception {
+        Room room = new Room("host");
+        SpectatorHub.Ring ring = hub.open(room.roomId());
+        ring.seed(room);
+        AtomicBoolean polling = new AtomicBoolean(true);
+        Thread writer = Thread.ofPlatform().start(() -> {
+            while (polling.get()) hub.changed(room);
+        });
+        try {
+            // Each poll starts at the head, so it must wait; the writer keeps publishing behind it, so a poll
+            // that attached to a signal swapped out before completion would time out and come back null
+            for (int i = 0; i < 2_000; i++) {
+                long cursor = ring.head();
+                SpectatorHub.Frame f = ring.next(cursor, 2_000).get(5, TimeUnit.SECONDS);
+                assertNotNull(f, "poll " + i + " missed the publish after cursor " + cursor);
+                assertTrue(f.seq() > cursor);
+            }
+        } finally {
+            polling.set(false);
+            writer.join();
+        }
+    }
+
+    @Test
+    void finished_rooms_release_their_ring_after_the_closing_frame() {
+        Room room = new Room("host");
+        SpectatorHub.Ring ring = hub.open(room.roomId());
+        ring.seed(room);
+        CompletableFuture<SpectatorHub.Frame> waiting = ring.next(1, 5_000);
+        room.setState(RoomState.FINISHED);
+        hub.changed(room);
+
+        assertEquals(0, hub.watchedRooms());
+        assertEquals(2, waiting.join().seq(), "readers holding the ring still get the closing frame");
+        assertTrue(ring.closed());
+        assertNull(ring.next(2, 5_000).join(), "nothing follows the closing frame");
+    }
+
+    @Test
+    void abandoned_rooms_release_their_ring_once_nobody_reads_it() {
+        SpectatorHub idle = new SpectatorHub(new ObjectMapper().registerModule(new JavaTimeModule()), Runnable::run, Duration.ZERO);
+        Room waited = new Room("host");
+        idle.open(waited.roomId()).seed(waited);
+        CompletableFuture<SpectatorHub.Frame> waiting = idle.open(waited.roomId()).next(1, 5_000);
+        Room abandoned = new Room("host");
+        idle.open(abandoned.roomId()).seed(abandoned);
+
+        idle.open(new Room("host").roomId());
+        assertEquals(2, idle.watchedRooms(), "the unread ring is dropped, the one with a waiter is kept");
+        idle.changed(abandoned);
+        assertEquals(2, idle.watchedRooms(), "a dropped ring is not revived by a late mutation");
+        waiting.cancel(true);
+    }
+
+    @Test
+    void unwatched_rooms_are_not_serialized() {
+        hub.changed(new Room("host"));
+        assertEquals(0, hub.watchedRooms());
+    }
+}
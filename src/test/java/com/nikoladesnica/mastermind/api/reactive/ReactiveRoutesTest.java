@@ -0,0 +1,181 @@
+package com.nikoladesnica.mastermind.api.reactive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nikoladesnica.mastermind.domain.model.Code;
+import com.nikoladesnica.mastermind.domain.ports.SecretCodeGenerator;
+import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The test context picks its web type before profile files are read, so it is also set here
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "mastermind.code-length=4",
+        "mastermind.min-digit=0",
+        "mastermind.max-digit=7",
+        "mastermind.attempts=10",
+        "mastermind.allow-duplicates=true",
+        "mastermind.use-random-org=false"
+})
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+class ReactiveRoutesTest {
+
+    @Autowired WebTestClient client;
+    @Autowired ObjectMapper mapper;
+
+    @Test
+    void game_start_guess_get() throws Exception {
+        JsonNode start = json(client.post().uri("/api/games")
+                .contentType(MediaType.APPLICATION_JSON).bodyValue("{}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.attemptsLeft").isEqualTo(10)
+                .returnResult().getResponseBody());
+        String gameId = start.get("gameId").asText();
+
+        client.post().uri("/api/games/{id}/guesses", gameId)
+                .contentType(MediaType.APPLICATION_JSON).bodyValue("{\"digits\":[0,1,2,3]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("IN_PROGRESS")
+                .jsonPath("$.historyFrom").isEqualTo(0)
+                .jsonPath("$.history.length()").isEqualTo(1);
+
+        client.post().uri("/api/games/{id}/guesses", gameId)
+                .contentType(MediaType.APPLICATION_JSON).bodyValue("{\"digits\":[0,1,3,2]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("WON");
+
+        client.get().uri("/api/games/{id}", gameId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.historyCount").isEqualTo(2)
+                .jsonPath("$.history.length()").isEqualTo(2)
+                .jsonPath("$.canGuess").isEqualTo(false);
+    }
+
+    @Test
+    void errors_use_the_same_status_and_body_as_mvc() {
+        client.get().uri("/api/games/{id}", "00000000-0000-0000-0000-000000000000")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("Game not found")
+                .jsonPath("$.path").value(containsString("/api/games/"));
+
+        String gameId = json(client.post().uri("/api/games").exchange()
+                .expectStatus().isOk().expectBody().returnResult().getResponseBody()).get("gameId").asText();
+
+        client.post().uri("/api/games/{id}/guesses", gameId)
+                .contentType(MediaType.APPLICATION_JSON).bodyValue("{\"digits\":[0,1,2]}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").value(containsString("digits"));
+
+        client.post().uri("/api/games/{id}/guesses", gameId)
+                .contentType(MediaType.APPLICATION_JSON).bodyValue("{not json")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Malformed JSON");
+    }
+
+    @Test
+    void room_race_and_spectator_stream() {
+        JsonNode room = json(client.post().uri("/api/rooms").exchange()
+                .expectStatus().isOk().expectBody().returnResult().getResponseBody());
+        String roomId = room.get("roomId").asText();
+        String hostToken = room.get("hostToken").asText();
+
+        JsonNode alice = json(client.post().uri("/api/rooms/{id}/join", roomId)
+                .contentType(MediaType.APPLICATION_JSON).bodyValue("{\"name\":\"Alice\"}")
+                .exchange()
+                .expectStatus().isOk().expectBody().returnResult().getResponseBody());
+
+        // Subscribe before anything happens: the first event is the current (waiting) snapshot
+        var events = client.get().uri("/api/rooms/{id}/spectate/stream", roomId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .getResponseBody()
+                .filter(e -> e.data() != null);
+
+        client.post().uri("/api/rooms/{id}/start", roomId)
+                .header("X-Host-Token", hostToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.state").isEqualTo("RUNNING");
+
+        client.post().uri("/api/rooms/{id}/guesses", roomId)
+                .header("X-Player-Id", alice.get("playerId").asText())
+                .header("X-Player-Token", alice.get("playerToken").asText())
+                .contentType(MediaType.APPLICATION_JSON).bodyValue("{\"digits\":[0,1,3,2]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.state").isEqualTo("FINISHED")
+                .jsonPath("$.players[0].history.length()").isEqualTo(1);
+
+        // The stream ends on its own once the finishing frame was delivered
+        List<String> states = events.map(e -> json(e.data().getBytes()).at("/room/state").asText())
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        assertEquals("FINISHED", states.get(states.size() - 1));
+
+        client.get().uri("/api/rooms/{id}/spectate?cursor=0", roomId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.room.state").isEqualTo("FINISHED");
+
+        client.get().uri("/api/rooms/{id}", roomId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.players").doesNotExist()
+                .jsonPath("$.leaderboard[0].status").isEqualTo("WON");
+    }
+
+    private JsonNode json(byte[] body) {
+        try {
+            return mapper.readTree(body);
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @TestConfiguration
+    static class FixedSecretConfig {
+        @Bean @Primary
+        SecretCodeGenerator testSecretGenerator(GameProperties props) {
+            return () -> new Code(
+                    List.of(0, 1, 3, 2),
+                    props.codeLength(),
+                    props.minDigit(),
+                    props.maxDigit(),
+                    props.allowDuplicates()
+            );
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.nikoladesnica.mastermind.bench;
+
+import com.nikoladesnica.mastermind.MastermindApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bot-style client throughput: one HTTP request per guess vs POST /api/games/guesses/batch.
+ * Each client owns a set of games and submits the same wrong guesses to all of them.
+ *
+ * Run explicitly: mvn test -Dtest=BatchGuessBenchmark -Dbench.clients=16 -Dbench.games=50 -Dbench.batch=500
+ */
+class BatchGuessBenchmark {
+
+    private static final Pattern GAME_ID = Pattern.compile("\"gameId\"\\s*:\\s*\"([^\"]+)\"");
+
+    @Test
+    void single_vs_batch_guesses() throws Exception {
+        int clients = Integer.getInteger("bench.clients", 16);
+        int gamesPerClient = Integer.getInteger("bench.games", 50);
+        int batch = Integer.getInteger("bench.batch", 500);
+        int guessesPerGame = 9; // stay below the 10 attempts so every guess is applied
+
+        ConfigurableApplicationContext ctx = new SpringApplicationBuilder(MastermindApplication.class)
+                .properties("server.port=0", "mastermind.use-random-org=false", "logging.level.root=WARN")
+                .run();
+        String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(clients)) {
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10)).build();
+
+            double single = run(pool, clients, () -> {
+                List<String> games = newGames(http, base, gamesPerClient);
+                int n = 0;
+                for (int g = 0; g < guessesPerGame; g++) {
+                    for (String id : games) {
+                        post(http, base + "/api/games/" + id + "/guesses", "{\"digits\":[7,7,7,7]}");
+                        n++;
+                    }
+                }
+                return n;
+            });
+
+            double batched = run(pool, clients, () -> {
+                List<String> games = newGames(http, base, gamesPerClient);
+                List<String> items = new ArrayList<>();
+                for (int g = 0; g < guessesPerGame; g++) {
+                    for (String id : games) items.add("{\"gameId\":\"" + id + "\",\"digits\":[7,7,7,7]}");
+                }
+                for (int from = 0; from < items.size(); from += batch) {
+                    List<String> chunk = items.subList(from, Math.min(items.size(), from + batch));
+                    String res = post(http, base + "/api/games/guesses/batch", "{\"guesses\":[" + String.join(",", chunk) + "]}");
+                    assertEquals(chunk.size(), res.split("\n").length);
+                }
+                return items.size();
+            });
+
+            System.out.printf("%n%-8s %10s%n", "mode", "guesses/s");
+            System.out.printf("%-8s %10.0f%n", "single", single);
+            System.out.printf("%-8s %10.0f  (x%.1f)%n", "batch", batched, batched / single);
+        } finally {
+            ctx.close();
+        }
+    }
+
+    private static double run(ExecutorService pool, int clients, Callable<Integer> client) throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < clients; i++) futures.add(pool.submit(client));
+        long guesses = 0;
+        for (Future<Integer> f : futures) guesses += f.get();
+        return guesses / ((System.nanoTime() - t0) / 1e9);
+    }
+
+    private static List<String> newGames(HttpClient http, String base, int n) throws Exception {
+        List<String> ids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Matcher m = GAME_ID.matcher(post(http, base + "/api/games", "{}"));
+            if (!m.find()) throw new IllegalStateException("No gameId");
+            ids.add(m.group(1));
+        }
+        return ids;
+    }
+
+    private static String post(HttpClient http, String url, String json) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
+        if (res.statusCode() != 200) throw new IllegalStateException(url + " -> " + res.statusCode());
+        return res.body();
+    }
+}
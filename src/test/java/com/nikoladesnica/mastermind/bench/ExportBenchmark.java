@@ -0,0 +1,78 @@
+package com.nikoladesnica.mastermind.bench;
+
+import com.nikoladesnica.mastermind.MastermindApplication;
+import com.nikoladesnica.mastermind.domain.model.Game;
+import com.nikoladesnica.mastermind.domain.service.GameService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Streams every finished game through GET /api/admin/export/games over real HTTP.
+ * Reports export throughput and how far the retained heap grows above its post-seeding baseline
+ * while the export runs. That growth should stay flat as bench.games grows. The heap is sampled after a
+ * GC every 50k lines, and those pauses are included in the throughput.
+ *
+ * Run explicitly: mvn test -Dtest=ExportBenchmark -Dbench.games=500000
+ */
+class ExportBenchmark {
+
+    @Test
+    void export_finished_games() throws Exception {
+        int games = Integer.getInteger("bench.games", 200_000);
+
+        ConfigurableApplicationContext ctx = new SpringApplicationBuilder(MastermindApplication.class)
+                .properties("server.port=0", "mastermind.use-random-org=false", "logging.level.root=WARN")
+                .run();
+        String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+        try {
+            GameService service = ctx.getBean(GameService.class);
+            for (int i = 0; i < games; i++) {
+                Game g = service.startGame();
+                service.submitGuess(g.id(), g.secret().digits());
+            }
+
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            System.gc();
+            long baseline = memory.getHeapMemoryUsage().getUsed();
+            long peak = baseline;
+
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest req = HttpRequest.newBuilder(URI.create(base + "/api/admin/export/games")).GET().build();
+            long t0 = System.nanoTime();
+            long lines = 0, bytes = 0, nextSample = 50_000;
+            try (InputStream in = http.send(req, HttpResponse.BodyHandlers.ofInputStream()).body()) {
+                byte[] buf = new byte[64 * 1024];
+                int n;
+                while ((n = in.read(buf)) > 0) {
+                    bytes += n;
+                    for (int i = 0; i < n; i++) if (buf[i] == '\n') lines++;
+                    if (lines >= nextSample) {
+                        // Retained heap mid-export: collect first so garbage from finished lines does not count
+                        System.gc();
+                        peak = Math.max(peak, memory.getHeapMemoryUsage().getUsed());
+                        nextSample += 50_000;
+                    }
+                }
+            }
+            long nanos = System.nanoTime() - t0;
+
+            assertEquals(games, lines);
+            System.out.printf("%ngames=%d bytes=%d%n", games, bytes);
+            System.out.printf("export: %.0f games/s, %.1f MB/s%n", lines / (nanos / 1e9), bytes / 1e6 / (nanos / 1e9));
+            System.out.printf("retained heap above baseline during export: %.1f MB peak%n", (peak - baseline) / 1e6);
+        } finally {
+            ctx.close();
+        }
+    }
+}
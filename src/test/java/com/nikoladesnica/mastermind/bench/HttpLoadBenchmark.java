@@ -0,0 +1,50 @@
+package com.nikoladesnica.mastermind.bench;
+
+import com.nikoladesnica.mastermind.MastermindApplication;
+import com.nikoladesnica.mastermind.bench.load.LoadGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the real endpoints with {@link LoadGenerator}: open-model arrivals of game, room and leaderboard
+ * sessions played by feedback-driven bots. Starts the app on a random port (local RNG, so random.org is not
+ * part of the measurement) unless {@code load.target} points at a server that is already running.
+ * Writes {@code report.json} plus one HdrHistogram {@code .hgrm} file per endpoint to {@code load.report-dir}.
+ *
+ * Not part of the regular suite (surefire only picks up *Test classes). Run explicitly:
+ *   mvn test -Dtest=HttpLoadBenchmark -Dload.rate=300 -Dload.duration=60s -Dload.mix=game:60,room:30,leaderboard:10
+ *   mvn test -Dtest=HttpLoadBenchmark -Dload.target=http://localhost:8080 -Dload.profile=reactive
+ */
+class HttpLoadBenchmark {
+
+    @Test
+    void open_model_mixed_scenarios() throws Exception {
+        String external = System.getProperty("load.target");
+        ConfigurableApplicationContext ctx = null;
+        URI target;
+        if (external != null) {
+            target = URI.create(external);
+        } else {
+            SpringApplicationBuilder app = new SpringApplicationBuilder(MastermindApplication.class)
+                    .properties(
+                            "server.port=0",
+                            "mastermind.use-random-org=false",
+                            "logging.level.root=WARN");
+            String profile = System.getProperty("load.profile");
+            if (profile != null) app.profiles(profile);
+            ctx = app.run();
+            target = URI.create("http://localhost:" + ctx.getEnvironment().getProperty("local.server.port"));
+        }
+        try {
+            LoadGenerator.Report report = new LoadGenerator(LoadGenerator.Config.fromSystemProperties(target)).run();
+            assertEquals(0, report.errors(), "all requests should succeed");
+        } finally {
+            if (ctx != null) ctx.close();
+        }
+    }
+}
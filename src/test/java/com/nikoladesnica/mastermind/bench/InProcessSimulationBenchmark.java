@@ -0,0 +1,27 @@
+package com.nikoladesnica.mastermind.bench;
+
+import com.nikoladesnica.mastermind.bench.sim.Simulator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Capacity of the domain layer alone: {@link Simulator} runs thousands of bots against GameService and
+ * RoomService on a fixed worker pool and prints one row per second (guesses/s, finished games and rooms,
+ * room lock or mailbox wait, share of worker time spent waiting, allocation rate, heap and retained heap),
+ * then writes the series and a summary to {@code sim.report-dir}/report.json.
+ *
+ * Not part of the regular suite (surefire only picks up *Test classes). Run explicitly:
+ *   mvn test -Dtest=InProcessSimulationBenchmark -Dsim.bots=20000 -Dsim.threads=16 -Dsim.seconds=60
+ *   mvn test -Dtest=InProcessSimulationBenchmark -Dsim.execution=mailbox -Dsim.room-size=64 -Dsim.strategy=random
+ */
+class InProcessSimulationBenchmark {
+
+    @Test
+    void bots_against_the_domain_services() throws Exception {
+        Simulator.Report report = new Simulator(Simulator.Config.fromSystemProperties()).run();
+        assertTrue(report.guesses() > 0, "bots should have played");
+        assertEquals(0, report.errors(), "no service call should fail");
+    }
+}
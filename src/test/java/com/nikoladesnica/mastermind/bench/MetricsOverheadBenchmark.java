@@ -0,0 +1,130 @@
+package com.nikoladesnica.mastermind.bench;
+
+import com.nikoladesnica.mastermind.domain.model.Code;
+import com.nikoladesnica.mastermind.domain.model.Game;
+import com.nikoladesnica.mastermind.domain.model.Player;
+import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.ports.SecretCodeGenerator;
+import com.nikoladesnica.mastermind.domain.service.GameService;
+import com.nikoladesnica.mastermind.domain.service.GuessEvaluator;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.infra.exec.LockingRoomExecutor;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryGameRepository;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryRoomRepository;
+import com.nikoladesnica.mastermind.infra.stats.MeteredActivity;
+import com.nikoladesnica.mastermind.util.Meters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cost of the Micrometer instrumentation on the hot paths: the same single-player and room guess loops
+ * with meters off (no-op registry), on (SimpleMeterRegistry), and on with percentiles and histograms
+ * (the most expensive configuration application.yml allows). Reports ns and allocated bytes per guess.
+ *
+ * Run explicitly: mvn test -Dtest=MetricsOverheadBenchmark -Dbench.guesses=2000000
+ */
+class MetricsOverheadBenchmark {
+
+    private static final GameProperties PROPS = new GameProperties(4, 0, 7, 10, true, false, null);
+    private static final SecretCodeGenerator SECRET = () -> new Code(List.of(0, 1, 3, 2), 4, 0, 7, true);
+    private static final List<Integer> MISS = List.of(7, 7, 7, 7);
+
+    @Test
+    void noop_vs_simple_vs_histograms() {
+        int guesses = Integer.getInteger("bench.guesses", 1_000_000);
+        List<Mode> modes = List.of(
+                new Mode("off", Meters::none),
+                new Mode("on", SimpleMeterRegistry::new),
+                new Mode("histograms", MetricsOverheadBenchmark::withHistograms));
+
+        // Warm every mode once so the JIT sees all of them before anything is measured
+        for (Mode m : modes) {
+            gameLoop(m.registry().get(), guesses / 10);
+            roomLoop(m.registry().get(), guesses / 10);
+        }
+
+        System.out.printf("%n%-11s %14s %14s %14s %14s%n", "meters", "game ns/guess", "game B/guess", "room ns/guess", "room B/guess");
+        for (Mode m : modes) {
+            long[] game = gameLoop(m.registry().get(), guesses);
+            long[] room = roomLoop(m.registry().get(), guesses);
+            System.out.printf("%-11s %14.1f %14.1f %14.1f %14.1f%n", m.name(),
+                    game[0] / (double) guesses, game[1] / (double) guesses,
+                    room[0] / (double) guesses, room[1] / (double) guesses);
+        }
+    }
+
+    // Games are replaced before they run out of attempts so every guess is evaluated
+    private static long[] gameLoop(MeterRegistry meters, int guesses) {
+        GameService service = new GameService(new InMemoryGameRepository(), SECRET, new GuessEvaluator(), PROPS,
+                GameService.Dependencies.defaults().withActivity(new MeteredActivity(meters)));
+        List<UUID> games = new ArrayList<>();
+        for (int i = 0; i < guesses / 9 + 1; i++) games.add(service.startGame().id());
+
+        long bytes = allocatedBytes();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < guesses; i++) {
+            Game g = service.submitGuess(games.get(i / 9), MISS);
+            if (g == null) throw new AssertionError();
+        }
+        return new long[]{System.nanoTime() - t0, allocatedBytes() - bytes};
+    }
+
+    private static long[] roomLoop(MeterRegistry meters, int guesses) {
+        RoomService service = new RoomService(new InMemoryRoomRepository(), SECRET, new GuessEvaluator(), PROPS,
+                RoomService.Dependencies.of(new LockingRoomExecutor(1024, 0, meters))
+                        .withActivity(new MeteredActivity(meters)));
+        int players = 64;
+        List<Room> rooms = new ArrayList<>();
+        List<List<Player>> seats = new ArrayList<>();
+        for (int r = 0; r < guesses / (9 * players) + 1; r++) {
+            Room room = service.createRoom();
+            List<Player> ps = new ArrayList<>(players);
+            for (int p = 0; p < players; p++) ps.add(service.join(room.roomId(), "p" + p));
+            service.start(room.roomId(), room.hostToken());
+            rooms.add(room);
+            seats.add(ps);
+        }
+
+        long bytes = allocatedBytes();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < guesses; i++) {
+            int r = i / (9 * players);
+            Player p = seats.get(r).get(i % players);
+            service.guess(rooms.get(r).roomId(), p.id(), p.token(), MISS);
+        }
+        return new long[]{System.nanoTime() - t0, allocatedBytes() - bytes};
+    }
+
+    private static MeterRegistry withHistograms() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .percentiles(0.5, 0.99)
+                        .build()
+                        .merge(config);
+            }
+        });
+        return registry;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+
+    private record Mode(String name, Supplier<MeterRegistry> registry) {}
+}
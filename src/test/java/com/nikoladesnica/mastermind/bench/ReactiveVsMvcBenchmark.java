@@ -0,0 +1,164 @@
+package com.nikoladesnica.mastermind.bench;
+
+import com.nikoladesnica.mastermind.MastermindApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Comparative load test: the MVC (Tomcat) build vs the reactive (Netty) build under many idle spectators.
+ * Each run parks {@code bench.idle} long-polls on a room that never changes, then measures guess latency
+ * for {@code bench.games} games played while those connections are held, plus the JVM's live thread count
+ * and heap with the connections open (client and server share the JVM, the client side is the same in both).
+ *
+ * Not part of the regular suite (surefire only picks up *Test classes). Run explicitly:
+ *   mvn test -Dtest=ReactiveVsMvcBenchmark -Dbench.idle=5000 -Dbench.games=500
+ */
+class ReactiveVsMvcBenchmark {
+
+    private static final Pattern ID = Pattern.compile("\"(?:gameId|roomId)\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern STATUS = Pattern.compile("\"status\"\\s*:\\s*\"([A-Z_]+)\"");
+
+    @Test
+    void mvc_vs_reactive_with_idle_long_polls() throws Exception {
+        int idle = Integer.getInteger("bench.idle", 2_000);
+        int games = Integer.getInteger("bench.games", 300);
+
+        Result mvc = run("mvc", idle, games);
+        Result reactive = run("reactive", idle, games);
+
+        System.out.printf("%n%-9s %6s %8s %10s %10s %8s %8s %8s %8s%n",
+                "mode", "idle", "threads", "heap MB", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+        for (Result r : List.of(mvc, reactive)) {
+            System.out.printf("%-9s %6d %8d %10.1f %10.0f %8.2f %8.2f %8.2f %8d%n",
+                    r.mode, idle, r.threads, r.heapBytes / 1e6, r.throughput(),
+                    r.percentileMs(0.50), r.percentileMs(0.99), r.percentileMs(0.999), r.errors);
+        }
+        assertEquals(0, mvc.errors + reactive.errors, "all requests should succeed");
+    }
+
+    private Result run(String mode, int idle, int games) throws Exception {
+        SpringApplicationBuilder app = new SpringApplicationBuilder(MastermindApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.max-connections=" + (idle * 2),
+                        "server.tomcat.accept-count=" + idle,
+                        "mastermind.use-random-org=false",
+                        "logging.level.root=WARN");
+        if (mode.equals("reactive")) app.profiles("reactive");
+        ConfigurableApplicationContext ctx = app.run();
+        String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+
+        // Few client threads: sendAsync multiplexes every connection on the client's selector
+        ExecutorService clientPool = Executors.newFixedThreadPool(4);
+        try {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientPool)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            // An idle room: spectators past its first frame wait for a change that never comes
+            String roomId = id(send(http, post(base + "/api/rooms", "")));
+            send(http, post(base + "/api/rooms/" + roomId + "/join", "{\"name\":\"idle\"}"));
+            send(http, HttpRequest.newBuilder(URI.create(base + "/api/rooms/" + roomId + "/spectate")).GET().build());
+
+            List<CompletableFuture<HttpResponse<Void>>> parked = new ArrayList<>(idle);
+            HttpRequest wait = HttpRequest.newBuilder(URI.create(base + "/api/rooms/" + roomId + "/spectate?cursor=1&waitMs=25000"))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET().build();
+            for (int i = 0; i < idle; i++) {
+                parked.add(http.sendAsync(wait, HttpResponse.BodyHandlers.discarding()));
+            }
+            Thread.sleep(2_000); // let every connection reach the server and park
+
+            System.gc();
+            int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+            long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+            // Active traffic while the idle connections are held
+            long[] latencies = new long[games * 16];
+            int n = 0, errors = 0;
+            long t0 = System.nanoTime();
+            for (int g = 0; g < games; g++) {
+                try {
+                    n = playOneGame(http, base, latencies, n);
+                } catch (Exception e) {
+                    errors++;
+                }
+            }
+            long wallNanos = System.nanoTime() - t0;
+
+            for (CompletableFuture<HttpResponse<Void>> p : parked) p.cancel(true);
+            long[] sorted = Arrays.copyOf(latencies, n);
+            Arrays.sort(sorted);
+            return new Result(mode, threads, heap, sorted, wallNanos, errors);
+        } finally {
+            clientPool.shutdownNow();
+            ctx.close();
+        }
+    }
+
+    private static int playOneGame(HttpClient http, String base, long[] latencies, int n) throws Exception {
+        String gameId = id(send(http, post(base + "/api/games", "{}")));
+        String status = "IN_PROGRESS";
+        for (int d = 0; "IN_PROGRESS".equals(status) && n < latencies.length; d = (d + 1) % 8) {
+            long t = System.nanoTime();
+            String body = send(http, post(base + "/api/games/" + gameId + "/guesses",
+                    "{\"digits\":[" + d + "," + d + "," + d + "," + d + "]}"));
+            latencies[n++] = System.nanoTime() - t;
+            Matcher s = STATUS.matcher(body);
+            status = s.find() ? s.group(1) : "UNKNOWN";
+        }
+        return n;
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String send(HttpClient http, HttpRequest req) throws Exception {
+        HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
+        if (res.statusCode() != 200) throw new IllegalStateException(req.uri() + " -> " + res.statusCode());
+        return res.body();
+    }
+
+    private static String id(String body) {
+        Matcher m = ID.matcher(body);
+        if (!m.find()) throw new IllegalStateException("No id in " + body);
+        return m.group(1);
+    }
+
+    private record Result(String mode, int threads, long heapBytes, long[] latenciesNanos, long wallNanos, int errors) {
+        double throughput() {
+            return latenciesNanos.length / (wallNanos / 1e9);
+        }
+
+        double percentileMs(double p) {
+            if (latenciesNanos.length == 0) return 0;
+            int idx = (int) Math.min(latenciesNanos.length - 1, Math.ceil(p * latenciesNanos.length) - 1);
+            return latenciesNanos[Math.max(0, idx)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.nikoladesnica.mastermind.bench;
+
+import com.nikoladesnica.mastermind.domain.model.*;
+import com.nikoladesnica.mastermind.domain.service.GuessEvaluator;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.infra.exec.LockingRoomExecutor;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryRoomRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * One race room with thousands of players guessing concurrently.
+ * Reports guess throughput and the cost of reading the full standings.
+ *
+ * Run explicitly: mvn test -Dtest=TournamentRoomBenchmark -Dbench.players=5000 -Dbench.threads=8
+ */
+class TournamentRoomBenchmark {
+
+    @Test
+    void thousands_of_players_in_one_room() throws Exception {
+        int players = Integer.getInteger("bench.players", 5_000);
+        int threads = Integer.getInteger("bench.threads", 8);
+        int attempts = 10;
+
+        GameProperties props = new GameProperties(4, 0, 7, attempts, true, false, null);
+        RoomService service = new RoomService(
+                new InMemoryRoomRepository(),
+                () -> new Code(List.of(7, 7, 7, 7), 4, 0, 7, true),
+                new GuessEvaluator(),
+                props,
+                RoomService.Dependencies.of(new LockingRoomExecutor()));
+
+        Room room = service.createRoom();
+        UUID roomId = room.roomId();
+        List<Player> joined = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) joined.add(service.join(roomId, "P" + i));
+        service.start(roomId, room.hostToken());
+
+        // Every player burns all attempts with wrong guesses; the last guess of each finishes them
+        LongAdder guesses = new LongAdder();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long t0 = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            futures.add(pool.submit(() -> {
+                for (int i = offset; i < players; i += threads) {
+                    Player p = joined.get(i);
+                    for (int a = 0; a < attempts; a++) {
+                        service.guess(roomId, p.id(), p.token(), List.of(a % 7, 0, 1, 2));
+                        guesses.increment();
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        long guessNanos = System.nanoTime() - t0;
+        pool.shutdown();
+
+        assertEquals(RoomState.FINISHED, room.state());
+        assertEquals(players, room.lostCount());
+
+        int reads = 200;
+        long r0 = System.nanoTime();
+        long sink = 0;
+        for (int i = 0; i < reads; i++) {
+            for (Standing s : room.standings()) sink += s.attemptsUsed();
+        }
+        long readNanos = System.nanoTime() - r0;
+
+        System.out.printf("%nplayers=%d threads=%d guesses=%d%n", players, threads, guesses.sum());
+        System.out.printf("guess throughput: %.0f guesses/s (%.1f us/guess)%n",
+                guesses.sum() / (guessNanos / 1e9), guessNanos / 1e3 / guesses.sum());
+        System.out.printf("full standings read: %.1f us (sink=%d)%n", readNanos / 1e3 / reads, sink);
+    }
+}
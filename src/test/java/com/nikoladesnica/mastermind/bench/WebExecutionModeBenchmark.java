@@ -0,0 +1,178 @@
+package com.nikoladesnica.mastermind.bench;
+
+import com.nikoladesnica.mastermind.MastermindApplication;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load test: platform-thread vs virtual-thread request execution with many concurrent clients.
+ * Each client starts a game (secret fetched from a local random.org stub that answers after a delay,
+ * i.e. blocking I/O on the request thread) and plays it to the end.
+ *
+ * Not part of the regular suite (surefire only picks up *Test classes). Run explicitly:
+ *   mvn test -Dtest=WebExecutionModeBenchmark -Dbench.clients=10000 -Dbench.generator-delay-ms=50
+ */
+class WebExecutionModeBenchmark {
+
+    private static final Pattern GAME_ID = Pattern.compile("\"gameId\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern STATUS = Pattern.compile("\"status\"\\s*:\\s*\"([A-Z_]+)\"");
+
+    @Test
+    void platform_vs_virtual_threads() throws Exception {
+        int clients = Integer.getInteger("bench.clients", 10_000);
+        int delayMs = Integer.getInteger("bench.generator-delay-ms", 50);
+
+        HttpServer stub = randomOrgStub(delayMs);
+        try {
+            Result platform = run(false, clients, stub.getAddress().getPort());
+            Result virtual = run(true, clients, stub.getAddress().getPort());
+
+            System.out.printf("%n%-10s %8s %8s %10s %8s %8s %8s %8s%n",
+                    "mode", "clients", "requests", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+            for (Result r : List.of(platform, virtual)) {
+                System.out.printf("%-10s %8d %8d %10.0f %8.1f %8.1f %8.1f %8d%n",
+                        r.mode, clients, r.latenciesNanos.length, r.throughput(),
+                        r.percentileMs(0.50), r.percentileMs(0.99), r.percentileMs(0.999), r.errors);
+            }
+            assertEquals(0, platform.errors + virtual.errors, "all requests should succeed");
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    private Result run(boolean virtualThreads, int clients, int stubPort) throws Exception {
+        ConfigurableApplicationContext ctx = new SpringApplicationBuilder(MastermindApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.max-connections=" + (clients * 2),
+                        "server.tomcat.accept-count=" + clients,
+                        "mastermind.use-random-org=true",
+                        "mastermind.random-org.base-url=http://localhost:" + stubPort + "/integers/",
+                        "mastermind.random-org.timeout-ms=5000",
+                        "logging.level.root=WARN")
+                .run();
+        String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(pool)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<long[]>> futures = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                futures.add(pool.submit(() -> {
+                    go.await();
+                    return playOneGame(http, base);
+                }));
+            }
+
+            long t0 = System.nanoTime();
+            go.countDown();
+            List<long[]> perClient = new ArrayList<>(clients);
+            int errors = 0;
+            for (Future<long[]> f : futures) {
+                try {
+                    perClient.add(f.get());
+                } catch (ExecutionException e) {
+                    errors++;
+                }
+            }
+            long wallNanos = System.nanoTime() - t0;
+
+            long[] all = perClient.stream().flatMapToLong(Arrays::stream).toArray();
+            Arrays.sort(all);
+            return new Result(virtualThreads ? "virtual" : "platform", all, wallNanos, errors);
+        } finally {
+            ctx.close();
+        }
+    }
+
+    /** Starts a game and guesses until it is over; returns the latency of every request. */
+    private static long[] playOneGame(HttpClient http, String base) throws Exception {
+        long[] latencies = new long[16];
+        int n = 0;
+
+        long t = System.nanoTime();
+        String body = post(http, base + "/api/games", "{}");
+        latencies[n++] = System.nanoTime() - t;
+
+        Matcher m = GAME_ID.matcher(body);
+        if (!m.find()) throw new IllegalStateException("No gameId in " + body);
+        String gameId = m.group(1);
+
+        String status = "IN_PROGRESS";
+        for (int d = 0; "IN_PROGRESS".equals(status) && n < latencies.length; d = (d + 1) % 8) {
+            t = System.nanoTime();
+            body = post(http, base + "/api/games/" + gameId + "/guesses",
+                    "{\"digits\":[" + d + "," + d + "," + d + "," + d + "]}");
+            latencies[n++] = System.nanoTime() - t;
+            Matcher s = STATUS.matcher(body);
+            status = s.find() ? s.group(1) : "UNKNOWN";
+        }
+        return Arrays.copyOf(latencies, n);
+    }
+
+    private static String post(HttpClient http, String url, String json) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
+        if (res.statusCode() != 200) throw new IllegalStateException(url + " -> " + res.statusCode());
+        return res.body();
+    }
+
+    /** Plain-format random.org look-alike that answers after {@code delayMs}. */
+    private static HttpServer randomOrgStub(int delayMs) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/integers/", exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] out = "0\n1\n3\n2\n".getBytes(StandardCharsets.US_ASCII);
+            exchange.sendResponseHeaders(200, out.length);
+            exchange.getResponseBody().write(out);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private record Result(String mode, long[] latenciesNanos, long wallNanos, int errors) {
+        double throughput() {
+            return latenciesNanos.length / (wallNanos / 1e9);
+        }
+
+        double percentileMs(double p) {
+            if (latenciesNanos.length == 0) return 0;
+            int idx = (int) Math.min(latenciesNanos.length - 1, Math.ceil(p * latenciesNanos.length) - 1);
+            return latenciesNanos[Math.max(0, idx)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.nikoladesnica.mastermind.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nikoladesnica.mastermind.api.dto.GameView;
+import com.nikoladesnica.mastermind.api.dto.GuessRequest;
+import com.nikoladesnica.mastermind.api.dto.RoomView;
+import com.nikoladesnica.mastermind.api.wire.BinaryCodec;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bytes on the wire and encode/decode cost: binary wire format vs Jackson (configured like Spring Boot's,
+ * ISO-8601 instants).
+ *
+ * Run explicitly: mvn test -Dtest=WireFormatBenchmark -Dbench.iterations=200000 -Dbench.players=50
+ */
+class WireFormatBenchmark {
+
+    private final ObjectMapper json = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void binary_vs_jackson() throws Exception {
+        int iterations = Integer.getInteger("bench.iterations", 200_000);
+        int players = Integer.getInteger("bench.players", 50);
+
+        GameView game = game(10);
+        RoomView room = room(players, 10);
+        GuessRequest guess = new GuessRequest(List.of(0, 1, 3, 2));
+
+        System.out.printf("%n%-12s %-8s %10s %12s %12s%n", "message", "format", "bytes", "encode ns", "decode ns");
+        row("GuessRequest", guess, iterations, BinaryCodec::encode, BinaryCodec::decodeGuessRequest, GuessRequest.class);
+        row("GameView", game, iterations, BinaryCodec::encode, BinaryCodec::decodeGameView, GameView.class);
+        row("RoomView", room, Math.max(1, iterations / players), BinaryCodec::encode, BinaryCodec::decodeRoomView, RoomView.class);
+    }
+
+    private <T> void row(String name, T value, int iterations, Function<T, byte[]> encode,
+                         Function<byte[], T> decode, Class<T> type) throws Exception {
+        byte[] bin = encode.apply(value);
+        byte[] js = json.writeValueAsBytes(value);
+        assertEquals(value, decode.apply(bin));
+        assertEquals(value, json.readValue(js, type));
+
+        double binEnc = time(iterations, () -> encode.apply(value));
+        double binDec = time(iterations, () -> decode.apply(bin));
+        double jsEnc = time(iterations, () -> unchecked(() -> json.writeValueAsBytes(value)));
+        double jsDec = time(iterations, () -> unchecked(() -> json.readValue(js, type)));
+
+        System.out.printf("%-12s %-8s %10d %12.0f %12.0f%n", name, "binary", bin.length, binEnc, binDec);
+        System.out.printf("%-12s %-8s %10d %12.0f %12.0f%n", name, "jackson", js.length, jsEnc, jsDec);
+    }
+
+    private static double time(int iterations, Supplier<Object> op) {
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) sink += op.get().hashCode(); // warm-up
+        long t0 = System.nanoTime();
+        for (int i = 0; i < iterations; i++) sink += op.get().hashCode();
+        long elapsed = System.nanoTime() - t0;
+        if (sink == 42) System.out.print("");
+        return (double) elapsed / iterations;
+    }
+
+    private interface IoSupplier { Object get() throws Exception; }
+
+    private static Object unchecked(IoSupplier s) {
+        try {
+            return s.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static GameView game(int entries) {
+        List<GameView.HistoryEntry> h = new ArrayList<>();
+        Instant t = Instant.parse("2025-06-01T12:00:00.123Z");
+        for (int i = 0; i < entries; i++) {
+            h.add(new GameView.HistoryEntry(List.of(i % 8, (i + 1) % 8, 3, 2), i % 4, 2, t.plusMillis(1_500L * i)));
+        }
+        return new GameView(UUID.randomUUID(), "LOST", 0, false, "Game finished (LOST). Start a new game.", entries, null, h);
+    }
+
+    private static RoomView room(int players, int entries) {
+        Instant t = Instant.parse("2025-06-01T12:00:00.123Z");
+        List<RoomView.PlayerSnapshot> ps = new ArrayList<>();
+        List<RoomView.LeaderboardEntry> lb = new ArrayList<>();
+        for (int p = 0; p < players; p++) {
+            UUID id = UUID.randomUUID();
+            List<RoomView.HistoryEntry> h = new ArrayList<>();
+            for (int i = 0; i < entries; i++) {
+                h.add(new RoomView.HistoryEntry(List.of(i % 8, p % 8, 3, 2), i % 4, 2, t.plusMillis(900L * i + p)));
+            }
+            ps.add(new RoomView.PlayerSnapshot(id, "Player-" + p, "LOST", 0, entries, 3, h));
+            lb.add(new RoomView.LeaderboardEntry(id, "Player-" + p, "LOST", entries, 95L));
+        }
+        return new RoomView(UUID.randomUUID(), "FINISHED", t, t.plusSeconds(5), t.plusSeconds(100), null, ps, lb);
+    }
+}
@@ -0,0 +1,79 @@
+package com.nikoladesnica.mastermind.bench.bots;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every possible code for one game configuration, enumerated once and shared by all bots using it,
+ * plus the scoring function the server uses.
+ */
+public final class CodeSpace {
+
+    private final int length;
+    private final int minDigit;
+    private final int maxDigit;
+    private final int[][] codes;
+    private final int[][] counts; // per code: occurrences of each digit
+
+    public CodeSpace(int length, int minDigit, int maxDigit) {
+        this.length = length;
+        this.minDigit = minDigit;
+        this.maxDigit = maxDigit;
+        int base = maxDigit - minDigit + 1;
+        long size = (long) Math.pow(base, length);
+        if (size > 1_000_000) throw new IllegalArgumentException("Code space too large to enumerate: " + size);
+        this.codes = new int[(int) size][];
+        this.counts = new int[(int) size][];
+        for (int i = 0; i < size; i++) {
+            int[] code = new int[length];
+            int[] count = new int[base];
+            int n = i;
+            for (int p = length - 1; p >= 0; p--) {
+                code[p] = minDigit + n % base;
+                count[code[p] - minDigit]++;
+                n /= base;
+            }
+            codes[i] = code;
+            counts[i] = count;
+        }
+    }
+
+    public int length() { return length; }
+    public int minDigit() { return minDigit; }
+    public int maxDigit() { return maxDigit; }
+    public int size() { return codes.length; }
+    public int[] code(int index) { return codes[index]; }
+
+    /**
+     * Feedback for {@code guess} against {@code secret}, both code indexes: exact matches in the high half,
+     * total matches (including exact) in the low half. Allocation-free, so bots can filter thousands of candidates.
+     */
+    public int score(int secret, int guess) {
+        int[] s = codes[secret], g = codes[guess];
+        int positions = 0;
+        for (int i = 0; i < length; i++) {
+            if (s[i] == g[i]) positions++;
+        }
+        int[] cs = counts[secret], cg = counts[guess];
+        int numbers = 0;
+        for (int d = 0; d < cs.length; d++) numbers += Math.min(cs[d], cg[d]);
+        return (positions << 16) | numbers;
+    }
+
+    /** Index of {@code code} in this space. */
+    public int indexOf(int[] code) {
+        int base = maxDigit - minDigit + 1;
+        int index = 0;
+        for (int d : code) index = index * base + (d - minDigit);
+        return index;
+    }
+
+    public static int positions(int score) { return score >>> 16; }
+    public static int numbers(int score) { return score & 0xFFFF; }
+
+    public static List<Integer> toList(int[] code) {
+        List<Integer> digits = new ArrayList<>(code.length);
+        for (int d : code) digits.add(d);
+        return digits;
+    }
+}
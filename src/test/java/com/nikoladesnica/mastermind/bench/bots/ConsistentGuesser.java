@@ -0,0 +1,48 @@
+package com.nikoladesnica.mastermind.bench.bots;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays like a careful human: every guess is a random code still consistent with all feedback so far.
+ * Solves the default 4-digit, 8-colour game in about 5-6 guesses, so traffic has realistic game lengths.
+ */
+public final class ConsistentGuesser implements Guesser {
+
+    public static final Factory FACTORY = ConsistentGuesser::new;
+
+    private final CodeSpace space;
+    private final RandomGenerator random;
+    private int[] candidates; // indexes into the code space, null until the first feedback
+    private int count;
+    private int last;
+
+    public ConsistentGuesser(CodeSpace space, RandomGenerator random) {
+        this.space = space;
+        this.random = random;
+        this.count = space.size();
+    }
+
+    @Override
+    public int[] next() {
+        if (count == 0) {
+            last = random.nextInt(space.size()); // contradictory feedback: keep playing anyway
+        } else {
+            int pick = random.nextInt(count);
+            last = candidates == null ? pick : candidates[pick];
+        }
+        return space.code(last);
+    }
+
+    @Override
+    public void feedback(int correctPositions, int correctNumbers) {
+        int expected = (correctPositions << 16) | correctNumbers;
+        int[] kept = candidates == null ? new int[count] : candidates; // later rounds filter in place
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            int index = candidates == null ? i : candidates[i];
+            if (space.score(index, last) == expected) kept[n++] = index;
+        }
+        candidates = kept;
+        count = n;
+    }
+}
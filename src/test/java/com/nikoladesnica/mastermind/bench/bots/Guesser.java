@@ -0,0 +1,20 @@
+package com.nikoladesnica.mastermind.bench.bots;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A bot's guessing strategy for one game: propose a code, learn from the feedback, repeat.
+ * Instances are single-game and single-threaded; make a new one per game from a {@link Factory}.
+ */
+public interface Guesser {
+
+    /** The next code to try. */
+    int[] next();
+
+    /** Feedback for the code last returned by {@link #next()}, with the game's semantics (numbers include positions). */
+    void feedback(int correctPositions, int correctNumbers);
+
+    interface Factory {
+        Guesser newGame(CodeSpace space, RandomGenerator random);
+    }
+}
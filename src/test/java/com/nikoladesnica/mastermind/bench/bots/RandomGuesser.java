@@ -0,0 +1,25 @@
+package com.nikoladesnica.mastermind.bench.bots;
+
+import java.util.random.RandomGenerator;
+
+/** Ignores feedback: long games that mostly run out of attempts (worst case for history size). */
+public final class RandomGuesser implements Guesser {
+
+    public static final Factory FACTORY = RandomGuesser::new;
+
+    private final CodeSpace space;
+    private final RandomGenerator random;
+
+    public RandomGuesser(CodeSpace space, RandomGenerator random) {
+        this.space = space;
+        this.random = random;
+    }
+
+    @Override
+    public int[] next() {
+        return space.code(random.nextInt(space.size()));
+    }
+
+    @Override
+    public void feedback(int correctPositions, int correctNumbers) {}
+}
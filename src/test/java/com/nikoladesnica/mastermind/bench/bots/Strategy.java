@@ -0,0 +1,21 @@
+package com.nikoladesnica.mastermind.bench.bots;
+
+/** The built-in guessers by name, for harnesses configured from system properties. */
+public enum Strategy {
+    CONSISTENT(ConsistentGuesser.FACTORY),
+    RANDOM(RandomGuesser.FACTORY);
+
+    private final Guesser.Factory factory;
+
+    Strategy(Guesser.Factory factory) {
+        this.factory = factory;
+    }
+
+    public Guesser.Factory factory() {
+        return factory;
+    }
+
+    public static Strategy of(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,180 @@
+package com.nikoladesnica.mastermind.bench.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nikoladesnica.mastermind.bench.bots.CodeSpace;
+import com.nikoladesnica.mastermind.bench.bots.Guesser;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * The scenarios, as non-blocking request chains on one shared {@link HttpClient}: a bot plays a single-player
+ * game to the end, a room of bots races on one secret, or a visitor reads the leaderboard. Bots read the feedback
+ * of every guess and pick their next guess from it, so games last as long as real ones.
+ */
+final class HttpBots {
+
+    static final String START_GAME = "POST /api/games";
+    static final String GAME_GUESS = "POST /api/games/{id}/guesses";
+    static final String CREATE_ROOM = "POST /api/rooms";
+    static final String JOIN_ROOM = "POST /api/rooms/{id}/join";
+    static final String START_ROOM = "POST /api/rooms/{id}/start";
+    static final String ROOM_GUESS = "POST /api/rooms/{id}/guesses";
+    static final String LEADERBOARD = "GET /leaderboard";
+
+    private final HttpClient http;
+    private final String base;
+    private final ObjectMapper json;
+    private final LatencyRecorder latencies;
+    private final CodeSpace space;
+    private final Guesser.Factory strategy;
+    private final Duration timeout;
+
+    final LongAdder gamesWon = new LongAdder();
+    final LongAdder gamesLost = new LongAdder();
+    final LongAdder guessesToWin = new LongAdder();
+    final LongAdder roomsFinished = new LongAdder();
+
+    HttpBots(HttpClient http, URI target, ObjectMapper json, LatencyRecorder latencies, CodeSpace space,
+             Guesser.Factory strategy, Duration timeout) {
+        this.http = http;
+        this.base = target.toString().replaceAll("/+$", "");
+        this.json = json;
+        this.latencies = latencies;
+        this.space = space;
+        this.strategy = strategy;
+        this.timeout = timeout;
+    }
+
+    /** Start a game and guess until it is over. The first request is timed from the session's scheduled arrival. */
+    CompletableFuture<Void> playGame(long arrivalNanos, RandomGenerator random) {
+        return call(START_GAME, post("/api/games", "{}"), arrivalNanos)
+                .thenCompose(start -> guessGame(start.get("gameId").asText(), strategy.newGame(space, random), 1));
+    }
+
+    private CompletableFuture<Void> guessGame(String gameId, Guesser guesser, int attempt) {
+        String body = "{\"digits\":" + CodeSpace.toList(guesser.next()) + "}";
+        return call(GAME_GUESS, post("/api/games/" + gameId + "/guesses", body), System.nanoTime())
+                .thenCompose(view -> {
+                    String status = view.get("status").asText();
+                    if (status.equals("IN_PROGRESS")) {
+                        JsonNode last = view.get("history").get(view.get("history").size() - 1);
+                        guesser.feedback(last.get("correctPositions").asInt(), last.get("correctNumbers").asInt());
+                        return guessGame(gameId, guesser, attempt + 1);
+                    }
+                    if (status.equals("WON")) {
+                        gamesWon.increment();
+                        guessesToWin.add(attempt);
+                    } else {
+                        gamesLost.increment();
+                    }
+                    return CompletableFuture.completedFuture(null);
+                });
+    }
+
+    /** Create a room, seat {@code players} bots, start it and let every bot race until the room finishes. */
+    CompletableFuture<Void> playRoom(long arrivalNanos, int players, RandomGenerator random) {
+        return call(CREATE_ROOM, post("/api/rooms", ""), arrivalNanos).thenCompose(room -> {
+            String roomId = room.get("roomId").asText();
+            String hostToken = room.get("hostToken").asText();
+            List<CompletableFuture<JsonNode>> joins = new ArrayList<>(players);
+            for (int i = 0; i < players; i++) {
+                joins.add(call(JOIN_ROOM, post("/api/rooms/" + roomId + "/join", "{\"name\":\"bot-" + i + "\"}"), System.nanoTime()));
+            }
+            return CompletableFuture.allOf(joins.toArray(CompletableFuture[]::new))
+                    .thenCompose(v -> call(START_ROOM, HttpRequest.newBuilder(URI.create(base + "/api/rooms/" + roomId + "/start"))
+                            .timeout(timeout)
+                            .header("X-Host-Token", hostToken)
+                            .POST(HttpRequest.BodyPublishers.noBody())
+                            .build(), System.nanoTime()))
+                    .thenCompose(started -> {
+                        List<CompletableFuture<Void>> racers = new ArrayList<>(players);
+                        for (CompletableFuture<JsonNode> join : joins) {
+                            JsonNode seat = join.join();
+                            racers.add(guessRoom(roomId, seat.get("playerId").asText(), seat.get("playerToken").asText(),
+                                    strategy.newGame(space, random), 1));
+                        }
+                        return CompletableFuture.allOf(racers.toArray(CompletableFuture[]::new));
+                    })
+                    .thenRun(roomsFinished::increment);
+        });
+    }
+
+    private CompletableFuture<Void> guessRoom(String roomId, String playerId, String token, Guesser guesser, int attempt) {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(base + "/api/rooms/" + roomId + "/guesses"))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("X-Player-Id", playerId)
+                .header("X-Player-Token", token)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"digits\":" + CodeSpace.toList(guesser.next()) + "}"))
+                .build();
+        return call(ROOM_GUESS, req, System.nanoTime()).thenCompose(view -> {
+            JsonNode me = null;
+            for (JsonNode p : view.path("players")) {
+                if (p.get("playerId").asText().equals(playerId)) me = p;
+            }
+            String status = me == null ? "GONE" : me.get("status").asText();
+            if (status.equals("IN_PROGRESS") && view.get("state").asText().equals("RUNNING")) {
+                JsonNode history = me.get("history");
+                JsonNode last = history.get(history.size() - 1);
+                guesser.feedback(last.get("correctPositions").asInt(), last.get("correctNumbers").asInt());
+                return guessRoom(roomId, playerId, token, guesser, attempt + 1);
+            }
+            if (status.equals("WON")) {
+                gamesWon.increment();
+                guessesToWin.add(attempt);
+            } else {
+                gamesLost.increment();
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    CompletableFuture<Void> readLeaderboard(long arrivalNanos) {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(base + "/leaderboard")).timeout(timeout).GET().build();
+        return call(LEADERBOARD, req, arrivalNanos).thenAccept(board -> {});
+    }
+
+    // Records the outcome under the endpoint's name and fails the chain on anything but a parsable 200
+    private CompletableFuture<JsonNode> call(String endpoint, HttpRequest req, long intendedStartNanos) {
+        return http.sendAsync(req, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((res, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        latencies.recordError(endpoint, cause instanceof HttpTimeoutException ? "timeout" : cause.getClass().getSimpleName());
+                        throw new CompletionException(cause);
+                    }
+                    if (res.statusCode() != 200) {
+                        latencies.recordError(endpoint, "http-" + res.statusCode());
+                        throw new CompletionException(new IllegalStateException(endpoint + " -> " + res.statusCode()));
+                    }
+                    latencies.recordSuccess(endpoint, intendedStartNanos);
+                    try {
+                        return json.readTree(res.body());
+                    } catch (IOException e) {
+                        latencies.recordError(endpoint, "bad-json");
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
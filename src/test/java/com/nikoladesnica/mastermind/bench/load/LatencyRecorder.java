@@ -0,0 +1,139 @@
+package com.nikoladesnica.mastermind.bench.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms (HdrHistogram, 1 µs to 60 s at 3 significant digits) and error counts,
+ * safe to record from the HTTP client's completion threads. Latencies are measured from when a request was
+ * meant to go out, so a stalled server or a late client shows up in the numbers instead of being skipped.
+ */
+final class LatencyRecorder {
+
+    private static final long HIGHEST_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Histogram total = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+
+    private static final class Endpoint {
+        final Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final Map<String, LongAdder> errorsByKind = new ConcurrentHashMap<>();
+    }
+
+    void recordSuccess(String endpoint, long intendedStartNanos) {
+        long micros = clamp(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos));
+        endpoint(endpoint).latency.recordValue(micros);
+        total.recordValue(micros);
+    }
+
+    /** Failed requests count as errors only; their latency would mix timeouts into the success distribution. */
+    void recordError(String endpoint, String kind) {
+        Endpoint e = endpoint(endpoint);
+        e.errors.increment();
+        e.errorsByKind.computeIfAbsent(kind, k -> new LongAdder()).increment();
+    }
+
+    long errors() {
+        return endpoints.values().stream().mapToLong(e -> e.errors.sum()).sum();
+    }
+
+    long requests() {
+        return total.getTotalCount();
+    }
+
+    /** Summary per endpoint (sorted by name) plus {@code total}, for the JSON report. */
+    Map<String, Object> summary(double seconds) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        endpoints.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(en -> {
+                    Map<String, Object> s = stats(en.getValue().latency, seconds);
+                    s.put("errors", en.getValue().errors.sum());
+                    Map<String, Long> kinds = new LinkedHashMap<>();
+                    en.getValue().errorsByKind.forEach((k, v) -> kinds.put(k, v.sum()));
+                    if (!kinds.isEmpty()) s.put("errorsByKind", kinds);
+                    out.put(en.getKey(), s);
+                });
+        Map<String, Object> all = stats(total, seconds);
+        all.put("errors", errors());
+        out.put("total", all);
+        return out;
+    }
+
+    /** One HdrHistogram percentile-distribution file ({@code .hgrm}) per endpoint, plotted by the usual HDR tools. */
+    void writeDistributions(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Map.Entry<String, Endpoint> en : endpoints.entrySet()) {
+            write(dir.resolve(fileName(en.getKey()) + ".hgrm"), en.getValue().latency);
+        }
+        write(dir.resolve("total.hgrm"), total);
+    }
+
+    void printTable(PrintStream out, double seconds) {
+        out.printf("%n%-36s %9s %9s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        endpoints.entrySet().stream().sorted(Map.Entry.comparingByKey())
+                .forEach(en -> row(out, en.getKey(), en.getValue().latency, en.getValue().errors.sum(), seconds));
+        row(out, "total", total, errors(), seconds);
+    }
+
+    private Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, n -> new Endpoint());
+    }
+
+    private static void row(PrintStream out, String name, Histogram h, long errors, double seconds) {
+        out.printf("%-36s %9d %9.0f %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, h.getTotalCount(), h.getTotalCount() / seconds, errors,
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), ms(h.getValueAtPercentile(99)),
+                ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+    }
+
+    private static Map<String, Object> stats(Histogram h, double seconds) {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("requests", h.getTotalCount());
+        s.put("throughputPerSecond", round(h.getTotalCount() / seconds));
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", round(h.getMean() / 1000.0));
+        latency.put("p50", ms(h.getValueAtPercentile(50)));
+        latency.put("p90", ms(h.getValueAtPercentile(90)));
+        latency.put("p99", ms(h.getValueAtPercentile(99)));
+        latency.put("p99.9", ms(h.getValueAtPercentile(99.9)));
+        latency.put("p99.99", ms(h.getValueAtPercentile(99.99)));
+        latency.put("max", ms(h.getMaxValue()));
+        s.put("latencyMs", latency);
+        return s;
+    }
+
+    private static void write(Path file, Histogram h) throws IOException {
+        try (PrintStream ps = new PrintStream(Files.newOutputStream(file))) {
+            h.outputPercentileDistribution(ps, 1000.0); // values in ms
+        }
+    }
+
+    private static String fileName(String endpoint) {
+        return endpoint.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("(^-|-$)", "");
+    }
+
+    private static long clamp(long micros) {
+        return Math.max(1, Math.min(HIGHEST_MICROS, micros));
+    }
+
+    private static double ms(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,240 @@
+package com.nikoladesnica.mastermind.bench.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nikoladesnica.mastermind.bench.bots.CodeSpace;
+import com.nikoladesnica.mastermind.bench.bots.Strategy;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: sessions (a game, a room race, a leaderboard read) arrive on a fixed schedule at
+ * {@code rate} per second regardless of how fast the server answers, so a slow server faces a growing backlog,
+ * exactly like real traffic. Each session's first request is timed from its scheduled arrival, which keeps a
+ * stall from hiding behind requests the generator never got round to sending (coordinated omission).
+ * {@code maxInFlight} bounds client memory: arrivals beyond it are counted as dropped, never delayed.
+ */
+public final class LoadGenerator {
+
+    public enum Scenario { GAME, ROOM, LEADERBOARD }
+
+    public record Config(
+            URI target,
+            double rate,                  // session arrivals per second
+            Duration duration,            // how long arrivals keep coming; in-flight sessions then drain
+            Duration warmup,              // arrivals before this are run but not reported
+            int maxInFlight,
+            Map<Scenario, Integer> mix,   // relative weights
+            int roomPlayers,
+            boolean poisson,              // exponential inter-arrival times instead of a fixed interval
+            Strategy strategy,
+            int codeLength, int minDigit, int maxDigit,
+            int clientThreads,
+            Duration requestTimeout,
+            long seed,
+            Path reportDir                // null = no files
+    ) {
+        /**
+         * Reads {@code load.*} system properties, e.g.
+         * {@code -Dload.rate=200 -Dload.duration=60s -Dload.mix=game:70,room:20,leaderboard:10 -Dload.report-dir=target/load}.
+         */
+        public static Config fromSystemProperties(URI target) {
+            return new Config(
+                    target,
+                    Double.parseDouble(System.getProperty("load.rate", "100")),
+                    duration(System.getProperty("load.duration", "20s")),
+                    duration(System.getProperty("load.warmup", "5s")),
+                    Integer.getInteger("load.max-in-flight", 5_000),
+                    mix(System.getProperty("load.mix", "game:70,room:20,leaderboard:10")),
+                    Integer.getInteger("load.room-players", 4),
+                    Boolean.parseBoolean(System.getProperty("load.poisson", "true")),
+                    Strategy.of(System.getProperty("load.strategy", "consistent")),
+                    Integer.getInteger("load.code-length", 4),
+                    Integer.getInteger("load.min-digit", 0),
+                    Integer.getInteger("load.max-digit", 7),
+                    Integer.getInteger("load.client-threads", 4),
+                    duration(System.getProperty("load.request-timeout", "10s")),
+                    Long.getLong("load.seed", 42L),
+                    Path.of(System.getProperty("load.report-dir", "target/load-report")));
+        }
+
+        private static Duration duration(String s) {
+            String v = s.trim().toLowerCase();
+            if (v.endsWith("ms")) return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+            if (v.endsWith("s")) return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+            if (v.endsWith("m")) return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+            return Duration.ofSeconds(Long.parseLong(v));
+        }
+
+        private static Map<Scenario, Integer> mix(String s) {
+            Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+            for (String part : s.split(",")) {
+                String[] kv = part.trim().split(":");
+                mix.put(Scenario.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+            }
+            return mix;
+        }
+    }
+
+    /** Outcome of a run; {@link #json()} is what lands in {@code report.json}. */
+    public record Report(Map<String, Object> json, long requests, long errors, long droppedArrivals) {}
+
+    private final Config config;
+    private final ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public LoadGenerator(Config config) {
+        this.config = config;
+    }
+
+    public Report run() throws Exception {
+        CodeSpace space = new CodeSpace(config.codeLength(), config.minDigit(), config.maxDigit());
+        ExecutorService clientPool = Executors.newFixedThreadPool(config.clientThreads());
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientPool)
+                .connectTimeout(config.requestTimeout())
+                .build();
+        try {
+            if (!config.warmup().isZero()) {
+                drive(http, space, new LatencyRecorder(), config.warmup(), new SplittableRandom(config.seed() ^ 0x5EED));
+            }
+            LatencyRecorder latencies = new LatencyRecorder();
+            Instant startedAt = Instant.now();
+            Run run = drive(http, space, latencies, config.duration(), new SplittableRandom(config.seed()));
+            Report report = report(startedAt, run, latencies);
+            if (config.reportDir() != null) {
+                Files.createDirectories(config.reportDir());
+                json.writeValue(config.reportDir().resolve("report.json").toFile(), report.json());
+                latencies.writeDistributions(config.reportDir().resolve("histograms"));
+            }
+            latencies.printTable(System.out, run.seconds());
+            return report;
+        } finally {
+            clientPool.shutdownNow();
+        }
+    }
+
+    private record Run(HttpBots bots, double seconds, long started, long failed, long dropped, long lateArrivals) {}
+
+    private Run drive(HttpClient http, CodeSpace space, LatencyRecorder latencies, Duration duration, SplittableRandom random)
+            throws InterruptedException {
+        HttpBots bots = new HttpBots(http, config.target(), json, latencies, space, config.strategy().factory(), config.requestTimeout());
+        Scenario[] wheel = wheel(config.mix());
+        AtomicInteger inFlight = new AtomicInteger();
+        LongAdder failed = new LongAdder();
+        long started = 0, dropped = 0, late = 0;
+        double meanGapNanos = 1e9 / config.rate();
+
+        long t0 = System.nanoTime();
+        long end = t0 + duration.toNanos();
+        double next = t0;
+        while (next < end) {
+            long arrival = (long) next;
+            long now = System.nanoTime();
+            if (arrival > now) {
+                LockSupport.parkNanos(arrival - now);
+            } else if (now - arrival > TimeUnit.MILLISECONDS.toNanos(10)) {
+                late++; // the generator itself fell behind; latency still counts from `arrival`
+            }
+            next += config.poisson() ? -Math.log(1 - random.nextDouble()) * meanGapNanos : meanGapNanos;
+
+            if (inFlight.get() >= config.maxInFlight()) {
+                dropped++;
+                continue;
+            }
+            inFlight.incrementAndGet();
+            started++;
+            SplittableRandom sessionRandom = random.split();
+            CompletableFuture<Void> session = switch (wheel[random.nextInt(wheel.length)]) {
+                case GAME -> bots.playGame(arrival, sessionRandom);
+                case ROOM -> bots.playRoom(arrival, config.roomPlayers(), sessionRandom);
+                case LEADERBOARD -> bots.readLeaderboard(arrival);
+            };
+            session.whenComplete((v, e) -> {
+                if (e != null) failed.increment();
+                inFlight.decrementAndGet();
+            });
+        }
+        // Let in-flight sessions finish (bounded: every request has a timeout)
+        long drainUntil = System.nanoTime() + config.requestTimeout().toNanos() * 12;
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        return new Run(bots, seconds, started, failed.sum(), dropped, late);
+    }
+
+    private Report report(Instant startedAt, Run run, LatencyRecorder latencies) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("target", config.target().toString());
+        root.put("startedAt", startedAt.toString());
+        root.put("durationSeconds", Math.round(run.seconds() * 1000) / 1000.0);
+
+        Map<String, Object> cfg = new LinkedHashMap<>();
+        cfg.put("arrivalRatePerSecond", config.rate());
+        cfg.put("arrivals", config.poisson() ? "poisson" : "constant");
+        cfg.put("plannedSeconds", config.duration().toSeconds());
+        cfg.put("warmupSeconds", config.warmup().toSeconds());
+        cfg.put("maxInFlight", config.maxInFlight());
+        cfg.put("mix", config.mix());
+        cfg.put("roomPlayers", config.roomPlayers());
+        cfg.put("strategy", config.strategy().name().toLowerCase());
+        cfg.put("code", Map.of("length", config.codeLength(), "minDigit", config.minDigit(), "maxDigit", config.maxDigit()));
+        cfg.put("seed", config.seed());
+        root.put("config", cfg);
+
+        Map<String, Object> sessions = new LinkedHashMap<>();
+        sessions.put("started", run.started());
+        sessions.put("failed", run.failed());
+        sessions.put("droppedArrivals", run.dropped());
+        sessions.put("lateArrivals", run.lateArrivals());
+        root.put("sessions", sessions);
+
+        HttpBots bots = run.bots();
+        Map<String, Object> games = new LinkedHashMap<>();
+        long won = bots.gamesWon.sum();
+        games.put("won", won);
+        games.put("lost", bots.gamesLost.sum());
+        games.put("meanGuessesToWin", won == 0 ? 0 : Math.round(bots.guessesToWin.sum() * 1000.0 / won) / 1000.0);
+        games.put("roomsFinished", bots.roomsFinished.sum());
+        root.put("games", games);
+
+        root.put("endpoints", latencies.summary(run.seconds()));
+        return new Report(root, latencies.requests(), latencies.errors(), run.dropped());
+    }
+
+    // Weighted choice by index: one slot per unit of weight
+    private static Scenario[] wheel(Map<Scenario, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) throw new IllegalArgumentException("load.mix needs a positive weight");
+        Scenario[] wheel = new Scenario[total];
+        int i = 0;
+        for (Map.Entry<Scenario, Integer> e : mix.entrySet()) {
+            for (int n = 0; n < e.getValue(); n++) wheel[i++] = e.getKey();
+        }
+        return wheel;
+    }
+
+    /** Standalone: point at a running server, e.g. {@code java ... LoadGenerator http://localhost:8080}. */
+    public static void main(String[] args) throws Exception {
+        URI target = URI.create(args.length > 0 ? args[0] : "http://localhost:8080");
+        Report report = new LoadGenerator(Config.fromSystemProperties(target)).run();
+        System.exit(report.errors() == 0 ? 0 : 1);
+    }
+}
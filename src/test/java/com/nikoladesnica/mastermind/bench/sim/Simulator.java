@@ -0,0 +1,408 @@
+package com.nikoladesnica.mastermind.bench.sim;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nikoladesnica.mastermind.bench.bots.CodeSpace;
+import com.nikoladesnica.mastermind.bench.bots.Guesser;
+import com.nikoladesnica.mastermind.bench.bots.Strategy;
+import com.nikoladesnica.mastermind.domain.model.Game;
+import com.nikoladesnica.mastermind.domain.model.GameStatus;
+import com.nikoladesnica.mastermind.domain.model.Player;
+import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.model.RoomState;
+import com.nikoladesnica.mastermind.domain.ports.RoomCommandExecutor;
+import com.nikoladesnica.mastermind.domain.service.GameService;
+import com.nikoladesnica.mastermind.domain.service.GuessEvaluator;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.infra.config.RoomProperties;
+import com.nikoladesnica.mastermind.infra.exec.LockingRoomExecutor;
+import com.nikoladesnica.mastermind.infra.exec.MailboxRoomExecutor;
+import com.nikoladesnica.mastermind.infra.generator.LocalCodeGenerator;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryGameRepository;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryRoomRepository;
+import com.nikoladesnica.mastermind.infra.stats.MeteredActivity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless capacity model of one node's domain layer: thousands of bots play single-player games through
+ * {@link GameService} and room races through {@link RoomService}, built as in production (in-memory repositories,
+ * lock or mailbox room execution, local RNG) but with no servlet container or JSON in between.
+ *
+ * Bots wait in one ready queue; {@code threads} workers repeatedly take a bot, make its next service call and
+ * queue it again, so every bot is live at once and players of the same room guess from different threads,
+ * contending for the room the way concurrent requests do. A finished game is replaced by a new one, and a
+ * room is re-created by whichever player finishes last, so the population stays constant for the whole run.
+ * Every interval a {@link Telemetry.Sample} records throughput, room waits, allocation and heap.
+ */
+public final class Simulator {
+
+    public record Config(
+            int bots,                 // total bot players
+            double roomShare,         // fraction of bots seated in rooms; the rest play single-player games
+            int roomSize,             // players per room
+            int threads,              // worker threads driving the bots
+            Duration duration,
+            Duration warmup,          // samples inside it are flagged and left out of the summary
+            Duration sampleEvery,
+            Strategy strategy,
+            RoomProperties.Execution execution,
+            int mailboxThreads,
+            GameProperties game,
+            long seed,
+            Path reportDir            // null = no file
+    ) {
+        /** Reads {@code sim.*} system properties, e.g. {@code -Dsim.bots=20000 -Dsim.threads=16 -Dsim.execution=mailbox}. */
+        public static Config fromSystemProperties() {
+            int cpus = Runtime.getRuntime().availableProcessors();
+            return new Config(
+                    Integer.getInteger("sim.bots", 5_000),
+                    Double.parseDouble(System.getProperty("sim.room-share", "0.5")),
+                    Integer.getInteger("sim.room-size", 8),
+                    Integer.getInteger("sim.threads", cpus),
+                    Duration.ofSeconds(Long.getLong("sim.seconds", 30L)),
+                    Duration.ofSeconds(Long.getLong("sim.warmup-seconds", 5L)),
+                    Duration.ofMillis(Long.getLong("sim.sample-ms", 1000L)),
+                    Strategy.of(System.getProperty("sim.strategy", "consistent")),
+                    RoomProperties.Execution.valueOf(System.getProperty("sim.execution", "lock").toUpperCase()),
+                    Integer.getInteger("sim.mailbox-threads", cpus),
+                    new GameProperties(
+                            Integer.getInteger("sim.code-length", 4),
+                            Integer.getInteger("sim.min-digit", 0),
+                            Integer.getInteger("sim.max-digit", 7),
+                            Integer.getInteger("sim.attempts", 10),
+                            true, false, null),
+                    Long.getLong("sim.seed", 42L),
+                    Path.of(System.getProperty("sim.report-dir", "target/sim-report")));
+        }
+    }
+
+    /** Everything the run measured; {@link #json()} is what lands in {@code report.json}. */
+    public record Report(Map<String, Object> json, List<Telemetry.Sample> samples, long guesses, long errors) {}
+
+    /** Cumulative totals written by the workers and read by {@link Telemetry}. */
+    static final class Counters {
+        final LongAdder guesses = new LongAdder();
+        final LongAdder guessNanos = new LongAdder();
+        final LongAdder domainBytes = new LongAdder();
+        final LongAdder gamesFinished = new LongAdder();
+        final LongAdder gamesWon = new LongAdder();
+        final LongAdder guessesToWin = new LongAdder();
+        final LongAdder roomsFinished = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Config config;
+    private final CodeSpace space;
+    private final List<Integer>[] digits; // one immutable list per code, so bots do not add to the allocation figures
+    private final Counters counters = new Counters();
+    private final ConcurrentLinkedQueue<Bot> ready = new ConcurrentLinkedQueue<>();
+
+    private GameService games;
+    private RoomService rooms;
+    private volatile boolean running;
+
+    @SuppressWarnings("unchecked")
+    public Simulator(Config config) {
+        this.config = config;
+        GameProperties g = config.game();
+        this.space = new CodeSpace(g.codeLength(), g.minDigit(), g.maxDigit());
+        this.digits = new List[space.size()];
+        for (int i = 0; i < space.size(); i++) digits[i] = List.copyOf(CodeSpace.toList(space.code(i)));
+    }
+
+    public Report run() throws Exception {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        GameProperties props = config.game();
+        InMemoryGameRepository gameRepo = new InMemoryGameRepository();
+        InMemoryRoomRepository roomRepo = new InMemoryRoomRepository();
+        GuessEvaluator evaluator = new GuessEvaluator();
+        MeteredActivity metered = new MeteredActivity(meters);
+        LocalCodeGenerator secrets = new LocalCodeGenerator(props);
+        boolean mailbox = config.execution() == RoomProperties.Execution.MAILBOX;
+        RoomCommandExecutor executor = mailbox
+                ? new MailboxRoomExecutor(config.mailboxThreads(), 1024, 10_000, meters)
+                : new LockingRoomExecutor(1024, 0, meters);
+        games = new GameService(gameRepo, secrets, evaluator, props, GameService.Dependencies.defaults().withActivity(metered));
+        rooms = new RoomService(roomRepo, secrets, evaluator, props, RoomService.Dependencies.of(executor).withActivity(metered));
+
+        SplittableRandom random = new SplittableRandom(config.seed());
+        int seated = (int) Math.round(config.bots() * config.roomShare()) / config.roomSize() * config.roomSize();
+        for (int i = 0; i < seated / config.roomSize(); i++) new Table(config.roomSize(), random.split()).open();
+        for (int i = seated; i < config.bots(); i++) new GameBot(random.split()).newGame();
+
+        running = true;
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < config.threads(); i++) {
+            Thread t = new Thread(this::work, "sim-worker-" + i);
+            t.setDaemon(true);
+            workers.add(t);
+        }
+        long[] workerIds = workers.stream().mapToLong(Thread::threadId).toArray();
+        workers.forEach(Thread::start);
+
+        Telemetry telemetry = new Telemetry(counters, workerIds, meters, mailbox, gameRepo, roomRepo,
+                config.warmup().toNanos() / 1e9);
+        List<Telemetry.Sample> samples = new ArrayList<>();
+        Telemetry.printHeader(System.out);
+        long end = System.nanoTime() + config.duration().toNanos();
+        while (System.nanoTime() < end) {
+            Thread.sleep(Math.min(config.sampleEvery().toMillis(), Math.max(1, TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()))));
+            Telemetry.Sample s = telemetry.sample();
+            samples.add(s);
+            Telemetry.print(System.out, s);
+        }
+        running = false;
+        for (Thread t : workers) t.join();
+        if (executor instanceof AutoCloseable c) c.close();
+
+        Report report = new Report(report(samples, seated), samples, counters.guesses.sum(), counters.errors.sum());
+        if (config.reportDir() != null) {
+            Files.createDirectories(config.reportDir());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(config.reportDir().resolve("report.json").toFile(), report.json());
+        }
+        return report;
+    }
+
+    private void work() {
+        while (running) {
+            Bot bot = ready.poll();
+            if (bot == null) {
+                Thread.onSpinWait(); // fewer bots than threads; nothing to do right now
+                continue;
+            }
+            try {
+                bot.step();
+            } catch (RuntimeException e) {
+                counters.errors.increment();
+                bot.failed();
+            }
+        }
+    }
+
+    // Service calls are bracketed so the per-guess allocation figure covers the domain, not the bots
+    private long allocated() {
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private List<Integer> digits(Guesser guesser) {
+        return digits[space.indexOf(guesser.next())];
+    }
+
+    private abstract static class Bot {
+        abstract void step();
+
+        /** A service call threw: start over with a fresh game or seat. */
+        abstract void failed();
+    }
+
+    /** Plays single-player games back to back. */
+    private final class GameBot extends Bot {
+        private final SplittableRandom random;
+        private Guesser guesser;
+        private UUID gameId;
+        private int attempt;
+
+        GameBot(SplittableRandom random) {
+            this.random = random;
+        }
+
+        void newGame() {
+            long bytes = allocated();
+            gameId = games.startGame().id();
+            counters.domainBytes.add(allocated() - bytes);
+            guesser = config.strategy().factory().newGame(space, random);
+            attempt = 0;
+            ready.add(this);
+        }
+
+        @Override
+        void step() {
+            List<Integer> guess = digits(guesser);
+            long bytes = allocated();
+            long t0 = System.nanoTime();
+            Game game = games.submitGuess(gameId, guess);
+            GameStatus status = game.status();
+            Game.Entry last = game.lastEntry();
+            counters.guessNanos.add(System.nanoTime() - t0);
+            counters.domainBytes.add(allocated() - bytes);
+            counters.guesses.increment();
+            attempt++;
+
+            if (status == GameStatus.IN_PROGRESS) {
+                guesser.feedback(last.feedback().correctPositions(), last.feedback().correctNumbers());
+                ready.add(this);
+                return;
+            }
+            counters.gamesFinished.increment();
+            if (status == GameStatus.WON) {
+                counters.gamesWon.increment();
+                counters.guessesToWin.add(attempt);
+            }
+            newGame();
+        }
+
+        @Override
+        void failed() {
+            newGame();
+        }
+    }
+
+    /** A room's worth of bots: created, filled and started together, re-opened when its last player finishes. */
+    private final class Table {
+        private final Seat[] seats;
+        private final SplittableRandom random;
+        private final AtomicInteger playing = new AtomicInteger();
+        private Room room;
+
+        Table(int size, SplittableRandom random) {
+            this.random = random;
+            this.seats = new Seat[size];
+            for (int i = 0; i < size; i++) seats[i] = new Seat(this, random.split());
+        }
+
+        void open() {
+            long bytes = allocated();
+            Room r = rooms.createRoom();
+            for (int i = 0; i < seats.length; i++) seats[i].player = rooms.join(r.roomId(), "bot-" + i);
+            rooms.start(r.roomId(), r.hostToken());
+            counters.domainBytes.add(allocated() - bytes);
+            room = r;
+            playing.set(seats.length);
+            for (Seat seat : seats) {
+                seat.guesser = config.strategy().factory().newGame(space, seat.random);
+                seat.attempt = 0;
+                ready.add(seat); // publishes the fields above to whichever worker takes the seat
+            }
+        }
+
+        void seatDone() {
+            if (playing.decrementAndGet() == 0) {
+                counters.roomsFinished.increment();
+                open();
+            }
+        }
+    }
+
+    private final class Seat extends Bot {
+        private final Table table;
+        private final SplittableRandom random;
+        private Player player;
+        private Guesser guesser;
+        private int attempt;
+
+        Seat(Table table, SplittableRandom random) {
+            this.table = table;
+            this.random = random;
+        }
+
+        @Override
+        void step() {
+            Room room = table.room;
+            UUID playerId = player.id();
+            List<Integer> guess = digits(guesser);
+            long bytes = allocated();
+            long t0 = System.nanoTime();
+            rooms.guess(room.roomId(), playerId, player.token(), guess);
+            // What the API does next: read the caller's outcome under the room's lock
+            long outcome = rooms.read(room, r -> outcome(r, r.players().get(playerId)));
+            counters.guessNanos.add(System.nanoTime() - t0);
+            counters.domainBytes.add(allocated() - bytes);
+            counters.guesses.increment();
+            attempt++;
+
+            GameStatus status = GameStatus.values()[(int) (outcome >>> 32) & 0xFF];
+            if (status == GameStatus.IN_PROGRESS && outcome >= 0) {
+                guesser.feedback((int) (outcome >>> 16) & 0xFFFF, (int) outcome & 0xFFFF);
+                ready.add(this);
+                return;
+            }
+            if (status == GameStatus.WON) {
+                counters.gamesWon.increment();
+                counters.guessesToWin.add(attempt);
+            }
+            table.seatDone();
+        }
+
+        @Override
+        void failed() {
+            table.seatDone();
+        }
+    }
+
+    // status | positions | numbers of the player's last guess, packed so the read returns one value;
+    // negative once the race is over (a win ends it for everyone still playing)
+    private static long outcome(Room room, Player p) {
+        List<Game.Entry> history = p.history();
+        Game.Entry last = history.isEmpty() ? null : history.get(history.size() - 1);
+        long packed = (long) p.status().ordinal() << 32 | (room.state() == RoomState.RUNNING ? 0 : Long.MIN_VALUE);
+        return last == null ? packed : packed | (long) last.feedback().correctPositions() << 16 | last.feedback().correctNumbers();
+    }
+
+    private Map<String, Object> report(List<Telemetry.Sample> samples, int seated) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        Map<String, Object> cfg = new LinkedHashMap<>();
+        cfg.put("bots", config.bots());
+        cfg.put("roomBots", seated);
+        cfg.put("roomSize", config.roomSize());
+        cfg.put("gameBots", config.bots() - seated);
+        cfg.put("threads", config.threads());
+        cfg.put("seconds", config.duration().toSeconds());
+        cfg.put("warmupSeconds", config.warmup().toSeconds());
+        cfg.put("strategy", config.strategy().name().toLowerCase());
+        cfg.put("execution", config.execution().name().toLowerCase());
+        cfg.put("game", config.game());
+        cfg.put("seed", config.seed());
+        cfg.put("cpus", Runtime.getRuntime().availableProcessors());
+        cfg.put("maxHeapMB", Runtime.getRuntime().maxMemory() >> 20);
+        root.put("config", cfg);
+
+        List<Telemetry.Sample> measured = samples.stream().filter(s -> !s.warmup()).toList();
+        if (measured.isEmpty()) measured = samples;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("guessesPerSecond", mean(measured, Telemetry.Sample::guessesPerSecond));
+        summary.put("peakGuessesPerSecond", measured.stream().mapToDouble(Telemetry.Sample::guessesPerSecond).max().orElse(0));
+        summary.put("gamesPerSecond", mean(measured, Telemetry.Sample::gamesPerSecond));
+        summary.put("roomsPerSecond", mean(measured, Telemetry.Sample::roomsPerSecond));
+        summary.put("guessMicros", mean(measured, Telemetry.Sample::guessMicros));
+        summary.put("roomWaitMicros", mean(measured, Telemetry.Sample::roomWaitMicros));
+        summary.put("workerWaitPercent", mean(measured, Telemetry.Sample::workerWaitPercent));
+        summary.put("allocMBPerSecond", mean(measured, Telemetry.Sample::allocMBPerSecond));
+        summary.put("domainBytesPerGuess", mean(measured, Telemetry.Sample::domainBytesPerGuess));
+        Telemetry.Sample first = measured.get(0), last = measured.get(measured.size() - 1);
+        double minutes = Math.max(1e-9, (last.t() - first.t()) / 60);
+        summary.put("liveAfterGcGrowthMBPerMinute", Math.round((last.liveAfterGcMB() - first.liveAfterGcMB()) / minutes * 100) / 100.0);
+        summary.put("gcCount", measured.stream().mapToLong(Telemetry.Sample::gcCount).sum());
+        summary.put("gcMillis", measured.stream().mapToDouble(Telemetry.Sample::gcMillis).sum());
+        long won = counters.gamesWon.sum();
+        summary.put("wins", won);
+        summary.put("meanGuessesToWin", won == 0 ? 0 : Math.round(counters.guessesToWin.sum() * 1000.0 / won) / 1000.0);
+        summary.put("errors", counters.errors.sum());
+        root.put("summary", summary);
+        root.put("samples", samples);
+        return root;
+    }
+
+    private static double mean(List<Telemetry.Sample> samples, java.util.function.ToDoubleFunction<Telemetry.Sample> f) {
+        return Math.round(samples.stream().mapToDouble(f).average().orElse(0) * 100) / 100.0;
+    }
+}
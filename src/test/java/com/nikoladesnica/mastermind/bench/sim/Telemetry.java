@@ -0,0 +1,194 @@
+package com.nikoladesnica.mastermind.bench.sim;
+
+import com.nikoladesnica.mastermind.domain.ports.GameRepository;
+import com.nikoladesnica.mastermind.domain.ports.RoomRepository;
+import com.nikoladesnica.mastermind.util.Meters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadInfo;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns cumulative counters (simulator totals, room wait timer, per-thread allocation and wait times, GC beans)
+ * into one {@link Sample} per interval. Only the sampler thread calls {@link #sample}, so the previous readings
+ * are plain fields.
+ */
+final class Telemetry {
+
+    /** One interval. Rates are per second; wait and allocation figures cover the simulator's worker threads. */
+    record Sample(
+            double t,                  // seconds since the run started (end of the interval)
+            boolean warmup,
+            double guessesPerSecond,
+            double gamesPerSecond,     // single-player games finished
+            double roomsPerSecond,     // room races finished
+            double guessMicros,        // mean service time of a guess call, waiting included
+            double roomWaitMicros,     // mean wait for a room's lock or mailbox
+            double roomWaitMaxMicros,
+            double workerWaitPercent,  // share of worker time parked or blocked (lock contention, mailbox hand-off)
+            double allocMBPerSecond,   // everything the worker threads allocated, bots included
+            double domainBytesPerGuess,// allocated inside service calls on the calling thread (mailbox workers not included)
+            double heapUsedMB,
+            double liveAfterGcMB,      // heap still in use after the last collection: the retained set
+            long gcCount,
+            double gcMillis,
+            long liveGames,
+            long liveRooms
+    ) {}
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Simulator.Counters counters;
+    private final long[] workerIds;
+    private final Timer roomWait;
+    private final GameRepository games;
+    private final RoomRepository rooms;
+    private final List<GarbageCollectorMXBean> gcs = ManagementFactory.getGarbageCollectorMXBeans();
+    private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(p -> p.getType() == MemoryType.HEAP)
+            .toList();
+    private final long startNanos;
+    private final double warmupSeconds;
+
+    private long lastNanos;
+    private long lastGuesses, lastGuessNanos, lastGames, lastRooms, lastDomainBytes;
+    private long lastWaitCount;
+    private double lastWaitNanos;
+    private long lastThreadBytes, lastThreadWaitMillis;
+    private long lastGcCount, lastGcMillis;
+
+    Telemetry(Simulator.Counters counters, long[] workerIds, MeterRegistry meters, boolean mailbox,
+              GameRepository games, RoomRepository rooms, double warmupSeconds) {
+        this.counters = counters;
+        this.workerIds = workerIds;
+        this.roomWait = meters.get(mailbox ? Meters.ROOM_MAILBOX_WAIT : Meters.ROOM_LOCK_WAIT).timer();
+        this.games = games;
+        this.rooms = rooms;
+        this.warmupSeconds = warmupSeconds;
+        if (THREADS.isThreadContentionMonitoringSupported()) {
+            THREADS.setThreadContentionMonitoringEnabled(true);
+        }
+        this.startNanos = System.nanoTime();
+        this.lastNanos = startNanos;
+        this.lastThreadBytes = threadBytes();
+        this.lastThreadWaitMillis = threadWaitMillis();
+        this.lastGcCount = gcCount();
+        this.lastGcMillis = gcMillis();
+    }
+
+    Sample sample() {
+        long now = System.nanoTime();
+        double seconds = (now - lastNanos) / 1e9;
+
+        long guesses = counters.guesses.sum();
+        long guessNanos = counters.guessNanos.sum();
+        long games = counters.gamesFinished.sum();
+        long rooms = counters.roomsFinished.sum();
+        long domainBytes = counters.domainBytes.sum();
+        long waitCount = roomWait.count();
+        double waitNanos = roomWait.totalTime(TimeUnit.NANOSECONDS);
+        long threadBytes = threadBytes();
+        long threadWaitMillis = threadWaitMillis();
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+
+        long dGuesses = guesses - lastGuesses;
+        long dWaits = waitCount - lastWaitCount;
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        double t = (now - startNanos) / 1e9;
+        Sample s = new Sample(
+                round(t),
+                t <= warmupSeconds,
+                round(dGuesses / seconds),
+                round((games - lastGames) / seconds),
+                round((rooms - lastRooms) / seconds),
+                dGuesses == 0 ? 0 : round((guessNanos - lastGuessNanos) / 1e3 / dGuesses),
+                dWaits == 0 ? 0 : round((waitNanos - lastWaitNanos) / 1e3 / dWaits),
+                round(roomWait.max(TimeUnit.MICROSECONDS)),
+                round(100.0 * (threadWaitMillis - lastThreadWaitMillis) / (seconds * 1000 * workerIds.length)),
+                round((threadBytes - lastThreadBytes) / seconds / (1 << 20)),
+                dGuesses == 0 ? 0 : round((domainBytes - lastDomainBytes) / (double) dGuesses),
+                round(heap.getUsed() / (double) (1 << 20)),
+                round(liveAfterGc() / (double) (1 << 20)),
+                gcCount - lastGcCount,
+                gcMillis - lastGcMillis,
+                this.games.liveCount(),
+                this.rooms.liveCount());
+
+        lastNanos = now;
+        lastGuesses = guesses;
+        lastGuessNanos = guessNanos;
+        lastGames = games;
+        lastRooms = rooms;
+        lastDomainBytes = domainBytes;
+        lastWaitCount = waitCount;
+        lastWaitNanos = waitNanos;
+        lastThreadBytes = threadBytes;
+        lastThreadWaitMillis = threadWaitMillis;
+        lastGcCount = gcCount;
+        lastGcMillis = gcMillis;
+        return s;
+    }
+
+    static void printHeader(PrintStream out) {
+        out.printf("%n%7s %10s %8s %8s %9s %9s %9s %7s %9s %8s %9s %9s %5s %7s%n",
+                "t s", "guesses/s", "games/s", "rooms/s", "guess us", "wait us", "wait max", "wait %",
+                "alloc MB/s", "B/guess", "heap MB", "live MB", "gcs", "gc ms");
+    }
+
+    static void print(PrintStream out, Sample s) {
+        out.printf("%7.1f %10.0f %8.0f %8.0f %9.2f %9.2f %9.0f %7.1f %9.1f %8.0f %9.1f %9.1f %5d %7.0f%s%n",
+                s.t(), s.guessesPerSecond(), s.gamesPerSecond(), s.roomsPerSecond(), s.guessMicros(),
+                s.roomWaitMicros(), s.roomWaitMaxMicros(), s.workerWaitPercent(), s.allocMBPerSecond(),
+                s.domainBytesPerGuess(), s.heapUsedMB(), s.liveAfterGcMB(), s.gcCount(), s.gcMillis(),
+                s.warmup() ? "  (warmup)" : "");
+    }
+
+    private long threadBytes() {
+        long sum = 0;
+        for (long b : THREADS.getThreadAllocatedBytes(workerIds)) {
+            if (b > 0) sum += b;
+        }
+        return sum;
+    }
+
+    // Parked (ReentrantLock, futures) plus blocked (monitors); stays 0 when contention monitoring is unavailable
+    private long threadWaitMillis() {
+        long sum = 0;
+        for (ThreadInfo info : THREADS.getThreadInfo(workerIds)) {
+            if (info == null) continue;
+            sum += Math.max(0, info.getWaitedTime()) + Math.max(0, info.getBlockedTime());
+        }
+        return sum;
+    }
+
+    private long liveAfterGc() {
+        long sum = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            MemoryUsage after = pool.getCollectionUsage();
+            if (after != null) sum += after.getUsed();
+        }
+        return sum;
+    }
+
+    private long gcCount() {
+        return gcs.stream().mapToLong(g -> Math.max(0, g.getCollectionCount())).sum();
+    }
+
+    private long gcMillis() {
+        return gcs.stream().mapToLong(g -> Math.max(0, g.getCollectionTime())).sum();
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+}
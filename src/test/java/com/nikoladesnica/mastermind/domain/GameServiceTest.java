@@ -9,10 +9,18 @@ import com.nikoladesnica.mastermind.domain.service.GameService;
 import com.nikoladesnica.mastermind.domain.service.GuessEvaluator;
 import com.nikoladesnica.mastermind.infra.config.GameProperties;
 import com.nikoladesnica.mastermind.infra.repo.InMemoryGameRepository;
+import com.nikoladesnica.mastermind.infra.stats.MeteredActivity;
+import com.nikoladesnica.mastermind.util.Meters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -79,6 +87,21 @@ class GameServiceTest {
         assertEquals(historyAfterWin, g.history().size());
     }
 
+    @Test
+    void only_the_winning_guess_reports_a_win() {
+        Game g = service.startGame();
+        List<GameService.BatchGuess> items = List.of(
+                new GameService.BatchGuess(g.id(), List.of(0, 1, 2, 3)),
+                new GameService.BatchGuess(g.id(), List.of(0, 1, 3, 2)),
+                new GameService.BatchGuess(g.id(), List.of(0, 1, 3, 2)));
+        List<Boolean> won = new ArrayList<>();
+        service.submitBatch(items, outcome -> won.add(outcome.won()));
+
+        // The game is WON when every outcome is delivered; only the item that won it says so
+        assertEquals(List.of(false, true, false), won);
+        assertFalse(service.guess(g.id(), List.of(0, 1, 3, 2)).won(), "a guess after the win credits nothing");
+    }
+
     @Test
     void submitGuess_outOfRange_throwsBadRequest() {
         Game g = service.startGame();
@@ -88,4 +111,55 @@ class GameServiceTest {
         );
         assertTrue(ex.getMessage().contains("between 0 and 7"));
     }
+
+    @Test
+    void guesses_and_outcomes_are_metered() {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        GameService metered = new GameService(repo, generator, evaluator, props,
+                GameService.Dependencies.defaults().withActivity(new MeteredActivity(meters)));
+
+        Game g = metered.startGame();
+        metered.submitGuess(g.id(), List.of(0, 1, 2, 3));
+        metered.submitGuess(g.id(), List.of(0, 1, 3, 2));
+        assertThrows(RuntimeException.class, () -> metered.submitGuess(java.util.UUID.randomUUID(), List.of(0, 1, 2, 3)));
+
+        assertEquals(1, meters.get(Meters.GAMES_STARTED).counter().count());
+        assertEquals(3, meters.get(Meters.GAME_GUESS).timer().count()); // failures are timed too
+        assertEquals(2, meters.get(Meters.EVALUATE).timer().count());
+        assertEquals(1, meters.get(Meters.GAMES_FINISHED).tag("outcome", "won").counter().count());
+        assertEquals(0, meters.get(Meters.GAMES_FINISHED).tag("outcome", "lost").counter().count());
+    }
+
+    @Test
+    void concurrent_guesses_on_one_game_apply_one_at_a_time() throws Exception {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        GameService metered = new GameService(repo, generator, evaluator, props,
+                GameService.Dependencies.defaults().withActivity(new MeteredActivity(meters)));
+        Game g = metered.startGame();
+
+        int threads = 16;
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                go.await();
+                for (int i = 0; i < 5; i++) metered.submitGuess(g.id(), List.of(7, 7, 7, 7));
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        // 80 submissions, but only as many guesses as attempts were applied, each exactly once
+        assertEquals(GameStatus.LOST, g.status());
+        assertEquals(0, g.attemptsLeft());
+        assertEquals(props.attempts(), g.historyCount());
+        assertEquals(props.attempts(), g.history().stream().filter(java.util.Objects::nonNull).count());
+        assertEquals(props.attempts(), meters.get(Meters.EVALUATE).timer().count());
+        assertEquals(1, meters.get(Meters.GAMES_FINISHED).tag("outcome", "lost").counter().count());
+        assertEquals(meters.get(Meters.GAME_LOCK_CONTENDED).counter().count(),
+                meters.get(Meters.GAME_LOCK_WAIT).timer().count()); // every contended guess waited and was timed
+    }
 }
@@ -0,0 +1,157 @@
+package com.nikoladesnica.mastermind.domain;
+
+import com.nikoladesnica.mastermind.domain.errors.UnavailableException;
+import com.nikoladesnica.mastermind.domain.model.*;
+import com.nikoladesnica.mastermind.domain.service.GuessEvaluator;
+import com.nikoladesnica.mastermind.domain.service.MatchmakingService;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.infra.config.MatchmakingProperties;
+import com.nikoladesnica.mastermind.infra.exec.LockingRoomExecutor;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryRoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchmakingServiceTest {
+
+    private RoomService rooms;
+
+    @BeforeEach
+    void setUp() {
+        GameProperties props = new GameProperties(4, 0, 7, 10, true, false, null);
+        rooms = new RoomService(
+                new InMemoryRoomRepository(),
+                () -> new Code(List.of(0, 1, 3, 2), 4, 0, 7, true),
+                new GuessEvaluator(),
+                props,
+                RoomService.Dependencies.of(new LockingRoomExecutor()));
+    }
+
+    @Test
+    void full_rooms_are_formed_started_and_grouped_by_rating() {
+        // Formation runs inline so the pass is deterministic
+        MatchmakingService mm = new MatchmakingService(rooms, new MatchmakingProperties(2, 2, 60_000, 100, 60_000, 1_000), Runnable::run);
+        Ticket low1 = mm.enqueue("A", null, 0);
+        Ticket high1 = mm.enqueue("B", null, 50);
+        Ticket low2 = mm.enqueue("C", null, 1);
+        Ticket high2 = mm.enqueue("D", null, 40);
+        Ticket straggler = mm.enqueue("E", null, 100);
+
+        assertEquals(2, mm.formRooms());
+
+        UUID lowRoom = low1.match().join().roomId();
+        assertEquals(lowRoom, low2.match().join().roomId());
+        UUID highRoom = high1.match().join().roomId();
+        assertEquals(highRoom, high2.match().join().roomId());
+        assertNotEquals(lowRoom, highRoom);
+        assertFalse(straggler.match().isDone());
+
+        Room room = rooms.get(lowRoom);
+        assertEquals(RoomState.RUNNING, room.state());
+        assertEquals(2, room.players().size());
+        Ticket.Match m = low1.match().join();
+        assertEquals(m.playerToken(), room.players().get(m.playerId()).token());
+
+        assertEquals(1, mm.queueDepth());
+        assertEquals(4, mm.matchedCount());
+        assertEquals(2, mm.roomsFormedCount());
+        assertEquals(4, java.util.Arrays.stream(mm.waitHistogram()).sum());
+    }
+
+    @Test
+    void partial_room_is_formed_once_max_wait_elapses() {
+        MatchmakingService mm = new MatchmakingService(rooms, new MatchmakingProperties(4, 2, 0, 100, 60_000, 1_000), Runnable::run);
+        Ticket alone = mm.enqueue("A", null, 0);
+        assertEquals(0, mm.formRooms(), "below min-players nothing is formed");
+        assertFalse(alone.match().isDone());
+
+        Ticket second = mm.enqueue("B", null, 0);
+        assertEquals(1, mm.formRooms());
+        assertEquals(alone.match().join().roomId(), second.match().join().roomId());
+        assertEquals(0, mm.queueDepth());
+    }
+
+    @Test
+    void overdue_ticket_at_the_edge_of_the_ratings_is_not_starved() {
+        MatchmakingService mm = new MatchmakingService(rooms, new MatchmakingProperties(2, 2, 0, 100, 60_000, 1_000), Runnable::run);
+        Ticket high = mm.enqueue("H", null, 1_000);
+        assertEquals(0, mm.formRooms(), "alone it waits");
+
+        // Pairs of low ratings would always fill a room on their own and leave the high ticket over
+        Ticket low1 = mm.enqueue("L1", null, 0);
+        Ticket low2 = mm.enqueue("L2", null, 10);
+        assertEquals(1, mm.formRooms());
+        assertEquals(high.match().join().roomId(), low2.match().join().roomId(), "grouped with its nearest rating");
+        assertFalse(low1.match().isDone());
+
+        Ticket low3 = mm.enqueue("L3", null, 1);
+        assertEquals(1, mm.formRooms());
+        assertEquals(low1.match().join().roomId(), low3.match().join().roomId());
+        assertEquals(0, mm.queueDepth());
+    }
+
+    @Test
+    void concurrent_enqueues_are_all_matched_exactly_once() throws Exception {
+        MatchmakingService mm = new MatchmakingService(rooms, new MatchmakingProperties(4, 1, 0, 100, 60_000, 1_000), Runnable::run);
+        List<Thread> threads = new ArrayList<>();
+        List<Ticket> tickets = java.util.Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 50; i++) tickets.add(mm.enqueue("P", null, i % 7));
+            }));
+        }
+        while (threads.stream().anyMatch(Thread::isAlive)) mm.formRooms();
+        mm.formRooms();
+
+        assertEquals(200, tickets.size());
+        Set<UUID> players = tickets.stream().map(t -> t.match().join().playerId()).collect(Collectors.toSet());
+        assertEquals(200, players.size());
+        assertEquals(0, mm.queueDepth());
+    }
+
+    @Test
+    void unmatched_tickets_expire_and_withdrawn_ones_are_never_seated() throws Exception {
+        MatchmakingService mm = new MatchmakingService(rooms, new MatchmakingProperties(2, 2, 60_000, 100, 20, 1_000), Runnable::run);
+        Ticket lonely = mm.enqueue("A", null, 0);
+        assertEquals(0, mm.formRooms());
+        Thread.sleep(30);
+        assertEquals(0, mm.formRooms());
+        assertTrue(lonely.withdrawn());
+        assertTrue(lonely.expired());
+        assertTrue(mm.ticket(lonely.id()).isPresent(), "an expired ticket can still be fetched for a while");
+        assertEquals(1, mm.expiredCount());
+
+        MatchmakingService quick = new MatchmakingService(rooms, new MatchmakingProperties(2, 2, 60_000, 100, 60_000, 1_000), Runnable::run);
+        Ticket leaver = quick.enqueue("L", null, 0);
+        Ticket stayer = quick.enqueue("S", null, 0);
+        assertTrue(quick.cancel(leaver.id()));
+        assertFalse(quick.cancel(leaver.id()), "a cancelled ticket is forgotten");
+        assertTrue(leaver.withdrawn());
+        assertFalse(leaver.expired());
+        assertEquals(1, quick.queueDepth());
+
+        assertEquals(0, quick.formRooms(), "the cancelled ticket does not fill the room");
+        Ticket next = quick.enqueue("N", null, 0);
+        assertEquals(1, quick.formRooms());
+        assertEquals(stayer.match().join().roomId(), next.match().join().roomId());
+        assertFalse(leaver.claim(), "formation can no longer take it");
+    }
+
+    @Test
+    void the_ticket_table_is_bounded() {
+        MatchmakingService mm = new MatchmakingService(rooms, new MatchmakingProperties(2, 2, 60_000, 100, 60_000, 2), Runnable::run);
+        mm.enqueue("A", null, 0);
+        Ticket b = mm.enqueue("B", null, 0);
+        assertThrows(UnavailableException.class, () -> mm.enqueue("C", null, 0));
+        mm.cancel(b.id());
+        assertNotNull(mm.enqueue("C", null, 0));
+    }
+}
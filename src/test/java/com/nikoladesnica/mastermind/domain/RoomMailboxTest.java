@@ -0,0 +1,137 @@
+package com.nikoladesnica.mastermind.domain;
+
+import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
+import com.nikoladesnica.mastermind.domain.errors.UnavailableException;
+import com.nikoladesnica.mastermind.domain.model.*;
+import com.nikoladesnica.mastermind.domain.service.GuessEvaluator;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.infra.exec.MailboxRoomExecutor;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryRoomRepository;
+import com.nikoladesnica.mastermind.util.RequestTrace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomMailboxTest {
+
+    private MailboxRoomExecutor executor;
+    private RoomService service;
+
+    @BeforeEach
+    void setUp() {
+        GameProperties props = new GameProperties(4, 0, 7, 10, true, false, null);
+        executor = new MailboxRoomExecutor(2, 64, 200);
+        service = new RoomService(
+                new InMemoryRoomRepository(),
+                () -> new Code(List.of(0, 1, 3, 2), 4, 0, 7, true),
+                new GuessEvaluator(),
+                props,
+                RoomService.Dependencies.of(executor));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void stages_run_on_a_worker_are_recorded_in_the_callers_trace() {
+        Room room = service.createRoom();
+        Player p = service.join(room.roomId(), "P");
+        service.start(room.roomId(), room.hostToken());
+
+        RequestTrace trace = RequestTrace.open();
+        try {
+            service.guess(room.roomId(), p.id(), p.token(), List.of(0, 0, 0, 0));
+        } finally {
+            trace.close();
+        }
+
+        assertTrue(trace.recorded(RequestTrace.Stage.LOCK)); // time queued in the mailbox
+        assertTrue(trace.recorded(RequestTrace.Stage.EVALUATE)); // ran on a mailbox worker
+        assertTrue(trace.recorded(RequestTrace.Stage.REPO));
+        assertNull(RequestTrace.current());
+    }
+
+    @Test
+    void concurrent_guesses_are_applied_one_at_a_time() throws Exception {
+        Room room = service.createRoom();
+        UUID roomId = room.roomId();
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 4; i++) players.add(service.join(roomId, "P" + i));
+        service.start(roomId, room.hostToken());
+
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Player p : players) {
+                futures.add(clients.submit(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        service.guess(roomId, p.id(), p.token(), List.of(0, 0, 0, 0));
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get(5, TimeUnit.SECONDS);
+        } finally {
+            clients.shutdownNow();
+        }
+
+        Room after = service.get(roomId);
+        assertEquals(RoomState.FINISHED, after.state());
+        for (Player p : players) {
+            Player snapshot = after.players().get(p.id());
+            assertEquals(10, snapshot.history().size());
+            assertEquals(0, snapshot.attemptsLeft());
+            assertEquals(GameStatus.LOST, snapshot.status());
+        }
+        assertEquals(0, executor.pendingCommands());
+        // A worker retires the mailbox just after completing the last command
+        for (long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(1); executor.mailboxCount() > 0 && System.nanoTime() < end; ) {
+            Thread.onSpinWait();
+        }
+        assertEquals(0, executor.mailboxCount(), "drained mailboxes are dropped");
+        assertEquals(0, executor.depth(roomId));
+    }
+
+    @Test
+    void domain_errors_propagate_unchanged() {
+        Room room = service.createRoom();
+        UUID roomId = room.roomId();
+        service.join(roomId, "P");
+        service.start(roomId, room.hostToken());
+
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> service.join(roomId, "Late"));
+        assertTrue(ex.getMessage().contains("not joinable"));
+    }
+
+    @Test
+    void busy_room_times_out_with_unavailable() throws Exception {
+        Room room = service.createRoom();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch holding = new CountDownLatch(1);
+
+        // Occupy the room's mailbox with a slow command
+        Thread blocker = new Thread(() -> executor.execute(room, () -> {
+            holding.countDown();
+            try { release.await(); } catch (InterruptedException ignored) { }
+            return null;
+        }));
+        blocker.start();
+        assertTrue(holding.await(1, TimeUnit.SECONDS));
+
+        assertThrows(UnavailableException.class, () -> service.join(room.roomId(), "Waiting"));
+
+        release.countDown();
+        blocker.join(1000);
+        // the timed-out join never ran
+        assertEquals(0, service.get(room.roomId()).players().size());
+    }
+}
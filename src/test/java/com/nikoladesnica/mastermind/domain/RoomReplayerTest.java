@@ -0,0 +1,134 @@
+package com.nikoladesnica.mastermind.domain;
+
+import com.nikoladesnica.mastermind.domain.model.*;
+import com.nikoladesnica.mastermind.domain.service.GuessEvaluator;
+import com.nikoladesnica.mastermind.domain.service.RoomReplayer;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.infra.config.RoomProperties;
+import com.nikoladesnica.mastermind.infra.exec.LockingRoomExecutor;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryRoomRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomReplayerTest {
+
+    private final GameProperties props = new GameProperties(4, 0, 7, 10, true, false, null);
+    private final List<Runnable> armed = new ArrayList<>();
+    private final RoomReplayer replayer = new RoomReplayer();
+
+    /** Everything replay is expected to reproduce; tokens are never logged. */
+    private record PlayerState(UUID id, String name, GameStatus status, int attemptsLeft, List<Game.Entry> history,
+                               Instant finishedAt) {}
+
+    private record StandingState(UUID playerId, int rank, int attemptsUsed, long elapsedSeconds, long joinSeq) {}
+
+    private record RoomSnapshot(UUID roomId, RoomState state, Instant createdAt, Instant startedAt, Instant finishedAt,
+                                List<Integer> secret, List<PlayerState> players, List<StandingState> standings,
+                                int inProgress, int won, int lost) {}
+
+    @Test
+    void replaying_the_log_rebuilds_the_live_room_through_every_kind_of_command() throws Exception {
+        RoomService svc = timedService(60_000, 50);
+        Room room = svc.createRoom();
+        UUID id = room.roomId();
+        Player a = svc.join(id, "A");
+        Player b = svc.join(id, "B");
+        Player c = svc.join(id, "C");
+        Player d = svc.join(id, "D");
+        Player e = svc.join(id, null); // defaulted name
+        svc.kick(id, room.hostToken(), e.id());
+        String claimed = svc.promoteHost(id, a.id(), a.token());
+        svc.assignHost(id, claimed, b.id());
+        svc.leave(id, d.id(), d.token()); // lobby: removed
+
+        svc.start(id, room.hostToken());
+        List<Runnable> initial = List.copyOf(armed); // race deadline, then one idle timer per player
+        armed.clear();
+        Thread.sleep(60);
+        svc.guess(id, a.id(), a.token(), List.of(0, 0, 0, 0));
+        svc.guess(id, b.id(), b.token(), List.of(7, 7, 7, 7));
+        initial.subList(1, initial.size()).forEach(Runnable::run); // c idled out, a and b re-armed
+        svc.leave(id, b.id(), b.token()); // running: counts as a loss
+        svc.guess(id, a.id(), a.token(), List.of(0, 1, 2, 3));
+        initial.get(0).run(); // race deadline: a loses, room finishes
+
+        assertEquals(RoomState.FINISHED, room.state());
+        assertEquals(GameStatus.LOST, c.status());
+        RoomReplayer.Replay replay = replayer.replay(id, room.log().all());
+        assertEquals(snapshot(room), snapshot(replay.room()));
+        assertEquals(b.id(), replay.host());
+        assertEquals(List.of(RoomEvent.Created.class, RoomEvent.Joined.class, RoomEvent.Joined.class,
+                RoomEvent.Joined.class, RoomEvent.Joined.class, RoomEvent.Joined.class, RoomEvent.Kicked.class,
+                RoomEvent.HostChanged.class, RoomEvent.HostChanged.class, RoomEvent.Left.class, RoomEvent.Started.class,
+                RoomEvent.Guessed.class, RoomEvent.Guessed.class, RoomEvent.TimedOut.class, RoomEvent.Left.class,
+                RoomEvent.Guessed.class, RoomEvent.TimedOut.class),
+                room.log().all().stream().map(Object::getClass).toList());
+    }
+
+    @Test
+    void a_prefix_of_the_log_shows_the_room_as_it_was_and_replay_is_deterministic() {
+        RoomService svc = timedService(0, 0);
+        Room room = svc.createRoom();
+        UUID id = room.roomId();
+        Player a = svc.join(id, "A");
+        Player b = svc.join(id, "B");
+        svc.start(id, room.hostToken());
+        svc.guess(id, a.id(), a.token(), List.of(0, 1, 2, 3));
+        svc.guess(id, b.id(), b.token(), List.of(0, 1, 3, 2)); // b wins
+        svc.guess(id, a.id(), a.token(), List.of(0, 1, 3, 2)); // too late: ignored and not logged
+
+        List<RoomEvent> log = room.log().all();
+        assertEquals(6, log.size());
+        assertEquals(snapshot(room), snapshot(replayer.replay(id, log).room()));
+        assertEquals(snapshot(replayer.replay(id, log).room()), snapshot(new RoomReplayer(new GuessEvaluator()).replay(id, log).room()));
+
+        Room before = replayer.replay(id, log.subList(0, 5)).room(); // up to a's first guess
+        assertEquals(RoomState.RUNNING, before.state());
+        assertEquals(1, before.players().get(a.id()).attemptsUsed());
+        assertEquals(0, before.players().get(b.id()).attemptsUsed());
+        assertEquals(new Feedback(2, 4), before.players().get(a.id()).history().get(0).feedback());
+    }
+
+    @Test
+    void logs_no_room_could_have_written_are_rejected() {
+        Instant now = Instant.now();
+        UUID ghost = UUID.randomUUID();
+        assertThrows(IllegalArgumentException.class, () -> replayer.replay(UUID.randomUUID(), List.of()));
+        assertThrows(IllegalArgumentException.class, () -> replayer.replay(UUID.randomUUID(),
+                List.of(new RoomEvent.Joined(now, ghost, "X", 10))));
+        assertThrows(IllegalArgumentException.class, () -> replayer.replay(UUID.randomUUID(),
+                List.of(new RoomEvent.Created(now), new RoomEvent.Kicked(now, ghost))));
+        assertThrows(IllegalArgumentException.class, () -> replayer.replay(UUID.randomUUID(), List.of(
+                new RoomEvent.Created(now),
+                new RoomEvent.Joined(now, ghost, "X", 10),
+                new RoomEvent.Guessed(now, ghost, new Guess(List.of(0, 0, 0, 0)))))); // before the start
+    }
+
+    private RoomService timedService(long raceTimeoutMs, long idleTimeoutMs) {
+        RoomProperties d = RoomProperties.defaults();
+        RoomProperties timed = new RoomProperties(d.execution(), d.lockStripes(), d.mailboxThreads(),
+                d.mailboxCapacity(), d.commandTimeoutMs(), d.maxPlayers(), raceTimeoutMs, idleTimeoutMs, d.timerTickMs());
+        return new RoomService(new InMemoryRoomRepository(), () -> new Code(List.of(0, 1, 3, 2), 4, 0, 7, true),
+                new GuessEvaluator(), props, RoomService.Dependencies.of(new LockingRoomExecutor()).withRoomProps(timed)
+                        .withTimers((task, delayMs) -> { armed.add(task); return () -> true; }));
+    }
+
+    private static RoomSnapshot snapshot(Room r) {
+        List<PlayerState> players = r.players().values().stream()
+                .map(p -> new PlayerState(p.id(), p.name(), p.status(), p.attemptsLeft(), List.copyOf(p.history()), p.finishedAt()))
+                .toList();
+        List<StandingState> standings = r.standings().stream()
+                .map(s -> new StandingState(s.player().id(), s.rank(), s.attemptsUsed(), s.elapsedSeconds(), s.joinSeq()))
+                .toList();
+        return new RoomSnapshot(r.roomId(), r.state(), r.createdAt(), r.startedAt(), r.finishedAt(),
+                r.secret() == null ? null : r.secret().digits(), players, standings,
+                r.inProgressCount(), r.wonCount(), r.lostCount());
+    }
+}
@@ -4,15 +4,22 @@ import com.nikoladesnica.mastermind.domain.errors.BadRequestException;
 import com.nikoladesnica.mastermind.domain.errors.ForbiddenException;
 import com.nikoladesnica.mastermind.domain.errors.NotFoundException;
 import com.nikoladesnica.mastermind.domain.model.*;
+import com.nikoladesnica.mastermind.domain.ports.ActivityListener;
 import com.nikoladesnica.mastermind.domain.ports.RoomRepository;
 import com.nikoladesnica.mastermind.domain.ports.SecretCodeGenerator;
 import com.nikoladesnica.mastermind.domain.service.GuessEvaluator;
 import com.nikoladesnica.mastermind.domain.service.RoomService;
 import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.infra.config.RoomProperties;
+import com.nikoladesnica.mastermind.infra.exec.LockingRoomExecutor;
 import com.nikoladesnica.mastermind.infra.repo.InMemoryRoomRepository;
+import com.nikoladesnica.mastermind.infra.stats.MeteredActivity;
+import com.nikoladesnica.mastermind.util.Meters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -40,7 +47,7 @@ class RoomServiceTest {
         );
         generator = () -> new Code(List.of(0, 1, 3, 2), 4, 0, 7, true);
         evaluator = new GuessEvaluator();
-        service = new RoomService(rooms, generator, evaluator, props);
+        service = new RoomService(rooms, generator, evaluator, props, RoomService.Dependencies.of(new LockingRoomExecutor()));
     }
 
     @Test
@@ -255,4 +262,161 @@ class RoomServiceTest {
         assertTrue(after.players().containsKey(a.id()));
         assertFalse(after.players().containsKey(b.id()));
     }
+
+    @Test
+    void standings_and_counters_track_every_guess() {
+        Room room = service.createRoom();
+        UUID roomId = room.roomId();
+        Player a = service.join(roomId, "A");
+        Player b = service.join(roomId, "B");
+        Player c = service.join(roomId, "C");
+        service.start(roomId, room.hostToken());
+        assertEquals(3, room.inProgressCount());
+
+        // B burns two attempts, A one: fewer attempts used ranks higher while in progress
+        service.guess(roomId, b.id(), b.token(), List.of(0, 0, 0, 0));
+        service.guess(roomId, b.id(), b.token(), List.of(0, 0, 0, 0));
+        service.guess(roomId, a.id(), a.token(), List.of(0, 0, 0, 0));
+        assertEquals(List.of("C", "A", "B"), names(room));
+
+        // C leaves (LOST) -> last; B wins -> first
+        service.leave(roomId, c.id(), c.token());
+        service.guess(roomId, b.id(), b.token(), List.of(0, 1, 3, 2));
+        assertEquals(List.of("B", "A", "C"), names(room));
+        assertEquals(1, room.wonCount());
+        assertEquals(1, room.lostCount());
+        assertEquals(1, room.inProgressCount());
+        assertEquals(RoomState.FINISHED, room.state());
+    }
+
+    @Test
+    void room_commands_and_lock_waits_are_metered() {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        RoomService metered = new RoomService(rooms, generator, evaluator, props,
+                RoomService.Dependencies.of(new LockingRoomExecutor(16, 0, meters))
+                        .withActivity(new MeteredActivity(meters)));
+
+        Room room = metered.createRoom();
+        Player a = metered.join(room.roomId(), "A");
+        metered.start(room.roomId(), room.hostToken());
+        metered.guess(room.roomId(), a.id(), a.token(), List.of(0, 0, 0, 0));
+
+        assertEquals(1, meters.get(Meters.ROOM_COMMAND).tag("command", "join").timer().count());
+        assertEquals(1, meters.get(Meters.ROOM_COMMAND).tag("command", "start").timer().count());
+        assertEquals(1, meters.get(Meters.ROOM_COMMAND).tag("command", "guess").timer().count());
+        assertEquals(3, meters.get(Meters.ROOM_LOCK_WAIT).timer().count());
+    }
+
+    @Test
+    void join_beyond_max_players_is_rejected() {
+        RoomProperties d = RoomProperties.defaults();
+        RoomProperties limited = new RoomProperties(d.execution(), d.lockStripes(), d.mailboxThreads(),
+                d.mailboxCapacity(), d.commandTimeoutMs(), 2, d.raceTimeoutMs(), d.idleTimeoutMs(), d.timerTickMs());
+        RoomService small = new RoomService(rooms, generator, evaluator, props,
+                RoomService.Dependencies.of(new LockingRoomExecutor()).withRoomProps(limited));
+
+        Room room = small.createRoom();
+        small.join(room.roomId(), "A");
+        small.join(room.roomId(), "B");
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> small.join(room.roomId(), "C"));
+        assertTrue(ex.getMessage().contains("full"));
+    }
+
+    private static List<String> names(Room room) {
+        return room.standings().stream().map(s -> s.player().name()).toList();
+    }
+
+    @Test
+    void race_deadline_marks_remaining_players_lost_and_finishes_room() {
+        List<Runnable> fired = new java.util.ArrayList<>();
+        RoomProperties d = RoomProperties.defaults();
+        RoomProperties timed = new RoomProperties(d.execution(), d.lockStripes(), d.mailboxThreads(),
+                d.mailboxCapacity(), d.commandTimeoutMs(), d.maxPlayers(), 60_000, 0, d.timerTickMs());
+        RoomService svc = new RoomService(rooms, generator, evaluator, props,
+                RoomService.Dependencies.of(new LockingRoomExecutor()).withRoomProps(timed)
+                        .withTimers((task, delayMs) -> { fired.add(task); return () -> true; }));
+
+        Room room = svc.createRoom();
+        Player a = svc.join(room.roomId(), "A");
+        Player b = svc.join(room.roomId(), "B");
+        svc.start(room.roomId(), room.hostToken());
+        assertEquals(room.startedAt().plusSeconds(60), room.deadlineAt());
+        svc.guess(room.roomId(), a.id(), a.token(), List.of(0, 0, 0, 0));
+
+        assertEquals(1, fired.size());
+        fired.get(0).run(); // deadline passes
+
+        assertEquals(RoomState.FINISHED, room.state());
+        assertEquals(GameStatus.LOST, a.status());
+        assertEquals(GameStatus.LOST, b.status());
+        assertEquals(1, a.history().size(), "history is kept, as on leave");
+        assertEquals(2, room.lostCount());
+    }
+
+    @Test
+    void each_finished_game_and_room_is_reported_once() {
+        List<Runnable> fired = new java.util.ArrayList<>();
+        List<GameResult> games = new java.util.ArrayList<>();
+        List<RoomResult> finished = new java.util.ArrayList<>();
+        RoomProperties d = RoomProperties.defaults();
+        RoomProperties timed = new RoomProperties(d.execution(), d.lockStripes(), d.mailboxThreads(),
+                d.mailboxCapacity(), d.commandTimeoutMs(), d.maxPlayers(), 60_000, 0, d.timerTickMs());
+        RoomService svc = new RoomService(rooms, generator, evaluator, props,
+                RoomService.Dependencies.of(new LockingRoomExecutor()).withRoomProps(timed)
+                        .withTimers((task, delayMs) -> { fired.add(task); return () -> true; })
+                        .withActivity(new ActivityListener() {
+                            @Override public void gameFinished(GameResult result) { games.add(result); }
+                            @Override public void roomFinished(RoomResult result) { finished.add(result); }
+                        }));
+
+        Room room = svc.createRoom();
+        Player a = svc.join(room.roomId(), "A");
+        Player b = svc.join(room.roomId(), "B");
+        Player c = svc.join(room.roomId(), "C");
+        svc.start(room.roomId(), room.hostToken());
+        svc.guess(room.roomId(), a.id(), a.token(), List.of(7, 0, 0, 0));
+        svc.leave(room.roomId(), b.id(), b.token());
+        svc.guess(room.roomId(), c.id(), c.token(), List.of(6, 6, 6, 6));
+        svc.leave(room.roomId(), c.id(), c.token());
+        fired.get(0).run(); // deadline: a loses, then the loop passes over the already finished b and c
+
+        assertEquals(List.of(new RoomResult(3, 0, Duration.between(room.startedAt(), room.finishedAt()))), finished);
+        assertEquals(3, games.size());
+        assertNull(games.get(0).opening(), "b left without guessing");
+        assertEquals(List.of(6, 6, 6, 6), games.get(1).opening());
+        assertEquals(List.of(7, 0, 0, 0), games.get(2).opening());
+        games.forEach(g -> {
+            assertTrue(g.inRoom());
+            assertFalse(g.won());
+            assertEquals(props.label(), g.config());
+        });
+    }
+
+    @Test
+    void idle_player_loses_but_active_player_is_rearmed() throws Exception {
+        List<Runnable> armed = new java.util.ArrayList<>();
+        RoomProperties d = RoomProperties.defaults();
+        RoomProperties timed = new RoomProperties(d.execution(), d.lockStripes(), d.mailboxThreads(),
+                d.mailboxCapacity(), d.commandTimeoutMs(), d.maxPlayers(), 0, 50, d.timerTickMs());
+        RoomService svc = new RoomService(rooms, generator, evaluator, props,
+                RoomService.Dependencies.of(new LockingRoomExecutor()).withRoomProps(timed)
+                        .withTimers((task, delayMs) -> { armed.add(task); return () -> true; }));
+
+        Room room = svc.createRoom();
+        Player idle = svc.join(room.roomId(), "Idle");
+        Player busy = svc.join(room.roomId(), "Busy");
+        svc.start(room.roomId(), room.hostToken());
+        assertEquals(2, armed.size());
+
+        Thread.sleep(60);
+        svc.guess(room.roomId(), busy.id(), busy.token(), List.of(0, 0, 0, 0));
+        List<Runnable> due = List.copyOf(armed);
+        armed.clear();
+        due.forEach(Runnable::run);
+
+        assertEquals(GameStatus.LOST, idle.status());
+        assertEquals(GameStatus.IN_PROGRESS, busy.status());
+        assertEquals(1, armed.size(), "busy player's timer re-armed for the remaining time");
+        assertEquals(RoomState.RUNNING, room.state());
+    }
 }
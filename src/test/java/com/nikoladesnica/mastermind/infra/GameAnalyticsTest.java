@@ -0,0 +1,98 @@
+package com.nikoladesnica.mastermind.infra;
+
+import com.nikoladesnica.mastermind.domain.model.GameResult;
+import com.nikoladesnica.mastermind.domain.model.RoomResult;
+import com.nikoladesnica.mastermind.infra.stats.GameAggregates;
+import com.nikoladesnica.mastermind.infra.stats.GameAnalytics;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameAnalyticsTest {
+
+    private static final String CONFIG = "4 digits 0-7, repeats, 10 attempts";
+    private static final List<Integer> FAVOURITE = List.of(0, 1, 2, 3);
+
+    @Test
+    void aggregates_count_attempts_win_rates_and_room_solve_times() {
+        GameAggregates a = new GameAggregates();
+        a.add(result(false, true, 3, FAVOURITE));
+        a.add(result(false, true, 3, FAVOURITE));
+        a.add(result(false, false, 10, FAVOURITE));
+        a.add(result(true, true, 5, List.of(7, 7, 7, 7)));
+        a.add(result(true, false, 2, null)); // left before guessing
+        a.add(new RoomResult(2, 1, Duration.ofMillis(4_000)));
+        a.add(new RoomResult(3, 0, Duration.ofMillis(60_000)));
+        a.add(new RoomResult(2, 1, Duration.ofMillis(2_000)));
+
+        GameAggregates.Snapshot s = a.snapshot();
+        assertEquals(5, s.gamesFinished());
+        assertEquals(3, s.gamesWon());
+        assertArrayEquals(new long[]{0, 0, 0, 2, 0, 1}, s.attemptsToWin());
+        assertEquals(List.of(
+                new GameAggregates.ConfigStats("single", CONFIG, 3, 2),
+                new GameAggregates.ConfigStats("room", CONFIG, 2, 1)), s.byConfig());
+        assertEquals(new GameAggregates.Opening(FAVOURITE, 3, 0), s.topOpenings().get(0));
+        assertEquals(new GameAggregates.RoomSolve(3, 2, 6_000, 4_000), s.rooms());
+    }
+
+    @Test
+    void heavy_hitter_openings_are_found_in_bounded_memory_and_survive_a_merge() {
+        SplittableRandom random = new SplittableRandom(3);
+        GameAggregates left = new GameAggregates(), right = new GameAggregates(), whole = new GameAggregates();
+        int favourite = 0, games = 20_000;
+        for (int i = 0; i < games; i++) {
+            List<Integer> opening = random.nextInt(5) == 0 ? FAVOURITE // 20%; the other 4096 openings are spread thin
+                    : List.of(random.nextInt(8), random.nextInt(8), random.nextInt(8), random.nextInt(8));
+            if (opening.equals(FAVOURITE)) favourite++;
+            GameResult r = result(false, i % 2 == 0, 1 + i % 10, opening);
+            (i % 2 == 0 ? left : right).add(r);
+            whole.add(r);
+        }
+        left.merge(right);
+
+        for (GameAggregates.Snapshot s : List.of(whole.snapshot(), left.snapshot())) {
+            GameAggregates.Opening top = s.topOpenings().get(0);
+            assertEquals(FAVOURITE, top.digits());
+            assertTrue(top.count() >= favourite, "never undercounts");
+            assertTrue(top.count() - top.error() <= favourite, "error bounds the overcount");
+            assertTrue(s.topOpenings().size() <= 10);
+            assertEquals(games, s.gamesFinished());
+            assertEquals(games / 2, s.gamesWon());
+        }
+        assertArrayEquals(whole.snapshot().attemptsToWin(), left.snapshot().attemptsToWin());
+        assertEquals(whole.snapshot().byConfig(), left.snapshot().byConfig());
+    }
+
+    @Test
+    void pipeline_aggregates_off_the_caller_thread_and_accounts_for_every_result() throws Exception {
+        try (GameAnalytics analytics = new GameAnalytics(64)) {
+            int total = 50_000;
+            for (int i = 0; i < total; i++) analytics.gameFinished(result(false, true, 4, FAVOURITE));
+            analytics.roomFinished(new RoomResult(2, 1, Duration.ofSeconds(1)));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (aggregated(analytics) + analytics.dropped() < total + 1) {
+                assertTrue(System.nanoTime() < deadline, "analytics did not catch up");
+                Thread.sleep(5);
+            }
+            GameAggregates.Snapshot s = analytics.snapshot();
+            assertEquals(total + 1, aggregated(analytics) + analytics.dropped(), "every result is aggregated or counted as dropped");
+            assertEquals(0, analytics.pending());
+            assertEquals(s.gamesFinished(), s.attemptsToWin()[4]);
+        }
+    }
+
+    private static long aggregated(GameAnalytics analytics) {
+        GameAggregates.Snapshot s = analytics.snapshot();
+        return s.gamesFinished() + s.rooms().finished();
+    }
+
+    private static GameResult result(boolean inRoom, boolean won, int attempts, List<Integer> opening) {
+        return new GameResult(inRoom, CONFIG, won, attempts, opening, Duration.ofSeconds(attempts));
+    }
+}
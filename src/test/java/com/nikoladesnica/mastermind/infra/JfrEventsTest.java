@@ -0,0 +1,124 @@
+package com.nikoladesnica.mastermind.infra;
+
+import com.nikoladesnica.mastermind.domain.model.Game;
+import com.nikoladesnica.mastermind.domain.model.Player;
+import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.model.RoomState;
+import com.nikoladesnica.mastermind.domain.ports.ActivityListener;
+import com.nikoladesnica.mastermind.domain.ports.Instrumentation;
+import com.nikoladesnica.mastermind.domain.service.AccountService;
+import com.nikoladesnica.mastermind.domain.service.GameService;
+import com.nikoladesnica.mastermind.domain.service.GuessEvaluator;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.infra.exec.LockingRoomExecutor;
+import com.nikoladesnica.mastermind.infra.generator.LocalCodeGenerator;
+import com.nikoladesnica.mastermind.infra.jfr.JfrInstrumentation;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryAccountHistory;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryAccountRepository;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryGameRepository;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryLeaderboard;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryRoomRepository;
+import com.nikoladesnica.mastermind.infra.repo.InMemorySessionRepository;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEventsTest {
+
+    // Digits 0..0: every secret is [0,0,0,0], so the first guess of it wins
+    private static final GameProperties PROPS = new GameProperties(4, 0, 0, 10, true, false, null);
+
+    @Test
+    void gameplay_events_are_recorded_with_the_shipped_profile(@TempDir Path dir) throws Exception {
+        Configuration profile;
+        try (Reader jfc = new InputStreamReader(getClass().getResourceAsStream("/jfr/mastermind.jfc"), StandardCharsets.UTF_8)) {
+            profile = Configuration.create(jfc);
+        }
+
+        LocalCodeGenerator generator = new LocalCodeGenerator(PROPS);
+        Instrumentation jfr = new JfrInstrumentation();
+        GameService games = new GameService(new InMemoryGameRepository(), generator, new GuessEvaluator(), PROPS,
+                GameService.Dependencies.defaults().withInstrumentation(jfr));
+        RoomService rooms = new RoomService(new InMemoryRoomRepository(), generator, new GuessEvaluator(), PROPS,
+                RoomService.Dependencies.of(new LockingRoomExecutor()).withInstrumentation(jfr));
+        AccountService accounts = new AccountService(new InMemoryAccountRepository(), new InMemorySessionRepository(),
+                new InMemoryLeaderboard(10), ActivityListener.NONE, jfr, new InMemoryAccountHistory());
+
+        Path file = dir.resolve("mastermind.jfr");
+        UUID gameId;
+        Room room;
+        UUID accountId;
+        try (Recording recording = new Recording(profile)) {
+            recording.start();
+
+            Game game = games.startGame();
+            gameId = game.id();
+            games.submitGuess(gameId, List.of(0, 0, 0, 0));
+
+            room = rooms.createRoom();
+            Player p = rooms.join(room.roomId(), "P");
+            rooms.start(room.roomId(), room.hostToken());
+            rooms.guess(room.roomId(), p.id(), p.token(), List.of(0, 0, 0, 0));
+            assertEquals(RoomState.FINISHED, rooms.get(room.roomId()).state());
+
+            accountId = accounts.createAccount("jfr-user", "secret123");
+            accounts.login("jfr-user", "secret123");
+            accounts.recordWin(accountId);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, List<RecordedEvent>> byName = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().startsWith("mastermind."))
+                .collect(Collectors.groupingBy(e -> e.getEventType().getName()));
+
+        assertEquals(gameId.toString(), only(byName, "mastermind.GameStarted").getString("gameId"));
+
+        List<RecordedEvent> guesses = byName.get("mastermind.GuessEvaluated");
+        assertEquals(2, guesses.size());
+        Map<Boolean, RecordedEvent> byKind = guesses.stream()
+                .collect(Collectors.toMap(e -> e.getString("roomId") != null, Function.identity()));
+        assertEquals(gameId.toString(), byKind.get(false).getString("gameId"));
+        assertEquals(room.roomId().toString(), byKind.get(true).getString("roomId"));
+        assertTrue(byKind.get(true).getBoolean("won"));
+        assertEquals(1, byKind.get(true).getInt("attempt"));
+
+        assertEquals(1, only(byName, "mastermind.RoomStarted").getInt("players"));
+        assertEquals(1, only(byName, "mastermind.RoomFinished").getInt("winners"));
+
+        List<RecordedEvent> secrets = byName.get("mastermind.SecretGenerated");
+        assertEquals(2, secrets.size()); // one per game and one per room
+        assertTrue(secrets.stream().allMatch(e -> "local".equals(e.getString("source")) && !e.getBoolean("fallback")));
+
+        List<String> hashes = byName.get("mastermind.PasswordHash").stream().map(e -> e.getString("operation")).toList();
+        assertEquals(List.of("signup", "login"), hashes);
+
+        RecordedEvent win = only(byName, "mastermind.LeaderboardUpdate");
+        assertEquals(accountId.toString(), win.getString("accountId"));
+        assertEquals(1, win.getInt("score"));
+    }
+
+    private static RecordedEvent only(Map<String, List<RecordedEvent>> byName, String name) {
+        List<RecordedEvent> events = byName.get(name);
+        assertNotNull(events, name + " not recorded");
+        assertEquals(1, events.size(), name);
+        return events.get(0);
+    }
+}
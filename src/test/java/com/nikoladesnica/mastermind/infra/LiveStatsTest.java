@@ -0,0 +1,127 @@
+package com.nikoladesnica.mastermind.infra;
+
+import com.nikoladesnica.mastermind.domain.model.GameResult;
+import com.nikoladesnica.mastermind.domain.model.RoomResult;
+import com.nikoladesnica.mastermind.infra.stats.LiveStats;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveStatsTest {
+
+    private static final GameResult WIN = new GameResult(false, "4 digits 0-7, repeats, 10 attempts", true, 5,
+            List.of(0, 1, 2, 3), Duration.ofSeconds(20));
+
+    private final AtomicLong nanos = new AtomicLong(1_000);
+    private final LiveStats stats = new LiveStats(nanos::get);
+
+    @Test
+    void rates_cover_completed_seconds_of_each_window_and_old_seconds_roll_off() {
+        for (int second = 0; second < 120; second++) {
+            for (int i = 0; i < 10; i++) stats.guessed(2_000);
+            if (second % 2 == 0) stats.gameFinished(WIN);
+            advanceSeconds(1);
+        }
+        stats.guessed(2_000); // current second: not counted until it completes
+
+        LiveStats.Snapshot s = stats.snapshot();
+        assertEquals(120, s.uptimeSeconds());
+        assertEquals(10.0, s.windows().get("1m").guessesPerSecond());
+        assertEquals(0.5, s.windows().get("1m").winsPerSecond());
+        assertEquals(10.0, s.windows().get("5m").guessesPerSecond(), "divided by uptime while it is shorter");
+
+        advanceSeconds(120);
+        s = stats.snapshot();
+        assertEquals(0.0, s.windows().get("1m").guessesPerSecond());
+        assertEquals(1201 / 240.0, s.windows().get("5m").guessesPerSecond(), 0.01);
+
+        advanceSeconds(60 * 60); // several laps of the ring later
+        stats.gameStarted();
+        advanceSeconds(1);
+        s = stats.snapshot();
+        assertEquals(0.0, s.windows().get("15m").guessesPerSecond());
+        assertEquals(0, s.windows().get("15m").guessLatency().count());
+        assertEquals(1 / 60.0, s.windows().get("1m").gamesStartedPerSecond(), 0.01);
+    }
+
+    @Test
+    void p99_latency_is_within_a_bucket_of_the_true_value() {
+        for (int i = 1; i <= 1000; i++) stats.guessed(i * 1_000L); // 1..1000 us: p50 = 500, p99 = 990
+        LiveStats.Latency latency = stats.snapshot().windows().get("1m").guessLatency();
+        assertEquals(1000, latency.count());
+        assertEquals(500, latency.p50Micros(), 500 * 0.07);
+        assertEquals(990, latency.p99Micros(), 990 * 0.07);
+    }
+
+    @Test
+    void rooms_running_follows_starts_and_finishes() {
+        stats.roomStarted();
+        stats.roomStarted();
+        stats.roomFinished(new RoomResult(2, 1, Duration.ofSeconds(30)));
+        advanceSeconds(1);
+        LiveStats.Snapshot s = stats.snapshot();
+        assertEquals(1, s.roomsRunning());
+        assertEquals(2.0, s.windows().get("1m").roomsStartedPerSecond());
+        assertEquals(1.0, s.windows().get("1m").roomsFinishedPerSecond());
+    }
+
+    @Test
+    void concurrent_recording_loses_nothing() throws Exception {
+        int threads = 8, perThread = 50_000;
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread w = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    stats.guessed(1_000 + i);
+                    stats.gameFinished(WIN);
+                }
+            });
+            workers.add(w);
+            w.start();
+        }
+        go.countDown();
+        for (Thread w : workers) w.join(TimeUnit.SECONDS.toMillis(30));
+
+        advanceSeconds(1);
+        LiveStats.Window w = stats.snapshot().windows().get("1m");
+        assertEquals(threads * perThread, w.guessLatency().count());
+        assertEquals((double) threads * perThread, w.guessesPerSecond());
+        assertEquals((double) threads * perThread, w.winsPerSecond());
+    }
+
+    @Test
+    void recording_does_not_allocate() {
+        LiveStats real = new LiveStats();
+        for (int i = 0; i < 20_000; i++) record(real, i); // warm up
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) record(real, i);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertTrue(allocated < 1024, "recording allocated " + allocated + " bytes");
+    }
+
+    private static void record(LiveStats stats, int i) {
+        stats.guessed(i);
+        stats.gameStarted();
+        stats.gameFinished(WIN);
+        stats.loggedIn();
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
@@ -0,0 +1,64 @@
+package com.nikoladesnica.mastermind.infra;
+
+import com.nikoladesnica.mastermind.domain.ports.DeadlineScheduler;
+import com.nikoladesnica.mastermind.infra.exec.TimingWheel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    // 100us ticks: 64 ticks = 6.4ms, 4096 ticks = 410ms, so short delays exercise three levels
+    private final TimingWheel wheel = new TimingWheel(Duration.ofNanos(100_000), Runnable::run);
+
+    @AfterEach
+    void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    void timers_on_every_level_fire_and_never_early() throws Exception {
+        long[] delaysMs = {0, 1, 5, 30, 200, 600};
+        CountDownLatch done = new CountDownLatch(delaysMs.length);
+        ConcurrentHashMap<Long, Long> lateness = new ConcurrentHashMap<>();
+        for (long d : delaysMs) {
+            long scheduledAt = System.nanoTime();
+            wheel.schedule(() -> {
+                lateness.put(d, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scheduledAt) - d);
+                done.countDown();
+            }, d);
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        lateness.forEach((d, late) -> assertTrue(late >= 0, "timer " + d + "ms fired early by " + (-late) + "ms"));
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void cancelled_timer_never_fires() throws Exception {
+        AtomicBoolean fired = new AtomicBoolean();
+        DeadlineScheduler.Timer t = wheel.schedule(() -> fired.set(true), 20);
+        assertTrue(t.cancel());
+        assertFalse(t.cancel(), "second cancel is a no-op");
+
+        CountDownLatch later = new CountDownLatch(1);
+        wheel.schedule(later::countDown, 60);
+        assertTrue(later.await(2, TimeUnit.SECONDS));
+        assertFalse(fired.get());
+    }
+
+    @Test
+    void many_timers_share_one_thread() throws Exception {
+        int n = 200_000;
+        CountDownLatch done = new CountDownLatch(n);
+        for (int i = 0; i < n; i++) wheel.schedule(done::countDown, i % 500);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, wheel.pending());
+    }
+}
@@ -0,0 +1,56 @@
+package com.nikoladesnica.mastermind.stress;
+
+import com.nikoladesnica.mastermind.domain.model.Account;
+import com.nikoladesnica.mastermind.domain.service.AccountService;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryAccountHistory;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryAccountRepository;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryLeaderboard;
+import com.nikoladesnica.mastermind.infra.repo.InMemorySessionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Wins and losses for the same accounts recorded from many requests at once: none may be lost. */
+class AccountStressTest {
+
+    @Test
+    void concurrent_results_on_shared_accounts_are_all_counted() {
+        Stress stress = new Stress("account results: final leaderboard leader");
+        int threads = 8, perThread = 500;
+
+        for (int it = 0, n = Stress.iterations(20); it < n; it++) {
+            InMemoryAccountRepository accounts = new InMemoryAccountRepository();
+            InMemoryLeaderboard leaderboard = new InMemoryLeaderboard(2);
+            AccountService service = new AccountService(accounts, new InMemorySessionRepository(), leaderboard,
+                    new InMemoryAccountHistory());
+            Account a = accounts.save(new Account("a", new byte[0], new byte[0], 1));
+            Account b = accounts.save(new Account("b", new byte[0], new byte[0], 1));
+
+            Runnable[] actors = new Runnable[threads];
+            for (int t = 0; t < threads; t++) {
+                Account mine = t % 2 == 0 ? a : b;
+                actors[t] = () -> {
+                    for (int i = 0; i < perThread; i++) {
+                        service.recordWin(a.id());
+                        service.recordLoss(mine.id());
+                        if (i % 2 == 0) service.recordWin(b.id());
+                    }
+                };
+            }
+            Stress.race(actors);
+
+            int total = threads * perThread;
+            assertEquals(total, a.wins());
+            assertEquals(total / 2, b.wins());
+            assertEquals(total, a.losses() + b.losses());
+            assertEquals(total, leaderboard.getScore(a.id()));
+            assertEquals(total / 2, leaderboard.getScore(b.id()));
+            List<?> top = leaderboard.topK(2);
+            assertEquals(2, top.size());
+            stress.outcome("top: " + (leaderboard.topK(1).get(0).accountId().equals(a.id()) ? "a" : "b"));
+        }
+        stress.print();
+    }
+}
@@ -0,0 +1,106 @@
+package com.nikoladesnica.mastermind.stress;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.nikoladesnica.mastermind.api.GameController.Mappers;
+import com.nikoladesnica.mastermind.api.GameProjection;
+import com.nikoladesnica.mastermind.api.dto.GameView;
+import com.nikoladesnica.mastermind.domain.model.Code;
+import com.nikoladesnica.mastermind.domain.model.Game;
+import com.nikoladesnica.mastermind.domain.model.GameStatus;
+import com.nikoladesnica.mastermind.domain.service.GameService;
+import com.nikoladesnica.mastermind.domain.service.GuessEvaluator;
+import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryGameRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Retries and double submits on one single-player game (single and batch guesses) racing with readers that
+ * map and serialize views without any lock, as GET /api/games/{id} does.
+ */
+class GameStressTest {
+
+    private static final List<Integer> SECRET = List.of(0, 1, 3, 2);
+    private static final GameProperties PROPS = new GameProperties(4, 0, 7, 10, true, false, null);
+
+    private final ObjectMapper json = JsonMapper.builder().findAndAddModules().build();
+
+    @Test
+    void concurrent_guesses_apply_exactly_once_and_readers_see_consistent_views() {
+        GameService service = new GameService(new InMemoryGameRepository(), () -> new Code(SECRET, 4, 0, 7, true),
+                new GuessEvaluator(), PROPS);
+        Stress stress = new Stress("single-player game: end state");
+        SplittableRandom seeds = new SplittableRandom(11);
+
+        for (int it = 0, n = Stress.iterations(500); it < n; it++) {
+            Game game = service.startGame();
+            Runnable[] actors = new Runnable[5];
+            for (int a = 0; a < 3; a++) {
+                SplittableRandom random = seeds.split();
+                actors[a] = () -> {
+                    for (int i = 0; i < 5; i++) service.submitGuess(game.id(), guess(random));
+                };
+            }
+            SplittableRandom batchRandom = seeds.split();
+            actors[3] = () -> service.submitBatch(List.of(
+                    new GameService.BatchGuess(game.id(), guess(batchRandom)),
+                    new GameService.BatchGuess(game.id(), guess(batchRandom)),
+                    new GameService.BatchGuess(game.id(), guess(batchRandom))), outcome -> assertNull(outcome.error()));
+            actors[4] = () -> {
+                int lastCount = 0;
+                for (int i = 0; i < 50; i++) {
+                    GameView full = Mappers.view(game, GameProjection.FULL);
+                    assertEquals(full.historyCount(), full.history().size());
+                    assertTrue(full.historyCount() >= lastCount, "history shrank");
+                    assertTrue(full.historyCount() <= PROPS.attempts());
+                    // One snapshot: count, attempts and status always belong to the same guess
+                    assertEquals(PROPS.attempts() - full.attemptsLeft(), full.historyCount(), "torn view");
+                    int seen = full.historyCount();
+                    boolean won = seen > 0 && full.history().get(seen - 1).correctPositions() == 4;
+                    assertEquals((won ? GameStatus.WON : seen == PROPS.attempts() ? GameStatus.LOST : GameStatus.IN_PROGRESS)
+                            .name(), full.status(), "torn view");
+                    full.history().forEach(e -> assertNotNull(e.guess()));
+                    lastCount = full.historyCount();
+                    serialize(full);
+                    serialize(Mappers.view(game, GameProjection.LATEST));
+                    serialize(Mappers.view(game, new GameProjection(GameProjection.Mode.RANGE, 2, 3)));
+                }
+            };
+            Stress.race(actors);
+
+            int count = game.historyCount();
+            assertEquals(PROPS.attempts() - game.attemptsLeft(), count, "every applied guess used exactly one attempt");
+            List<Game.Entry> history = game.history();
+            assertEquals(count, history.size());
+            for (int i = 0; i < count - 1; i++) {
+                assertNotEquals(4, history.get(i).feedback().correctPositions(), "no guess is applied after a win");
+            }
+            boolean wonLast = count > 0 && history.get(count - 1).feedback().correctPositions() == 4;
+            assertEquals(wonLast ? GameStatus.WON : count == PROPS.attempts() ? GameStatus.LOST : GameStatus.IN_PROGRESS,
+                    game.status());
+            assertEquals(game.status() != GameStatus.IN_PROGRESS, game.finishedAt() != null);
+            stress.outcome(game.status() + " after " + (count < 10 ? " " : "") + count);
+        }
+        stress.print();
+    }
+
+    // Mostly misses, sometimes the secret, so games end both ways
+    private static List<Integer> guess(SplittableRandom random) {
+        return random.nextInt(12) == 0 ? SECRET : List.of(7, random.nextInt(8), 7, random.nextInt(8));
+    }
+
+    private void serialize(GameView view) {
+        try {
+            json.writeValueAsBytes(view);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
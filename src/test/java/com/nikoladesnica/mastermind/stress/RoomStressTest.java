@@ -0,0 +1,226 @@
+package com.nikoladesnica.mastermind.stress;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.nikoladesnica.mastermind.api.RoomController.Mappers;
+import com.nikoladesnica.mastermind.api.dto.RoomView;
+import com.nikoladesnica.mastermind.domain.model.Account;
+import com.nikoladesnica.mastermind.domain.model.Code;
+import com.nikoladesnica.mastermind.domain.model.GameStatus;
+import com.nikoladesnica.mastermind.domain.model.Player;
+import com.nikoladesnica.mastermind.domain.model.Room;
+import com.nikoladesnica.mastermind.domain.model.RoomState;
+import com.nikoladesnica.mastermind.domain.model.Standing;
+import com.nikoladesnica.mastermind.domain.ports.RoomCommandExecutor;
+import com.nikoladesnica.mastermind.domain.service.AccountService;
+import com.nikoladesnica.mastermind.domain.service.GuessEvaluator;
+import com.nikoladesnica.mastermind.domain.service.RoomService;
+import com.nikoladesnica.mastermind.infra.config.GameProperties;
+import com.nikoladesnica.mastermind.infra.config.RoomProperties;
+import com.nikoladesnica.mastermind.infra.exec.LockingRoomExecutor;
+import com.nikoladesnica.mastermind.infra.exec.MailboxRoomExecutor;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryAccountHistory;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryAccountRepository;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryLeaderboard;
+import com.nikoladesnica.mastermind.infra.repo.InMemoryRoomRepository;
+import com.nikoladesnica.mastermind.infra.repo.InMemorySessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lobby churn and races hammered from several threads at once, under both room execution modes, with views
+ * mapped and serialized concurrently the way the controllers do it. Any unexpected exception (including a
+ * ConcurrentModificationException while mapping) fails the iteration, as does a broken invariant.
+ */
+class RoomStressTest {
+
+    private static final List<Integer> SECRET = List.of(0, 1, 3, 2);
+    private static final List<Integer> MISS = List.of(7, 7, 7, 7);
+    private static final GameProperties PROPS = new GameProperties(4, 0, 7, 10, true, false, null);
+
+    private final ObjectMapper json = JsonMapper.builder().findAndAddModules().build();
+    private RoomCommandExecutor executor;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (executor instanceof AutoCloseable c) c.close();
+    }
+
+    private RoomService service(RoomProperties.Execution execution) {
+        executor = execution == RoomProperties.Execution.MAILBOX
+                ? new MailboxRoomExecutor(4, 1024, 10_000)
+                : new LockingRoomExecutor(1024, 0);
+        return new RoomService(new InMemoryRoomRepository(), () -> new Code(SECRET, 4, 0, 7, true), new GuessEvaluator(),
+                PROPS, RoomService.Dependencies.of(executor));
+    }
+
+    @ParameterizedTest
+    @EnumSource(RoomProperties.Execution.class)
+    void lobby_churn_keeps_players_counters_and_standings_consistent(RoomProperties.Execution execution) {
+        RoomService service = service(execution);
+        Stress stress = new Stress("lobby churn (" + execution + "): players seen by a concurrent viewer");
+
+        for (int it = 0, n = Stress.iterations(300); it < n; it++) {
+            Room room = service.createRoom();
+            List<Player> seeded = new ArrayList<>();
+            for (int i = 0; i < 8; i++) seeded.add(service.join(room.roomId(), "S" + i));
+            List<Player> joined = Collections.synchronizedList(new ArrayList<>());
+            AtomicInteger minSeen = new AtomicInteger(Integer.MAX_VALUE), maxSeen = new AtomicInteger();
+
+            Stress.race(
+                    () -> {
+                        for (int i = 0; i < 8; i++) joined.add(service.join(room.roomId(), "J" + i));
+                    },
+                    () -> {
+                        for (int i = 0; i < 4; i++) service.kick(room.roomId(), room.hostToken(), seeded.get(i).id());
+                    },
+                    () -> {
+                        for (int i = 4; i < 8; i++) service.leave(room.roomId(), seeded.get(i).id(), seeded.get(i).token());
+                    },
+                    () -> {
+                        Player viewer = seeded.get(0); // kicked at some point: falls back to the leaderboard
+                        for (int i = 0; i < 40; i++) {
+                            RoomView board = service.read(room, Mappers::leaderboardView);
+                            minSeen.accumulateAndGet(board.leaderboard().size(), Math::min);
+                            maxSeen.accumulateAndGet(board.leaderboard().size(), Math::max);
+                            serialize(board);
+                            serialize(service.read(room, r -> Mappers.playerView(r, viewer.id(), viewer.token())));
+                            serialize(service.read(room, Mappers::spectatorView));
+                        }
+                    });
+
+            service.start(room.roomId(), room.hostToken());
+            Set<UUID> expected = new HashSet<>();
+            joined.forEach(p -> expected.add(p.id()));
+            service.read(room, r -> {
+                assertEquals(expected, r.players().keySet(), "exactly the late joiners remain");
+                assertEquals(8, r.inProgressCount());
+                assertEquals(0, r.wonCount() + r.lostCount());
+                assertEquals(8, r.standings().size(), "one standing per player, none left behind by kick/leave");
+                return null;
+            });
+            stress.outcome(bucket(minSeen.get()) + ".." + bucket(maxSeen.get()) + " players");
+        }
+        stress.print();
+    }
+
+    @ParameterizedTest
+    @EnumSource(RoomProperties.Execution.class)
+    void racing_players_produce_one_recorded_winner_and_monotonic_state(RoomProperties.Execution execution) {
+        RoomService service = service(execution);
+        InMemoryAccountRepository accounts = new InMemoryAccountRepository();
+        InMemoryLeaderboard leaderboard = new InMemoryLeaderboard(10);
+        AccountService accountService = new AccountService(accounts, new InMemorySessionRepository(), leaderboard,
+                new InMemoryAccountHistory());
+        Account account = accounts.save(new Account("racer", new byte[0], new byte[0], 1)); // every racer's wins land here
+        Stress stress = new Stress("race (" + execution + "): end state");
+
+        int iterations = Stress.iterations(300);
+        int roomWins = 0;
+        SplittableRandom seeds = new SplittableRandom(7);
+        for (int it = 0; it < iterations; it++) {
+            Room room = service.createRoom();
+            List<Player> players = new ArrayList<>();
+            for (int i = 0; i < 4; i++) players.add(service.join(room.roomId(), "P" + i));
+            service.start(room.roomId(), room.hostToken());
+
+            AtomicInteger observedWins = new AtomicInteger();
+            AtomicInteger done = new AtomicInteger();
+            Runnable[] actors = new Runnable[players.size() + 1];
+            for (int i = 0; i < players.size(); i++) {
+                Player p = players.get(i);
+                SplittableRandom random = seeds.split();
+                boolean leaver = i == players.size() - 1;
+                actors[i] = () -> {
+                    try {
+                        for (int attempt = 0; attempt < PROPS.attempts(); attempt++) {
+                            if (leaver && attempt == 2) {
+                                service.leave(room.roomId(), p.id(), p.token());
+                                return;
+                            }
+                            List<Integer> digits = random.nextInt(6) == 0 ? SECRET : MISS;
+                            service.guess(room.roomId(), p.id(), p.token(), digits);
+                            // What the controller does after a guess with a session
+                            if (service.read(room, r -> Mappers.won(r, p.id()))) {
+                                observedWins.incrementAndGet();
+                                accountService.recordWin(account.id());
+                                return;
+                            }
+                            if (room.state() == RoomState.FINISHED) return;
+                        }
+                    } finally {
+                        done.incrementAndGet();
+                    }
+                };
+            }
+            actors[players.size()] = () -> {
+                RoomState lastState = RoomState.RUNNING;
+                long lastVersion = room.version();
+                while (done.get() < players.size()) {
+                    RoomState state = room.state();
+                    long version = room.version();
+                    assertTrue(state.ordinal() >= lastState.ordinal(), "state went back: " + lastState + " -> " + state);
+                    assertTrue(version >= lastVersion, "version went back");
+                    lastState = state;
+                    lastVersion = version;
+                    service.read(room, r -> {
+                        assertEquals(r.players().size(), r.inProgressCount() + r.wonCount() + r.lostCount());
+                        assertTrue(r.wonCount() <= 1, "at most one winner");
+                        return null;
+                    });
+                    serialize(service.read(room, Mappers::spectatorView));
+                    serialize(service.read(room, Mappers::leaderboardView));
+                }
+            };
+            Stress.race(actors);
+
+            int won = service.read(room, r -> {
+                assertEquals(RoomState.FINISHED, r.state(), "everyone won, lost or left: the room must be over");
+                assertEquals(4, r.players().size());
+                assertEquals(4, r.inProgressCount() + r.wonCount() + r.lostCount());
+                long winners = r.players().values().stream().filter(p -> p.status() == GameStatus.WON).count();
+                assertEquals(r.wonCount(), winners);
+                assertEquals(4, r.standings().size());
+                if (winners == 1) {
+                    Standing first = r.standings().iterator().next();
+                    assertEquals(GameStatus.WON, first.player().status(), "the winner leads the standings");
+                }
+                stress.outcome((winners == 1 ? "winner, " : "no winner, ") + r.lostCount() + " lost, "
+                        + r.inProgressCount() + " still playing");
+                return r.wonCount();
+            });
+            assertEquals(won, observedWins.get(), "every win is seen by exactly the player who made it");
+            roomWins += won;
+        }
+
+        assertEquals(roomWins, account.wins(), "no win lost between rooms and the account");
+        assertEquals(roomWins, leaderboard.getScore(account.id()));
+        stress.print();
+    }
+
+    private void serialize(RoomView view) {
+        try {
+            json.writeValueAsBytes(view);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String bucket(int players) {
+        return players < 10 ? " " + players : String.valueOf(players);
+    }
+}
@@ -0,0 +1,84 @@
+package com.nikoladesnica.mastermind.stress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A small jcstress-style harness: every iteration builds fresh state, releases a set of actors at the same
+ * instant so their operations interleave, then an arbiter checks the end state. Outcomes are tallied per
+ * iteration and printed like jcstress does, so rare interleavings show up as rare (but present) rows.
+ *
+ * Iterations default low enough for the regular build; raise them locally with {@code -Dstress.iterations=N}
+ * (or {@code -Dstress.scale=10} to multiply every suite's default).
+ */
+final class Stress {
+
+    private final String name;
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    Stress(String name) {
+        this.name = name;
+    }
+
+    static int iterations(int defaultIterations) {
+        Integer explicit = Integer.getInteger("stress.iterations");
+        return explicit != null ? explicit : defaultIterations * Integer.getInteger("stress.scale", 1);
+    }
+
+    /**
+     * Runs all actors on their own threads, started together. Rethrows the first failure (an actor's exception
+     * or an {@link AssertionError}) with the other actors' failures suppressed; fails if they do not finish in time.
+     */
+    static void race(Runnable... actors) {
+        CountDownLatch ready = new CountDownLatch(actors.length);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>(actors.length);
+        for (Runnable actor : actors) {
+            Thread t = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                    actor.run();
+                } catch (Throwable e) {
+                    if (!failure.compareAndSet(null, e)) failure.get().addSuppressed(e);
+                }
+            });
+            t.setDaemon(true);
+            threads.add(t);
+            t.start();
+        }
+        try {
+            ready.await();
+            go.countDown();
+            for (Thread t : threads) {
+                t.join(TimeUnit.SECONDS.toMillis(30));
+                if (t.isAlive()) throw new AssertionError("actor did not finish within 30s (deadlock?)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("interrupted", e);
+        }
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException r) throw r;
+        if (t instanceof Error e) throw e;
+        if (t != null) throw new AssertionError(t);
+    }
+
+    /** Counts one iteration's observed outcome (e.g. "winner, 2 lost, 1 playing"). */
+    void outcome(String outcome) {
+        outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+    }
+
+    void print() {
+        System.out.printf("%n%s%n", name);
+        new TreeMap<>(outcomes).forEach((k, v) -> System.out.printf("  %8d  %s%n", v.sum(), k));
+    }
+}